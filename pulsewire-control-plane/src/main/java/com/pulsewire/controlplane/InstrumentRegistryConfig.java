@@ -0,0 +1,34 @@
+package com.pulsewire.controlplane;
+
+import com.pulsewire.controlplane.entity.Instrument;
+import com.pulsewire.controlplane.repository.InstrumentRepository;
+import com.pulsewire.core.instrument.InstrumentRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Builds the {@link InstrumentRegistry} from the instrument table at startup.
+ * Loading in primary-key order keeps indexes stable across restarts as long as rows are only added.
+ */
+@Configuration
+public class InstrumentRegistryConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(InstrumentRegistryConfig.class);
+
+    @Value("${pulsewire.instruments.registry-capacity:65536}")
+    private int capacity;
+
+    @Bean
+    public InstrumentRegistry instrumentRegistry(InstrumentRepository repository) {
+        InstrumentRegistry registry = new InstrumentRegistry(capacity);
+        for (Instrument instrument : repository.findAll(Sort.by("id"))) {
+            registry.register(instrument.getInstrumentId());
+        }
+        log.info("Loaded {} instruments into the registry", registry.size());
+        return registry;
+    }
+}
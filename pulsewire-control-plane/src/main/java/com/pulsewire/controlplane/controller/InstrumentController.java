@@ -27,6 +27,11 @@ public class InstrumentController {
         return activeOnly ? service.findActive() : service.findAll();
     }
 
+    @GetMapping("/registry")
+    public List<String> registryIndex() {
+        return service.registryIndex();
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Instrument> findById(@PathVariable Long id) {
         return service.findById(id)
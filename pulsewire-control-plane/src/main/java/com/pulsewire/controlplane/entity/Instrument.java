@@ -1,5 +1,6 @@
 package com.pulsewire.controlplane.entity;
 
+import com.pulsewire.core.model.FixedPoint;
 import jakarta.persistence.*;
 import java.time.Instant;
 
@@ -76,6 +77,9 @@ public class Instrument {
     public Double getTickSize() { return tickSize; }
     public void setTickSize(Double tickSize) { this.tickSize = tickSize; }
 
+    /** Decimal scale of fixed-point prices for this instrument, derived from the tick size. */
+    public int getPriceScale() { return FixedPoint.scaleForTickSize(tickSize); }
+
     public String getIsin() { return isin; }
     public void setIsin(String isin) { this.isin = isin; }
 
@@ -2,6 +2,7 @@ package com.pulsewire.controlplane.service;
 
 import com.pulsewire.controlplane.entity.Instrument;
 import com.pulsewire.controlplane.repository.InstrumentRepository;
+import com.pulsewire.core.instrument.InstrumentRegistry;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -13,9 +14,11 @@ import java.util.Optional;
 public class InstrumentService {
 
     private final InstrumentRepository repository;
+    private final InstrumentRegistry registry;
 
-    public InstrumentService(InstrumentRepository repository) {
+    public InstrumentService(InstrumentRepository repository, InstrumentRegistry registry) {
         this.repository = repository;
+        this.registry = registry;
     }
 
     public List<Instrument> findAll() {
@@ -42,7 +45,16 @@ public class InstrumentService {
         if (repository.existsByInstrumentId(instrument.getInstrumentId())) {
             throw new IllegalArgumentException("Instrument already exists: " + instrument.getInstrumentId());
         }
-        return repository.save(instrument);
+        Instrument saved = repository.save(instrument);
+        registry.register(saved.getInstrumentId());
+        return saved;
+    }
+
+    /**
+     * Instrument ids in registry index order; position {@code i} is the id with index {@code i}.
+     */
+    public List<String> registryIndex() {
+        return registry.instrumentIds();
     }
 
     public Instrument update(Long id, Instrument updated) {
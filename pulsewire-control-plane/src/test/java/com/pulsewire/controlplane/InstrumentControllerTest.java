@@ -34,13 +34,15 @@ class InstrumentControllerTest {
         instrument.setInstrumentId("AAPL-NYSE");
         instrument.setSymbol("AAPL");
         instrument.setVenue("NYSE");
+        instrument.setTickSize(0.01);
 
         when(instrumentService.findAll()).thenReturn(List.of(instrument));
 
         mockMvc.perform(get("/api/instruments"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].instrumentId").value("AAPL-NYSE"))
-                .andExpect(jsonPath("$[0].symbol").value("AAPL"));
+                .andExpect(jsonPath("$[0].symbol").value("AAPL"))
+                .andExpect(jsonPath("$[0].priceScale").value(2));
     }
 
     @Test
@@ -88,4 +90,14 @@ class InstrumentControllerTest {
                 .andExpect(status().isCreated())
                 .andExpect(jsonPath("$.instrumentId").value("MSFT-NASDAQ"));
     }
+
+    @Test
+    void shouldReturnRegistryIndexInOrder() throws Exception {
+        when(instrumentService.registryIndex()).thenReturn(List.of("AAPL-NYSE", "GOOG-NASDAQ"));
+
+        mockMvc.perform(get("/api/instruments/registry"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0]").value("AAPL-NYSE"))
+                .andExpect(jsonPath("$[1]").value("GOOG-NASDAQ"));
+    }
 }
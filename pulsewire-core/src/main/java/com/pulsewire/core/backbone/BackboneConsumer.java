@@ -2,6 +2,7 @@ package com.pulsewire.core.backbone;
 
 import com.pulsewire.core.model.MarketEvent;
 
+import java.util.List;
 import java.util.function.Consumer;
 
 /**
@@ -17,6 +18,18 @@ public interface BackboneConsumer {
      */
     void subscribe(String topic, Consumer<MarketEvent> handler);
 
+    /**
+     * Subscribe to a topic and process events in batches, e.g. everything returned by one poll.
+     * Implementations should override this to deliver their natural batches; the default
+     * delivers singleton batches.
+     *
+     * @param topic    topic/stream name
+     * @param handler  callback for each non-empty batch, in publish order
+     */
+    default void subscribeBatch(String topic, Consumer<List<MarketEvent>> handler) {
+        subscribe(topic, event -> handler.accept(List.of(event)));
+    }
+
     /**
      * Unsubscribe from a topic.
      *
@@ -2,6 +2,8 @@ package com.pulsewire.core.backbone;
 
 import com.pulsewire.core.model.MarketEvent;
 
+import java.util.List;
+
 /**
  * Backbone publisher abstraction – implementations can be in-memory, Kafka, etc.
  */
@@ -15,4 +17,17 @@ public interface BackbonePublisher {
      * @param event  event to publish
      */
     void publish(String topic, String key, MarketEvent event);
+
+    /**
+     * Publish a batch of events to a topic. Implementations should override this to
+     * amortise per-event overhead; the default simply publishes one by one.
+     *
+     * @param topic   destination topic/stream name
+     * @param events  events with their partition keys, published in list order
+     */
+    default void publishBatch(String topic, List<KeyedEvent> events) {
+        for (KeyedEvent keyed : events) {
+            publish(topic, keyed.key(), keyed.event());
+        }
+    }
 }
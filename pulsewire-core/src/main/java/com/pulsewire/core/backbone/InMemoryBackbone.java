@@ -6,32 +6,182 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
 /**
  * Simple in-memory backbone for local development and testing.
+ *
+ * <p>By default handlers run synchronously on the publisher's thread. When constructed with
+ * a positive partition count, each topic gets that many worker threads and events are routed
+ * by key, preserving per-key order while handlers for different keys run in parallel.
  */
-public class InMemoryBackbone implements BackbonePublisher, BackboneConsumer {
+public class InMemoryBackbone implements BackbonePublisher, BackboneConsumer, AutoCloseable {
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 8192;
 
     private final Map<String, List<Consumer<MarketEvent>>> subscribers = new ConcurrentHashMap<>();
+    private final Map<String, List<Consumer<List<MarketEvent>>>> batchSubscribers = new ConcurrentHashMap<>();
+    private final Map<String, PartitionedDispatcher> dispatchers = new ConcurrentHashMap<>();
+    private final List<BiConsumer<String, Integer>> topicListeners = new CopyOnWriteArrayList<>();
+    private final int partitions;
+    private final int queueCapacity;
+
+    public InMemoryBackbone() {
+        this(0, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * @param partitions    worker partitions per topic; 0 dispatches synchronously on the publisher thread
+     * @param queueCapacity bounded queue size per partition
+     */
+    public InMemoryBackbone(int partitions, int queueCapacity) {
+        if (partitions < 0) {
+            throw new IllegalArgumentException("Partitions must be >= 0: " + partitions);
+        }
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("Queue capacity must be positive: " + queueCapacity);
+        }
+        this.partitions = partitions;
+        this.queueCapacity = queueCapacity;
+    }
 
     @Override
     public void publish(String topic, String key, MarketEvent event) {
+        if (partitions > 0) {
+            PartitionedDispatcher dispatcher = dispatchers.get(topic);
+            if (dispatcher != null) {
+                dispatcher.dispatch(key, event);
+            }
+            return;
+        }
+
         List<Consumer<MarketEvent>> handlers = subscribers.get(topic);
         if (handlers != null) {
             for (Consumer<MarketEvent> handler : handlers) {
                 handler.accept(event);
             }
         }
+        List<Consumer<List<MarketEvent>>> batchHandlers = batchSubscribers.get(topic);
+        if (batchHandlers != null && !batchHandlers.isEmpty()) {
+            List<MarketEvent> batch = List.of(event);
+            for (Consumer<List<MarketEvent>> handler : batchHandlers) {
+                handler.accept(batch);
+            }
+        }
+    }
+
+    @Override
+    public void publishBatch(String topic, List<KeyedEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        if (partitions > 0) {
+            PartitionedDispatcher dispatcher = dispatchers.get(topic);
+            if (dispatcher != null) {
+                dispatcher.dispatchBatch(events);
+            }
+            return;
+        }
+
+        List<Consumer<MarketEvent>> handlers = subscribers.get(topic);
+        if (handlers != null) {
+            for (Consumer<MarketEvent> handler : handlers) {
+                for (KeyedEvent keyed : events) {
+                    handler.accept(keyed.event());
+                }
+            }
+        }
+        List<Consumer<List<MarketEvent>>> batchHandlers = batchSubscribers.get(topic);
+        if (batchHandlers != null && !batchHandlers.isEmpty()) {
+            List<MarketEvent> batch = events.stream().map(KeyedEvent::event).toList();
+            for (Consumer<List<MarketEvent>> handler : batchHandlers) {
+                handler.accept(batch);
+            }
+        }
     }
 
     @Override
     public void subscribe(String topic, Consumer<MarketEvent> handler) {
         subscribers.computeIfAbsent(topic, t -> new CopyOnWriteArrayList<>()).add(handler);
+        ensureDispatcher(topic);
+    }
+
+    @Override
+    public void subscribeBatch(String topic, Consumer<List<MarketEvent>> handler) {
+        batchSubscribers.computeIfAbsent(topic, t -> new CopyOnWriteArrayList<>()).add(handler);
+        ensureDispatcher(topic);
+    }
+
+    private void ensureDispatcher(String topic) {
+        if (partitions > 0 && !dispatchers.containsKey(topic)) {
+            boolean[] created = {false};
+            dispatchers.computeIfAbsent(topic, t -> {
+                created[0] = true;
+                return new PartitionedDispatcher(t, partitions, queueCapacity,
+                        subscribers.computeIfAbsent(t, k -> new CopyOnWriteArrayList<>()),
+                        batchSubscribers.computeIfAbsent(t, k -> new CopyOnWriteArrayList<>()));
+            });
+            if (created[0]) {
+                for (BiConsumer<String, Integer> listener : topicListeners) {
+                    listener.accept(topic, partitions);
+                }
+            }
+        }
+    }
+
+    /**
+     * Call {@code listener} with the name and partition count of every partitioned topic: now for
+     * the topics already dispatching, then for each topic as it is first subscribed to. A topic
+     * created concurrently may be reported twice. Never called in synchronous mode.
+     */
+    public void addPartitionedTopicListener(BiConsumer<String, Integer> listener) {
+        topicListeners.add(listener);
+        for (String topic : dispatchers.keySet()) {
+            listener.accept(topic, partitions);
+        }
     }
 
     @Override
     public void unsubscribe(String topic) {
         subscribers.remove(topic);
+        batchSubscribers.remove(topic);
+        PartitionedDispatcher dispatcher = dispatchers.remove(topic);
+        if (dispatcher != null) {
+            dispatcher.shutdown();
+        }
+    }
+
+    /**
+     * @return number of partitions per topic, 0 when dispatching synchronously
+     */
+    public int getPartitions() {
+        return partitions;
+    }
+
+    /**
+     * Current queue depth of each partition of a topic.
+     *
+     * @param topic topic/stream name
+     * @return queued events per partition, empty when synchronous or the topic has no subscribers
+     */
+    public int[] getPartitionQueueDepths(String topic) {
+        PartitionedDispatcher dispatcher = dispatchers.get(topic);
+        return dispatcher != null ? dispatcher.queueDepths() : new int[0];
+    }
+
+    /**
+     * Current queue depth of one partition of a topic.
+     *
+     * @return queued events, 0 when the topic has no dispatcher
+     */
+    public int getPartitionQueueDepth(String topic, int partition) {
+        PartitionedDispatcher dispatcher = dispatchers.get(topic);
+        return dispatcher != null ? dispatcher.queueDepth(partition) : 0;
+    }
+
+    @Override
+    public void close() {
+        dispatchers.keySet().forEach(this::unsubscribe);
     }
 }
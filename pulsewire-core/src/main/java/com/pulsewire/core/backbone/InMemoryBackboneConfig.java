@@ -2,6 +2,7 @@ package com.pulsewire.core.backbone;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -15,6 +16,12 @@ import org.springframework.context.annotation.Primary;
 @ConditionalOnProperty(name = "pulsewire.backbone.type", havingValue = "inmemory", matchIfMissing = true)
 public class InMemoryBackboneConfig {
 
+    @Value("${pulsewire.backbone.inmemory.partitions:0}")
+    private int partitions;
+
+    @Value("${pulsewire.backbone.inmemory.queue-capacity:8192}")
+    private int queueCapacity;
+
     @Bean
     public ObjectMapper backboneObjectMapper() {
         ObjectMapper mapper = new ObjectMapper();
@@ -25,6 +32,6 @@ public class InMemoryBackboneConfig {
     @Bean
     @Primary
     public InMemoryBackbone inMemoryBackbone() {
-        return new InMemoryBackbone();
+        return new InMemoryBackbone(partitions, queueCapacity);
     }
 }
@@ -0,0 +1,19 @@
+package com.pulsewire.core.backbone;
+
+import com.pulsewire.core.model.MarketEvent;
+
+/**
+ * An event paired with its partition key, used for batch publishing.
+ *
+ * @param key   partition key (e.g., instrumentId)
+ * @param event event to publish
+ */
+public record KeyedEvent(String key, MarketEvent event) {
+
+    /**
+     * Key an event by its instrument ID, the default partition key across the backbone.
+     */
+    public static KeyedEvent byInstrument(MarketEvent event) {
+        return new KeyedEvent(event.instrumentId(), event);
+    }
+}
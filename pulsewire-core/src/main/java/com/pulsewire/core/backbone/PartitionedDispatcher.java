@@ -0,0 +1,143 @@
+package com.pulsewire.core.backbone;
+
+import com.pulsewire.core.model.MarketEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Consumer;
+
+/**
+ * Per-topic asynchronous dispatcher used by {@link InMemoryBackbone} in partitioned mode.
+ *
+ * <p>Events are routed to one of N partitions by key hash, and each partition is drained by
+ * a single worker thread. Events with the same key (instrumentId) therefore keep their
+ * publish order, while different instruments are handled in parallel. Partition queues are
+ * bounded: a full queue blocks the publisher instead of dropping events. Workers drain
+ * whatever has queued up in one go, which becomes the batch seen by batch handlers.
+ */
+final class PartitionedDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(PartitionedDispatcher.class);
+
+    private static final int MAX_DRAIN = 256;
+
+    private final String topic;
+    private final List<Consumer<MarketEvent>> handlers;
+    private final List<Consumer<List<MarketEvent>>> batchHandlers;
+    private final List<BlockingQueue<MarketEvent>> queues;
+    private final Thread[] workers;
+
+    PartitionedDispatcher(String topic, int partitions, int queueCapacity,
+                          List<Consumer<MarketEvent>> handlers,
+                          List<Consumer<List<MarketEvent>>> batchHandlers) {
+        this.topic = topic;
+        this.handlers = handlers;
+        this.batchHandlers = batchHandlers;
+        List<BlockingQueue<MarketEvent>> partitionQueues = new ArrayList<>(partitions);
+        this.workers = new Thread[partitions];
+        for (int i = 0; i < partitions; i++) {
+            BlockingQueue<MarketEvent> queue = new ArrayBlockingQueue<>(queueCapacity);
+            partitionQueues.add(queue);
+            Thread worker = new Thread(() -> drain(queue), "backbone-" + topic + "-p" + i);
+            worker.setDaemon(true);
+            workers[i] = worker;
+        }
+        this.queues = List.copyOf(partitionQueues);
+        for (Thread worker : workers) {
+            worker.start();
+        }
+    }
+
+    void dispatch(String key, MarketEvent event) {
+        try {
+            queues.get(partitionFor(key, queues.size())).put(event);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while dispatching event to topic {}", topic);
+        }
+    }
+
+    void dispatchBatch(List<KeyedEvent> events) {
+        for (KeyedEvent keyed : events) {
+            dispatch(keyed.key(), keyed.event());
+        }
+    }
+
+    /**
+     * @return current number of events queued for {@code partition}
+     */
+    int queueDepth(int partition) {
+        return queues.get(partition).size();
+    }
+
+    /**
+     * @return current number of queued events per partition
+     */
+    int[] queueDepths() {
+        int[] depths = new int[queues.size()];
+        for (int i = 0; i < depths.length; i++) {
+            depths[i] = queues.get(i).size();
+        }
+        return depths;
+    }
+
+    void shutdown() {
+        for (Thread worker : workers) {
+            worker.interrupt();
+        }
+    }
+
+    static int partitionFor(String key, int partitions) {
+        if (key == null) {
+            return 0;
+        }
+        int h = key.hashCode();
+        return Math.floorMod(h ^ (h >>> 16), partitions);
+    }
+
+    private void drain(BlockingQueue<MarketEvent> queue) {
+        List<MarketEvent> batch = new ArrayList<>(MAX_DRAIN);
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                batch.add(queue.take());
+                queue.drainTo(batch, MAX_DRAIN - 1);
+                deliver(batch);
+                if (batchHandlers.isEmpty()) {
+                    batch.clear();
+                } else {
+                    // Batch handlers may hold on to the list they were given
+                    batch = new ArrayList<>(MAX_DRAIN);
+                }
+            }
+        } catch (InterruptedException e) {
+            // Shutdown requested
+        }
+    }
+
+    private void deliver(List<MarketEvent> batch) {
+        for (Consumer<MarketEvent> handler : handlers) {
+            for (MarketEvent event : batch) {
+                try {
+                    handler.accept(event);
+                } catch (RuntimeException e) {
+                    log.error("Handler failed on topic {} for event {}", topic, event.eventId(), e);
+                }
+            }
+        }
+        if (!batchHandlers.isEmpty()) {
+            List<MarketEvent> view = Collections.unmodifiableList(batch);
+            for (Consumer<List<MarketEvent>> handler : batchHandlers) {
+                try {
+                    handler.accept(view);
+                } catch (RuntimeException e) {
+                    log.error("Batch handler failed on topic {} for {} events", topic, batch.size(), e);
+                }
+            }
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.pulsewire.core.backbone.BackboneConsumer;
 import com.pulsewire.core.backbone.BackbonePublisher;
+import com.pulsewire.core.codec.EventCodec;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
@@ -23,6 +24,9 @@ public class KafkaBackboneConfig {
     @Value("${pulsewire.kafka.consumer.group-id:pulsewire-consumers}")
     private String consumerGroupId;
 
+    @Value("${pulsewire.kafka.codec:binary}")
+    private String codec;
+
     @Bean
     public ObjectMapper kafkaObjectMapper() {
         ObjectMapper mapper = new ObjectMapper();
@@ -31,12 +35,17 @@ public class KafkaBackboneConfig {
     }
 
     @Bean
-    public BackbonePublisher kafkaBackbonePublisher(ObjectMapper kafkaObjectMapper) {
-        return new KafkaBackbonePublisher(bootstrapServers, kafkaObjectMapper);
+    public EventCodec kafkaEventCodec(ObjectMapper kafkaObjectMapper) {
+        return EventCodec.forName(codec, kafkaObjectMapper);
+    }
+
+    @Bean
+    public BackbonePublisher kafkaBackbonePublisher(EventCodec kafkaEventCodec) {
+        return new KafkaBackbonePublisher(bootstrapServers, kafkaEventCodec);
     }
 
     @Bean
-    public BackboneConsumer kafkaBackboneConsumer(ObjectMapper kafkaObjectMapper) {
-        return new KafkaBackboneConsumer(bootstrapServers, consumerGroupId, kafkaObjectMapper);
+    public BackboneConsumer kafkaBackboneConsumer(EventCodec kafkaEventCodec) {
+        return new KafkaBackboneConsumer(bootstrapServers, consumerGroupId, kafkaEventCodec);
     }
 }
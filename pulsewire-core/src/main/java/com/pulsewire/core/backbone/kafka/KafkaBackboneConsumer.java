@@ -2,16 +2,25 @@ package com.pulsewire.core.backbone.kafka;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.pulsewire.core.backbone.BackboneConsumer;
+import com.pulsewire.core.codec.BinaryEventCodec;
+import com.pulsewire.core.codec.EventCodec;
+import com.pulsewire.core.codec.JsonEventCodec;
 import com.pulsewire.core.model.MarketEvent;
+import com.pulsewire.core.model.MarketEventView;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.ByteBuffer;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.ConcurrentHashMap;
@@ -23,6 +32,7 @@ import java.util.function.Consumer;
 /**
  * Kafka-backed implementation of BackboneConsumer.
  * Consumes MarketEvents from Kafka topics and dispatches to registered handlers.
+ * Record values are decoded with the configured {@link EventCodec}.
  */
 public class KafkaBackboneConsumer implements BackboneConsumer, AutoCloseable {
 
@@ -30,34 +40,66 @@ public class KafkaBackboneConsumer implements BackboneConsumer, AutoCloseable {
 
     private final String bootstrapServers;
     private final String groupId;
-    private final ObjectMapper objectMapper;
+    private final EventCodec codec;
     private final Map<String, ConsumerThread> consumerThreads = new ConcurrentHashMap<>();
     private final ExecutorService executor;
     private final AtomicBoolean closed = new AtomicBoolean(false);
 
     public KafkaBackboneConsumer(String bootstrapServers, String groupId) {
-        this(bootstrapServers, groupId, new ObjectMapper());
+        this(bootstrapServers, groupId, new BinaryEventCodec());
     }
 
     public KafkaBackboneConsumer(String bootstrapServers, String groupId, ObjectMapper objectMapper) {
+        this(bootstrapServers, groupId, new JsonEventCodec(objectMapper));
+    }
+
+    public KafkaBackboneConsumer(String bootstrapServers, String groupId, EventCodec codec) {
         this.bootstrapServers = bootstrapServers;
         this.groupId = groupId;
-        this.objectMapper = objectMapper;
+        this.codec = codec;
         this.executor = Executors.newCachedThreadPool(r -> {
             Thread t = new Thread(r, "kafka-consumer");
             t.setDaemon(true);
             return t;
         });
-        log.info("KafkaBackboneConsumer initialized with bootstrap servers: {}, groupId: {}", bootstrapServers, groupId);
+        log.info("KafkaBackboneConsumer initialized with bootstrap servers: {}, groupId: {}, codec: {}",
+                bootstrapServers, groupId, codec.name());
     }
 
     @Override
     public void subscribe(String topic, Consumer<MarketEvent> handler) {
+        start(new ConsumerThread(topic, handler, null, null));
+    }
+
+    /**
+     * Delivers each poll's successfully decoded records as one batch.
+     */
+    @Override
+    public void subscribeBatch(String topic, Consumer<List<MarketEvent>> handler) {
+        start(new ConsumerThread(topic, null, handler, null));
+    }
+
+    /**
+     * Delivers each record as a {@link MarketEventView} over its value bytes, skipping decoding.
+     * The view is reused and only valid for the duration of the callback; the handler may stamp
+     * header fields in place and forward the bytes with {@link KafkaBackbonePublisher#publishView}.
+     *
+     * @throws IllegalStateException if this consumer is not configured with the binary codec
+     */
+    public void subscribeView(String topic, Consumer<MarketEventView> handler) {
+        if (!(codec instanceof BinaryEventCodec)) {
+            throw new IllegalStateException("Views require the binary codec, configured codec is " + codec.name());
+        }
+        start(new ConsumerThread(topic, null, null, handler));
+    }
+
+    private void start(ConsumerThread consumerThread) {
+        String topic = consumerThread.topic;
         if (closed.get()) {
             throw new IllegalStateException("Consumer is closed");
         }
 
-        ConsumerThread existing = consumerThreads.putIfAbsent(topic, new ConsumerThread(topic, handler));
+        ConsumerThread existing = consumerThreads.putIfAbsent(topic, consumerThread);
         if (existing == null) {
             executor.submit(consumerThreads.get(topic));
             log.info("Subscribed to topic: {}", topic);
@@ -88,12 +130,18 @@ public class KafkaBackboneConsumer implements BackboneConsumer, AutoCloseable {
     private class ConsumerThread implements Runnable {
         private final String topic;
         private final Consumer<MarketEvent> handler;
+        private final Consumer<List<MarketEvent>> batchHandler;
+        private final Consumer<MarketEventView> viewHandler;
+        private final MarketEventView view = new MarketEventView();
         private final AtomicBoolean running = new AtomicBoolean(true);
-        private KafkaConsumer<String, String> consumer;
+        private KafkaConsumer<String, byte[]> consumer;
 
-        ConsumerThread(String topic, Consumer<MarketEvent> handler) {
+        ConsumerThread(String topic, Consumer<MarketEvent> handler, Consumer<List<MarketEvent>> batchHandler,
+                       Consumer<MarketEventView> viewHandler) {
             this.topic = topic;
             this.handler = handler;
+            this.batchHandler = batchHandler;
+            this.viewHandler = viewHandler;
         }
 
         void stop() {
@@ -109,7 +157,7 @@ public class KafkaBackboneConsumer implements BackboneConsumer, AutoCloseable {
             props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
             props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
             props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class.getName());
-            props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class.getName());
+            props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class.getName());
             props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
             props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "true");
 
@@ -120,11 +168,18 @@ public class KafkaBackboneConsumer implements BackboneConsumer, AutoCloseable {
 
             try {
                 while (running.get()) {
-                    ConsumerRecords<String, String> records = consumer.poll(Duration.ofMillis(100));
+                    ConsumerRecords<String, byte[]> records = consumer.poll(Duration.ofMillis(100));
+                    if (batchHandler != null) {
+                        dispatchBatch(records);
+                        continue;
+                    }
                     records.forEach(record -> {
                         try {
-                            MarketEvent event = objectMapper.readValue(record.value(), MarketEvent.class);
-                            handler.accept(event);
+                            if (viewHandler != null) {
+                                viewHandler.accept(view.wrap(ByteBuffer.wrap(record.value()), 0));
+                            } else {
+                                handler.accept(codec.decode(record.value()));
+                            }
                         } catch (Exception e) {
                             log.error("Failed to process record from topic {} partition {} offset {}",
                                     record.topic(), record.partition(), record.offset(), e);
@@ -140,5 +195,28 @@ public class KafkaBackboneConsumer implements BackboneConsumer, AutoCloseable {
                 log.info("Consumer thread stopped for topic: {}", topic);
             }
         }
+
+        private void dispatchBatch(ConsumerRecords<String, byte[]> records) {
+            if (records.isEmpty()) {
+                return;
+            }
+            List<MarketEvent> batch = new ArrayList<>(records.count());
+            for (ConsumerRecord<String, byte[]> record : records) {
+                try {
+                    batch.add(codec.decode(record.value()));
+                } catch (Exception e) {
+                    log.error("Failed to decode record from topic {} partition {} offset {}",
+                            record.topic(), record.partition(), record.offset(), e);
+                }
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                batchHandler.accept(Collections.unmodifiableList(batch));
+            } catch (Exception e) {
+                log.error("Failed to process batch of {} records from topic {}", batch.size(), topic, e);
+            }
+        }
     }
 }
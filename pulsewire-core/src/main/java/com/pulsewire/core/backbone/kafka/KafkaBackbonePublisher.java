@@ -1,49 +1,64 @@
 package com.pulsewire.core.backbone.kafka;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.pulsewire.core.backbone.BackbonePublisher;
+import com.pulsewire.core.backbone.KeyedEvent;
+import com.pulsewire.core.codec.BinaryEventCodec;
+import com.pulsewire.core.codec.EventCodec;
+import com.pulsewire.core.codec.JsonEventCodec;
 import com.pulsewire.core.model.MarketEvent;
+import com.pulsewire.core.model.MarketEventView;
+import org.apache.kafka.clients.producer.Callback;
 import org.apache.kafka.clients.producer.KafkaProducer;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Kafka-backed implementation of BackbonePublisher.
  * Publishes MarketEvents to Kafka topics using the instrument ID as partition key.
+ * Record values are produced by the configured {@link EventCodec}.
  */
 public class KafkaBackbonePublisher implements BackbonePublisher, AutoCloseable {
 
     private static final Logger log = LoggerFactory.getLogger(KafkaBackbonePublisher.class);
 
-    private final KafkaProducer<String, String> producer;
-    private final ObjectMapper objectMapper;
+    private final KafkaProducer<String, byte[]> producer;
+    private final EventCodec codec;
     private final AtomicBoolean closed = new AtomicBoolean(false);
 
     public KafkaBackbonePublisher(String bootstrapServers) {
-        this(bootstrapServers, new ObjectMapper());
+        this(bootstrapServers, new BinaryEventCodec());
     }
 
     public KafkaBackbonePublisher(String bootstrapServers, ObjectMapper objectMapper) {
-        this.objectMapper = objectMapper;
+        this(bootstrapServers, new JsonEventCodec(objectMapper));
+    }
+
+    public KafkaBackbonePublisher(String bootstrapServers, EventCodec codec) {
+        this.codec = codec;
 
         Properties props = new Properties();
         props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class.getName());
-        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class.getName());
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class.getName());
         props.put(ProducerConfig.ACKS_CONFIG, "all");
         props.put(ProducerConfig.RETRIES_CONFIG, 3);
         props.put(ProducerConfig.LINGER_MS_CONFIG, 1);
         props.put(ProducerConfig.BATCH_SIZE_CONFIG, 16384);
 
         this.producer = new KafkaProducer<>(props);
-        log.info("KafkaBackbonePublisher initialized with bootstrap servers: {}", bootstrapServers);
+        log.info("KafkaBackbonePublisher initialized with bootstrap servers: {}, codec: {}",
+                bootstrapServers, codec.name());
     }
 
     @Override
@@ -53,8 +68,8 @@ public class KafkaBackbonePublisher implements BackbonePublisher, AutoCloseable
         }
 
         try {
-            String value = objectMapper.writeValueAsString(event);
-            ProducerRecord<String, String> record = new ProducerRecord<>(topic, key, value);
+            byte[] value = codec.encode(event);
+            ProducerRecord<String, byte[]> record = new ProducerRecord<>(topic, key, value);
 
             producer.send(record, (metadata, exception) -> {
                 if (exception != null) {
@@ -64,12 +79,77 @@ public class KafkaBackbonePublisher implements BackbonePublisher, AutoCloseable
                             metadata.topic(), metadata.partition(), metadata.offset());
                 }
             });
-        } catch (JsonProcessingException e) {
+        } catch (IllegalArgumentException e) {
             log.error("Failed to serialize event for topic {} with key {}", topic, key, e);
             throw new RuntimeException("Serialization failed", e);
         }
     }
 
+    /**
+     * Serializes the whole batch up front, so a bad event fails the batch before anything is sent,
+     * then hands all records to the producer with one shared completion callback.
+     */
+    @Override
+    public void publishBatch(String topic, List<KeyedEvent> events) {
+        if (closed.get()) {
+            throw new IllegalStateException("Publisher is closed");
+        }
+        if (events.isEmpty()) {
+            return;
+        }
+
+        List<ProducerRecord<String, byte[]>> records = new ArrayList<>(events.size());
+        try {
+            for (KeyedEvent keyed : events) {
+                records.add(new ProducerRecord<>(topic, keyed.key(), codec.encode(keyed.event())));
+            }
+        } catch (IllegalArgumentException e) {
+            log.error("Failed to serialize batch of {} events for topic {}", events.size(), topic, e);
+            throw new RuntimeException("Serialization failed", e);
+        }
+
+        Callback callback = (metadata, exception) -> {
+            if (exception != null) {
+                log.error("Failed to publish batch event to topic {}", topic, exception);
+            }
+        };
+        for (ProducerRecord<String, byte[]> record : records) {
+            producer.send(record, callback);
+        }
+        log.debug("Published batch of {} events to topic {}", records.size(), topic);
+    }
+
+    /**
+     * Publish an already-encoded binary event, e.g. one received through
+     * {@link KafkaBackboneConsumer#subscribeView} and stamped in place, without re-encoding.
+     * The bytes are sent as-is when the view spans a whole heap array, otherwise they are copied.
+     *
+     * @throws IllegalStateException if this publisher is not configured with the binary codec
+     */
+    public void publishView(String topic, String key, MarketEventView view) {
+        if (closed.get()) {
+            throw new IllegalStateException("Publisher is closed");
+        }
+        if (!(codec instanceof BinaryEventCodec)) {
+            throw new IllegalStateException("Views require the binary codec, configured codec is " + codec.name());
+        }
+
+        ByteBuffer buffer = view.buffer();
+        int length = view.length();
+        byte[] value;
+        if (buffer.hasArray() && buffer.arrayOffset() + view.offset() == 0 && buffer.array().length == length) {
+            value = buffer.array();
+        } else {
+            value = new byte[length];
+            buffer.get(view.offset(), value);
+        }
+        producer.send(new ProducerRecord<>(topic, key, value), (metadata, exception) -> {
+            if (exception != null) {
+                log.error("Failed to publish event to topic {} with key {}", topic, key, exception);
+            }
+        });
+    }
+
     /**
      * Flush pending messages to Kafka.
      */
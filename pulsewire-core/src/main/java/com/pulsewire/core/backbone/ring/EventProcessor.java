@@ -0,0 +1,97 @@
+package com.pulsewire.core.backbone.ring;
+
+import com.pulsewire.core.model.MarketEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Consumer loop for one subscriber: owns an independent cursor into the ring,
+ * waits on its {@link SequenceBarrier} and hands every published event to the handler
+ * on its own thread, so one slow subscriber never stalls the publisher's call stack.
+ * Batch subscribers receive everything that became available in one wait as a single list.
+ */
+final class EventProcessor implements Runnable {
+
+    private static final Logger log = LoggerFactory.getLogger(EventProcessor.class);
+
+    private final String topic;
+    private final RingBuffer ringBuffer;
+    private final SequenceBarrier barrier;
+    private final Consumer<MarketEvent> handler;
+    private final Consumer<List<MarketEvent>> batchHandler;
+    private final Sequence sequence = new Sequence(Sequence.INITIAL_VALUE);
+    private volatile boolean running = true;
+
+    private EventProcessor(String topic, RingBuffer ringBuffer, WaitStrategy waitStrategy,
+                           Consumer<MarketEvent> handler, Consumer<List<MarketEvent>> batchHandler) {
+        this.topic = topic;
+        this.ringBuffer = ringBuffer;
+        this.barrier = new SequenceBarrier(ringBuffer, waitStrategy);
+        this.handler = handler;
+        this.batchHandler = batchHandler;
+    }
+
+    static EventProcessor forEvents(String topic, RingBuffer ringBuffer, WaitStrategy waitStrategy,
+                                    Consumer<MarketEvent> handler) {
+        return new EventProcessor(topic, ringBuffer, waitStrategy, handler, null);
+    }
+
+    static EventProcessor forBatches(String topic, RingBuffer ringBuffer, WaitStrategy waitStrategy,
+                                     Consumer<List<MarketEvent>> batchHandler) {
+        return new EventProcessor(topic, ringBuffer, waitStrategy, null, batchHandler);
+    }
+
+    Sequence sequence() {
+        return sequence;
+    }
+
+    void halt() {
+        running = false;
+        barrier.alert();
+    }
+
+    @Override
+    public void run() {
+        long nextSequence = sequence.get() + 1;
+        while (true) {
+            try {
+                long availableSequence = barrier.waitFor(nextSequence);
+                if (batchHandler != null) {
+                    List<MarketEvent> batch = new ArrayList<>((int) (availableSequence - nextSequence + 1));
+                    for (long s = nextSequence; s <= availableSequence; s++) {
+                        batch.add(ringBuffer.get(s));
+                    }
+                    // Advance before the callback so a failing batch is skipped as a whole
+                    nextSequence = availableSequence + 1;
+                    batchHandler.accept(Collections.unmodifiableList(batch));
+                } else {
+                    while (nextSequence <= availableSequence) {
+                        handler.accept(ringBuffer.get(nextSequence));
+                        nextSequence++;
+                    }
+                }
+                sequence.set(availableSequence);
+            } catch (SequenceBarrier.AlertException e) {
+                if (!running) {
+                    break;
+                }
+            } catch (RuntimeException e) {
+                if (batchHandler != null) {
+                    log.error("Batch handler failed on topic {} before sequence {}", topic, nextSequence, e);
+                    sequence.set(nextSequence - 1);
+                } else {
+                    // Skip the poisoned event so the subscriber keeps making progress
+                    log.error("Handler failed on topic {} at sequence {}", topic, nextSequence, e);
+                    sequence.set(nextSequence);
+                    nextSequence++;
+                }
+            }
+        }
+        ringBuffer.removeGatingSequence(sequence);
+    }
+}
@@ -0,0 +1,159 @@
+package com.pulsewire.core.backbone.ring;
+
+import com.pulsewire.core.backbone.KeyedEvent;
+import com.pulsewire.core.model.MarketEvent;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Preallocated, power-of-two sized multi-producer ring buffer of {@link MarketEvent} references.
+ *
+ * <p>Producers claim slots by CAS on the cursor and mark them available once written.
+ * Each consumer owns an independent gating {@link Sequence}; producers never overwrite a
+ * slot until every gating sequence has moved past it, so a slow consumer applies
+ * backpressure instead of losing events.
+ */
+final class RingBuffer {
+
+    private static final VarHandle AVAILABLE = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private final MarketEvent[] entries;
+    private final int[] availableBuffer;
+    private final int bufferSize;
+    private final int indexMask;
+    private final int indexShift;
+
+    private final Sequence cursor = new Sequence(Sequence.INITIAL_VALUE);
+    private final Sequence gatingSequenceCache = new Sequence(Sequence.INITIAL_VALUE);
+    private volatile Sequence[] gatingSequences = new Sequence[0];
+
+    RingBuffer(int bufferSize) {
+        if (bufferSize < 1 || Integer.bitCount(bufferSize) != 1) {
+            throw new IllegalArgumentException("Buffer size must be a positive power of two: " + bufferSize);
+        }
+        this.bufferSize = bufferSize;
+        this.indexMask = bufferSize - 1;
+        this.indexShift = Integer.numberOfTrailingZeros(bufferSize);
+        this.entries = new MarketEvent[bufferSize];
+        this.availableBuffer = new int[bufferSize];
+        Arrays.fill(availableBuffer, -1);
+    }
+
+    int bufferSize() {
+        return bufferSize;
+    }
+
+    Sequence cursor() {
+        return cursor;
+    }
+
+    /**
+     * Claim, write and publish a single event.
+     */
+    void publish(MarketEvent event) {
+        long sequence = next(1);
+        entries[(int) sequence & indexMask] = event;
+        setAvailable(sequence);
+    }
+
+    /**
+     * Claim, write and publish a run of events with a single cursor update per ring-full.
+     */
+    void publish(List<KeyedEvent> events) {
+        int offset = 0;
+        int remaining = events.size();
+        while (remaining > 0) {
+            int n = Math.min(remaining, bufferSize);
+            long hi = next(n);
+            long lo = hi - n + 1;
+            for (long sequence = lo; sequence <= hi; sequence++) {
+                entries[(int) sequence & indexMask] = events.get(offset++).event();
+            }
+            for (long sequence = lo; sequence <= hi; sequence++) {
+                setAvailable(sequence);
+            }
+            remaining -= n;
+        }
+    }
+
+    MarketEvent get(long sequence) {
+        return entries[(int) sequence & indexMask];
+    }
+
+    /**
+     * Claim the next {@code n} sequences, waiting while the ring is full.
+     *
+     * @return the highest claimed sequence
+     */
+    long next(int n) {
+        if (n < 1 || n > bufferSize) {
+            throw new IllegalArgumentException("n must be > 0 and <= bufferSize: " + n);
+        }
+        while (true) {
+            long current = cursor.get();
+            long next = current + n;
+            long wrapPoint = next - bufferSize;
+            long cachedGatingSequence = gatingSequenceCache.get();
+
+            if (wrapPoint > cachedGatingSequence || cachedGatingSequence > current) {
+                long gatingSequence = minimumGatingSequence(current);
+                if (wrapPoint > gatingSequence) {
+                    LockSupport.parkNanos(1);
+                    continue;
+                }
+                gatingSequenceCache.set(gatingSequence);
+            } else if (cursor.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+
+    void setAvailable(long sequence) {
+        AVAILABLE.setRelease(availableBuffer, (int) sequence & indexMask, (int) (sequence >>> indexShift));
+    }
+
+    boolean isAvailable(long sequence) {
+        int flag = (int) (sequence >>> indexShift);
+        return (int) AVAILABLE.getAcquire(availableBuffer, (int) sequence & indexMask) == flag;
+    }
+
+    /**
+     * Highest contiguous published sequence in {@code [lowerBound, availableSequence]},
+     * or {@code lowerBound - 1} if {@code lowerBound} itself is still being written.
+     */
+    long highestPublishedSequence(long lowerBound, long availableSequence) {
+        for (long sequence = lowerBound; sequence <= availableSequence; sequence++) {
+            if (!isAvailable(sequence)) {
+                return sequence - 1;
+            }
+        }
+        return availableSequence;
+    }
+
+    synchronized void addGatingSequence(Sequence sequence) {
+        Sequence[] updated = Arrays.copyOf(gatingSequences, gatingSequences.length + 1);
+        updated[updated.length - 1] = sequence;
+        gatingSequences = updated;
+        // Start the consumer at the current cursor so it only sees events published from now on;
+        // read after the sequence gates producers, so none can wrap past it in between
+        sequence.set(cursor.get());
+    }
+
+    synchronized void removeGatingSequence(Sequence sequence) {
+        gatingSequences = Arrays.stream(gatingSequences)
+                .filter(s -> s != sequence)
+                .toArray(Sequence[]::new);
+    }
+
+    private long minimumGatingSequence(long defaultValue) {
+        long minimum = defaultValue;
+        for (Sequence sequence : gatingSequences) {
+            minimum = Math.min(minimum, sequence.get());
+        }
+        return minimum;
+    }
+}
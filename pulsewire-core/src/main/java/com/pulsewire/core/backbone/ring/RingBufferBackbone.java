@@ -0,0 +1,116 @@
+package com.pulsewire.core.backbone.ring;
+
+import com.pulsewire.core.backbone.BackboneConsumer;
+import com.pulsewire.core.backbone.BackbonePublisher;
+import com.pulsewire.core.backbone.KeyedEvent;
+import com.pulsewire.core.model.MarketEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Disruptor-style in-process backbone.
+ *
+ * <p>Each topic is backed by a preallocated power-of-two {@link RingBuffer}. Every subscriber
+ * runs on its own thread with an independent cursor, so publishers only pay for a slot claim
+ * and never execute subscriber code. When the slowest subscriber falls a full ring behind,
+ * publishers wait for it to catch up rather than dropping events.
+ */
+public class RingBufferBackbone implements BackbonePublisher, BackboneConsumer, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(RingBufferBackbone.class);
+
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+    private final int bufferSize;
+    private final WaitStrategy waitStrategy;
+    private final Map<String, Topic> topics = new ConcurrentHashMap<>();
+    private final AtomicInteger threadCounter = new AtomicInteger();
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+
+    public RingBufferBackbone() {
+        this(DEFAULT_BUFFER_SIZE, WaitStrategy.YIELD);
+    }
+
+    public RingBufferBackbone(int bufferSize, WaitStrategy waitStrategy) {
+        if (bufferSize < 1 || Integer.bitCount(bufferSize) != 1) {
+            throw new IllegalArgumentException("Buffer size must be a positive power of two: " + bufferSize);
+        }
+        this.bufferSize = bufferSize;
+        this.waitStrategy = waitStrategy;
+        log.info("RingBufferBackbone initialized with bufferSize: {}, waitStrategy: {}", bufferSize, waitStrategy);
+    }
+
+    @Override
+    public void publish(String topic, String key, MarketEvent event) {
+        Topic t = topics.get(topic);
+        if (t != null) {
+            t.ringBuffer.publish(event);
+        }
+    }
+
+    @Override
+    public void publishBatch(String topic, List<KeyedEvent> events) {
+        Topic t = topics.get(topic);
+        if (t != null && !events.isEmpty()) {
+            t.ringBuffer.publish(events);
+        }
+    }
+
+    @Override
+    public void subscribe(String topic, Consumer<MarketEvent> handler) {
+        start(topic, ringBuffer -> EventProcessor.forEvents(topic, ringBuffer, waitStrategy, handler));
+    }
+
+    @Override
+    public void subscribeBatch(String topic, Consumer<List<MarketEvent>> handler) {
+        start(topic, ringBuffer -> EventProcessor.forBatches(topic, ringBuffer, waitStrategy, handler));
+    }
+
+    private void start(String topic, Function<RingBuffer, EventProcessor> processorFactory) {
+        if (closed.get()) {
+            throw new IllegalStateException("Backbone is closed");
+        }
+
+        Topic t = topics.computeIfAbsent(topic, name -> new Topic(new RingBuffer(bufferSize)));
+        EventProcessor processor = processorFactory.apply(t.ringBuffer);
+        t.ringBuffer.addGatingSequence(processor.sequence());
+        t.processors.add(processor);
+
+        Thread thread = new Thread(processor, "ring-" + topic + "-" + threadCounter.incrementAndGet());
+        thread.setDaemon(true);
+        thread.start();
+        log.info("Subscribed to topic: {}", topic);
+    }
+
+    @Override
+    public void unsubscribe(String topic) {
+        Topic t = topics.remove(topic);
+        if (t != null) {
+            t.processors.forEach(EventProcessor::halt);
+            log.info("Unsubscribed from topic: {}", topic);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            topics.keySet().forEach(this::unsubscribe);
+            log.info("RingBufferBackbone closed");
+        }
+    }
+
+    private record Topic(RingBuffer ringBuffer, List<EventProcessor> processors) {
+        Topic(RingBuffer ringBuffer) {
+            this(ringBuffer, new CopyOnWriteArrayList<>());
+        }
+    }
+}
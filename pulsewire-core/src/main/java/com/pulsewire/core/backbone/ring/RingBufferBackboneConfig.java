@@ -0,0 +1,37 @@
+package com.pulsewire.core.backbone.ring;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+/**
+ * Spring configuration for the ring buffer backbone.
+ * Activated when 'pulsewire.backbone.type=ring' is set.
+ */
+@Configuration
+@ConditionalOnProperty(name = "pulsewire.backbone.type", havingValue = "ring")
+public class RingBufferBackboneConfig {
+
+    @Value("${pulsewire.backbone.ring.buffer-size:65536}")
+    private int bufferSize;
+
+    @Value("${pulsewire.backbone.ring.wait-strategy:yield}")
+    private String waitStrategy;
+
+    @Bean
+    public ObjectMapper ringObjectMapper() {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+        return mapper;
+    }
+
+    @Bean
+    @Primary
+    public RingBufferBackbone ringBufferBackbone() {
+        return new RingBufferBackbone(bufferSize, WaitStrategy.fromName(waitStrategy));
+    }
+}
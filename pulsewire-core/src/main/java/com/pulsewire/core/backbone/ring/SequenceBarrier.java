@@ -0,0 +1,58 @@
+package com.pulsewire.core.backbone.ring;
+
+/**
+ * Coordinates a single consumer with the ring buffer cursor: blocks (according to the
+ * configured {@link WaitStrategy}) until the requested sequence is published, and can be
+ * alerted to break the consumer out of its wait loop on shutdown.
+ */
+final class SequenceBarrier {
+
+    private final RingBuffer ringBuffer;
+    private final WaitStrategy waitStrategy;
+    private volatile boolean alerted;
+
+    SequenceBarrier(RingBuffer ringBuffer, WaitStrategy waitStrategy) {
+        this.ringBuffer = ringBuffer;
+        this.waitStrategy = waitStrategy;
+    }
+
+    /**
+     * Wait for {@code sequence} to become available.
+     *
+     * @return the highest contiguous published sequence, always {@code >= sequence}
+     * @throws AlertException if the barrier was alerted while waiting
+     */
+    long waitFor(long sequence) throws AlertException {
+        int counter = 0;
+        while (true) {
+            if (alerted) {
+                throw AlertException.INSTANCE;
+            }
+            long cursorValue = ringBuffer.cursor().get();
+            if (cursorValue >= sequence) {
+                long published = ringBuffer.highestPublishedSequence(sequence, cursorValue);
+                if (published >= sequence) {
+                    return published;
+                }
+            }
+            counter = waitStrategy.idle(counter);
+        }
+    }
+
+    void alert() {
+        alerted = true;
+    }
+
+    /**
+     * Thrown to unwind a waiting consumer. Stackless singleton: it is control flow, not an error.
+     */
+    static final class AlertException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        static final AlertException INSTANCE = new AlertException();
+
+        private AlertException() {
+            super("Sequence barrier alerted", null, false, false);
+        }
+    }
+}
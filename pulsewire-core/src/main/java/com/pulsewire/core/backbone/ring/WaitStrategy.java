@@ -0,0 +1,76 @@
+package com.pulsewire.core.backbone.ring;
+
+import java.util.Locale;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Strategy used by ring buffer consumers while waiting for the producer cursor
+ * to advance. Trades latency against CPU usage:
+ * <ul>
+ *   <li>{@link #BUSY_SPIN} – lowest latency, burns a full core per consumer</li>
+ *   <li>{@link #YIELD} – spins briefly then yields; good default on dedicated hosts</li>
+ *   <li>{@link #PARK} – spins, yields, then parks; friendliest to shared hosts</li>
+ * </ul>
+ */
+public enum WaitStrategy {
+
+    BUSY_SPIN {
+        @Override
+        int idle(int counter) {
+            Thread.onSpinWait();
+            return counter;
+        }
+    },
+
+    YIELD {
+        @Override
+        int idle(int counter) {
+            if (counter < SPIN_TRIES) {
+                Thread.onSpinWait();
+                return counter + 1;
+            }
+            Thread.yield();
+            return counter;
+        }
+    },
+
+    PARK {
+        @Override
+        int idle(int counter) {
+            if (counter < SPIN_TRIES) {
+                Thread.onSpinWait();
+            } else if (counter < SPIN_TRIES + YIELD_TRIES) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(PARK_NANOS);
+                return counter;
+            }
+            return counter + 1;
+        }
+    };
+
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 100;
+    private static final long PARK_NANOS = 1_000L;
+
+    /**
+     * Back off once while waiting.
+     *
+     * @param counter the value returned by the previous call (0 on first call)
+     * @return the counter to pass to the next call
+     */
+    abstract int idle(int counter);
+
+    /**
+     * Resolve a strategy from its configuration name
+     * ({@code busy-spin}, {@code yield} or {@code park}).
+     */
+    public static WaitStrategy fromName(String name) {
+        return switch (name.trim().toLowerCase(Locale.ROOT)) {
+            case "busy-spin", "busy_spin", "spin" -> BUSY_SPIN;
+            case "yield", "yielding" -> YIELD;
+            case "park", "parking" -> PARK;
+            default -> throw new IllegalArgumentException("Unknown wait strategy: " + name);
+        };
+    }
+}
@@ -0,0 +1,291 @@
+package com.pulsewire.core.codec;
+
+import com.pulsewire.core.model.FixedQuote;
+import com.pulsewire.core.model.FixedTrade;
+import com.pulsewire.core.model.MarketEvent;
+import com.pulsewire.core.model.MarketEventView;
+import com.pulsewire.core.model.Quote;
+import com.pulsewire.core.model.Trade;
+
+import java.math.BigDecimal;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Compact fixed-layout little-endian encoding of {@link MarketEvent}.
+ *
+ * <p>The header layout is defined by {@link MarketEventView}, which can read and stamp an encoded
+ * event in place. Payload types are {@code 0} none, {@code 1} Trade, {@code 2} Quote,
+ * {@code 3} FixedTrade and {@code 4} FixedQuote. Decimals are written as an 8-byte unscaled value
+ * plus a 1-byte scale ({@code -128} = null). Fixed-point payloads write their mantissas as 8-byte
+ * longs followed by a 1-byte price scale and a 1-byte size scale. The format version byte gates
+ * decoding; {@code schemaVersion} is carried verbatim so consumers can branch on the canonical schema.
+ */
+public class BinaryEventCodec implements EventCodec {
+
+    public static final String NAME = "binary";
+
+    public static final int FORMAT_VERSION = 3;
+    public static final int HEADER_SIZE = MarketEventView.HEADER_SIZE;
+
+    public static final int PAYLOAD_NONE = 0;
+    public static final int PAYLOAD_TRADE = 1;
+    public static final int PAYLOAD_QUOTE = 2;
+    public static final int PAYLOAD_FIXED_TRADE = 3;
+    public static final int PAYLOAD_FIXED_QUOTE = 4;
+
+    private static final int NULL_LENGTH = MarketEventView.NULL_LENGTH;
+    private static final int MAX_U16 = 0xFFFF;
+    private static final byte NULL_SCALE = Byte.MIN_VALUE;
+    private static final int DECIMAL_SIZE = 9;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public byte[] encode(MarketEvent event) {
+        Parts parts = Parts.of(event);
+        byte[] bytes = new byte[parts.size()];
+        write(event, parts, ByteBuffer.wrap(bytes), 0);
+        return bytes;
+    }
+
+    /**
+     * Encode an event at the target's position, which is advanced past it. Works for heap and
+     * direct buffers regardless of their byte order.
+     *
+     * @return number of bytes written
+     * @throws BufferOverflowException if the event does not fit in the remaining space
+     * @throws IllegalArgumentException if a length or {@code schemaVersion} does not fit its 16-bit field
+     */
+    public int encode(MarketEvent event, ByteBuffer target) {
+        Parts parts = Parts.of(event);
+        int size = parts.size();
+        if (target.remaining() < size) {
+            throw new BufferOverflowException();
+        }
+        write(event, parts, target, target.position());
+        target.position(target.position() + size);
+        return size;
+    }
+
+    @Override
+    public MarketEvent decode(byte[] bytes) {
+        if (bytes == null || bytes.length < HEADER_SIZE) {
+            throw new IllegalArgumentException("Truncated event: " + (bytes == null ? 0 : bytes.length) + " bytes");
+        }
+        return decode(new MarketEventView().wrap(ByteBuffer.wrap(bytes), 0));
+    }
+
+    /**
+     * Materialize the event a view points at.
+     *
+     * @throws IllegalArgumentException if the bytes are not a valid encoding
+     */
+    public MarketEvent decode(MarketEventView view) {
+        int formatVersion = view.formatVersion();
+        if (formatVersion != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported binary event format version: " + formatVersion);
+        }
+        ByteBuffer buffer = view.buffer();
+        try {
+            if (view.payloadOffset() + view.payloadLength() > buffer.limit()) {
+                throw new BufferUnderflowException();
+            }
+            // Read the raw string field; a numeric-only event keeps a null string id
+            String eventId = view.eventIdLength() == NULL_LENGTH ? null : view.eventId();
+            String instrumentId = view.instrumentId();
+            ByteBuffer payload = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+            payload.limit(view.payloadOffset() + view.payloadLength()).position(view.payloadOffset());
+            return new MarketEvent(eventId, instrumentId, view.eventType(),
+                    view.exchangeTimestampNanos(),
+                    view.receiveTimestampNanos(),
+                    view.publishTimestampNanos(),
+                    view.schemaVersion(),
+                    readPayload(view.payloadType(), payload),
+                    view.numericId(),
+                    view.instrumentIndex());
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Truncated event at offset " + view.offset(), e);
+        }
+    }
+
+    private static void write(MarketEvent event, Parts parts, ByteBuffer target, int offset) {
+        new MarketEventView().wrap(target, offset)
+                .formatVersion(FORMAT_VERSION)
+                .eventType(event.eventType())
+                .payloadType(parts.payloadType())
+                .schemaVersion(event.schemaVersion())
+                .lengths(lengthField(parts.eventId()), lengthField(parts.instrumentId()), parts.payloadLength())
+                .instrumentIndex(event.instrumentIndex())
+                .exchangeTimestampNanos(event.exchangeTimestampNanos())
+                .receiveTimestampNanos(event.receiveTimestampNanos())
+                .publishTimestampNanos(event.publishTimestampNanos())
+                .numericId(event.numericId());
+        // Zero the reserved byte, the target may be a reused buffer
+        target.put(offset + 3, (byte) 0);
+
+        ByteBuffer buffer = target.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        buffer.position(offset + HEADER_SIZE);
+        putBytes(buffer, parts.eventId());
+        putBytes(buffer, parts.instrumentId());
+
+        Object payload = event.payload();
+        if (payload instanceof Trade trade) {
+            putDecimal(buffer, trade.price());
+            putDecimal(buffer, trade.size());
+            buffer.putShort((short) lengthField(parts.conditions()));
+            putBytes(buffer, parts.conditions());
+        } else if (payload instanceof Quote quote) {
+            putDecimal(buffer, quote.bidPrice());
+            putDecimal(buffer, quote.bidSize());
+            putDecimal(buffer, quote.askPrice());
+            putDecimal(buffer, quote.askSize());
+        } else if (payload instanceof FixedTrade trade) {
+            buffer.putLong(trade.price());
+            buffer.putLong(trade.size());
+            putScales(buffer, trade.priceScale(), trade.sizeScale());
+            buffer.putShort((short) lengthField(parts.conditions()));
+            putBytes(buffer, parts.conditions());
+        } else if (payload instanceof FixedQuote quote) {
+            buffer.putLong(quote.bidPrice());
+            buffer.putLong(quote.bidSize());
+            buffer.putLong(quote.askPrice());
+            buffer.putLong(quote.askSize());
+            putScales(buffer, quote.priceScale(), quote.sizeScale());
+        }
+    }
+
+    private static Object readPayload(int payloadType, ByteBuffer buffer) {
+        return switch (payloadType) {
+            case PAYLOAD_NONE -> null;
+            case PAYLOAD_TRADE -> new Trade(getDecimal(buffer), getDecimal(buffer),
+                    getString(buffer, buffer.getShort() & 0xFFFF));
+            case PAYLOAD_QUOTE -> new Quote(getDecimal(buffer), getDecimal(buffer),
+                    getDecimal(buffer), getDecimal(buffer));
+            case PAYLOAD_FIXED_TRADE -> new FixedTrade(buffer.getLong(), buffer.getLong(),
+                    buffer.get(), buffer.get(), getString(buffer, buffer.getShort() & 0xFFFF));
+            case PAYLOAD_FIXED_QUOTE -> new FixedQuote(buffer.getLong(), buffer.getLong(),
+                    buffer.getLong(), buffer.getLong(), buffer.get(), buffer.get());
+            default -> throw new IllegalArgumentException("Unknown payload type: " + payloadType);
+        };
+    }
+
+    private static void putDecimal(ByteBuffer buffer, BigDecimal value) {
+        if (value == null) {
+            buffer.putLong(0L);
+            buffer.put(NULL_SCALE);
+            return;
+        }
+        int scale = value.scale();
+        if (scale <= NULL_SCALE || scale > Byte.MAX_VALUE || value.unscaledValue().bitLength() > 63) {
+            throw new IllegalArgumentException("Decimal out of range for binary encoding: " + value);
+        }
+        buffer.putLong(value.unscaledValue().longValue());
+        buffer.put((byte) scale);
+    }
+
+    private static void putScales(ByteBuffer buffer, int priceScale, int sizeScale) {
+        if (priceScale < 0 || priceScale > Byte.MAX_VALUE || sizeScale < 0 || sizeScale > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("Scale out of range for binary encoding: " + priceScale + "/" + sizeScale);
+        }
+        buffer.put((byte) priceScale);
+        buffer.put((byte) sizeScale);
+    }
+
+    private static BigDecimal getDecimal(ByteBuffer buffer) {
+        long unscaled = buffer.getLong();
+        byte scale = buffer.get();
+        return scale == NULL_SCALE ? null : BigDecimal.valueOf(unscaled, scale);
+    }
+
+    private static byte[] utf8(String value) {
+        if (value == null) {
+            return null;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length >= NULL_LENGTH) {
+            throw new IllegalArgumentException("String too long for binary encoding: " + bytes.length + " bytes");
+        }
+        return bytes;
+    }
+
+    private static int length(byte[] bytes) {
+        return bytes == null ? 0 : bytes.length;
+    }
+
+    private static int lengthField(byte[] bytes) {
+        return bytes == null ? NULL_LENGTH : bytes.length;
+    }
+
+    private static void putBytes(ByteBuffer buffer, byte[] bytes) {
+        if (bytes != null) {
+            buffer.put(bytes);
+        }
+    }
+
+    private static String getString(ByteBuffer buffer, int length) {
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        if (length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Variable-length pieces of an event, computed once so the size is known before writing.
+     */
+    private record Parts(byte[] eventId, byte[] instrumentId, byte[] conditions, int payloadType, int payloadLength) {
+
+        static Parts of(MarketEvent event) {
+            Object payload = event.payload();
+            byte[] conditions = null;
+            int payloadType;
+            int payloadLength;
+            if (payload == null) {
+                payloadType = PAYLOAD_NONE;
+                payloadLength = 0;
+            } else if (payload instanceof Trade trade) {
+                payloadType = PAYLOAD_TRADE;
+                conditions = utf8(trade.conditions());
+                payloadLength = 2 * DECIMAL_SIZE + 2 + length(conditions);
+            } else if (payload instanceof Quote) {
+                payloadType = PAYLOAD_QUOTE;
+                payloadLength = 4 * DECIMAL_SIZE;
+            } else if (payload instanceof FixedTrade trade) {
+                payloadType = PAYLOAD_FIXED_TRADE;
+                conditions = utf8(trade.conditions());
+                payloadLength = 2 * Long.BYTES + 2 + 2 + length(conditions);
+            } else if (payload instanceof FixedQuote) {
+                payloadType = PAYLOAD_FIXED_QUOTE;
+                payloadLength = 4 * Long.BYTES + 2;
+            } else {
+                throw new IllegalArgumentException("Unsupported payload type: " + payload.getClass().getName());
+            }
+            // Header and conditions lengths are u16; a wider value would be written truncated
+            if (payloadLength > MAX_U16) {
+                throw new IllegalArgumentException("Payload too long for binary encoding: " + payloadLength + " bytes");
+            }
+            if (event.schemaVersion() < 0 || event.schemaVersion() > MAX_U16) {
+                throw new IllegalArgumentException("Schema version out of range for binary encoding: "
+                        + event.schemaVersion());
+            }
+            // A numeric id travels in the header; do not render it into the string field
+            byte[] eventId = event.numericId() != 0 ? null : utf8(event.eventId());
+            return new Parts(eventId, utf8(event.instrumentId()), conditions, payloadType, payloadLength);
+        }
+
+        int size() {
+            return HEADER_SIZE + length(eventId) + length(instrumentId) + payloadLength;
+        }
+    }
+}
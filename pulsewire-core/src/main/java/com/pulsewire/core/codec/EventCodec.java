@@ -0,0 +1,57 @@
+package com.pulsewire.core.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pulsewire.core.model.MarketEvent;
+
+import java.util.Locale;
+
+/**
+ * Wire codec SPI for {@link MarketEvent}s crossing a byte-oriented transport (Kafka, files, sockets).
+ *
+ * <p>Implementations must be thread-safe and must round-trip {@code Trade} and {@code Quote}
+ * payloads to their typed records, not to generic maps.
+ */
+public interface EventCodec {
+
+    /**
+     * @return short codec name used in configuration, e.g. {@code binary} or {@code json}
+     */
+    String name();
+
+    /**
+     * Encode an event to bytes.
+     *
+     * @throws IllegalArgumentException if the event cannot be represented by this codec
+     */
+    byte[] encode(MarketEvent event);
+
+    /**
+     * Decode bytes produced by {@link #encode(MarketEvent)}.
+     *
+     * @throws IllegalArgumentException if the bytes are not a valid encoding
+     */
+    MarketEvent decode(byte[] bytes);
+
+    /**
+     * Resolve a codec from configuration: {@code binary}, {@code json}, or the fully qualified
+     * class name of a custom {@link EventCodec} with a public no-arg constructor.
+     *
+     * @param name         codec name or class name
+     * @param objectMapper mapper used by the JSON codec
+     */
+    static EventCodec forName(String name, ObjectMapper objectMapper) {
+        switch (name.trim().toLowerCase(Locale.ROOT)) {
+            case BinaryEventCodec.NAME:
+                return new BinaryEventCodec();
+            case JsonEventCodec.NAME:
+                return new JsonEventCodec(objectMapper);
+            default:
+                try {
+                    Class<?> type = Class.forName(name.trim());
+                    return (EventCodec) type.getDeclaredConstructor().newInstance();
+                } catch (ReflectiveOperationException | ClassCastException e) {
+                    throw new IllegalArgumentException("Unknown event codec: " + name, e);
+                }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.pulsewire.core.codec;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.cfg.JsonNodeFeature;
+import com.pulsewire.core.model.MarketEvent;
+import com.pulsewire.core.model.MarketEvent.EventType;
+import com.pulsewire.core.model.Quote;
+import com.pulsewire.core.model.Trade;
+
+import java.io.IOException;
+import java.time.Instant;
+
+/**
+ * Jackson-based JSON codec, kept as the human-readable fallback to {@link BinaryEventCodec}.
+ *
+ * <p>Decoding maps the payload to {@link Trade} or {@link Quote} based on the event type,
+ * which plain {@code readValue(..., MarketEvent.class)} cannot do for an {@code Object} field.
+ * Fixed-point payloads serialize as their decimal form and therefore decode as {@link Trade}
+ * or {@link Quote}.
+ */
+public class JsonEventCodec implements EventCodec {
+
+    public static final String NAME = "json";
+
+    private final ObjectMapper objectMapper;
+    private final ObjectReader treeReader;
+
+    public JsonEventCodec(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        // Keep decimals (prices and epoch-second timestamps) exact instead of going through double
+        this.treeReader = objectMapper.reader()
+                .with(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+                .without(JsonNodeFeature.STRIP_TRAILING_BIGDECIMAL_ZEROES);
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public byte[] encode(MarketEvent event) {
+        try {
+            return objectMapper.writeValueAsBytes(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Failed to serialize event " + event.eventId(), e);
+        }
+    }
+
+    @Override
+    public MarketEvent decode(byte[] bytes) {
+        try {
+            JsonNode node = treeReader.readTree(bytes);
+            EventType eventType = node.hasNonNull("eventType")
+                    ? EventType.valueOf(node.get("eventType").asText()) : null;
+            return new MarketEvent(
+                    text(node, "eventId"),
+                    text(node, "instrumentId"),
+                    eventType,
+                    instant(node, "exchangeTimestamp"),
+                    instant(node, "receiveTimestamp"),
+                    instant(node, "publishTimestamp"),
+                    node.path("schemaVersion").asInt(),
+                    payload(node.get("payload"), eventType));
+        } catch (IOException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Failed to deserialize event", e);
+        }
+    }
+
+    private Object payload(JsonNode payload, EventType eventType) throws JsonProcessingException {
+        if (payload == null || payload.isNull()) {
+            return null;
+        }
+        if (eventType == EventType.TRADE) {
+            return objectMapper.treeToValue(payload, Trade.class);
+        }
+        if (eventType == EventType.QUOTE) {
+            return objectMapper.treeToValue(payload, Quote.class);
+        }
+        return objectMapper.treeToValue(payload, Object.class);
+    }
+
+    private Instant instant(JsonNode node, String field) throws JsonProcessingException {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : objectMapper.treeToValue(value, Instant.class);
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+}
@@ -0,0 +1,20 @@
+package com.pulsewire.core.id;
+
+/**
+ * Source of primitive event ids for {@link com.pulsewire.core.model.MarketEvent#numericId()}.
+ *
+ * <p>Implementations must be thread-safe, must never return {@code 0} (which means "no numeric id")
+ * and should return strictly increasing ids per generator so consumers can order and de-duplicate
+ * events from one node cheaply.
+ */
+public interface EventIdGenerator {
+
+    long nextId();
+
+    /**
+     * String form of a numeric id, as exposed by {@code MarketEvent.eventId()}.
+     */
+    static String format(long id) {
+        return Long.toString(id);
+    }
+}
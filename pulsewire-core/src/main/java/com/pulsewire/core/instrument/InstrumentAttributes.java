@@ -0,0 +1,63 @@
+package com.pulsewire.core.instrument;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Reference attributes of interned instruments, such as {@value #VENUE} and {@value #ASSET_CLASS},
+ * stored by {@link InstrumentRegistry} index.
+ *
+ * <p>Attributes are set by whoever knows them, typically the adapter that registers the
+ * instrument, and replaced as a whole. Reads are lock-free; {@link #version()} changes with every
+ * update so consumers can cache what they derive from the attributes.
+ */
+public class InstrumentAttributes {
+
+    public static final String VENUE = "venue";
+    public static final String ASSET_CLASS = "assetClass";
+
+    private final InstrumentRegistry instrumentRegistry;
+    private final AtomicReferenceArray<Map<String, String>> attributes;
+    private final AtomicLong version = new AtomicLong();
+
+    public InstrumentAttributes(InstrumentRegistry instrumentRegistry) {
+        this.instrumentRegistry = instrumentRegistry;
+        this.attributes = new AtomicReferenceArray<>(instrumentRegistry.capacity());
+    }
+
+    /**
+     * Register {@code instrumentId} if needed and replace its attributes.
+     *
+     * @return the instrument's index
+     * @throws IllegalStateException if the registry is full
+     */
+    public int put(String instrumentId, Map<String, String> values) {
+        int index = instrumentRegistry.register(instrumentId);
+        attributes.set(index, Map.copyOf(values));
+        version.incrementAndGet();
+        return index;
+    }
+
+    /**
+     * @return the attributes of the instrument at {@code index}, empty if none were set
+     */
+    public Map<String, String> get(int index) {
+        Map<String, String> values = index < 0 || index >= attributes.length() ? null : attributes.get(index);
+        return values == null ? Map.of() : values;
+    }
+
+    /**
+     * @return the value of {@code name} for the instrument at {@code index}, or null
+     */
+    public String get(int index, String name) {
+        return get(index).get(name);
+    }
+
+    /**
+     * @return a number that changes whenever any instrument's attributes change
+     */
+    public long version() {
+        return version.get();
+    }
+}
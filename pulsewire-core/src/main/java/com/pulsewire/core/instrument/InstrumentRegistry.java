@@ -0,0 +1,138 @@
+package com.pulsewire.core.instrument;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Interns instrument ids into dense {@code int} indexes {@code 0..size()-1}.
+ *
+ * <p>Indexes are assigned once and never reused, so per-instrument state anywhere in the
+ * pipeline can live in flat arrays indexed by {@link com.pulsewire.core.model.MarketEvent#instrumentIndex()}
+ * instead of maps keyed by the id string. Lookups in both directions are lock-free; registering
+ * a new id only contends with concurrent registrations of ids in the same hash bin.
+ */
+public class InstrumentRegistry {
+
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    /** Index value meaning "not assigned". */
+    public static final int UNASSIGNED = -1;
+
+    private final Map<String, Integer> indexes = new ConcurrentHashMap<>();
+    private final AtomicReferenceArray<String> instrumentIds;
+    private final AtomicInteger nextIndex = new AtomicInteger();
+    private final List<ObjIntConsumer<String>> listeners = new CopyOnWriteArrayList<>();
+
+    public InstrumentRegistry() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public InstrumentRegistry(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.instrumentIds = new AtomicReferenceArray<>(capacity);
+    }
+
+    /**
+     * @return the index of {@code instrumentId}, assigning the next free one on first sight
+     * @throws IllegalStateException if the registry is full
+     */
+    public int register(String instrumentId) {
+        Integer index = indexes.get(instrumentId);
+        if (index != null) {
+            return index;
+        }
+        // Ids in different hash bins may be computed concurrently, so the index is claimed atomically
+        int[] assigned = {UNASSIGNED};
+        index = indexes.computeIfAbsent(instrumentId, id -> {
+            int next = nextIndex.getAndIncrement();
+            if (next >= instrumentIds.length()) {
+                throw new IllegalStateException("Instrument registry is full at " + instrumentIds.length() + " instruments");
+            }
+            instrumentIds.set(next, id);
+            assigned[0] = next;
+            return next;
+        });
+        // Told once the index is visible to indexOf, so a listener and a concurrent lookup cannot both miss it
+        if (assigned[0] != UNASSIGNED) {
+            for (ObjIntConsumer<String> listener : listeners) {
+                listener.accept(instrumentId, assigned[0]);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Tell {@code listener} the id and index of every instrument registered from now on, on the
+     * registering thread, once the index can be looked up. Listeners must be quick and must not throw.
+     */
+    public void addListener(ObjIntConsumer<String> listener) {
+        listeners.add(listener);
+    }
+
+    public void registerAll(Collection<String> ids) {
+        ids.forEach(this::register);
+    }
+
+    /**
+     * Checks an index stamped elsewhere, by an adapter or by another process whose registry may
+     * have assigned indexes in a different order.
+     *
+     * @return {@code index} if it is the index of {@code instrumentId} here, otherwise the index
+     *         registered here for {@code instrumentId}, assigning one on first sight
+     * @throws IllegalStateException if the id is new and the registry is full
+     */
+    public int reconcile(String instrumentId, int index) {
+        return index >= 0 && instrumentId.equals(instrumentId(index)) ? index : register(instrumentId);
+    }
+
+    /**
+     * @return the index of {@code instrumentId}, or {@link #UNASSIGNED} if it was never registered
+     */
+    public int indexOf(String instrumentId) {
+        Integer index = indexes.get(instrumentId);
+        return index == null ? UNASSIGNED : index;
+    }
+
+    /**
+     * @return the instrument id for {@code index}, or null if the index is not assigned
+     */
+    public String instrumentId(int index) {
+        return index < 0 || index >= instrumentIds.length() ? null : instrumentIds.get(index);
+    }
+
+    /**
+     * @return number of assigned indexes; an index counted here may still be mid-registration
+     */
+    public int size() {
+        return Math.min(nextIndex.get(), instrumentIds.length());
+    }
+
+    public int capacity() {
+        return instrumentIds.length();
+    }
+
+    /**
+     * @return registered ids in index order, up to the first index still being registered
+     */
+    public List<String> instrumentIds() {
+        int size = size();
+        List<String> ids = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String id = instrumentIds.get(i);
+            if (id == null) {
+                break;
+            }
+            ids.add(id);
+        }
+        return ids;
+    }
+}
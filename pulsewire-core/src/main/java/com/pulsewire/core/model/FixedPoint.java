@@ -0,0 +1,104 @@
+package com.pulsewire.core.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Scaled-long fixed-point helpers.
+ *
+ * <p>A value is a {@code long} mantissa plus a decimal scale: {@code 18550} at scale {@code 2}
+ * is {@code 185.50}. The price scale of an instrument is the number of decimals in its tick
+ * size, so every valid price is an exact integer mantissa. Conversions to and from
+ * {@link BigDecimal} are meant for the edges (REST, JSON); the hot path stays on primitives.
+ */
+public final class FixedPoint {
+
+    /** Largest scale whose power of ten still fits in a long. */
+    public static final int MAX_SCALE = 18;
+
+    /** Scale used when an instrument has no tick size configured. */
+    public static final int DEFAULT_PRICE_SCALE = 4;
+
+    private static final long[] POWERS_OF_TEN = new long[MAX_SCALE + 1];
+
+    static {
+        long power = 1;
+        for (int i = 0; i <= MAX_SCALE; i++) {
+            POWERS_OF_TEN[i] = power;
+            power *= 10;
+        }
+    }
+
+    private FixedPoint() {
+    }
+
+    /**
+     * Number of decimals needed to represent every multiple of {@code tickSize} exactly,
+     * e.g. {@code 0.01 -> 2}, {@code 0.0005 -> 4}, {@code 1 -> 0}.
+     */
+    public static int scaleForTickSize(Double tickSize) {
+        if (tickSize == null || !(tickSize > 0) || Double.isInfinite(tickSize)) {
+            return DEFAULT_PRICE_SCALE;
+        }
+        int scale = BigDecimal.valueOf(tickSize).stripTrailingZeros().scale();
+        return Math.max(0, Math.min(scale, MAX_SCALE));
+    }
+
+    /**
+     * Mantissa of {@code value} at {@code scale}, rounding half-up.
+     *
+     * @throws ArithmeticException if the result does not fit in a long
+     */
+    public static long toMantissa(BigDecimal value, int scale) {
+        checkScale(scale);
+        return value.setScale(scale, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Mantissa of {@code value} at {@code scale}, rounding half-up.
+     *
+     * @throws ArithmeticException if the value is not finite or does not fit in a long
+     */
+    public static long toMantissa(double value, int scale) {
+        checkScale(scale);
+        double scaled = value * POWERS_OF_TEN[scale];
+        if (!Double.isFinite(scaled) || Math.abs(scaled) >= 0x1p63) {
+            throw new ArithmeticException("Value out of fixed-point range: " + value + " at scale " + scale);
+        }
+        return Math.round(scaled);
+    }
+
+    public static BigDecimal toBigDecimal(long mantissa, int scale) {
+        return BigDecimal.valueOf(mantissa, scale);
+    }
+
+    public static double toDouble(long mantissa, int scale) {
+        checkScale(scale);
+        return (double) mantissa / POWERS_OF_TEN[scale];
+    }
+
+    /**
+     * Compares two fixed-point values. Equal scales, the normal case for one instrument,
+     * is a single primitive comparison.
+     */
+    public static int compare(long a, int aScale, long b, int bScale) {
+        if (aScale == bScale) {
+            return Long.compare(a, b);
+        }
+        checkScale(aScale);
+        checkScale(bScale);
+        try {
+            return aScale < bScale
+                    ? Long.compare(Math.multiplyExact(a, POWERS_OF_TEN[bScale - aScale]), b)
+                    : Long.compare(a, Math.multiplyExact(b, POWERS_OF_TEN[aScale - bScale]));
+        } catch (ArithmeticException e) {
+            return toBigDecimal(a, aScale).compareTo(toBigDecimal(b, bScale));
+        }
+    }
+
+    private static void checkScale(int scale) {
+        if (scale < 0 || scale > MAX_SCALE) {
+            throw new IllegalArgumentException("Scale must be between 0 and " + MAX_SCALE + ": " + scale);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.pulsewire.core.model;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * Quote event payload (top-of-book bid/ask) with fixed-point prices and sizes.
+ *
+ * <p>Serializes to JSON exactly like {@link Quote}, so clients see no difference.
+ */
+public record FixedQuote(
+        long bidPrice,
+        long bidSize,
+        long askPrice,
+        long askSize,
+        int priceScale,
+        int sizeScale) {
+
+    public static FixedQuote from(Quote quote, int priceScale, int sizeScale) {
+        return new FixedQuote(
+                FixedPoint.toMantissa(quote.bidPrice(), priceScale),
+                FixedPoint.toMantissa(quote.bidSize(), sizeScale),
+                FixedPoint.toMantissa(quote.askPrice(), priceScale),
+                FixedPoint.toMantissa(quote.askSize(), sizeScale),
+                priceScale,
+                sizeScale);
+    }
+
+    /**
+     * True when the bid is at or through the ask; both sides share a scale, so this is one comparison.
+     */
+    public boolean isCrossed() {
+        return bidPrice >= askPrice;
+    }
+
+    @JsonValue
+    public Quote toQuote() {
+        return new Quote(
+                FixedPoint.toBigDecimal(bidPrice, priceScale),
+                FixedPoint.toBigDecimal(bidSize, sizeScale),
+                FixedPoint.toBigDecimal(askPrice, priceScale),
+                FixedPoint.toBigDecimal(askSize, sizeScale));
+    }
+}
@@ -0,0 +1,40 @@
+package com.pulsewire.core.model;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.math.BigDecimal;
+
+/**
+ * Trade event payload with fixed-point price and size.
+ *
+ * <p>Serializes to JSON exactly like {@link Trade}, so clients see no difference.
+ */
+public record FixedTrade(
+        long price,
+        long size,
+        int priceScale,
+        int sizeScale,
+        String conditions) {
+
+    public static FixedTrade from(Trade trade, int priceScale, int sizeScale) {
+        return new FixedTrade(
+                FixedPoint.toMantissa(trade.price(), priceScale),
+                FixedPoint.toMantissa(trade.size(), sizeScale),
+                priceScale,
+                sizeScale,
+                trade.conditions());
+    }
+
+    public BigDecimal priceDecimal() {
+        return FixedPoint.toBigDecimal(price, priceScale);
+    }
+
+    public BigDecimal sizeDecimal() {
+        return FixedPoint.toBigDecimal(size, sizeScale);
+    }
+
+    @JsonValue
+    public Trade toTrade() {
+        return new Trade(priceDecimal(), sizeDecimal(), conditions);
+    }
+}
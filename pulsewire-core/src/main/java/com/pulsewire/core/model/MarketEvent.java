@@ -1,19 +1,134 @@
 package com.pulsewire.core.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.pulsewire.core.id.EventIdGenerator;
+import com.pulsewire.core.instrument.InstrumentRegistry;
+import com.pulsewire.core.time.PulseClock;
+
 import java.time.Instant;
 
 /**
  * Canonical market event envelope.
+ *
+ * <p>An event is identified either by a string {@code eventId} or by a primitive
+ * {@code numericId} from an {@link EventIdGenerator}, never both. Hot-path producers set only the
+ * numeric id; its string form is rendered on demand by {@link #eventId()}, typically at the JSON edge.
+ *
+ * <p>{@code instrumentIndex} is the dense index of {@code instrumentId} in the
+ * {@link com.pulsewire.core.instrument.InstrumentRegistry}, or {@code -1} when not yet assigned.
+ *
+ * <p>Timestamps are held as epoch nanoseconds ({@link #NO_TIMESTAMP} = absent) so stages can stamp
+ * them from a {@link PulseClock} without allocating. The {@link Instant} accessors convert on demand
+ * and are what JSON sees, so the wire shape is unchanged.
  */
+@JsonPropertyOrder({"eventId", "instrumentId", "eventType", "exchangeTimestamp", "receiveTimestamp",
+        "publishTimestamp", "schemaVersion", "payload"})
 public record MarketEvent(
         String eventId,
         String instrumentId,
         EventType eventType,
-        Instant exchangeTimestamp,
-        Instant receiveTimestamp,
-        Instant publishTimestamp,
+        @JsonIgnore long exchangeTimestampNanos,
+        @JsonIgnore long receiveTimestampNanos,
+        @JsonIgnore long publishTimestampNanos,
         int schemaVersion,
-        Object payload) {
+        Object payload,
+        @JsonIgnore long numericId,
+        @JsonIgnore int instrumentIndex) {
+
+    /** Timestamp value meaning "not set". */
+    public static final long NO_TIMESTAMP = Long.MIN_VALUE;
+
+    public MarketEvent {
+        if (numericId != 0 && eventId != null) {
+            throw new IllegalArgumentException("Event has both a string id and a numeric id: " + eventId);
+        }
+    }
+
+    /**
+     * Creates an event with a string id only.
+     */
+    public MarketEvent(
+            String eventId,
+            String instrumentId,
+            EventType eventType,
+            Instant exchangeTimestamp,
+            Instant receiveTimestamp,
+            Instant publishTimestamp,
+            int schemaVersion,
+            Object payload) {
+        this(eventId, instrumentId, eventType, exchangeTimestamp, receiveTimestamp, publishTimestamp,
+                schemaVersion, payload, 0L);
+    }
+
+    /**
+     * Creates an event without an instrument index.
+     */
+    public MarketEvent(
+            String eventId,
+            String instrumentId,
+            EventType eventType,
+            Instant exchangeTimestamp,
+            Instant receiveTimestamp,
+            Instant publishTimestamp,
+            int schemaVersion,
+            Object payload,
+            long numericId) {
+        this(eventId, instrumentId, eventType, nanos(exchangeTimestamp), nanos(receiveTimestamp),
+                nanos(publishTimestamp), schemaVersion, payload, numericId, InstrumentRegistry.UNASSIGNED);
+    }
+
+    @JsonProperty("exchangeTimestamp")
+    public Instant exchangeTimestamp() {
+        return instant(exchangeTimestampNanos);
+    }
+
+    @JsonProperty("receiveTimestamp")
+    public Instant receiveTimestamp() {
+        return instant(receiveTimestampNanos);
+    }
+
+    @JsonProperty("publishTimestamp")
+    public Instant publishTimestamp() {
+        return instant(publishTimestampNanos);
+    }
+
+    /**
+     * @return the string id, or the rendered numeric id when only that is set
+     */
+    @Override
+    public String eventId() {
+        return eventId == null && numericId != 0 ? EventIdGenerator.format(numericId) : eventId;
+    }
+
+    /**
+     * True if the event carries a usable id, checked without rendering the numeric one.
+     */
+    public boolean hasEventId() {
+        return numericId != 0 || (eventId != null && !eventId.isBlank());
+    }
+
+    /**
+     * Copy of this event stamped for publication, keeping both id forms as they are.
+     */
+    public MarketEvent withPublishTimestamp(long publishTimestampNanos, int schemaVersion) {
+        return new MarketEvent(eventId, instrumentId, eventType, exchangeTimestampNanos, receiveTimestampNanos,
+                publishTimestampNanos, schemaVersion, payload, numericId, instrumentIndex);
+    }
+
+    public MarketEvent withInstrumentIndex(int instrumentIndex) {
+        return new MarketEvent(eventId, instrumentId, eventType, exchangeTimestampNanos, receiveTimestampNanos,
+                publishTimestampNanos, schemaVersion, payload, numericId, instrumentIndex);
+    }
+
+    private static long nanos(Instant instant) {
+        return instant == null ? NO_TIMESTAMP : PulseClock.toEpochNanos(instant);
+    }
+
+    private static Instant instant(long epochNanos) {
+        return epochNanos == NO_TIMESTAMP ? null : PulseClock.toInstant(epochNanos);
+    }
 
     public enum EventType {
         TRADE,
@@ -0,0 +1,282 @@
+package com.pulsewire.core.model;
+
+import com.pulsewire.core.id.EventIdGenerator;
+import com.pulsewire.core.model.MarketEvent.EventType;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reusable flyweight over one binary-encoded {@link MarketEvent} in a heap or direct {@link ByteBuffer}.
+ *
+ * <p>The view owns the wire layout written by {@code BinaryEventCodec}. Header fields live at fixed
+ * offsets, so a stage can read the instrument, type and timestamps, or stamp the publish
+ * timestamp and schema version in place, without decoding the event or allocating. Access is
+ * absolute and little-endian whatever the buffer's own position and byte order are.
+ *
+ * <h2>Layout</h2>
+ * <pre>
+ * offset  size  field
+ *  0      1     format version
+ *  1      1     eventType ordinal     (-1 = null)
+ *  2      1     payload type
+ *  3      1     reserved
+ *  4      2     schemaVersion
+ *  6      2     eventId length        (0xFFFF = null)
+ *  8      2     instrumentId length   (0xFFFF = null)
+ * 10      2     payload length
+ * 12      4     instrumentIndex       (-1 = unassigned)
+ * 16      8     exchangeTimestamp     epoch nanos (Long.MIN_VALUE = null)
+ * 24      8     receiveTimestamp      epoch nanos
+ * 32      8     publishTimestamp      epoch nanos
+ * 40      8     numericId             (0 = none)
+ * 48      ...   eventId UTF-8, instrumentId UTF-8, payload
+ * </pre>
+ *
+ * <p>A view is not thread-safe; give each thread its own and {@link #wrap} it per event.
+ */
+public final class MarketEventView {
+
+    public static final int FORMAT_VERSION_OFFSET = 0;
+    public static final int EVENT_TYPE_OFFSET = 1;
+    public static final int PAYLOAD_TYPE_OFFSET = 2;
+    public static final int SCHEMA_VERSION_OFFSET = 4;
+    public static final int EVENT_ID_LENGTH_OFFSET = 6;
+    public static final int INSTRUMENT_ID_LENGTH_OFFSET = 8;
+    public static final int PAYLOAD_LENGTH_OFFSET = 10;
+    public static final int INSTRUMENT_INDEX_OFFSET = 12;
+    public static final int EXCHANGE_TIMESTAMP_OFFSET = 16;
+    public static final int RECEIVE_TIMESTAMP_OFFSET = 24;
+    public static final int PUBLISH_TIMESTAMP_OFFSET = 32;
+    public static final int NUMERIC_ID_OFFSET = 40;
+    public static final int HEADER_SIZE = 48;
+
+    public static final int NULL_LENGTH = 0xFFFF;
+    public static final long NULL_TIMESTAMP = MarketEvent.NO_TIMESTAMP;
+
+    private static final VarHandle SHORT = MethodHandles.byteBufferViewVarHandle(short[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle INT = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle LONG = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final EventType[] EVENT_TYPES = EventType.values();
+
+    private ByteBuffer buffer;
+    private int offset;
+
+    /**
+     * Point this view at the event starting at {@code offset}.
+     *
+     * @return this view
+     * @throws IllegalArgumentException if the buffer cannot hold a header at {@code offset}
+     */
+    public MarketEventView wrap(ByteBuffer buffer, int offset) {
+        if (offset < 0 || buffer.limit() - offset < HEADER_SIZE) {
+            throw new IllegalArgumentException("Truncated event at offset " + offset + ", limit " + buffer.limit());
+        }
+        this.buffer = buffer;
+        this.offset = offset;
+        return this;
+    }
+
+    public ByteBuffer buffer() {
+        return buffer;
+    }
+
+    public int offset() {
+        return offset;
+    }
+
+    /**
+     * @return total encoded size of the event, header included
+     */
+    public int length() {
+        return payloadOffset() - offset + payloadLength();
+    }
+
+    public int formatVersion() {
+        return buffer.get(offset + FORMAT_VERSION_OFFSET) & 0xFF;
+    }
+
+    public MarketEventView formatVersion(int formatVersion) {
+        buffer.put(offset + FORMAT_VERSION_OFFSET, (byte) formatVersion);
+        return this;
+    }
+
+    public EventType eventType() {
+        int ordinal = buffer.get(offset + EVENT_TYPE_OFFSET);
+        return ordinal < 0 || ordinal >= EVENT_TYPES.length ? null : EVENT_TYPES[ordinal];
+    }
+
+    public MarketEventView eventType(EventType eventType) {
+        buffer.put(offset + EVENT_TYPE_OFFSET, (byte) (eventType == null ? -1 : eventType.ordinal()));
+        return this;
+    }
+
+    public int payloadType() {
+        return buffer.get(offset + PAYLOAD_TYPE_OFFSET) & 0xFF;
+    }
+
+    public MarketEventView payloadType(int payloadType) {
+        buffer.put(offset + PAYLOAD_TYPE_OFFSET, (byte) payloadType);
+        return this;
+    }
+
+    public int schemaVersion() {
+        return getUnsignedShort(SCHEMA_VERSION_OFFSET);
+    }
+
+    public MarketEventView schemaVersion(int schemaVersion) {
+        putShort(SCHEMA_VERSION_OFFSET, schemaVersion);
+        return this;
+    }
+
+    /**
+     * @return raw eventId length field, {@link #NULL_LENGTH} for a null id
+     */
+    public int eventIdLength() {
+        return getUnsignedShort(EVENT_ID_LENGTH_OFFSET);
+    }
+
+    /**
+     * @return raw instrumentId length field, {@link #NULL_LENGTH} for a null id
+     */
+    public int instrumentIdLength() {
+        return getUnsignedShort(INSTRUMENT_ID_LENGTH_OFFSET);
+    }
+
+    public int payloadLength() {
+        return getUnsignedShort(PAYLOAD_LENGTH_OFFSET);
+    }
+
+    /**
+     * Write the three length fields of the variable section; call before reading any offsets.
+     */
+    public MarketEventView lengths(int eventIdLength, int instrumentIdLength, int payloadLength) {
+        putShort(EVENT_ID_LENGTH_OFFSET, eventIdLength);
+        putShort(INSTRUMENT_ID_LENGTH_OFFSET, instrumentIdLength);
+        putShort(PAYLOAD_LENGTH_OFFSET, payloadLength);
+        return this;
+    }
+
+    public int instrumentIndex() {
+        return (int) INT.get(buffer, offset + INSTRUMENT_INDEX_OFFSET);
+    }
+
+    public MarketEventView instrumentIndex(int instrumentIndex) {
+        INT.set(buffer, offset + INSTRUMENT_INDEX_OFFSET, instrumentIndex);
+        return this;
+    }
+
+    public long exchangeTimestampNanos() {
+        return (long) LONG.get(buffer, offset + EXCHANGE_TIMESTAMP_OFFSET);
+    }
+
+    public MarketEventView exchangeTimestampNanos(long epochNanos) {
+        LONG.set(buffer, offset + EXCHANGE_TIMESTAMP_OFFSET, epochNanos);
+        return this;
+    }
+
+    public long receiveTimestampNanos() {
+        return (long) LONG.get(buffer, offset + RECEIVE_TIMESTAMP_OFFSET);
+    }
+
+    public MarketEventView receiveTimestampNanos(long epochNanos) {
+        LONG.set(buffer, offset + RECEIVE_TIMESTAMP_OFFSET, epochNanos);
+        return this;
+    }
+
+    public long publishTimestampNanos() {
+        return (long) LONG.get(buffer, offset + PUBLISH_TIMESTAMP_OFFSET);
+    }
+
+    public MarketEventView publishTimestampNanos(long epochNanos) {
+        LONG.set(buffer, offset + PUBLISH_TIMESTAMP_OFFSET, epochNanos);
+        return this;
+    }
+
+    public long numericId() {
+        return (long) LONG.get(buffer, offset + NUMERIC_ID_OFFSET);
+    }
+
+    public MarketEventView numericId(long numericId) {
+        LONG.set(buffer, offset + NUMERIC_ID_OFFSET, numericId);
+        return this;
+    }
+
+    public int eventIdOffset() {
+        return offset + HEADER_SIZE;
+    }
+
+    public int instrumentIdOffset() {
+        return eventIdOffset() + lengthOrZero(eventIdLength());
+    }
+
+    public int payloadOffset() {
+        return instrumentIdOffset() + lengthOrZero(instrumentIdLength());
+    }
+
+    /**
+     * Compare the encoded instrument id with {@code utf8} byte by byte, without allocating.
+     */
+    public boolean instrumentIdEquals(byte[] utf8) {
+        int length = instrumentIdLength();
+        if (utf8 == null || length == NULL_LENGTH) {
+            return utf8 == null && length == NULL_LENGTH;
+        }
+        if (length != utf8.length) {
+            return false;
+        }
+        int start = instrumentIdOffset();
+        for (int i = 0; i < length; i++) {
+            if (buffer.get(start + i) != utf8[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Decode the instrument id; allocates, so prefer {@link #instrumentIdEquals(byte[])} on hot paths.
+     */
+    public String instrumentId() {
+        return string(instrumentIdOffset(), instrumentIdLength());
+    }
+
+    /**
+     * Decode the event id, rendering the numeric id when no string id is encoded; allocates.
+     */
+    public String eventId() {
+        int length = eventIdLength();
+        long numericId = numericId();
+        if (length == NULL_LENGTH && numericId != 0) {
+            return EventIdGenerator.format(numericId);
+        }
+        return string(eventIdOffset(), length);
+    }
+
+    private String string(int start, int length) {
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        if (buffer.hasArray()) {
+            return new String(buffer.array(), buffer.arrayOffset() + start, length, StandardCharsets.UTF_8);
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int getUnsignedShort(int fieldOffset) {
+        return (short) SHORT.get(buffer, offset + fieldOffset) & 0xFFFF;
+    }
+
+    private void putShort(int fieldOffset, int value) {
+        SHORT.set(buffer, offset + fieldOffset, (short) value);
+    }
+
+    private static int lengthOrZero(int length) {
+        return length == NULL_LENGTH ? 0 : length;
+    }
+}
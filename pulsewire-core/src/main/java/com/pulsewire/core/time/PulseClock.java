@@ -0,0 +1,40 @@
+package com.pulsewire.core.time;
+
+import java.time.Instant;
+
+/**
+ * Source of wall-clock time as epoch nanoseconds in a primitive {@code long}.
+ *
+ * <p>Pipeline stages stamp events through this interface instead of {@link Instant#now()}, so stamping
+ * does not allocate and tests can substitute a {@link VirtualPulseClock}. Implementations must be
+ * thread-safe.
+ */
+public interface PulseClock {
+
+    /**
+     * @return current time as nanoseconds since the Unix epoch
+     */
+    long epochNanos();
+
+    /**
+     * Current time as an {@link Instant}; allocates, so keep it off the hot path.
+     */
+    default Instant instant() {
+        return toInstant(epochNanos());
+    }
+
+    /**
+     * Shared calibrated system clock.
+     */
+    static PulseClock system() {
+        return CalibratedPulseClock.SYSTEM;
+    }
+
+    static long toEpochNanos(Instant instant) {
+        return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000_000L), instant.getNano());
+    }
+
+    static Instant toInstant(long epochNanos) {
+        return Instant.ofEpochSecond(Math.floorDiv(epochNanos, 1_000_000_000L), Math.floorMod(epochNanos, 1_000_000_000L));
+    }
+}
@@ -0,0 +1,41 @@
+package com.pulsewire.core.time;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Manually driven {@link PulseClock} for tests and deterministic replay. Time only moves when told to.
+ */
+public class VirtualPulseClock implements PulseClock {
+
+    private final AtomicLong epochNanos;
+
+    public VirtualPulseClock(long epochNanos) {
+        this.epochNanos = new AtomicLong(epochNanos);
+    }
+
+    public VirtualPulseClock(Instant start) {
+        this(PulseClock.toEpochNanos(start));
+    }
+
+    @Override
+    public long epochNanos() {
+        return epochNanos.get();
+    }
+
+    public void set(long epochNanos) {
+        this.epochNanos.set(epochNanos);
+    }
+
+    /**
+     * @return the new time
+     */
+    public long advance(long nanos) {
+        return epochNanos.addAndGet(nanos);
+    }
+
+    public long advance(Duration duration) {
+        return advance(duration.toNanos());
+    }
+}
@@ -10,7 +10,10 @@ import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
@@ -89,6 +92,109 @@ class InMemoryBackboneTest {
         assertDoesNotThrow(() -> backbone.publish("no.subscribers", "TSLA", event));
     }
 
+    @Test
+    void shouldDeliverPublishedBatchAsOneBatch() {
+        String topic = "batch.topic";
+        List<List<MarketEvent>> batches = new ArrayList<>();
+        List<MarketEvent> singles = new ArrayList<>();
+
+        backbone.subscribeBatch(topic, batches::add);
+        backbone.subscribe(topic, singles::add);
+        backbone.publishBatch(topic, List.of(
+                KeyedEvent.byInstrument(createTestEvent("AAPL")),
+                KeyedEvent.byInstrument(createTestEvent("GOOG")),
+                KeyedEvent.byInstrument(createTestEvent("MSFT"))));
+
+        assertEquals(1, batches.size());
+        assertEquals(List.of("AAPL", "GOOG", "MSFT"),
+                batches.get(0).stream().map(MarketEvent::instrumentId).toList());
+        assertEquals(3, singles.size());
+    }
+
+    @Test
+    void shouldDeliverSinglePublishToBatchSubscriber() {
+        String topic = "batch.single.topic";
+        List<List<MarketEvent>> batches = new ArrayList<>();
+
+        backbone.subscribeBatch(topic, batches::add);
+        backbone.publish(topic, "AAPL", createTestEvent("AAPL"));
+
+        assertEquals(1, batches.size());
+        assertEquals(1, batches.get(0).size());
+    }
+
+    @Test
+    void shouldDeliverBatchesInPartitionedMode() throws InterruptedException {
+        String topic = "partitioned.batch.topic";
+        List<MarketEvent> received = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(100);
+
+        try (InMemoryBackbone partitioned = new InMemoryBackbone(2, 128)) {
+            partitioned.subscribeBatch(topic, batch -> {
+                received.addAll(batch);
+                batch.forEach(e -> latch.countDown());
+            });
+            List<KeyedEvent> events = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                events.add(KeyedEvent.byInstrument(createTestEvent("SYM" + (i % 7))));
+            }
+            partitioned.publishBatch(topic, events);
+
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        }
+        assertEquals(100, received.size());
+    }
+
+    @Test
+    void shouldPreservePerKeyOrderInPartitionedMode() throws InterruptedException {
+        String topic = "partitioned.topic";
+        int perKey = 500;
+        List<String> keys = List.of("AAPL", "GOOG", "MSFT", "TSLA");
+        Map<String, List<String>> receivedByKey = new ConcurrentHashMap<>();
+        CountDownLatch latch = new CountDownLatch(perKey * keys.size());
+
+        try (InMemoryBackbone partitioned = new InMemoryBackbone(4, 64)) {
+            partitioned.subscribe(topic, event -> {
+                receivedByKey.computeIfAbsent(event.instrumentId(), k -> new CopyOnWriteArrayList<>())
+                        .add(event.eventId());
+                latch.countDown();
+            });
+
+            for (int i = 0; i < perKey; i++) {
+                for (String key : keys) {
+                    MarketEvent event = createTestEvent(key);
+                    partitioned.publish(topic, key, new MarketEvent(String.valueOf(i), key, event.eventType(),
+                            event.exchangeTimestamp(), event.receiveTimestamp(), null, 1, event.payload()));
+                }
+            }
+
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+            assertEquals(4, partitioned.getPartitionQueueDepths(topic).length);
+        }
+
+        for (String key : keys) {
+            List<String> ids = receivedByKey.get(key);
+            for (int i = 0; i < perKey; i++) {
+                assertEquals(String.valueOf(i), ids.get(i), "Out of order for " + key);
+            }
+        }
+    }
+
+    @Test
+    void shouldRouteSameKeyToSamePartition() {
+        int partition = PartitionedDispatcher.partitionFor("AAPL", 8);
+        assertEquals(partition, PartitionedDispatcher.partitionFor("AAPL", 8));
+        assertTrue(partition >= 0 && partition < 8);
+        assertEquals(0, PartitionedDispatcher.partitionFor(null, 8));
+    }
+
+    @Test
+    void shouldReportNoPartitionsInSynchronousMode() {
+        backbone.subscribe("sync.topic", event -> { });
+        assertEquals(0, backbone.getPartitions());
+        assertEquals(0, backbone.getPartitionQueueDepths("sync.topic").length);
+    }
+
     private MarketEvent createTestEvent(String instrumentId) {
         Trade trade = new Trade(BigDecimal.valueOf(150.00), BigDecimal.valueOf(100), null);
         return new MarketEvent(
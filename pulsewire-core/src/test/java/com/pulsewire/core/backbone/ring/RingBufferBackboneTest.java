@@ -0,0 +1,166 @@
+package com.pulsewire.core.backbone.ring;
+
+import com.pulsewire.core.backbone.KeyedEvent;
+import com.pulsewire.core.model.MarketEvent;
+import com.pulsewire.core.model.MarketEvent.EventType;
+import com.pulsewire.core.model.Trade;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RingBufferBackboneTest {
+
+    private RingBufferBackbone backbone;
+
+    @BeforeEach
+    void setUp() {
+        backbone = new RingBufferBackbone(8, WaitStrategy.YIELD);
+    }
+
+    @AfterEach
+    void tearDown() {
+        backbone.close();
+    }
+
+    @Test
+    void shouldPublishAndReceiveEvent() throws InterruptedException {
+        List<MarketEvent> received = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(1);
+
+        backbone.subscribe("test.topic", event -> {
+            received.add(event);
+            latch.countDown();
+        });
+        backbone.publish("test.topic", "AAPL", createTestEvent("AAPL"));
+
+        assertTrue(latch.await(1, TimeUnit.SECONDS));
+        assertEquals("AAPL", received.get(0).instrumentId());
+    }
+
+    @Test
+    void shouldDeliverInOrderAcrossMoreEventsThanBufferSize() throws InterruptedException {
+        int count = 1_000;
+        List<MarketEvent> received = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(count);
+
+        backbone.subscribe("wrap.topic", event -> {
+            received.add(event);
+            latch.countDown();
+        });
+
+        for (int i = 0; i < count; i++) {
+            backbone.publish("wrap.topic", "SYM", createTestEvent("SYM" + i));
+        }
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < count; i++) {
+            assertEquals("SYM" + i, received.get(i).instrumentId());
+        }
+    }
+
+    @Test
+    void shouldNotStallPublisherOnSlowSubscriber() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch fastLatch = new CountDownLatch(4);
+
+        backbone.subscribe("slow.topic", event -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        backbone.subscribe("slow.topic", event -> fastLatch.countDown());
+
+        // Fewer events than the ring holds, so the publisher must never block
+        for (int i = 0; i < 4; i++) {
+            backbone.publish("slow.topic", "GOOG", createTestEvent("GOOG"));
+        }
+
+        assertTrue(fastLatch.await(1, TimeUnit.SECONDS), "Fast subscriber should be independent of the slow one");
+        release.countDown();
+    }
+
+    @Test
+    void shouldKeepDeliveringAfterHandlerFailure() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+
+        backbone.subscribe("error.topic", event -> {
+            if (event.instrumentId().equals("BAD")) {
+                throw new IllegalStateException("boom");
+            }
+            latch.countDown();
+        });
+        backbone.publish("error.topic", "BAD", createTestEvent("BAD"));
+        backbone.publish("error.topic", "MSFT", createTestEvent("MSFT"));
+
+        assertTrue(latch.await(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void shouldPublishAndConsumeBatches() throws InterruptedException {
+        int count = 100;
+        List<MarketEvent> received = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(count);
+
+        backbone.subscribeBatch("batch.topic", batch -> {
+            received.addAll(batch);
+            batch.forEach(e -> latch.countDown());
+        });
+
+        // Larger than the ring, so the batch is claimed in several ring-sized chunks
+        List<KeyedEvent> events = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            events.add(KeyedEvent.byInstrument(createTestEvent("SYM" + i)));
+        }
+        backbone.publishBatch("batch.topic", events);
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < count; i++) {
+            assertEquals("SYM" + i, received.get(i).instrumentId());
+        }
+    }
+
+    @Test
+    void shouldHandleNoSubscribers() {
+        assertDoesNotThrow(() -> backbone.publish("no.subscribers", "TSLA", createTestEvent("TSLA")));
+    }
+
+    @Test
+    void shouldRejectNonPowerOfTwoBufferSize() {
+        assertThrows(IllegalArgumentException.class, () -> new RingBufferBackbone(1000, WaitStrategy.PARK));
+    }
+
+    @Test
+    void shouldResolveWaitStrategyNames() {
+        assertEquals(WaitStrategy.BUSY_SPIN, WaitStrategy.fromName("busy-spin"));
+        assertEquals(WaitStrategy.YIELD, WaitStrategy.fromName("yield"));
+        assertEquals(WaitStrategy.PARK, WaitStrategy.fromName("PARK"));
+        assertThrows(IllegalArgumentException.class, () -> WaitStrategy.fromName("sleep"));
+    }
+
+    private MarketEvent createTestEvent(String instrumentId) {
+        Trade trade = new Trade(BigDecimal.valueOf(150.00), BigDecimal.valueOf(100), null);
+        return new MarketEvent(
+                UUID.randomUUID().toString(),
+                instrumentId,
+                EventType.TRADE,
+                Instant.now(),
+                Instant.now(),
+                null,
+                1,
+                trade
+        );
+    }
+}
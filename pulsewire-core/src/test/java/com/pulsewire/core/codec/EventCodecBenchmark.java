@@ -0,0 +1,67 @@
+package com.pulsewire.core.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.pulsewire.core.model.MarketEvent;
+import com.pulsewire.core.model.MarketEvent.EventType;
+import com.pulsewire.core.model.Quote;
+import com.pulsewire.core.model.Trade;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Micro-benchmark comparing {@link EventCodec} implementations: bytes per event and
+ * nanoseconds per encode/decode. Not a unit test; run from the IDE or with
+ * {@code java -cp <test-classpath> com.pulsewire.core.codec.EventCodecBenchmark}.
+ */
+public final class EventCodecBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 200_000;
+    private static final int MEASURED_ITERATIONS = 1_000_000;
+
+    private static volatile Object sink;
+
+    private EventCodecBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+        List<EventCodec> codecs = List.of(new BinaryEventCodec(), new JsonEventCodec(mapper));
+
+        Instant now = Instant.now();
+        MarketEvent trade = new MarketEvent("3f1c2a9e-5d7b-4c1e-9a2f-0b8d6e4c3a21", "AAPL", EventType.TRADE,
+                now, now, now, 1, new Trade(new BigDecimal("185.50"), new BigDecimal("100"), null));
+        MarketEvent quote = new MarketEvent("7a2b4c6d-8e0f-4a1b-9c3d-5e7f9a1b3c5d", "AAPL", EventType.QUOTE,
+                now, now, now, 1, new Quote(new BigDecimal("185.48"), new BigDecimal("100"),
+                new BigDecimal("185.52"), new BigDecimal("200")));
+
+        System.out.printf("%-8s %-6s %12s %14s %14s%n", "codec", "event", "bytes/event", "encode ns/op", "decode ns/op");
+        for (EventCodec codec : codecs) {
+            for (MarketEvent event : List.of(trade, quote)) {
+                byte[] encoded = codec.encode(event);
+                run(codec, event, encoded, WARMUP_ITERATIONS);
+                double[] nanos = run(codec, event, encoded, MEASURED_ITERATIONS);
+                System.out.printf("%-8s %-6s %12d %14.1f %14.1f%n",
+                        codec.name(), event.eventType(), encoded.length, nanos[0], nanos[1]);
+            }
+        }
+    }
+
+    private static double[] run(EventCodec codec, MarketEvent event, byte[] encoded, int iterations) {
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink = codec.encode(event);
+        }
+        long encodeNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink = codec.decode(encoded);
+        }
+        long decodeNanos = System.nanoTime() - start;
+        return new double[] {(double) encodeNanos / iterations, (double) decodeNanos / iterations};
+    }
+}
@@ -0,0 +1,202 @@
+package com.pulsewire.core.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.pulsewire.core.model.FixedQuote;
+import com.pulsewire.core.model.FixedTrade;
+import com.pulsewire.core.model.MarketEvent;
+import com.pulsewire.core.model.MarketEvent.EventType;
+import com.pulsewire.core.model.Quote;
+import com.pulsewire.core.model.Trade;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventCodecTest {
+
+    static List<EventCodec> codecs() {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+        return List.of(new BinaryEventCodec(), new JsonEventCodec(mapper));
+    }
+
+    @ParameterizedTest
+    @MethodSource("codecs")
+    void shouldRoundTripTrade(EventCodec codec) {
+        MarketEvent event = new MarketEvent("evt-1", "AAPL", EventType.TRADE,
+                Instant.parse("2026-02-06T10:30:00.123456789Z"), Instant.parse("2026-02-06T10:30:00.223Z"),
+                null, 1, new Trade(new BigDecimal("185.50"), new BigDecimal("100"), "@F"));
+
+        MarketEvent decoded = codec.decode(codec.encode(event));
+
+        assertEquals(event, decoded);
+        assertInstanceOf(Trade.class, decoded.payload());
+    }
+
+    @ParameterizedTest
+    @MethodSource("codecs")
+    void shouldRoundTripQuote(EventCodec codec) {
+        MarketEvent event = new MarketEvent("evt-2", "MSFT", EventType.QUOTE,
+                Instant.parse("2026-02-06T10:30:00Z"), Instant.parse("2026-02-06T10:30:00.000001Z"),
+                Instant.parse("2026-02-06T10:30:00.000002Z"), 2,
+                new Quote(new BigDecimal("374.9800"), new BigDecimal("200"),
+                        new BigDecimal("375.0200"), new BigDecimal("300")));
+
+        MarketEvent decoded = codec.decode(codec.encode(event));
+
+        assertEquals(event, decoded);
+        assertInstanceOf(Quote.class, decoded.payload());
+    }
+
+    @Test
+    void binaryShouldRoundTripFixedPointPayloads() {
+        BinaryEventCodec codec = new BinaryEventCodec();
+        MarketEvent trade = new MarketEvent("evt-7", "AAPL", EventType.TRADE, null, null, null, 1,
+                new FixedTrade(18550, 100, 2, 0, "@F"));
+        MarketEvent quote = new MarketEvent("evt-8", "AAPL", EventType.QUOTE, null, null, null, 1,
+                new FixedQuote(1854800, 200, 1855200, 300, 4, 0));
+
+        assertEquals(trade, codec.decode(codec.encode(trade)));
+        assertEquals(quote, codec.decode(codec.encode(quote)));
+    }
+
+    @Test
+    void jsonShouldRenderFixedPointPayloadsAsDecimals() {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+        JsonEventCodec codec = new JsonEventCodec(mapper);
+        MarketEvent event = new MarketEvent("evt-9", "AAPL", EventType.TRADE, null, null, null, 1,
+                new FixedTrade(18550, 100, 2, 0, null));
+
+        MarketEvent decoded = codec.decode(codec.encode(event));
+
+        assertEquals(new Trade(new BigDecimal("185.50"), new BigDecimal("100"), null), decoded.payload());
+    }
+
+    @Test
+    void shouldCarryNumericIdsAndInstrumentIndexWithoutRenderingThem() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+        MarketEvent event = new MarketEvent(null, "AAPL", EventType.TRADE, 1_770_373_800_123_456_789L,
+                MarketEvent.NO_TIMESTAMP, MarketEvent.NO_TIMESTAMP, 1, new FixedTrade(18550, 100, 2, 0, null),
+                123456789L, 3);
+        BinaryEventCodec codec = new BinaryEventCodec();
+
+        MarketEvent decoded = codec.decode(codec.encode(event));
+
+        assertEquals(event, decoded);
+        assertEquals(3, decoded.instrumentIndex());
+        assertEquals("123456789", decoded.eventId());
+        assertEquals(BinaryEventCodec.HEADER_SIZE + 4 + 2 * Long.BYTES + 2 + 2,
+                codec.encode(event).length, "numeric id must not be written as a string");
+
+        String json = mapper.writeValueAsString(event);
+        assertTrue(json.contains("\"eventId\":\"123456789\""), json);
+        assertFalse(json.contains("numericId"), json);
+        assertFalse(json.contains("instrumentIndex"), json);
+    }
+
+    @Test
+    void shouldRejectEventWithBothIdForms() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new MarketEvent("evt-1", "AAPL", EventType.TRADE, (Instant) null, null, null, 1, null, 5L));
+    }
+
+    @Test
+    void binaryShouldPreserveNulls() {
+        BinaryEventCodec codec = new BinaryEventCodec();
+        MarketEvent event = new MarketEvent(null, "TSLA", EventType.STATUS, null, null, null, 1, null);
+
+        assertEquals(event, codec.decode(codec.encode(event)));
+
+        MarketEvent trade = new MarketEvent("evt-3", "TSLA", EventType.TRADE, null, null, null, 1,
+                new Trade(new BigDecimal("240.01"), null, null));
+        assertEquals(trade, codec.decode(codec.encode(trade)));
+    }
+
+    @Test
+    void binaryShouldBeMoreCompactThanJson() {
+        MarketEvent event = new MarketEvent("evt-4", "GOOGL", EventType.QUOTE, Instant.now(), Instant.now(),
+                Instant.now(), 1, new Quote(new BigDecimal("140.01"), new BigDecimal("100"),
+                new BigDecimal("140.03"), new BigDecimal("200")));
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+
+        int binary = new BinaryEventCodec().encode(event).length;
+        int json = new JsonEventCodec(mapper).encode(event).length;
+
+        assertTrue(binary < json / 2, "binary=" + binary + " json=" + json);
+    }
+
+    @Test
+    void binaryShouldRejectUnknownFormatVersionAndTruncation() {
+        BinaryEventCodec codec = new BinaryEventCodec();
+        byte[] bytes = codec.encode(new MarketEvent("evt-5", "AAPL", EventType.TRADE, null, null, null, 1,
+                new Trade(BigDecimal.ONE, BigDecimal.TEN, null)));
+
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(Arrays.copyOf(bytes, bytes.length - 3)));
+        bytes[0] = 99;
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(bytes));
+    }
+
+    @Test
+    void binaryShouldRejectUnsupportedPayload() {
+        MarketEvent event = new MarketEvent("evt-6", "AAPL", EventType.STATUS, null, null, null, 1, "halted");
+        assertThrows(IllegalArgumentException.class, () -> new BinaryEventCodec().encode(event));
+    }
+
+    @Test
+    void binaryShouldRejectStringsThatCollideWithTheNullLength() {
+        BinaryEventCodec codec = new BinaryEventCodec();
+        String maxLength = "X".repeat(0xFFFF);
+
+        assertThrows(IllegalArgumentException.class, () -> codec.encode(
+                new MarketEvent("evt-7", maxLength, EventType.STATUS, null, null, null, 1, null)));
+        assertThrows(IllegalArgumentException.class, () -> codec.encode(
+                new MarketEvent(maxLength, "AAPL", EventType.STATUS, null, null, null, 1, null)));
+        MarketEvent longest = new MarketEvent("evt-7", "X".repeat(0xFFFE), EventType.STATUS, null, null, null, 1, null);
+        assertEquals(longest, codec.decode(codec.encode(longest)));
+    }
+
+    @Test
+    void binaryShouldRejectPayloadsLongerThanTheLengthField() {
+        BinaryEventCodec codec = new BinaryEventCodec();
+        String conditions = "C".repeat(0xFFFF - 2 * 9 - 2);
+        MarketEvent longest = new MarketEvent("evt-8", "AAPL", EventType.TRADE, null, null, null, 1,
+                new Trade(BigDecimal.ONE, BigDecimal.TEN, conditions));
+        assertEquals(longest, codec.decode(codec.encode(longest)));
+
+        assertThrows(IllegalArgumentException.class, () -> codec.encode(new MarketEvent("evt-8", "AAPL",
+                EventType.TRADE, null, null, null, 1, new Trade(BigDecimal.ONE, BigDecimal.TEN, conditions + "C"))));
+        assertThrows(IllegalArgumentException.class, () -> codec.encode(new MarketEvent("evt-8", "AAPL",
+                EventType.TRADE, null, null, null, 1, new FixedTrade(1, 10, 0, 0, "C".repeat(0xFFF0)))));
+    }
+
+    @Test
+    void binaryShouldRejectSchemaVersionsOutsideTheHeaderField() {
+        BinaryEventCodec codec = new BinaryEventCodec();
+        MarketEvent highest = new MarketEvent("evt-9", "AAPL", EventType.STATUS, null, null, null, 0xFFFF, null);
+        assertEquals(highest, codec.decode(codec.encode(highest)));
+
+        assertThrows(IllegalArgumentException.class, () -> codec.encode(
+                new MarketEvent("evt-9", "AAPL", EventType.STATUS, null, null, null, 0x10000, null)));
+        assertThrows(IllegalArgumentException.class, () -> codec.encode(
+                new MarketEvent("evt-9", "AAPL", EventType.STATUS, null, null, null, -1, null)));
+    }
+
+    @Test
+    void shouldResolveCodecsByName() {
+        ObjectMapper mapper = new ObjectMapper();
+        assertInstanceOf(BinaryEventCodec.class, EventCodec.forName("binary", mapper));
+        assertInstanceOf(JsonEventCodec.class, EventCodec.forName("JSON", mapper));
+        assertInstanceOf(BinaryEventCodec.class, EventCodec.forName(BinaryEventCodec.class.getName(), mapper));
+        assertThrows(IllegalArgumentException.class, () -> EventCodec.forName("avro", mapper));
+    }
+}
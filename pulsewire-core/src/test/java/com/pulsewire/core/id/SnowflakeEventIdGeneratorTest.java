@@ -0,0 +1,71 @@
+package com.pulsewire.core.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnowflakeEventIdGeneratorTest {
+
+    private static final long NOW = SnowflakeEventIdGenerator.EPOCH.toEpochMilli() + 1_000_000L;
+
+    @Test
+    void shouldPackTimestampNodeAndSequence() {
+        SnowflakeEventIdGenerator generator = new SnowflakeEventIdGenerator(42, () -> NOW);
+
+        long id = generator.nextId();
+
+        assertTrue(id > 0);
+        assertEquals(NOW, SnowflakeEventIdGenerator.timestampMillis(id));
+        assertEquals(42, SnowflakeEventIdGenerator.nodeId(id));
+        assertEquals(1, SnowflakeEventIdGenerator.sequence(id));
+    }
+
+    @Test
+    void shouldStayMonotonicWhenSequenceOverflowsOrClockStepsBack() {
+        AtomicLong clock = new AtomicLong(NOW);
+        SnowflakeEventIdGenerator generator = new SnowflakeEventIdGenerator(1, clock::get);
+
+        long previous = 0;
+        for (int i = 0; i < 10_000; i++) {
+            long id = generator.nextId();
+            assertTrue(id > previous, "ids must be strictly increasing");
+            previous = id;
+        }
+
+        clock.set(NOW - 5_000);
+        assertTrue(generator.nextId() > previous);
+    }
+
+    @Test
+    void shouldGenerateUniqueIdsAcrossThreads() throws InterruptedException {
+        SnowflakeEventIdGenerator generator = new SnowflakeEventIdGenerator(7);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        int threads = 4;
+        int perThread = 50_000;
+        CountDownLatch done = new CountDownLatch(threads);
+
+        for (int t = 0; t < threads; t++) {
+            new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    ids.add(generator.nextId());
+                }
+                done.countDown();
+            }).start();
+        }
+
+        done.await();
+        assertEquals(threads * perThread, ids.size());
+    }
+
+    @Test
+    void shouldRejectOutOfRangeNodeId() {
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeEventIdGenerator(-1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new SnowflakeEventIdGenerator(SnowflakeEventIdGenerator.MAX_NODE_ID + 1));
+    }
+}
@@ -0,0 +1,103 @@
+package com.pulsewire.core.instrument;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InstrumentRegistryTest {
+
+    @Test
+    void shouldAssignDenseStableIndexes() {
+        InstrumentRegistry registry = new InstrumentRegistry(16);
+
+        assertEquals(0, registry.register("AAPL"));
+        assertEquals(1, registry.register("MSFT"));
+        assertEquals(0, registry.register("AAPL"));
+
+        assertEquals(1, registry.indexOf("MSFT"));
+        assertEquals(InstrumentRegistry.UNASSIGNED, registry.indexOf("TSLA"));
+        assertEquals("MSFT", registry.instrumentId(1));
+        assertNull(registry.instrumentId(2));
+        assertNull(registry.instrumentId(-1));
+        assertEquals(List.of("AAPL", "MSFT"), registry.instrumentIds());
+    }
+
+    @Test
+    void shouldRejectRegistrationWhenFull() {
+        InstrumentRegistry registry = new InstrumentRegistry(2);
+        registry.registerAll(List.of("A", "B"));
+
+        assertThrows(IllegalStateException.class, () -> registry.register("C"));
+        assertEquals(1, registry.register("B"));
+        assertEquals(2, registry.size());
+    }
+
+    @Test
+    void shouldReconcileIndexesStampedByAnotherRegistry() {
+        InstrumentRegistry registry = new InstrumentRegistry(16);
+        registry.registerAll(List.of("AAPL", "MSFT"));
+
+        assertEquals(1, registry.reconcile("MSFT", 1));
+        // Index 0 is MSFT in the other process's registry but AAPL here
+        assertEquals(1, registry.reconcile("MSFT", 0));
+        assertEquals(0, registry.reconcile("AAPL", InstrumentRegistry.UNASSIGNED));
+        assertEquals(2, registry.reconcile("TSLA", 7));
+        assertEquals("TSLA", registry.instrumentId(2));
+    }
+
+    @Test
+    void shouldTellListenersAboutEachNewInstrumentOnce() {
+        InstrumentRegistry registry = new InstrumentRegistry(16);
+        registry.register("AAPL");
+        List<String> told = new ArrayList<>();
+        registry.addListener((instrumentId, index) -> {
+            assertEquals(index, registry.indexOf(instrumentId));
+            told.add(instrumentId + "=" + index);
+        });
+
+        registry.register("AAPL");
+        registry.register("MSFT");
+        registry.reconcile("MSFT", 0);
+        registry.registerAll(List.of("MSFT", "TSLA"));
+
+        assertEquals(List.of("MSFT=1", "TSLA=2"), told);
+    }
+
+    @Test
+    void shouldAssignEachIdExactlyOnceUnderContention() throws InterruptedException {
+        InstrumentRegistry registry = new InstrumentRegistry(1024);
+        int threads = 4;
+        Set<Integer> seen = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+
+        for (int t = 0; t < threads; t++) {
+            new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < 1000; i++) {
+                        seen.add(registry.register("SYM" + i));
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }).start();
+        }
+        start.countDown();
+        done.await();
+
+        assertEquals(1000, registry.size());
+        assertEquals(1000, seen.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals("SYM" + i, registry.instrumentId(registry.indexOf("SYM" + i)));
+        }
+    }
+}
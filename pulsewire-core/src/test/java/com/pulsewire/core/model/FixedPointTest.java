@@ -0,0 +1,58 @@
+package com.pulsewire.core.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FixedPointTest {
+
+    @Test
+    void shouldDeriveScaleFromTickSize() {
+        assertEquals(2, FixedPoint.scaleForTickSize(0.01));
+        assertEquals(4, FixedPoint.scaleForTickSize(0.0005));
+        assertEquals(0, FixedPoint.scaleForTickSize(1.0));
+        assertEquals(0, FixedPoint.scaleForTickSize(25.0));
+        assertEquals(FixedPoint.DEFAULT_PRICE_SCALE, FixedPoint.scaleForTickSize(null));
+        assertEquals(FixedPoint.DEFAULT_PRICE_SCALE, FixedPoint.scaleForTickSize(0.0));
+    }
+
+    @Test
+    void shouldConvertBetweenMantissaAndDecimal() {
+        assertEquals(18550, FixedPoint.toMantissa(new BigDecimal("185.5"), 2));
+        assertEquals(18551, FixedPoint.toMantissa(new BigDecimal("185.505"), 2));
+        assertEquals(18550, FixedPoint.toMantissa(185.5, 2));
+        assertEquals(new BigDecimal("185.50"), FixedPoint.toBigDecimal(18550, 2));
+        assertEquals(185.5, FixedPoint.toDouble(18550, 2));
+    }
+
+    @Test
+    void shouldRejectOutOfRangeValues() {
+        assertThrows(ArithmeticException.class, () -> FixedPoint.toMantissa(new BigDecimal("1e20"), 2));
+        assertThrows(ArithmeticException.class, () -> FixedPoint.toMantissa(Double.NaN, 2));
+        assertThrows(IllegalArgumentException.class, () -> FixedPoint.toMantissa(1.0, 19));
+    }
+
+    @Test
+    void shouldCompareAcrossScales() {
+        assertTrue(FixedPoint.compare(18550, 2, 18549, 2) > 0);
+        assertEquals(0, FixedPoint.compare(18550, 2, 1855000, 4));
+        assertTrue(FixedPoint.compare(1855001, 4, 18550, 2) > 0);
+        assertTrue(FixedPoint.compare(Long.MAX_VALUE, 0, 1, 18) > 0);
+    }
+
+    @Test
+    void shouldRoundTripPayloadsThroughDecimals() {
+        Trade trade = new Trade(new BigDecimal("185.50"), new BigDecimal("100"), "@F");
+        FixedTrade fixed = FixedTrade.from(trade, 2, 0);
+
+        assertEquals(new FixedTrade(18550, 100, 2, 0, "@F"), fixed);
+        assertEquals(trade, fixed.toTrade());
+
+        FixedQuote quote = FixedQuote.from(new Quote(new BigDecimal("10.01"), BigDecimal.ONE,
+                new BigDecimal("10.02"), BigDecimal.TEN), 2, 0);
+        assertFalse(quote.isCrossed());
+        assertEquals(new BigDecimal("10.02"), quote.toQuote().askPrice());
+    }
+}
@@ -0,0 +1,79 @@
+package com.pulsewire.core.model;
+
+import com.pulsewire.core.codec.BinaryEventCodec;
+import com.pulsewire.core.model.MarketEvent.EventType;
+import org.junit.jupiter.api.Test;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MarketEventViewTest {
+
+    private final BinaryEventCodec codec = new BinaryEventCodec();
+
+    @Test
+    void shouldReadHeaderFieldsInPlace() {
+        MarketEvent event = createTestEvent();
+        byte[] bytes = codec.encode(event);
+
+        MarketEventView view = new MarketEventView().wrap(ByteBuffer.wrap(bytes), 0);
+
+        assertEquals(BinaryEventCodec.FORMAT_VERSION, view.formatVersion());
+        assertEquals(EventType.TRADE, view.eventType());
+        assertEquals(BinaryEventCodec.PAYLOAD_FIXED_TRADE, view.payloadType());
+        assertEquals(1, view.schemaVersion());
+        assertEquals(1_770_373_800_123_456_789L, view.exchangeTimestampNanos());
+        assertEquals(MarketEventView.NULL_TIMESTAMP, view.publishTimestampNanos());
+        assertEquals("evt-1", view.eventId());
+        assertEquals("AAPL", view.instrumentId());
+        assertTrue(view.instrumentIdEquals("AAPL".getBytes(StandardCharsets.UTF_8)));
+        assertFalse(view.instrumentIdEquals("AAP".getBytes(StandardCharsets.UTF_8)));
+        assertEquals(bytes.length, view.length());
+    }
+
+    @Test
+    void shouldStampFieldsWithoutDecoding() {
+        byte[] bytes = codec.encode(createTestEvent());
+        Instant published = Instant.parse("2026-02-06T10:30:01.000000500Z");
+
+        new MarketEventView().wrap(ByteBuffer.wrap(bytes), 0)
+                .publishTimestampNanos(1_770_373_801_000_000_500L)
+                .schemaVersion(3);
+
+        MarketEvent decoded = codec.decode(bytes);
+        assertEquals(published, decoded.publishTimestamp());
+        assertEquals(3, decoded.schemaVersion());
+        assertEquals(createTestEvent().payload(), decoded.payload());
+    }
+
+    @Test
+    void shouldEncodeAndDecodeInDirectBufferAtOffset() {
+        // Big-endian on purpose: the view and codec must not depend on the buffer's byte order
+        ByteBuffer buffer = ByteBuffer.allocateDirect(512).order(ByteOrder.BIG_ENDIAN);
+        buffer.position(7);
+        int first = codec.encode(createTestEvent(), buffer);
+        int second = codec.encode(createTestEvent(), buffer);
+
+        MarketEventView view = new MarketEventView().wrap(buffer, 7 + first);
+        assertEquals(second, view.length());
+        assertEquals(createTestEvent(), codec.decode(view));
+        assertEquals(7 + first + second, buffer.position());
+    }
+
+    @Test
+    void shouldRejectTruncatedBuffers() {
+        assertThrows(IllegalArgumentException.class, () -> new MarketEventView().wrap(ByteBuffer.allocate(10), 0));
+        assertThrows(BufferOverflowException.class, () -> codec.encode(createTestEvent(), ByteBuffer.allocate(50)));
+    }
+
+    private MarketEvent createTestEvent() {
+        return new MarketEvent("evt-1", "AAPL", EventType.TRADE,
+                Instant.parse("2026-02-06T10:30:00.123456789Z"), Instant.parse("2026-02-06T10:30:00.2Z"),
+                null, 1, new FixedTrade(18550, 100, 2, 0, null));
+    }
+}
@@ -0,0 +1,72 @@
+package com.pulsewire.core.time;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.pulsewire.core.model.MarketEvent;
+import com.pulsewire.core.model.MarketEvent.EventType;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PulseClockTest {
+
+    @Test
+    void calibratedClockShouldTrackWallClock() {
+        long wall = PulseClock.toEpochNanos(Instant.now());
+        long pulse = PulseClock.system().epochNanos();
+
+        assertTrue(Math.abs(pulse - wall) < Duration.ofMillis(50).toNanos(), "drift=" + (pulse - wall));
+    }
+
+    @Test
+    void calibratedClockShouldFollowTheGivenWallClockAndStayMonotonic() {
+        Instant fixed = Instant.parse("2026-02-06T10:30:00Z");
+        CalibratedPulseClock clock = new CalibratedPulseClock(Clock.fixed(fixed, ZoneOffset.UTC));
+
+        long first = clock.epochNanos();
+        long second = clock.epochNanos();
+
+        assertTrue(Math.abs(first - PulseClock.toEpochNanos(fixed)) < Duration.ofMillis(50).toNanos());
+        assertTrue(second >= first);
+    }
+
+    @Test
+    void virtualClockShouldOnlyMoveWhenAdvanced() {
+        VirtualPulseClock clock = new VirtualPulseClock(Instant.parse("2026-02-06T10:30:00Z"));
+
+        assertEquals(clock.epochNanos(), clock.epochNanos());
+        clock.advance(Duration.ofNanos(1_500));
+
+        assertEquals(Instant.parse("2026-02-06T10:30:00.000001500Z"), clock.instant());
+    }
+
+    @Test
+    void shouldConvertBetweenInstantAndEpochNanos() {
+        Instant instant = Instant.parse("1969-12-31T23:59:59.999999999Z");
+        assertEquals(-1L, PulseClock.toEpochNanos(instant));
+        assertEquals(instant, PulseClock.toInstant(-1L));
+    }
+
+    @Test
+    void marketEventShouldExposeNanosButSerializeInstants() throws Exception {
+        ObjectMapper mapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        MarketEvent event = new MarketEvent("evt-1", "AAPL", EventType.TRADE,
+                Instant.parse("2026-02-06T10:30:00.123456789Z"), null, null, 1, null);
+
+        assertEquals(1_770_373_800_123_456_789L, event.exchangeTimestampNanos());
+        assertEquals(MarketEvent.NO_TIMESTAMP, event.receiveTimestampNanos());
+        assertNull(event.receiveTimestamp());
+        assertEquals("{\"eventId\":\"evt-1\",\"instrumentId\":\"AAPL\",\"eventType\":\"TRADE\","
+                        + "\"exchangeTimestamp\":\"2026-02-06T10:30:00.123456789Z\",\"receiveTimestamp\":null,"
+                        + "\"publishTimestamp\":null,\"schemaVersion\":1,\"payload\":null}",
+                mapper.writeValueAsString(event));
+    }
+}
@@ -0,0 +1,20 @@
+package com.pulsewire.dataplane;
+
+import com.pulsewire.core.time.PulseClock;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Provides the {@link PulseClock} used to stamp event timestamps.
+ * Tests and replays can replace it with a {@link com.pulsewire.core.time.VirtualPulseClock}.
+ */
+@Configuration
+public class ClockConfig {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public PulseClock pulseClock() {
+        return PulseClock.system();
+    }
+}
@@ -0,0 +1,30 @@
+package com.pulsewire.dataplane;
+
+import com.pulsewire.core.id.EventIdGenerator;
+import com.pulsewire.core.id.SnowflakeEventIdGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Provides the {@link EventIdGenerator} used by feed adapters to stamp events.
+ * Each data plane instance must run with a distinct node id so ids stay unique across the cluster.
+ */
+@Configuration
+public class EventIdConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(EventIdConfig.class);
+
+    @Value("${pulsewire.node-id:0}")
+    private int nodeId;
+
+    @Bean
+    @ConditionalOnMissingBean
+    public EventIdGenerator eventIdGenerator() {
+        log.info("Using Snowflake event ids with node id {}", nodeId);
+        return new SnowflakeEventIdGenerator(nodeId);
+    }
+}
@@ -0,0 +1,85 @@
+package com.pulsewire.dataplane;
+
+import com.pulsewire.core.instrument.InstrumentAttributes;
+import com.pulsewire.core.instrument.InstrumentRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.util.List;
+
+/**
+ * Provides the {@link InstrumentRegistry} shared by adapters, the normalizer and the gateway.
+ *
+ * <p>When {@code pulsewire.instruments.control-plane-url} is set, the registry starts from the
+ * control plane's registry in its index order, so nodes sharing a Kafka backbone stamp the same
+ * index for the same instrument. Instruments first seen afterwards are registered locally, and may
+ * get different indexes on different nodes; consumers check stamped indexes with
+ * {@link InstrumentRegistry#reconcile}. Adapters register their symbol lists up front, with their
+ * {@link InstrumentAttributes} where they know them.
+ */
+@Configuration
+public class InstrumentRegistryConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(InstrumentRegistryConfig.class);
+
+    static final String REGISTRY_PATH = "/api/instruments/registry";
+
+    private static final int TIMEOUT_MS = 5000;
+
+    @Value("${pulsewire.instruments.registry-capacity:65536}")
+    private int capacity;
+
+    @Value("${pulsewire.instruments.control-plane-url:}")
+    private String controlPlaneUrl;
+
+    @Bean
+    @ConditionalOnMissingBean
+    public InstrumentRegistry instrumentRegistry() {
+        InstrumentRegistry registry = new InstrumentRegistry(capacity);
+        if (!controlPlaneUrl.isBlank()) {
+            seed(registry, controlPlaneUrl);
+        }
+        return registry;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public InstrumentAttributes instrumentAttributes(InstrumentRegistry instrumentRegistry) {
+        return new InstrumentAttributes(instrumentRegistry);
+    }
+
+    /**
+     * Registers the control plane's instruments into the still empty {@code registry}, in the
+     * control plane's index order. If the control plane cannot be reached the registry starts
+     * empty; indexes then differ between nodes and are reconciled on every event instead.
+     */
+    static void seed(InstrumentRegistry registry, String controlPlaneUrl) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(TIMEOUT_MS);
+        requestFactory.setReadTimeout(TIMEOUT_MS);
+        try {
+            String[] instrumentIds = RestClient.builder()
+                    .baseUrl(controlPlaneUrl)
+                    .requestFactory(requestFactory)
+                    .build()
+                    .get()
+                    .uri(REGISTRY_PATH)
+                    .retrieve()
+                    .body(String[].class);
+            if (instrumentIds != null) {
+                registry.registerAll(List.of(instrumentIds));
+            }
+            log.info("Seeded instrument registry with {} instruments from {}", registry.size(), controlPlaneUrl);
+        } catch (RestClientException e) {
+            log.warn("Could not load the instrument registry from {}; indexes will differ from other nodes",
+                    controlPlaneUrl, e);
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.pulsewire.dataplane.adapter;
+
+import com.pulsewire.core.backbone.BackbonePublisher;
+import com.pulsewire.core.id.EventIdGenerator;
+import com.pulsewire.core.instrument.InstrumentRegistry;
+import com.pulsewire.core.model.FixedQuote;
+import com.pulsewire.core.model.FixedTrade;
+import com.pulsewire.core.model.MarketEvent;
+import com.pulsewire.core.model.MarketEvent.EventType;
+import com.pulsewire.core.time.PulseClock;
+import com.pulsewire.dataplane.adapter.capture.CaptureTap;
+import com.pulsewire.dataplane.adapter.capture.CaptureTapConfig;
+import com.pulsewire.dataplane.adapter.spi.FeedEventHandler;
+import com.pulsewire.dataplane.adapter.spi.RawFeedMessage;
+import com.pulsewire.dataplane.adapter.spi.RawFeedMessageView;
+import com.pulsewire.dataplane.adapter.synthetic.SyntheticPayloadParser;
+import com.pulsewire.dataplane.metrics.LatencyMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs an {@link com.pulsewire.dataplane.adapter.spi.FeedAdapter SPI feed adapter} as a backbone
+ * {@link FeedAdapter}: the raw JSON payloads it delivers are parsed in place by a
+ * {@link SyntheticPayloadParser} and published as raw events to {@value #RAW_TRADES_TOPIC} or
+ * {@value #RAW_QUOTES_TOPIC}, for the normalizer like any other adapter's output. Messages lent as
+ * a {@link RawFeedMessageView} are parsed where they lie, without a copy.
+ *
+ * <p>Adapters call back on their own threads, possibly several, so each thread gets its own parser.
+ * Payloads that cannot be parsed are counted and dropped.
+ *
+ * <p>Given a {@link CaptureTapConfig}, the bridge connects the adapter through a {@link CaptureTap}
+ * that records its messages to a directory named after the feed, opened on start and closed on stop.
+ */
+public class FeedEventBridge implements FeedAdapter, FeedEventHandler {
+
+    private static final Logger log = LoggerFactory.getLogger(FeedEventBridge.class);
+
+    static final String RAW_TRADES_TOPIC = "raw.trades";
+    static final String RAW_QUOTES_TOPIC = "raw.quotes";
+
+    private final String feed;
+    private final com.pulsewire.dataplane.adapter.spi.FeedAdapter adapter;
+    private final EventIdGenerator idGenerator;
+    private final ThreadLocal<SyntheticPayloadParser> parsers;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final LongAdder publishedCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+
+    private final CaptureTapConfig capture;
+
+    private volatile BackbonePublisher publisher;
+    private volatile CaptureTap tap;
+
+    /**
+     * @param feed name the feed's events are attributed to in {@link LatencyMetrics}
+     */
+    public FeedEventBridge(String feed, com.pulsewire.dataplane.adapter.spi.FeedAdapter adapter,
+                           EventIdGenerator idGenerator, InstrumentRegistry instrumentRegistry,
+                           LatencyMetrics latencyMetrics) {
+        this(feed, adapter, idGenerator, instrumentRegistry, latencyMetrics, null);
+    }
+
+    /**
+     * @param capture where to record the adapter's messages, in a subdirectory named after the feed;
+     *                null not to capture
+     */
+    public FeedEventBridge(String feed, com.pulsewire.dataplane.adapter.spi.FeedAdapter adapter,
+                           EventIdGenerator idGenerator, InstrumentRegistry instrumentRegistry,
+                           LatencyMetrics latencyMetrics, CaptureTapConfig capture) {
+        this.feed = feed;
+        this.capture = capture;
+        this.adapter = adapter;
+        this.idGenerator = idGenerator;
+        this.parsers = ThreadLocal.withInitial(() -> new SyntheticPayloadParser(instrumentRegistry,
+                instrumentIndex -> latencyMetrics.bindFeed(feed, new int[]{instrumentIndex})));
+    }
+
+    @Override
+    public void start(BackbonePublisher publisher) {
+        if (running.compareAndSet(false, true)) {
+            this.publisher = publisher;
+            adapter.connect(openTap());
+            log.info("FeedEventBridge started for {} adapter {}", feed, adapter.getId());
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (running.compareAndSet(true, false)) {
+            adapter.disconnect();
+            CaptureTap tap = this.tap;
+            if (tap != null) {
+                this.tap = null;
+                tap.close();
+            }
+            log.info("FeedEventBridge stopped for {} adapter {}", feed, adapter.getId());
+        }
+    }
+
+    /**
+     * @return the handler to connect the adapter to: this bridge, behind a capture tap if configured
+     */
+    private FeedEventHandler openTap() {
+        if (capture == null) {
+            return this;
+        }
+        try {
+            tap = new CaptureTap(this, capture.withDirectory(capture.directory().resolve(feed)));
+            return tap;
+        } catch (IOException e) {
+            // Losing the capture must not take the feed down with it
+            log.error("Could not open capture for feed {} in {}; running without capture", feed,
+                    capture.directory(), e);
+            return this;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    @Override
+    public void onConnected(String adapterId) {
+        log.info("Feed {} connected", adapterId);
+    }
+
+    @Override
+    public void onDisconnected(String adapterId, String reason) {
+        log.info("Feed {} disconnected: {}", adapterId, reason);
+    }
+
+    @Override
+    public void onMessage(String adapterId, RawFeedMessage message) {
+        BackbonePublisher publisher = this.publisher;
+        if (publisher == null) {
+            return;
+        }
+        SyntheticPayloadParser parser = parsers.get();
+        EventType eventType;
+        try {
+            eventType = parser.parse(message.payload());
+        } catch (IllegalArgumentException | ArithmeticException e) {
+            reject(adapterId, message.sequenceNumber(), e);
+            return;
+        }
+        publish(publisher, parser, eventType, PulseClock.toEpochNanos(message.receiveTimestamp()));
+    }
+
+    /**
+     * Parses the payload where the adapter holds it, such as a mapped capture, without copying it.
+     */
+    @Override
+    public void onMessageView(String adapterId, RawFeedMessageView message) {
+        BackbonePublisher publisher = this.publisher;
+        if (publisher == null) {
+            return;
+        }
+        SyntheticPayloadParser parser = parsers.get();
+        EventType eventType;
+        try {
+            eventType = parser.parse(message.buffer(), message.payloadOffset(), message.payloadLength());
+        } catch (IllegalArgumentException | ArithmeticException e) {
+            reject(adapterId, message.sequenceNumber(), e);
+            return;
+        }
+        publish(publisher, parser, eventType, message.receiveTimestampNanos());
+    }
+
+    private void reject(String adapterId, long sequenceNumber, RuntimeException e) {
+        rejectedCount.increment();
+        log.warn("Rejected message {} from feed {}: {}", sequenceNumber, adapterId, e.getMessage());
+    }
+
+    private void publish(BackbonePublisher publisher, SyntheticPayloadParser parser, EventType eventType,
+                         long receiveTimestampNanos) {
+        Object payload = eventType == EventType.TRADE
+                ? new FixedTrade(parser.price(), parser.quantity(), parser.priceScale(), 0, null)
+                : new FixedQuote(parser.bidPrice(), parser.bidSize(), parser.askPrice(), parser.askSize(),
+                        parser.priceScale(), 0);
+        MarketEvent event = new MarketEvent(
+                null,
+                parser.instrumentId(),
+                eventType,
+                parser.timestampNanos(),
+                receiveTimestampNanos,
+                MarketEvent.NO_TIMESTAMP,
+                1,
+                payload,
+                idGenerator.nextId(),
+                parser.instrumentIndex());
+        publisher.publish(eventType == EventType.TRADE ? RAW_TRADES_TOPIC : RAW_QUOTES_TOPIC,
+                event.instrumentId(), event);
+        publishedCount.increment();
+    }
+
+    @Override
+    public void onError(String adapterId, Throwable error) {
+        log.error("Feed {} reported an error", adapterId, error);
+    }
+
+    @Override
+    public void onHeartbeatTimeout(String adapterId) {
+        log.warn("Feed {} missed its heartbeat", adapterId);
+    }
+
+    /**
+     * @return number of raw events published
+     */
+    public long getPublishedCount() {
+        return publishedCount.sum();
+    }
+
+    /**
+     * @return number of messages dropped because their payload could not be parsed
+     */
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+}
@@ -0,0 +1,33 @@
+package com.pulsewire.dataplane.adapter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Waits for replay deadlines on {@link System#nanoTime()}, shared by the adapters that replay
+ * recorded messages at their original pace.
+ */
+public final class ReplayPacing {
+
+    // Parks when the deadline is later than this, spins otherwise
+    private static final long SPIN_THRESHOLD_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private ReplayPacing() {
+    }
+
+    /**
+     * Parks until shortly before {@code deadlineNanos}, then spins, returning early once
+     * {@code running} is cleared.
+     */
+    public static void awaitNanoTime(long deadlineNanos, AtomicBoolean running) {
+        long remaining;
+        while ((remaining = deadlineNanos - System.nanoTime()) > 0 && running.get()) {
+            if (remaining > SPIN_THRESHOLD_NANOS) {
+                LockSupport.parkNanos(remaining - SPIN_THRESHOLD_NANOS);
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+}
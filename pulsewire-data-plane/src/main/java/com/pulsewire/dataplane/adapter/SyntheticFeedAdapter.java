@@ -1,18 +1,21 @@
 package com.pulsewire.dataplane.adapter;
 
 import com.pulsewire.core.backbone.BackbonePublisher;
+import com.pulsewire.core.id.EventIdGenerator;
+import com.pulsewire.core.instrument.InstrumentAttributes;
+import com.pulsewire.core.model.FixedPoint;
+import com.pulsewire.core.model.FixedTrade;
 import com.pulsewire.core.model.MarketEvent;
 import com.pulsewire.core.model.MarketEvent.EventType;
-import com.pulsewire.core.model.Trade;
+import com.pulsewire.core.time.PulseClock;
+import com.pulsewire.dataplane.metrics.LatencyMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
-import java.math.BigDecimal;
-import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
-import java.util.UUID;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -29,14 +32,35 @@ public class SyntheticFeedAdapter implements FeedAdapter {
 
     private static final List<String> INSTRUMENTS = List.of("AAPL", "GOOG", "MSFT", "AMZN", "TSLA");
     private static final String RAW_TOPIC = "raw.trades";
+    private static final String FEED = "synthetic";
+    private static final Map<String, String> ATTRIBUTES = Map.of(
+            InstrumentAttributes.VENUE, "SYNTHETIC",
+            InstrumentAttributes.ASSET_CLASS, "EQUITY");
+    private static final int PRICE_SCALE = FixedPoint.scaleForTickSize(0.01);
+    private static final int SIZE_SCALE = 0;
+    private static final long MIN_PRICE = FixedPoint.toMantissa(100, PRICE_SCALE);
+    private static final int PRICE_RANGE = (int) FixedPoint.toMantissa(50, PRICE_SCALE);
 
     private final AtomicBoolean running = new AtomicBoolean(false);
     private final AtomicLong sequenceNumber = new AtomicLong(0);
     private final Random random = new Random();
+    private final EventIdGenerator idGenerator;
+    private final int[] instrumentIndexes;
+    private final PulseClock clock;
 
     private ScheduledExecutorService executor;
     private BackbonePublisher publisher;
 
+    public SyntheticFeedAdapter(EventIdGenerator idGenerator, InstrumentAttributes instrumentAttributes, PulseClock clock,
+                                LatencyMetrics latencyMetrics) {
+        this.idGenerator = idGenerator;
+        this.clock = clock;
+        this.instrumentIndexes = INSTRUMENTS.stream()
+                .mapToInt(instrumentId -> instrumentAttributes.put(instrumentId, ATTRIBUTES))
+                .toArray();
+        latencyMetrics.bindFeed(FEED, instrumentIndexes);
+    }
+
     @Override
     public void start(BackbonePublisher publisher) {
         if (running.compareAndSet(false, true)) {
@@ -68,21 +92,24 @@ public class SyntheticFeedAdapter implements FeedAdapter {
 
     private void emitTrade() {
         try {
-            String instrument = INSTRUMENTS.get(random.nextInt(INSTRUMENTS.size()));
-            BigDecimal price = BigDecimal.valueOf(100 + random.nextDouble() * 50).setScale(2, BigDecimal.ROUND_HALF_UP);
-            BigDecimal size = BigDecimal.valueOf(random.nextInt(1000) + 1);
+            int i = random.nextInt(INSTRUMENTS.size());
+            String instrument = INSTRUMENTS.get(i);
+            long price = MIN_PRICE + random.nextInt(PRICE_RANGE);
+            long size = random.nextInt(1000) + 1;
 
-            Trade trade = new Trade(price, size, null);
-            Instant now = Instant.now();
+            FixedTrade trade = new FixedTrade(price, size, PRICE_SCALE, SIZE_SCALE, null);
+            long now = clock.epochNanos();
             MarketEvent event = new MarketEvent(
-                    UUID.randomUUID().toString(),
+                    null,
                     instrument,
                     EventType.TRADE,
                     now,
                     now,
-                    null,
+                    MarketEvent.NO_TIMESTAMP,
                     1,
-                    trade);
+                    trade,
+                    idGenerator.nextId(),
+                    instrumentIndexes[i]);
 
             publisher.publish(RAW_TOPIC, instrument, event);
             long seq = sequenceNumber.incrementAndGet();
@@ -0,0 +1,42 @@
+package com.pulsewire.dataplane.adapter.capture;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+/**
+ * Provides a {@link CaptureTapConfig} when {@code pulsewire.capture.enabled} is true, which feed
+ * bridges pick up to record the messages of their adapters, each feed in its own subdirectory.
+ */
+@Configuration
+@ConditionalOnProperty(name = "pulsewire.capture.enabled", havingValue = "true")
+public class CaptureConfig {
+
+    @Value("${pulsewire.capture.directory}")
+    private String directory;
+
+    @Value("${pulsewire.capture.segment-size-mb:256}")
+    private int segmentSizeMb;
+
+    @Value("${pulsewire.capture.ring-size-mb:8}")
+    private int ringSizeMb;
+
+    @Value("${pulsewire.capture.index-interval:1024}")
+    private int indexInterval;
+
+    @Bean
+    public CaptureTapConfig captureTapConfig() {
+        if (directory.isBlank()) {
+            throw new IllegalArgumentException("pulsewire.capture.directory is required");
+        }
+        return CaptureTapConfig.builder()
+                .directory(Path.of(directory))
+                .segmentBytes(Math.multiplyExact(segmentSizeMb, 1 << 20))
+                .ringBytes(Math.multiplyExact(ringSizeMb, 1 << 20))
+                .indexInterval(indexInterval)
+                .build();
+    }
+}
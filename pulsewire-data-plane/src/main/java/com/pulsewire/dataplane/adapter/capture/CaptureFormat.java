@@ -0,0 +1,160 @@
+package com.pulsewire.dataplane.adapter.capture;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Layout of a capture file: {@link com.pulsewire.dataplane.adapter.spi.RawFeedMessage}s as they
+ * reached a handler, replayed by {@link CaptureReplayAdapter}.
+ *
+ * <p>Little-endian, laid out to be read in place from a memory mapping:
+ * <pre>
+ * header:  int magic "PWCF", int version, long reserved (0)
+ * record:  int record length (header + payload, unpadded), int reserved (0),
+ *          long receive timestamp (epoch ns), long sequence number (-1 if none),
+ *          payload, zero padding to a multiple of {@value #ALIGNMENT} bytes
+ * </pre>
+ * Records are {@value #ALIGNMENT}-byte aligned so their fixed fields never straddle a cache line
+ * or a mapping window. A record length of 0 ends the data, which lets a writer preallocate the
+ * file and fill it in place; otherwise records run to the end of the file.
+ *
+ * <p>A capture directory, as a {@link CaptureTap} writes it, holds a run of such files as
+ * numbered segments, {@code segment-000000.pwcf} onwards, and a {@link CaptureIndex}.
+ */
+public final class CaptureFormat {
+
+    public static final int MAGIC = 0x46435750; // "PWCF" as read little-endian
+    public static final int VERSION = 1;
+    public static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    public static final int FILE_HEADER_LENGTH = 16;
+    public static final int RECORD_HEADER_LENGTH = 24;
+    public static final int ALIGNMENT = 8;
+
+    static final int LENGTH_OFFSET = 0;
+    static final int TIMESTAMP_OFFSET = 8;
+    static final int SEQUENCE_OFFSET = 16;
+
+    /**
+     * Largest payload a record can hold, so that its aligned length still fits an int.
+     */
+    public static final int MAX_PAYLOAD_LENGTH = Integer.MAX_VALUE - ALIGNMENT - RECORD_HEADER_LENGTH + 1;
+
+    static final String SEGMENT_PREFIX = "segment-";
+    static final String SEGMENT_SUFFIX = ".pwcf";
+
+    private CaptureFormat() {
+    }
+
+    /**
+     * @return path of segment {@code number} in a capture directory
+     */
+    public static Path segmentFile(Path directory, int number) {
+        return directory.resolve(String.format("%s%06d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX));
+    }
+
+    /**
+     * @return number of the segment at {@code file}, or -1 if it is not named as a segment
+     */
+    static int segmentNumber(Path file) {
+        String name = file.getFileName().toString();
+        if (!name.startsWith(SEGMENT_PREFIX) || !name.endsWith(SEGMENT_SUFFIX)) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(name, SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length(), 10);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * @return the segments of a capture directory in order
+     */
+    public static List<Path> listSegments(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> segmentNumber(file) >= 0)
+                .sorted(Comparator.comparingInt(CaptureFormat::segmentNumber))
+                .toList();
+        }
+    }
+
+    /**
+     * @return {@code length} rounded up to a multiple of {@value #ALIGNMENT}
+     */
+    public static long align(long length) {
+        return (length + ALIGNMENT - 1) & -ALIGNMENT;
+    }
+
+    /**
+     * @return bytes a record with {@code payloadLength} bytes of payload occupies, padding included
+     */
+    public static int recordLength(int payloadLength) {
+        if (payloadLength < 0 || payloadLength > MAX_PAYLOAD_LENGTH) {
+            throw new IllegalArgumentException("Payload length out of range: " + payloadLength);
+        }
+        return (int) align((long) RECORD_HEADER_LENGTH + payloadLength);
+    }
+
+    /**
+     * Writes the file header at index 0 of {@code buffer}.
+     */
+    public static void writeFileHeader(ByteBuffer buffer) {
+        buffer.order(BYTE_ORDER)
+            .putInt(0, MAGIC)
+            .putInt(4, VERSION)
+            .putLong(8, 0L);
+    }
+
+    /**
+     * Checks the file header at index 0 of {@code buffer}.
+     *
+     * @param source name of the file for the error message
+     * @throws IOException if the header is short, or not that of a capture file of a supported version
+     */
+    public static void checkFileHeader(ByteBuffer buffer, Object source) throws IOException {
+        if (buffer.capacity() < FILE_HEADER_LENGTH) {
+            throw new IOException("Truncated capture file header: " + source);
+        }
+        buffer.order(BYTE_ORDER);
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a capture file: " + source);
+        }
+        int version = buffer.getInt(4);
+        if (version != VERSION) {
+            throw new IOException("Unsupported capture file version " + version + ": " + source);
+        }
+    }
+
+    /**
+     * Writes one record at {@code offset} of {@code buffer}, padding included.
+     *
+     * @return offset of the next record
+     * @throws IndexOutOfBoundsException if the record does not fit
+     */
+    public static int writeRecord(ByteBuffer buffer, int offset, byte[] payload, int payloadOffset, int payloadLength,
+                                  long receiveTimestampNanos, long sequenceNumber) {
+        int length = recordLength(payloadLength);
+        if (offset < 0 || offset > buffer.capacity() - length) {
+            throw new IndexOutOfBoundsException("Record of " + length + " bytes at " + offset
+                    + " outside buffer of " + buffer.capacity());
+        }
+        buffer.order(BYTE_ORDER)
+            .putInt(offset + 4, 0)
+            .putLong(offset + TIMESTAMP_OFFSET, receiveTimestampNanos)
+            .putLong(offset + SEQUENCE_OFFSET, sequenceNumber)
+            .put(offset + RECORD_HEADER_LENGTH, payload, payloadOffset, payloadLength);
+        for (int i = offset + RECORD_HEADER_LENGTH + payloadLength; i < offset + length; i++) {
+            buffer.put(i, (byte) 0);
+        }
+        // Length last, so a reader of a preallocated file never sees a length before its record
+        buffer.putInt(offset + LENGTH_OFFSET, RECORD_HEADER_LENGTH + payloadLength);
+        return offset + length;
+    }
+}
@@ -0,0 +1,191 @@
+package com.pulsewire.dataplane.adapter.capture;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Sparse index of a capture directory by receive time and sequence number, so a replay or an
+ * investigation can find where in which segment a moment of the capture starts without scanning it.
+ *
+ * <p>The {@link CaptureTap} writer adds an entry for the first record of every segment and for every
+ * {@link CaptureTapConfig#indexInterval()}-th record after it. Layout of {@value #FILE_NAME},
+ * little-endian:
+ * <pre>
+ * header:  int magic "PWCI", int version, long reserved (0)
+ * entry:   long receive timestamp (epoch ns), long sequence number, int segment number,
+ *          int offset of the record in the segment
+ * </pre>
+ * Entries are in capture order. Lookups binary search them, so they find the right entry when the
+ * key does not decrease across the capture, as receive times and sequence numbers of one feed
+ * session do not; otherwise they find an entry near it.
+ */
+public final class CaptureIndex {
+
+    public static final String FILE_NAME = "capture.idx";
+
+    static final int MAGIC = 0x49435750; // "PWCI" as read little-endian
+    static final int VERSION = 1;
+    static final int HEADER_LENGTH = 16;
+    static final int ENTRY_LENGTH = 24;
+
+    /**
+     * Where a record of the capture starts.
+     *
+     * @param timestampNanos receive time of the record in epoch nanoseconds
+     * @param sequenceNumber sequence number of the record
+     * @param segment number of the segment holding it
+     * @param offset offset of the record in that segment
+     */
+    public record Entry(long timestampNanos, long sequenceNumber, int segment, int offset) {
+    }
+
+    private final long[] timestamps;
+    private final long[] sequences;
+    private final int[] segments;
+    private final int[] offsets;
+
+    private CaptureIndex(long[] timestamps, long[] sequences, int[] segments, int[] offsets) {
+        this.timestamps = timestamps;
+        this.sequences = sequences;
+        this.segments = segments;
+        this.offsets = offsets;
+    }
+
+    /**
+     * Reads the index of a capture directory. An entry cut short by a crash is ignored.
+     *
+     * @throws IOException if the index cannot be read or is not a capture index
+     */
+    public static CaptureIndex read(Path directory) throws IOException {
+        Path file = directory.resolve(FILE_NAME);
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file)).order(CaptureFormat.BYTE_ORDER);
+        checkHeader(buffer, file);
+        int size = (buffer.capacity() - HEADER_LENGTH) / ENTRY_LENGTH;
+        long[] timestamps = new long[size];
+        long[] sequences = new long[size];
+        int[] segments = new int[size];
+        int[] offsets = new int[size];
+        for (int i = 0; i < size; i++) {
+            int at = HEADER_LENGTH + i * ENTRY_LENGTH;
+            timestamps[i] = buffer.getLong(at);
+            sequences[i] = buffer.getLong(at + 8);
+            segments[i] = buffer.getInt(at + 16);
+            offsets[i] = buffer.getInt(at + 20);
+        }
+        return new CaptureIndex(timestamps, sequences, segments, offsets);
+    }
+
+    private static void checkHeader(ByteBuffer buffer, Path file) throws IOException {
+        if (buffer.capacity() < HEADER_LENGTH) {
+            throw new IOException("Truncated capture index header: " + file);
+        }
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a capture index: " + file);
+        }
+        int version = buffer.getInt(4);
+        if (version != VERSION) {
+            throw new IOException("Unsupported capture index version " + version + ": " + file);
+        }
+    }
+
+    public int size() {
+        return timestamps.length;
+    }
+
+    public Entry get(int i) {
+        return new Entry(timestamps[i], sequences[i], segments[i], offsets[i]);
+    }
+
+    /**
+     * @return the last entry received at or before {@code epochNanos}, where a replay from that
+     *         moment should start; null if the capture starts later
+     */
+    public Entry floorByTime(long epochNanos) {
+        int i = floor(timestamps, epochNanos);
+        return i < 0 ? null : get(i);
+    }
+
+    /**
+     * @return the last entry with a sequence number at or below {@code sequenceNumber}; null if
+     *         the capture starts with a higher one
+     */
+    public Entry floorBySequence(long sequenceNumber) {
+        int i = floor(sequences, sequenceNumber);
+        return i < 0 ? null : get(i);
+    }
+
+    private static int floor(long[] keys, long key) {
+        int low = 0;
+        int high = keys.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid] <= key) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return high;
+    }
+
+    /**
+     * Appends entries to the index of a capture directory, creating it if needed. Not thread-safe.
+     */
+    static final class Writer implements Closeable {
+
+        private final FileChannel channel;
+        private final ByteBuffer entry = ByteBuffer.allocate(ENTRY_LENGTH).order(CaptureFormat.BYTE_ORDER);
+
+        Writer(Path directory) throws IOException {
+            Path file = directory.resolve(FILE_NAME);
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            try {
+                long size = channel.size();
+                if (size == 0) {
+                    ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH).order(CaptureFormat.BYTE_ORDER)
+                        .putInt(0, MAGIC)
+                        .putInt(4, VERSION)
+                        .putLong(8, 0L);
+                    writeFully(header, 0);
+                    size = HEADER_LENGTH;
+                } else {
+                    ByteBuffer header = ByteBuffer.allocate((int) Math.min(size, HEADER_LENGTH))
+                        .order(CaptureFormat.BYTE_ORDER);
+                    channel.read(header, 0);
+                    checkHeader(header, file);
+                }
+                // Drop an entry cut short by a crash so appends stay aligned
+                channel.position(size - (size - HEADER_LENGTH) % ENTRY_LENGTH);
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        void append(long timestampNanos, long sequenceNumber, int segment, int offset) throws IOException {
+            entry.clear();
+            entry.putLong(timestampNanos).putLong(sequenceNumber).putInt(segment).putInt(offset).flip();
+            while (entry.hasRemaining()) {
+                channel.write(entry);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.truncate(channel.position());
+            channel.close();
+        }
+
+        private void writeFully(ByteBuffer buffer, long position) throws IOException {
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+        }
+    }
+}
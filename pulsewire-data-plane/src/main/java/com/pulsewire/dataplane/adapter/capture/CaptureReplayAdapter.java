@@ -0,0 +1,285 @@
+package com.pulsewire.dataplane.adapter.capture;
+
+import com.pulsewire.core.time.PulseClock;
+import com.pulsewire.dataplane.adapter.ReplayPacing;
+import com.pulsewire.dataplane.adapter.spi.FeedAdapter;
+import com.pulsewire.dataplane.adapter.spi.FeedEventHandler;
+import com.pulsewire.dataplane.adapter.spi.RawFeedMessageView;
+import com.pulsewire.dataplane.adapter.spi.TransportType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Feed adapter that replays a {@link CaptureFormat capture file} of recorded raw feed messages,
+ * so recorded traffic can be run through the pipeline without a venue.
+ *
+ * <h2>Zero-Copy Delivery</h2>
+ * <p>The file is memory-mapped read-only and every message is handed to
+ * {@link FeedEventHandler#onMessageView} as a {@link RawFeedMessageView} over its bytes in the
+ * mapping: nothing is read into the heap unless the handler copies it, and handlers that only
+ * implement {@code onMessage} get a copy through the default method.
+ *
+ * <h2>Capture Directories</h2>
+ * <p>Given a directory a {@link CaptureTap} wrote, the adapter replays its segments in order as one
+ * capture, with pacing carried across segment boundaries.
+ *
+ * <h2>Large Files</h2>
+ * <p>The file is mapped one {@link CaptureReplayFeedConfig#mapWindowBytes() window} at a time,
+ * moving on as replay reaches the end of each, so files larger than memory or than a single
+ * mapping can hold replay in bounded address space; the page cache streams them through. A
+ * record larger than the window gets a window of its own. Windows left behind are unmapped when
+ * collected.
+ *
+ * <h2>Pacing</h2>
+ * <p>Messages are emitted at their recorded receive times relative to the first record, divided
+ * by {@link CaptureReplayFeedConfig#speed()}: parking until shortly before each is due, then
+ * spinning. At speed 0 they are emitted back to back. Messages carry their recorded timestamp
+ * and sequence number unless {@link CaptureReplayFeedConfig#restampReceiveTime()} is set.
+ *
+ * <h2>Threading Model</h2>
+ * <p>One daemon thread per connect replays the file once and then stays connected, idle, until
+ * {@link #disconnect()}. A file that cannot be opened, or a truncated or corrupt record, ends the
+ * replay and is reported through {@link FeedEventHandler#onError}.
+ */
+public class CaptureReplayAdapter implements FeedAdapter {
+
+    private static final Logger log = LoggerFactory.getLogger(CaptureReplayAdapter.class);
+
+    private final String id;
+    private final CaptureReplayFeedConfig config;
+    private final PulseClock clock;
+
+    private final AtomicBoolean connected = new AtomicBoolean(false);
+    private volatile FeedEventHandler handler;
+    private volatile Thread replayThread;
+    private volatile long emittedCount;
+    private volatile boolean replayComplete;
+
+    // Pacing reference, confined to the replay thread: when and at what recorded time it started
+    private long startNanos;
+    private long firstTimestamp;
+
+    public CaptureReplayAdapter(CaptureReplayFeedConfig config) {
+        this(config, PulseClock.system());
+    }
+
+    /**
+     * @param clock stamps replayed messages when {@link CaptureReplayFeedConfig#restampReceiveTime()} is set
+     */
+    public CaptureReplayAdapter(CaptureReplayFeedConfig config, PulseClock clock) {
+        this.id = "capture-replay-" + UUID.randomUUID().toString().substring(0, 8);
+        this.config = config;
+        this.clock = clock;
+    }
+
+    @Override
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public TransportType getTransportType() {
+        return TransportType.FILE;
+    }
+
+    @Override
+    public void connect(FeedEventHandler handler) {
+        if (handler == null) {
+            throw new IllegalArgumentException("FeedEventHandler cannot be null");
+        }
+        if (!connected.compareAndSet(false, true)) {
+            throw new IllegalStateException("Adapter is already connected");
+        }
+        this.handler = handler;
+        emittedCount = 0;
+        replayComplete = false;
+
+        Thread replay = new Thread(() -> replay(handler), id);
+        replay.setDaemon(true);
+        replayThread = replay;
+        log.info("CaptureReplayAdapter [{}] connected replaying {} at speed {}",
+                id, config.file(), config.speed() == 0 ? "max" : config.speed());
+        handler.onConnected(id);
+        replay.start();
+    }
+
+    private void replay(FeedEventHandler handler) {
+        startNanos = System.nanoTime();
+        try {
+            Path source = config.file();
+            List<Path> files = Files.isDirectory(source) ? CaptureFormat.listSegments(source) : List.of(source);
+            RawFeedMessageView view = new RawFeedMessageView();
+            for (Path file : files) {
+                if (!connected.get()) {
+                    break;
+                }
+                replayFile(file, handler, view);
+            }
+            if (connected.get()) {
+                replayComplete = true;
+                long elapsed = System.nanoTime() - startNanos;
+                log.info("CaptureReplayAdapter [{}] replay of {} complete: {} messages from {} files in {} ms",
+                        id, source, emittedCount, files.size(), TimeUnit.NANOSECONDS.toMillis(elapsed));
+            }
+        } catch (Exception e) {
+            log.error("Error replaying {} in CaptureReplayAdapter [{}]", config.file(), id, e);
+            handler.onError(id, e);
+        }
+    }
+
+    /**
+     * Emits the records of one capture file, up to its end or a zero record length.
+     */
+    private void replayFile(Path file, FeedEventHandler handler, RawFeedMessageView view) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            Window window = new Window(channel, config.mapWindowBytes());
+            CaptureFormat.checkFileHeader(window.map(0, CaptureFormat.FILE_HEADER_LENGTH), file);
+
+            double speed = config.speed();
+            long position = CaptureFormat.FILE_HEADER_LENGTH;
+            while (connected.get() && position < window.fileSize) {
+                if (window.fileSize - position < Integer.BYTES) {
+                    throw new IOException("Truncated capture record at " + position + " in " + file);
+                }
+                MappedByteBuffer buffer = window.map(position, Integer.BYTES);
+                int length = buffer.getInt(window.offset(position) + CaptureFormat.LENGTH_OFFSET);
+                if (length == 0) {
+                    break;
+                }
+                if (length < CaptureFormat.RECORD_HEADER_LENGTH) {
+                    throw new IOException("Corrupt capture record length " + length + " at " + position
+                            + " in " + file);
+                }
+                if (length > window.fileSize - position) {
+                    throw new IOException("Truncated capture record at " + position + " in " + file
+                            + ": " + length + " bytes recorded, " + (window.fileSize - position) + " present");
+                }
+                buffer = window.map(position, length);
+                int offset = window.offset(position);
+                long timestamp = buffer.getLong(offset + CaptureFormat.TIMESTAMP_OFFSET);
+                long sequence = buffer.getLong(offset + CaptureFormat.SEQUENCE_OFFSET);
+
+                long emitted = emittedCount;
+                if (emitted == 0) {
+                    firstTimestamp = timestamp;
+                    startNanos = System.nanoTime();
+                } else if (speed > 0) {
+                    ReplayPacing.awaitNanoTime(startNanos + (long) ((timestamp - firstTimestamp) / speed), connected);
+                    if (!connected.get()) {
+                        break;
+                    }
+                }
+                view.wrap(buffer, offset + CaptureFormat.RECORD_HEADER_LENGTH,
+                        length - CaptureFormat.RECORD_HEADER_LENGTH,
+                        config.restampReceiveTime() ? clock.epochNanos() : timestamp, sequence);
+                handler.onMessageView(id, view);
+                emittedCount = emitted + 1;
+                position += CaptureFormat.align(length);
+            }
+        }
+    }
+
+    @Override
+    public void disconnect() {
+        if (!connected.compareAndSet(true, false)) {
+            return;
+        }
+        Thread replay = replayThread;
+        replayThread = null;
+        if (replay != null) {
+            LockSupport.unpark(replay);
+            try {
+                replay.join(TimeUnit.SECONDS.toMillis(1));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        FeedEventHandler handler = this.handler;
+        this.handler = null;
+        if (handler != null) {
+            log.info("CaptureReplayAdapter [{}] disconnected after {} messages", id, emittedCount);
+            handler.onDisconnected(id, "Disconnect requested");
+        }
+    }
+
+    @Override
+    public boolean isConnected() {
+        return connected.get();
+    }
+
+    /**
+     * @return messages emitted since the last connect
+     */
+    public long getEmittedCount() {
+        return emittedCount;
+    }
+
+    /**
+     * @return true once every record of the file has been emitted, until the next connect; false if
+     *         replay failed or was cut short by {@link #disconnect()}
+     */
+    public boolean isReplayComplete() {
+        return replayComplete;
+    }
+
+    @Override
+    public void sendHeartbeat() {
+        // A file has no peer to keep alive
+        log.debug("CaptureReplayAdapter [{}] heartbeat (no-op)", id);
+    }
+
+    /**
+     * The currently mapped region of the file. Remapping drops the previous region, which the
+     * garbage collector unmaps once no view refers to it.
+     */
+    private static final class Window {
+
+        private final FileChannel channel;
+        private final int windowBytes;
+        private final long fileSize;
+        private MappedByteBuffer buffer;
+        private long start;
+
+        Window(FileChannel channel, int windowBytes) throws IOException {
+            this.channel = channel;
+            this.windowBytes = windowBytes;
+            this.fileSize = channel.size();
+        }
+
+        /**
+         * Makes sure {@code length} bytes from {@code position} are mapped, moving the window to
+         * start at {@code position} if they are not.
+         *
+         * @return the mapping holding them, to be read at {@link #offset}
+         */
+        MappedByteBuffer map(long position, int length) throws IOException {
+            if (buffer == null || position < start || position + length > start + buffer.capacity()) {
+                long size = Math.min(fileSize - position, Math.max(windowBytes, length));
+                MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+                mapped.order(CaptureFormat.BYTE_ORDER);
+                buffer = mapped;
+                start = position;
+            }
+            return buffer;
+        }
+
+        /**
+         * @return index of {@code position} in the current mapping
+         */
+        int offset(long position) {
+            return (int) (position - start);
+        }
+    }
+}
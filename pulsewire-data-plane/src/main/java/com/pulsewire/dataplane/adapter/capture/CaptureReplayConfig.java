@@ -0,0 +1,53 @@
+package com.pulsewire.dataplane.adapter.capture;
+
+import com.pulsewire.core.id.EventIdGenerator;
+import com.pulsewire.core.instrument.InstrumentRegistry;
+import com.pulsewire.core.time.PulseClock;
+import com.pulsewire.dataplane.adapter.FeedEventBridge;
+import com.pulsewire.dataplane.metrics.LatencyMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+/**
+ * Runs the {@link CaptureReplayAdapter} through a {@link FeedEventBridge} when
+ * {@code pulsewire.adapters.capture-replay.enabled} is true, so recorded traffic reaches the
+ * backbone as if it came from the venue it was captured from.
+ */
+@Configuration
+@ConditionalOnProperty(name = "pulsewire.adapters.capture-replay.enabled", havingValue = "true")
+public class CaptureReplayConfig {
+
+    static final String FEED = "capture-replay";
+
+    @Value("${pulsewire.adapters.capture-replay.file}")
+    private String file;
+
+    @Value("${pulsewire.adapters.capture-replay.speed:1.0}")
+    private double speed;
+
+    @Value("${pulsewire.adapters.capture-replay.restamp-receive-time:false}")
+    private boolean restampReceiveTime;
+
+    @Value("${pulsewire.adapters.capture-replay.map-window-mb:256}")
+    private int mapWindowMb;
+
+    @Bean
+    public FeedEventBridge captureReplayFeed(EventIdGenerator idGenerator, InstrumentRegistry instrumentRegistry,
+                                             PulseClock clock, LatencyMetrics latencyMetrics) {
+        if (file.isBlank()) {
+            throw new IllegalArgumentException("pulsewire.adapters.capture-replay.file is required");
+        }
+        CaptureReplayFeedConfig config = CaptureReplayFeedConfig.builder()
+                .file(Path.of(file))
+                .speed(speed)
+                .restampReceiveTime(restampReceiveTime)
+                .mapWindowBytes(Math.multiplyExact(mapWindowMb, 1 << 20))
+                .build();
+        return new FeedEventBridge(FEED, new CaptureReplayAdapter(config, clock), idGenerator,
+                instrumentRegistry, latencyMetrics);
+    }
+}
@@ -0,0 +1,110 @@
+package com.pulsewire.dataplane.adapter.capture;
+
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * Immutable configuration for the {@link CaptureReplayAdapter}.
+ *
+ * <h2>Usage</h2>
+ * <pre>{@code
+ * CaptureReplayFeedConfig config = CaptureReplayFeedConfig.builder()
+ *     .file(Path.of("/data/captures/session.pwcf"))
+ *     .speed(10)
+ *     .build();
+ * }</pre>
+ *
+ * @param file Capture file to replay, or a capture directory to replay all its segments
+ * @param speed Replay speed as a multiple of the recorded timing; 0 replays as fast as possible
+ * @param restampReceiveTime Whether messages carry the time they are replayed rather than the
+ *                           recorded receive time
+ * @param mapWindowBytes Size of each region of the file mapped at a time; records larger than
+ *                       this get a window of their own
+ */
+public record CaptureReplayFeedConfig(
+        Path file,
+        double speed,
+        boolean restampReceiveTime,
+        int mapWindowBytes
+) {
+
+    private static final double DEFAULT_SPEED = 1.0;
+    private static final int DEFAULT_MAP_WINDOW_BYTES = 256 << 20;
+
+    /**
+     * Compact constructor for validation.
+     */
+    public CaptureReplayFeedConfig {
+        Objects.requireNonNull(file, "Capture file is required");
+        if (!(speed >= 0) || Double.isInfinite(speed)) {
+            throw new IllegalArgumentException("Replay speed must be >= 0 (0 = as fast as possible): " + speed);
+        }
+        if (mapWindowBytes < CaptureFormat.FILE_HEADER_LENGTH) {
+            throw new IllegalArgumentException("Map window must be at least "
+                    + CaptureFormat.FILE_HEADER_LENGTH + " bytes: " + mapWindowBytes);
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Builder for {@link CaptureReplayFeedConfig}, replaying at recorded speed with recorded
+     * timestamps through 256 MB windows by default.
+     */
+    public static class Builder {
+        private Path file;
+        private double speed = DEFAULT_SPEED;
+        private boolean restampReceiveTime = false;
+        private int mapWindowBytes = DEFAULT_MAP_WINDOW_BYTES;
+
+        /**
+         * @param file the capture file to replay, or a capture directory
+         * @return this builder
+         */
+        public Builder file(Path file) {
+            this.file = file;
+            return this;
+        }
+
+        /**
+         * @param speed multiple of the recorded timing (1 = as recorded, 10 = ten times faster),
+         *              or 0 to replay as fast as possible
+         * @return this builder
+         */
+        public Builder speed(double speed) {
+            this.speed = speed;
+            return this;
+        }
+
+        /**
+         * @param restamp true to stamp messages with the time they are replayed, as a live
+         *                adapter would, so latency is measured from replay
+         * @return this builder
+         */
+        public Builder restampReceiveTime(boolean restamp) {
+            this.restampReceiveTime = restamp;
+            return this;
+        }
+
+        /**
+         * @param bytes size of each mapped region of the file; bounds the address space a
+         *              replay holds, not what the page cache may keep
+         * @return this builder
+         */
+        public Builder mapWindowBytes(int bytes) {
+            this.mapWindowBytes = bytes;
+            return this;
+        }
+
+        /**
+         * @return the configuration
+         * @throws IllegalArgumentException if validation fails
+         * @throws NullPointerException if no file was set
+         */
+        public CaptureReplayFeedConfig build() {
+            return new CaptureReplayFeedConfig(file, speed, restampReceiveTime, mapWindowBytes);
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.pulsewire.dataplane.adapter.capture;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+
+/**
+ * Single-producer, single-consumer ring of bytes carrying records in the {@link CaptureFormat}
+ * layout, from the callback thread a {@link CaptureTap} sits on to its writer.
+ *
+ * <p>Offering a record writes its header, copies the payload and publishes it with one release
+ * store; it never blocks or allocates and fails when the writer is a ring behind. A record that
+ * would run past the end of the ring is placed at the start instead, after a {@link #PADDING}
+ * marker the consumer skips. Records are aligned as in the file, so the writer copies them out
+ * verbatim.
+ *
+ * <p>{@link #offer} must only be called from one thread at a time, and {@link #poll} and
+ * {@link #advance} from one other.
+ */
+final class CaptureRing {
+
+    static final int PADDING = -1;
+
+    private final byte[] bytes;
+    private final ByteBuffer buffer;
+    private final int capacity;
+    private final int mask;
+    private final int maxRecordLength;
+
+    // Published by the producer; its cache holds the consumer position last seen
+    private final Position head = new Position();
+    // Released by the consumer; its cache holds the producer position last seen
+    private final Position tail = new Position();
+
+    CaptureRing(int capacity) {
+        if (capacity < CaptureFormat.RECORD_HEADER_LENGTH * 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two of at least "
+                    + CaptureFormat.RECORD_HEADER_LENGTH * 2 + ": " + capacity);
+        }
+        this.bytes = new byte[capacity];
+        this.buffer = ByteBuffer.wrap(bytes).order(CaptureFormat.BYTE_ORDER);
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.maxRecordLength = capacity / 2;
+    }
+
+    /**
+     * @return largest payload {@link #offer} accepts
+     */
+    int maxPayloadLength() {
+        return maxRecordLength - CaptureFormat.RECORD_HEADER_LENGTH;
+    }
+
+    /**
+     * Appends a record with a payload from an array.
+     *
+     * @return false if the ring has no room for it, or it is larger than {@link #maxPayloadLength()}
+     */
+    boolean offer(byte[] payload, int offset, int length, long timestampNanos, long sequenceNumber) {
+        int index = claim(length, timestampNanos, sequenceNumber);
+        if (index < 0) {
+            return false;
+        }
+        System.arraycopy(payload, offset, bytes, index + CaptureFormat.RECORD_HEADER_LENGTH, length);
+        publish();
+        return true;
+    }
+
+    /**
+     * Appends a record with a payload from a buffer, read with absolute access.
+     *
+     * @return false if the ring has no room for it, or it is larger than {@link #maxPayloadLength()}
+     */
+    boolean offer(ByteBuffer payload, int offset, int length, long timestampNanos, long sequenceNumber) {
+        int index = claim(length, timestampNanos, sequenceNumber);
+        if (index < 0) {
+            return false;
+        }
+        payload.get(offset, bytes, index + CaptureFormat.RECORD_HEADER_LENGTH, length);
+        publish();
+        return true;
+    }
+
+    /**
+     * Reserves room for a record and writes everything but its payload.
+     *
+     * @return index of the record, or -1 if it does not fit
+     */
+    private int claim(int payloadLength, long timestampNanos, long sequenceNumber) {
+        if (payloadLength > maxPayloadLength()) {
+            return -1;
+        }
+        int recordLength = (int) CaptureFormat.align(CaptureFormat.RECORD_HEADER_LENGTH + payloadLength);
+        long position = head.value;
+        int index = (int) position & mask;
+        int toEnd = capacity - index;
+        int wrap = recordLength > toEnd ? toEnd : 0;
+        long end = position + wrap + recordLength;
+        if (end - head.cache > capacity) {
+            head.cache = tail.value;
+            if (end - head.cache > capacity) {
+                return -1;
+            }
+        }
+        if (wrap > 0) {
+            buffer.putInt(index, PADDING);
+            index = 0;
+        }
+        // Padding first, as a short payload's header overlaps the last aligned word
+        buffer.putLong(index + recordLength - Long.BYTES, 0L);
+        buffer.putInt(index + CaptureFormat.LENGTH_OFFSET, CaptureFormat.RECORD_HEADER_LENGTH + payloadLength);
+        buffer.putInt(index + CaptureFormat.LENGTH_OFFSET + Integer.BYTES, 0);
+        buffer.putLong(index + CaptureFormat.TIMESTAMP_OFFSET, timestampNanos);
+        buffer.putLong(index + CaptureFormat.SEQUENCE_OFFSET, sequenceNumber);
+        head.next = end;
+        return index;
+    }
+
+    private void publish() {
+        head.set(head.next);
+    }
+
+    /**
+     * @return index of the next record to consume, or -1 if there is none yet
+     */
+    int poll() {
+        long position = tail.value;
+        if (position == tail.cache) {
+            tail.cache = head.value;
+            if (position == tail.cache) {
+                return -1;
+            }
+        }
+        int index = (int) position & mask;
+        if (buffer.getInt(index) == PADDING) {
+            // The producer only wraps together with a record, so one follows at the start
+            tail.set(position + capacity - index);
+            return 0;
+        }
+        return index;
+    }
+
+    /**
+     * @return length of the record at {@code index}, header included and padding excluded
+     */
+    int recordLength(int index) {
+        return buffer.getInt(index + CaptureFormat.LENGTH_OFFSET);
+    }
+
+    long timestampNanos(int index) {
+        return buffer.getLong(index + CaptureFormat.TIMESTAMP_OFFSET);
+    }
+
+    long sequenceNumber(int index) {
+        return buffer.getLong(index + CaptureFormat.SEQUENCE_OFFSET);
+    }
+
+    /**
+     * @return the ring's storage, for copying records out at the indexes {@link #poll} returns
+     */
+    byte[] bytes() {
+        return bytes;
+    }
+
+    /**
+     * Releases the record {@link #poll} returned to the producer.
+     */
+    void advance(int index) {
+        tail.set(tail.value + CaptureFormat.align(recordLength(index)));
+    }
+
+    /**
+     * Cache-line padded position, as in the backbone's ring buffer, with a field cached by its owner.
+     */
+    private static final class Position {
+
+        private static final VarHandle VALUE;
+
+        static {
+            try {
+                VALUE = MethodHandles.lookup().findVarHandle(Position.class, "value", long.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        @SuppressWarnings("unused")
+        private long p1, p2, p3, p4, p5, p6, p7;
+        private volatile long value;
+        // Owner's last view of the other side's position, and its pending value
+        private long cache;
+        private long next;
+        @SuppressWarnings("unused")
+        private long p9, p10, p11, p12, p13, p14, p15;
+
+        void set(long newValue) {
+            VALUE.setRelease(this, newValue);
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.pulsewire.dataplane.adapter.capture;
+
+import com.pulsewire.core.time.PulseClock;
+import com.pulsewire.dataplane.adapter.spi.FeedEventHandler;
+import com.pulsewire.dataplane.adapter.spi.RawFeedMessage;
+import com.pulsewire.dataplane.adapter.spi.RawFeedMessageView;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * {@link FeedEventHandler} decorator that records every message it passes on to a capture
+ * directory, for {@link CaptureReplayAdapter} and benchmarks to replay.
+ *
+ * <h2>Hot Path</h2>
+ * <p>After the delegate has handled a message, the tap copies it into a single-producer,
+ * single-consumer {@link CaptureRing}: a handful of header stores, one copy of the payload and a
+ * release store, with no locks, allocation or system calls. The delegate sees the message first,
+ * so capture adds nothing to the latency of the pipeline behind it. If the writer has fallen a
+ * whole ring behind, or a message is larger than half the ring, the message is not captured and
+ * {@link #getDroppedCount()} counts it; the tap never blocks the feed.
+ *
+ * <h2>Writer</h2>
+ * <p>A background {@link CaptureWriter} thread drains the ring into rolling, memory-mapped
+ * segments in the {@link CaptureFormat} layout and indexes them by time and sequence number in a
+ * {@link CaptureIndex}.
+ *
+ * <h2>Threading Model</h2>
+ * <p>The ring has one producer: the first thread to deliver a message after construction or
+ * {@link #onDisconnected} owns it, and messages from any other thread meanwhile are passed on but
+ * not captured, counted by {@link #getForeignThreadCount()}, so only adapters that call back on
+ * one thread per connection are captured whole. {@link #close()} the tap after the adapter has
+ * disconnected, to drain the ring.
+ */
+public class CaptureTap implements FeedEventHandler, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(CaptureTap.class);
+
+    private static final VarHandle PRODUCER;
+
+    static {
+        try {
+            PRODUCER = MethodHandles.lookup().findVarHandle(CaptureTap.class, "producer", Thread.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static final long CLOSE_TIMEOUT_MS = 5000;
+
+    private final FeedEventHandler delegate;
+    private final CaptureTapConfig config;
+    private final CaptureRing ring;
+    private final CaptureWriter writer;
+    private final Thread writerThread;
+
+    private final LongAdder droppedCount = new LongAdder();
+    private final LongAdder foreignThreadCount = new LongAdder();
+    private final AtomicBoolean foreignThreadWarned = new AtomicBoolean(false);
+
+    // Claimed through PRODUCER by the first thread to deliver a message
+    private volatile Thread producer;
+
+    /**
+     * Opens the capture directory and starts the writer.
+     *
+     * @param delegate handler every callback is passed on to
+     * @throws IOException if the capture directory or its index cannot be opened
+     */
+    public CaptureTap(FeedEventHandler delegate, CaptureTapConfig config) throws IOException {
+        this.delegate = delegate;
+        this.config = config;
+        this.ring = new CaptureRing(config.ringBytes());
+        this.writer = new CaptureWriter(ring, config);
+        this.writerThread = new Thread(writer, "capture-writer-" + config.directory().getFileName());
+        writerThread.setDaemon(true);
+        writerThread.start();
+        log.info("Capturing feed messages to {}", config.directory());
+    }
+
+    @Override
+    public void onConnected(String adapterId) {
+        delegate.onConnected(adapterId);
+    }
+
+    @Override
+    public void onDisconnected(String adapterId, String reason) {
+        // The adapter's threads are done; whichever delivers after a reconnect may take over
+        producer = null;
+        delegate.onDisconnected(adapterId, reason);
+    }
+
+    @Override
+    public void onMessage(String adapterId, RawFeedMessage message) {
+        try {
+            delegate.onMessage(adapterId, message);
+        } finally {
+            if (ownsRing()) {
+                byte[] payload = message.payload();
+                if (!ring.offer(payload, 0, payload.length, PulseClock.toEpochNanos(message.receiveTimestamp()),
+                        message.sequenceNumber())) {
+                    droppedCount.increment();
+                }
+            }
+        }
+    }
+
+    @Override
+    public void onMessageView(String adapterId, RawFeedMessageView message) {
+        try {
+            delegate.onMessageView(adapterId, message);
+        } finally {
+            // Still valid: the adapter rewraps the view only after this returns
+            if (ownsRing()
+                    && !ring.offer(message.buffer(), message.payloadOffset(), message.payloadLength(),
+                            message.receiveTimestampNanos(), message.sequenceNumber())) {
+                droppedCount.increment();
+            }
+        }
+    }
+
+    @Override
+    public void onError(String adapterId, Throwable error) {
+        delegate.onError(adapterId, error);
+    }
+
+    @Override
+    public void onHeartbeatTimeout(String adapterId) {
+        delegate.onHeartbeatTimeout(adapterId);
+    }
+
+    private boolean ownsRing() {
+        Thread current = Thread.currentThread();
+        Thread owner = producer;
+        if (owner == current || (owner == null && PRODUCER.compareAndSet(this, null, current))) {
+            return true;
+        }
+        foreignThreadCount.increment();
+        if (foreignThreadWarned.compareAndSet(false, true)) {
+            log.warn("Capture to {} has one producer, {}; not capturing messages from {}",
+                    config.directory(), owner == null ? "another thread" : owner.getName(), current.getName());
+        }
+        return false;
+    }
+
+    /**
+     * Lets the writer drain what has been captured and waits for it to close the capture.
+     * Messages arriving afterwards are passed on but not captured.
+     */
+    @Override
+    public void close() {
+        writer.close();
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join(CLOSE_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writerThread.isAlive()) {
+            log.warn("Capture writer for {} did not finish within {} ms", config.directory(), CLOSE_TIMEOUT_MS);
+        }
+        log.info("Capture to {} closed: {} messages written, {} dropped, {} from other threads",
+                config.directory(), getCapturedCount(), getDroppedCount(), getForeignThreadCount());
+    }
+
+    /**
+     * @return messages written to the capture
+     */
+    public long getCapturedCount() {
+        return writer.writtenCount();
+    }
+
+    /**
+     * @return messages not captured because the writer was a ring behind, or they were larger than
+     *         half the ring
+     */
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    /**
+     * @return messages not captured because they arrived on a thread other than the producer's
+     */
+    public long getForeignThreadCount() {
+        return foreignThreadCount.sum();
+    }
+
+    /**
+     * @return true if the writer stopped on an I/O error, after which messages are dropped
+     */
+    public boolean isFailed() {
+        return writer.failed();
+    }
+}
@@ -0,0 +1,119 @@
+package com.pulsewire.dataplane.adapter.capture;
+
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * Immutable configuration for a {@link CaptureTap}.
+ *
+ * <h2>Usage</h2>
+ * <pre>{@code
+ * CaptureTapConfig config = CaptureTapConfig.builder()
+ *     .directory(Path.of("/data/captures/exchange-x"))
+ *     .segmentBytes(1 << 30)
+ *     .build();
+ * }</pre>
+ *
+ * @param directory Capture directory segments and the index are written to; created if missing
+ * @param segmentBytes Size each segment file is preallocated to before the writer moves on to the next
+ * @param ringBytes Size of the queue between the callback thread and the writer, a power of two; bounds
+ *                  the burst the writer can fall behind by before messages are dropped, and the
+ *                  largest message captured (half of it)
+ * @param indexInterval Records between {@link CaptureIndex} entries, besides the first of each segment
+ */
+public record CaptureTapConfig(
+        Path directory,
+        int segmentBytes,
+        int ringBytes,
+        int indexInterval
+) {
+
+    private static final int DEFAULT_SEGMENT_BYTES = 256 << 20;
+    private static final int DEFAULT_RING_BYTES = 8 << 20;
+    private static final int DEFAULT_INDEX_INTERVAL = 1024;
+    private static final int MIN_BYTES = 4096;
+
+    /**
+     * Compact constructor for validation.
+     */
+    public CaptureTapConfig {
+        Objects.requireNonNull(directory, "Capture directory is required");
+        if (segmentBytes < MIN_BYTES) {
+            throw new IllegalArgumentException("Segment size must be at least " + MIN_BYTES + " bytes: " + segmentBytes);
+        }
+        if (ringBytes < MIN_BYTES || Integer.bitCount(ringBytes) != 1) {
+            throw new IllegalArgumentException("Ring size must be a power of two of at least " + MIN_BYTES
+                    + " bytes: " + ringBytes);
+        }
+        if (indexInterval < 1) {
+            throw new IllegalArgumentException("Index interval must be >= 1: " + indexInterval);
+        }
+    }
+
+    /**
+     * @return this configuration capturing to {@code directory} instead
+     */
+    public CaptureTapConfig withDirectory(Path directory) {
+        return new CaptureTapConfig(directory, segmentBytes, ringBytes, indexInterval);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Builder for {@link CaptureTapConfig}: 256 MB segments, an 8 MB ring and an index entry every
+     * 1024 records by default.
+     */
+    public static class Builder {
+        private Path directory;
+        private int segmentBytes = DEFAULT_SEGMENT_BYTES;
+        private int ringBytes = DEFAULT_RING_BYTES;
+        private int indexInterval = DEFAULT_INDEX_INTERVAL;
+
+        /**
+         * @param directory where segments and the index are written
+         * @return this builder
+         */
+        public Builder directory(Path directory) {
+            this.directory = directory;
+            return this;
+        }
+
+        /**
+         * @param bytes size of each segment file; a message larger than this gets a segment of its own
+         * @return this builder
+         */
+        public Builder segmentBytes(int bytes) {
+            this.segmentBytes = bytes;
+            return this;
+        }
+
+        /**
+         * @param bytes size of the queue to the writer, a power of two
+         * @return this builder
+         */
+        public Builder ringBytes(int bytes) {
+            this.ringBytes = bytes;
+            return this;
+        }
+
+        /**
+         * @param records records between index entries
+         * @return this builder
+         */
+        public Builder indexInterval(int records) {
+            this.indexInterval = records;
+            return this;
+        }
+
+        /**
+         * @return the configuration
+         * @throws IllegalArgumentException if validation fails
+         * @throws NullPointerException if no directory was set
+         */
+        public CaptureTapConfig build() {
+            return new CaptureTapConfig(directory, segmentBytes, ringBytes, indexInterval);
+        }
+    }
+}
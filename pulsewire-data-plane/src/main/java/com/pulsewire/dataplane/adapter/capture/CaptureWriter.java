@@ -0,0 +1,158 @@
+package com.pulsewire.dataplane.adapter.capture;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Background half of a {@link CaptureTap}: drains its {@link CaptureRing} into rolling,
+ * memory-mapped segment files and keeps the {@link CaptureIndex}.
+ *
+ * <p>Each segment is created at its full size and mapped read-write, so the file system allocates
+ * it lazily and every record is a copy into the mapping with no system call. Unused space at the
+ * end of a segment stays zero, which readers take as the end of its data. The writer does not force
+ * mappings to disk: a process crash loses nothing the writer copied, a host crash may lose what the
+ * kernel had not yet written back.
+ *
+ * <p>Segments are numbered on from any already in the directory, so restarts append to a capture.
+ * The writer stops on the first I/O error; its ring then fills and the tap drops from there on.
+ */
+final class CaptureWriter implements Runnable {
+
+    private static final Logger log = LoggerFactory.getLogger(CaptureWriter.class);
+
+    // Parks this long when the ring is empty; the ring absorbs what arrives meanwhile
+    private static final long IDLE_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    // Records written between checks for close and publications of the written count
+    private static final int MAX_BATCH = 4096;
+
+    private final CaptureRing ring;
+    private final CaptureTapConfig config;
+    private final CaptureIndex.Writer index;
+
+    private volatile boolean closing;
+    private volatile boolean failed;
+    private volatile long writtenCount;
+
+    // Confined to the writer thread
+    private int nextSegment;
+    private int segmentNumber = -1;
+    private MappedByteBuffer segment;
+    private int position;
+    private int recordsSinceIndex;
+
+    CaptureWriter(CaptureRing ring, CaptureTapConfig config) throws IOException {
+        this.ring = ring;
+        this.config = config;
+        Files.createDirectories(config.directory());
+        List<Path> existing = CaptureFormat.listSegments(config.directory());
+        this.nextSegment = existing.isEmpty() ? 0 : CaptureFormat.segmentNumber(existing.get(existing.size() - 1)) + 1;
+        this.index = new CaptureIndex.Writer(config.directory());
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (true) {
+                // Read before draining, so the last drain sees everything offered before close
+                boolean stop = closing;
+                if (drain() == 0) {
+                    if (stop) {
+                        break;
+                    }
+                    LockSupport.parkNanos(IDLE_NANOS);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            failed = true;
+            log.error("Capture to {} failed after {} records; further messages will be dropped",
+                    config.directory(), writtenCount, e);
+        } finally {
+            segment = null;
+            try {
+                index.close();
+            } catch (IOException e) {
+                log.warn("Could not close capture index in {}", config.directory(), e);
+            }
+        }
+    }
+
+    private int drain() throws IOException {
+        int drained = 0;
+        int at;
+        while (drained < MAX_BATCH && (at = ring.poll()) >= 0) {
+            write(at);
+            ring.advance(at);
+            drained++;
+        }
+        if (drained > 0) {
+            writtenCount += drained;
+        }
+        return drained;
+    }
+
+    private void write(int at) throws IOException {
+        int length = ring.recordLength(at);
+        int aligned = (int) CaptureFormat.align(length);
+        if (segment == null || aligned > segment.capacity() - position) {
+            roll(aligned);
+        }
+        if (position == CaptureFormat.FILE_HEADER_LENGTH || recordsSinceIndex >= config.indexInterval()) {
+            index.append(ring.timestampNanos(at), ring.sequenceNumber(at), segmentNumber, position);
+            recordsSinceIndex = 0;
+        }
+        // Length last, as CaptureFormat.writeRecord does
+        segment.put(position + Integer.BYTES, ring.bytes(), at + Integer.BYTES, aligned - Integer.BYTES);
+        segment.putInt(position + CaptureFormat.LENGTH_OFFSET, length);
+        position += aligned;
+        recordsSinceIndex++;
+    }
+
+    /**
+     * Moves on to a new segment with room for at least a record of {@code recordLength} bytes.
+     * The previous one is left as is; its mapping is released when collected.
+     */
+    private void roll(int recordLength) throws IOException {
+        int size = Math.max(config.segmentBytes(), CaptureFormat.FILE_HEADER_LENGTH + recordLength);
+        Path file = CaptureFormat.segmentFile(config.directory(), nextSegment);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+        segment.order(CaptureFormat.BYTE_ORDER);
+        CaptureFormat.writeFileHeader(segment);
+        segmentNumber = nextSegment++;
+        position = CaptureFormat.FILE_HEADER_LENGTH;
+        log.debug("Capturing to {}", file);
+    }
+
+    /**
+     * Asks the writer to finish once the ring is empty.
+     */
+    void close() {
+        closing = true;
+    }
+
+    /**
+     * @return records written to segments so far
+     */
+    long writtenCount() {
+        return writtenCount;
+    }
+
+    /**
+     * @return true if the writer stopped on an I/O error
+     */
+    boolean failed() {
+        return failed;
+    }
+}
@@ -70,6 +70,22 @@ public interface FeedEventHandler {
      */
     void onMessage(String adapterId, RawFeedMessage message);
     
+    /**
+     * Called instead of {@link #onMessage} by adapters that can lend a message in place,
+     * such as a memory-mapped replay, rather than copy it into a {@link RawFeedMessage}.
+     * 
+     * <p>The view and the bytes it points at are only valid until this method returns;
+     * the adapter reuses the view for the next message. Handlers that keep the message
+     * must copy it, which is what the default implementation does before delegating to
+     * {@link #onMessage}, so existing handlers need no changes.
+     * 
+     * @param adapterId the unique identifier of the adapter
+     * @param message view of the message, valid for the duration of the call
+     */
+    default void onMessageView(String adapterId, RawFeedMessageView message) {
+        onMessage(adapterId, message.toRawFeedMessage());
+    }
+    
     /**
      * Called when an error occurs during connection or message processing.
      * 
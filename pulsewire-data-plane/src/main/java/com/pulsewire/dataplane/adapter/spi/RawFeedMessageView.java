@@ -0,0 +1,108 @@
+package com.pulsewire.dataplane.adapter.spi;
+
+import com.pulsewire.core.time.PulseClock;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Reusable flyweight over one raw feed message whose payload stays where the adapter holds it,
+ * typically a region of a memory-mapped file, passed to {@link FeedEventHandler#onMessageView}.
+ *
+ * <p>Carries the same information as {@link RawFeedMessage}: the payload, as a range of a
+ * {@link ByteBuffer} read with absolute access, plus the receive timestamp in epoch nanoseconds
+ * and the sequence number. {@link #payload()} slices the range without copying;
+ * {@link #toRawFeedMessage()} copies it for handlers that keep messages.
+ *
+ * <p>A view is not thread-safe and is only valid during the callback it was passed to; the
+ * adapter {@link #wrap}s it again for the next message.
+ */
+public final class RawFeedMessageView {
+
+    private ByteBuffer buffer;
+    private int payloadOffset;
+    private int payloadLength;
+    private long receiveTimestampNanos;
+    private long sequenceNumber;
+
+    /**
+     * Point this view at a message.
+     *
+     * @param buffer                buffer holding the payload; neither its position nor limit is used
+     * @param payloadOffset         absolute index of the payload's first byte
+     * @param payloadLength         payload length in bytes
+     * @param receiveTimestampNanos receive time in epoch nanoseconds
+     * @param sequenceNumber        feed or adapter sequence number, -1 if none
+     * @return this view
+     * @throws IndexOutOfBoundsException if the payload range is outside the buffer
+     */
+    public RawFeedMessageView wrap(ByteBuffer buffer, int payloadOffset, int payloadLength,
+                                   long receiveTimestampNanos, long sequenceNumber) {
+        if (payloadOffset < 0 || payloadLength < 0 || payloadOffset > buffer.capacity() - payloadLength) {
+            throw new IndexOutOfBoundsException("Payload [" + payloadOffset + ", +" + payloadLength
+                    + ") outside buffer of " + buffer.capacity());
+        }
+        this.buffer = buffer;
+        this.payloadOffset = payloadOffset;
+        this.payloadLength = payloadLength;
+        this.receiveTimestampNanos = receiveTimestampNanos;
+        this.sequenceNumber = sequenceNumber;
+        return this;
+    }
+
+    /**
+     * @return the buffer holding the payload, to be read with absolute access
+     */
+    public ByteBuffer buffer() {
+        return buffer;
+    }
+
+    public int payloadOffset() {
+        return payloadOffset;
+    }
+
+    public int payloadLength() {
+        return payloadLength;
+    }
+
+    /**
+     * @return payload byte at {@code index} from the payload's start
+     */
+    public byte payloadByte(int index) {
+        if (index < 0 || index >= payloadLength) {
+            throw new IndexOutOfBoundsException("Index " + index + " outside payload of " + payloadLength);
+        }
+        return buffer.get(payloadOffset + index);
+    }
+
+    /**
+     * @return a buffer sharing the payload's bytes, positioned at 0 with the payload's length;
+     *         valid only as long as the view is
+     */
+    public ByteBuffer payload() {
+        return buffer.slice(payloadOffset, payloadLength);
+    }
+
+    public long receiveTimestampNanos() {
+        return receiveTimestampNanos;
+    }
+
+    public long sequenceNumber() {
+        return sequenceNumber;
+    }
+
+    /**
+     * @return a copy of the payload
+     */
+    public byte[] copyPayload() {
+        byte[] copy = new byte[payloadLength];
+        buffer.get(payloadOffset, copy);
+        return copy;
+    }
+
+    /**
+     * @return an independent message holding a copy of the payload
+     */
+    public RawFeedMessage toRawFeedMessage() {
+        return new RawFeedMessage(copyPayload(), PulseClock.toInstant(receiveTimestampNanos), sequenceNumber);
+    }
+}
@@ -42,5 +42,12 @@ public enum TransportType {
      * their own client libraries with proprietary protocols.
      * Characteristics: vendor-managed, may include built-in reconnection.
      */
-    VENDOR_SDK
+    VENDOR_SDK,
+    
+    /**
+     * Recorded capture file replayed from disk.
+     * <p>Used to run recorded traffic through the pipeline without a live venue.
+     * Characteristics: ordered, repeatable, paced from recorded timestamps or unpaced.
+     */
+    FILE
 }
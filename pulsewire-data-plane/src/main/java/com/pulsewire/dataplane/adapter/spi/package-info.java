@@ -10,6 +10,7 @@
  *   <li>{@link FeedAdapter} - Lifecycle management: connect, disconnect, heartbeat</li>
  *   <li>{@link FeedEventHandler} - Callback interface for events and messages</li>
  *   <li>{@link RawFeedMessage} - Transport-agnostic message container</li>
+ *   <li>{@link RawFeedMessageView} - Reusable view of a message lent in place, without a copy</li>
  *   <li>{@link TransportType} - Metadata enum for configuration and metrics</li>
  * </ul>
  * 
@@ -0,0 +1,59 @@
+package com.pulsewire.dataplane.adapter.synthetic;
+
+/**
+ * Paces message emission against {@link System#nanoTime()}: each call to {@link #due} returns how
+ * many messages the elapsed time has earned at the current rate, keeping the remainder, so any rate
+ * is honoured exactly on average whatever the caller's wake-up granularity. Credit is kept in
+ * message-nanoseconds, in integers, so no rounding drifts over a long run.
+ *
+ * <p>Earned messages that are not emitted accumulate only up to a backlog limit; beyond that the
+ * caller has fallen behind and the excess is forgotten rather than released later as a spike, which
+ * shows as an achieved rate below the target.
+ *
+ * <p>Not thread-safe; each generator thread owns its pacer.
+ */
+final class RatePacer {
+
+    static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final long maxCredit;
+    private long lastNanos;
+    private long credit;
+
+    /**
+     * @param startNanos {@link System#nanoTime()} at which pacing starts
+     * @param maxBacklog most messages that may be owed at once, at least 1
+     */
+    RatePacer(long startNanos, long maxBacklog) {
+        this.lastNanos = startNanos;
+        this.maxCredit = Math.max(1, maxBacklog) * NANOS_PER_SECOND;
+    }
+
+    /**
+     * Earn messages for the time since the previous call and claim up to {@code limit} of them.
+     *
+     * @param nowNanos      current {@link System#nanoTime()}
+     * @param ratePerSecond rate in force since the previous call, positive
+     * @return number of messages to emit now
+     */
+    int due(long nowNanos, long ratePerSecond, int limit) {
+        long elapsed = nowNanos - lastNanos;
+        if (elapsed > 0) {
+            // Past the backlog limit anyway, so skip a product that could overflow
+            long earned = elapsed >= maxCredit / ratePerSecond ? maxCredit : elapsed * ratePerSecond;
+            credit = Math.min(credit + earned, maxCredit);
+            lastNanos = nowNanos;
+        }
+        int due = (int) Math.min(credit / NANOS_PER_SECOND, limit);
+        credit -= due * NANOS_PER_SECOND;
+        return due;
+    }
+
+    /**
+     * @return nanoseconds until the next message is earned at {@code ratePerSecond}
+     */
+    long nanosUntilNext(long ratePerSecond) {
+        long missing = NANOS_PER_SECOND - credit;
+        return missing <= 0 ? 0 : (missing + ratePerSecond - 1) / ratePerSecond;
+    }
+}
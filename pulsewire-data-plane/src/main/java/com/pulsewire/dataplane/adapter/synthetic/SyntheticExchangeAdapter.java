@@ -1,5 +1,8 @@
 package com.pulsewire.dataplane.adapter.synthetic;
 
+import com.pulsewire.core.id.EventIdGenerator;
+import com.pulsewire.core.id.SnowflakeEventIdGenerator;
+import com.pulsewire.dataplane.adapter.ReplayPacing;
 import com.pulsewire.dataplane.adapter.spi.FeedAdapter;
 import com.pulsewire.dataplane.adapter.spi.FeedEventHandler;
 import com.pulsewire.dataplane.adapter.spi.RawFeedMessage;
@@ -8,13 +11,18 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Instant;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
+import java.util.SplittableRandom;
 import java.util.UUID;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.random.RandomGenerator;
 
 /**
  * Synthetic Exchange Feed Adapter that generates realistic trade and quote events.
@@ -40,13 +48,33 @@ import java.util.concurrent.atomic.AtomicReference;
  * <p>Uses a random walk model where prices drift by small random amounts.
  * Each symbol maintains its own price state to produce realistic time series.
  * 
+ * <h2>Repeatable Runs</h2>
+ * <p>With {@link SyntheticFeedConfig#seed()} set every connect replays the same message sequence,
+ * and a {@link SyntheticScenario} shapes rate, symbol mix and volatility over the session. With
+ * {@link SyntheticFeedConfig#replayFile()} set the adapter instead replays a tape pre-generated
+ * by {@link SyntheticTapeGenerator} on one thread, at its recorded timing scaled by
+ * {@link SyntheticFeedConfig#replaySpeed()}, or as fast as possible.
+ * 
  * <h2>Burst Mode</h2>
  * <p>When enabled, periodically increases the message rate to simulate
  * market events like open, close, or news announcements.
  * 
+ * <h2>Pacing</h2>
+ * <p>Emission is paced on {@link System#nanoTime()} by a {@link RatePacer}: every wake-up emits the
+ * messages the elapsed time has earned, so any rate is honoured on average, not only divisors of
+ * 1000 per second.
+ * 
  * <h2>Threading Model</h2>
- * <p>Uses a {@link ScheduledExecutorService} for message scheduling.
- * All callbacks are invoked on the executor thread. Handlers must be non-blocking.
+ * <p>By default a {@link ScheduledExecutorService} wakes up every millisecond at most and emits
+ * what is due, which suits demo rates. With {@link SyntheticFeedConfig#generatorThreads()} set, that
+ * many dedicated load generator threads each own the symbols at their position modulo the thread
+ * count, with their own random source, and emit in batches, spinning while the next message is
+ * close and parking otherwise; this sustains millions of messages per second. Each thread claims
+ * sequence numbers in blocks, so they are unique and increase per symbol but interleave across
+ * threads. {@link #getAchievedRatePerSecond()} reports what was actually emitted.
+ * 
+ * <p>Callbacks are invoked on the emitting thread, possibly several threads at once in load mode.
+ * Handlers must be non-blocking.
  * 
  * @see SyntheticFeedConfig for configuration options
  * @see FeedAdapter for the SPI contract
@@ -55,23 +83,38 @@ public class SyntheticExchangeAdapter implements FeedAdapter {
     
     private static final Logger log = LoggerFactory.getLogger(SyntheticExchangeAdapter.class);
     
+    // Scheduled generator wakes up at most this often and emits whatever is due
+    private static final long MIN_TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    // Load generator emits at most this many messages between clock reads
+    private static final int MAX_BATCH = 256;
+    // Load generator spins when the next message is due sooner than this, parks otherwise
+    private static final long SPIN_THRESHOLD_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    // Most time worth of messages a generator may owe before falling behind is forgotten
+    private static final long MAX_BACKLOG_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long RATE_REPORT_INTERVAL_MS = 5000;
+    
     // Adapter identity and configuration
     private final String id;
     private final SyntheticFeedConfig config;
+    private final EventIdGenerator tradeIdGenerator;
     
     // Thread-safe state management
     private final AtomicBoolean connected = new AtomicBoolean(false);
     private final AtomicLong sequenceNumber = new AtomicLong(0);
     private final AtomicReference<FeedEventHandler> handlerRef = new AtomicReference<>();
     
-    // Price state for each symbol (thread-safe map)
-    private final Map<String, SymbolPriceState> priceStates = new ConcurrentHashMap<>();
+    // Price state and draws for each symbol, indexed by the symbol's position in config.symbols();
+    // rebuilt on connect so a seeded run starts from the same prices
+    private volatile SyntheticMarket market;
     
     // Burst state
     private final AtomicBoolean inBurst = new AtomicBoolean(false);
     
     // Message generation (initialized on connect)
     private final Random random = new Random();
+    // Used only from the scheduler thread; load generator threads each have their own
+    private final SyntheticMessageEncoder scheduledEncoder = new SyntheticMessageEncoder();
+    private final SyntheticMarket.Tick scheduledTick = new SyntheticMarket.Tick();
     private volatile ScheduledExecutorService executor;
     private volatile ScheduledFuture<?> messageTask;
     private volatile ScheduledFuture<?> burstTask;
@@ -79,39 +122,37 @@ public class SyntheticExchangeAdapter implements FeedAdapter {
     // Message type counter for trade/quote distribution
     private final AtomicLong messageCounter = new AtomicLong(0);
     
+    // Load generator threads and achieved-rate accounting
+    private final List<Thread> generators = new ArrayList<>();
+    private final LongAdder emittedCount = new LongAdder();
+    private volatile long connectedAtNanos;
+    private volatile ScheduledFuture<?> reportTask;
+    private volatile boolean replayComplete;
+    
     /**
      * Creates a new synthetic exchange adapter with the given configuration.
      * 
      * @param config the adapter configuration
      */
     public SyntheticExchangeAdapter(SyntheticFeedConfig config) {
-        this.id = "synthetic-exchange-" + UUID.randomUUID().toString().substring(0, 8);
-        this.config = config;
-        
-        // Initialize price state for each configured symbol
-        initializePriceStates();
+        this(config, new SnowflakeEventIdGenerator(0));
     }
     
     /**
-     * Initializes price states for all configured symbols with realistic base prices.
+     * Creates a new synthetic exchange adapter that draws trade IDs from the given generator.
+     * 
+     * @param config the adapter configuration
+     * @param tradeIdGenerator source of trade IDs
      */
-    private void initializePriceStates() {
-        // Base prices for common symbols (simplified - production would use reference data)
-        Map<String, Double> basePrices = Map.of(
-            "AAPL", 185.0,
-            "GOOGL", 140.0,
-            "MSFT", 375.0,
-            "AMZN", 170.0,
-            "META", 480.0,
-            "NVDA", 850.0,
-            "TSLA", 240.0,
-            "JPM", 190.0
-        );
-        
-        for (String symbol : config.symbols()) {
-            double basePrice = basePrices.getOrDefault(symbol, 100.0);
-            priceStates.put(symbol, new SymbolPriceState(symbol, basePrice, random));
-        }
+    public SyntheticExchangeAdapter(SyntheticFeedConfig config, EventIdGenerator tradeIdGenerator) {
+        this.id = "synthetic-exchange-" + UUID.randomUUID().toString().substring(0, 8);
+        this.config = config;
+        this.tradeIdGenerator = tradeIdGenerator;
+        this.market = newMarket();
+    }
+    
+    private SyntheticMarket newMarket() {
+        return new SyntheticMarket(config.symbols(), config.scenario(), config.tradeToQuoteRatio());
     }
     
     @Override
@@ -147,6 +188,15 @@ public class SyntheticExchangeAdapter implements FeedAdapter {
         // Reset sequence number on new connection
         sequenceNumber.set(0);
         messageCounter.set(0);
+        emittedCount.reset();
+        replayComplete = false;
+        
+        // Start every seeded run from the same prices and random state
+        market = newMarket();
+        if (config.seed() != null) {
+            random.setSeed(config.seed());
+        }
+        connectedAtNanos = System.nanoTime();
         
         // Create executor for message generation (daemon threads for clean shutdown)
         executor = Executors.newScheduledThreadPool(2, r -> {
@@ -157,13 +207,27 @@ public class SyntheticExchangeAdapter implements FeedAdapter {
         
         // Notify connected
         executor.execute(() -> {
-            log.info("SyntheticExchangeAdapter [{}] connected with config: symbols={}, rate={}/s, burst={}",
-                    id, config.symbols(), config.messageRatePerSecond(), config.burstEnabled());
+            if (config.replayFile() != null) {
+                log.info("SyntheticExchangeAdapter [{}] connected replaying {} at speed {}",
+                        id, config.replayFile(), config.replaySpeed() == 0 ? "max" : config.replaySpeed());
+            } else {
+                log.info("SyntheticExchangeAdapter [{}] connected with config: symbols={}, rate={}/s, burst={}, scenario={}, seed={}",
+                        id, config.symbols().size() > 10 ? config.symbols().size() + " symbols" : config.symbols(),
+                        config.messageRatePerSecond(), config.burstEnabled(), config.scenario(), config.seed());
+            }
             handler.onConnected(id);
         });
         
-        // Schedule message generation based on rate
-        scheduleMessageGeneration();
+        // Replay a tape, or generate from the scheduler or from dedicated threads in load mode
+        if (config.replayFile() != null) {
+            startReplay(handler);
+            return;
+        }
+        if (config.generatorThreads() > 0) {
+            startGenerators(handler);
+        } else {
+            scheduleMessageGeneration();
+        }
         
         // Schedule burst mode if enabled
         if (config.burstEnabled()) {
@@ -172,21 +236,126 @@ public class SyntheticExchangeAdapter implements FeedAdapter {
     }
     
     /**
-     * Schedules the message generation task based on configured rate.
+     * Schedules the message generation task, waking up once per message interval or every
+     * {@link #MIN_TICK_NANOS}, whichever is longer, and emitting what the pacer says is due.
      */
     private void scheduleMessageGeneration() {
-        // Calculate interval between messages
-        // Rate is messages per second, so interval = 1000ms / rate
-        long intervalMs = Math.max(1, 1000 / config.messageRatePerSecond());
+        long periodNanos = Math.max(MIN_TICK_NANOS, RatePacer.NANOS_PER_SECOND / config.messageRatePerSecond());
+        RatePacer pacer = new RatePacer(System.nanoTime(), maxBacklog(config.messageRatePerSecond()));
         
         messageTask = executor.scheduleAtFixedRate(
-            this::emitMessage,
-            intervalMs,  // initial delay
-            intervalMs,  // period (will be adjusted during burst)
-            TimeUnit.MILLISECONDS
+            () -> emitDue(pacer),
+            periodNanos,  // initial delay
+            periodNanos,  // period; bursts raise the rate, not the frequency
+            TimeUnit.NANOSECONDS
         );
     }
     
+    /**
+     * Starts the load generator threads, each emitting for the symbols at its position modulo
+     * the thread count at an equal share of the rate.
+     */
+    private void startGenerators(FeedEventHandler handler) {
+        int threads = config.generatorThreads();
+        int symbols = market.size();
+        for (int t = 0; t < threads; t++) {
+            int[] partition = new int[(symbols - t + threads - 1) / threads];
+            for (int i = 0; i < partition.length; i++) {
+                partition[i] = t + i * threads;
+            }
+            // Spread the remainder so the shares add up to the configured rate
+            long share = config.messageRatePerSecond() / threads + (t < config.messageRatePerSecond() % threads ? 1 : 0);
+            // Seed each thread's stream here, in thread order, so a seeded run is repeatable
+            long threadSeed = random.nextLong();
+            Thread generator = new Thread(() -> generate(handler, partition, share, threadSeed),
+                    "synthetic-exchange-" + id + "-gen-" + t);
+            generator.setDaemon(true);
+            generators.add(generator);
+        }
+        generators.forEach(Thread::start);
+        
+        reportTask = executor.scheduleAtFixedRate(new RateReporter(), RATE_REPORT_INTERVAL_MS, RATE_REPORT_INTERVAL_MS,
+            TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Load generator loop: emit what is due in batches, then spin or park until the next message.
+     */
+    private void generate(FeedEventHandler handler, int[] partition, long ratePerSecond, long seed) {
+        RandomGenerator threadRandom = new SplittableRandom(seed);
+        RatePacer pacer = new RatePacer(System.nanoTime(), maxBacklog(ratePerSecond));
+        SyntheticMessageEncoder encoder = new SyntheticMessageEncoder();
+        SyntheticMarket.Tick tick = new SyntheticMarket.Tick();
+        long counter = 0;
+        while (connected.get()) {
+            long now = System.nanoTime();
+            long rate = market.rate(ratePerSecond, now - connectedAtNanos);
+            if (inBurst.get()) {
+                rate *= config.burstMultiplier();
+            }
+            int due = pacer.due(now, rate, MAX_BATCH);
+            if (due == 0) {
+                long waitNanos = pacer.nanosUntilNext(rate);
+                if (waitNanos > SPIN_THRESHOLD_NANOS) {
+                    LockSupport.parkNanos(waitNanos - SPIN_THRESHOLD_NANOS);
+                } else {
+                    Thread.onSpinWait();
+                }
+                continue;
+            }
+            // Claim the batch's sequence numbers at once rather than contend per message
+            long sequence = sequenceNumber.getAndAdd(due);
+            long elapsed = now - connectedAtNanos;
+            for (int i = 0; i < due; i++) {
+                emitNext(handler, threadRandom, partition, ++counter, elapsed, tick, encoder, ++sequence);
+            }
+        }
+    }
+    
+    /**
+     * Starts the replay thread, which emits the tape's records in order at their offsets from
+     * now scaled by the replay speed, or back to back at speed 0.
+     */
+    private void startReplay(FeedEventHandler handler) {
+        Thread replay = new Thread(() -> replay(handler), "synthetic-exchange-" + id + "-replay");
+        replay.setDaemon(true);
+        generators.add(replay);
+        replay.start();
+    }
+    
+    private void replay(FeedEventHandler handler) {
+        double speed = config.replaySpeed();
+        SyntheticMessageEncoder encoder = new SyntheticMessageEncoder();
+        SyntheticMarket.Tick tick = new SyntheticMarket.Tick();
+        try (SyntheticTape.Reader tape = new SyntheticTape.Reader(config.replayFile())) {
+            List<String> symbols = tape.symbols();
+            long start = System.nanoTime();
+            long offset;
+            while (connected.get() && (offset = tape.next(tick)) >= 0) {
+                if (speed > 0) {
+                    ReplayPacing.awaitNanoTime(start + (long) (offset / speed), connected);
+                }
+                long sequence = sequenceNumber.incrementAndGet();
+                Instant now = Instant.now();
+                tick.encode(encoder, symbols.get(tick.symbolIndex), now, sequence);
+                handler.onMessage(id, new RawFeedMessage(encoder.toByteArray(), now, sequence));
+                emittedCount.increment();
+            }
+            if (connected.get()) {
+                replayComplete = true;
+                log.info("SyntheticExchangeAdapter [{}] replay of {} complete: {} messages at {} msgs/s",
+                        id, config.replayFile(), emittedCount.sum(), Math.round(getAchievedRatePerSecond()));
+            }
+        } catch (Exception e) {
+            log.error("Error replaying {} in SyntheticExchangeAdapter [{}]", config.replayFile(), id, e);
+            handler.onError(id, e);
+        }
+    }
+    
+    private static long maxBacklog(long ratePerSecond) {
+        return Math.max(MAX_BATCH, ratePerSecond * MAX_BACKLOG_NANOS / RatePacer.NANOS_PER_SECOND);
+    }
+    
     /**
      * Schedules burst mode transitions.
      */
@@ -206,50 +375,51 @@ public class SyntheticExchangeAdapter implements FeedAdapter {
     }
     
     /**
-     * Emits a single message (trade or quote) to the handler.
+     * Emits the messages due since the last tick from the scheduler thread.
      */
-    private void emitMessage() {
+    private void emitDue(RatePacer pacer) {
         FeedEventHandler handler = handlerRef.get();
         if (handler == null || !connected.get()) {
             return;
         }
         
-        // During burst, emit multiple messages per tick
-        int messagesToEmit = inBurst.get() ? config.burstMultiplier() : 1;
+        // Scenario and burst multiply the rate, and so the number due per tick
+        long now = System.nanoTime();
+        long elapsed = now - connectedAtNanos;
+        long rate = market.rate(config.messageRatePerSecond(), elapsed);
+        if (inBurst.get()) {
+            rate *= config.burstMultiplier();
+        }
+        int messagesToEmit = pacer.due(now, rate, Integer.MAX_VALUE);
         
         for (int i = 0; i < messagesToEmit; i++) {
-            emitSingleMessage(handler);
+            emitNext(handler, random, null, messageCounter.incrementAndGet(), elapsed, scheduledTick,
+                scheduledEncoder, sequenceNumber.incrementAndGet());
         }
     }
     
     /**
-     * Emits a single message, choosing between trade and quote based on ratio.
+     * Draws the next trade or quote from the market, encodes it into the calling thread's buffer
+     * and emits it, copied out once as the payload.
      */
-    private void emitSingleMessage(FeedEventHandler handler) {
+    private void emitNext(FeedEventHandler handler, RandomGenerator random, int[] partition, long messageNumber,
+                          long elapsedNanos, SyntheticMarket.Tick tick, SyntheticMessageEncoder encoder, long sequence) {
         try {
-            // Pick a random symbol
-            String symbol = config.symbols().get(random.nextInt(config.symbols().size()));
-            SymbolPriceState priceState = priceStates.get(symbol);
+            SyntheticMarket market = this.market;
+            market.next(random, partition, messageNumber, elapsedNanos, tick);
             
-            // Decide message type based on trade/quote ratio
-            // If ratio is 5, then 1 in 6 messages is a trade (1 trade per 5 quotes)
-            long count = messageCounter.incrementAndGet();
-            boolean isTrade = (count % (config.tradeToQuoteRatio() + 1)) == 0;
-            
-            byte[] payload;
-            if (isTrade) {
-                payload = generateTrade(symbol, priceState).toBytes();
-            } else {
-                payload = generateQuote(symbol, priceState).toBytes();
-            }
+            // One clock read serves as both the exchange and the receive timestamp
+            Instant now = Instant.now();
+            tick.encode(encoder, market.symbol(tick.symbolIndex), now, tick.trade ? tradeIdGenerator.nextId() : 0);
             
             RawFeedMessage message = new RawFeedMessage(
-                payload,
-                Instant.now(),
-                sequenceNumber.incrementAndGet()
+                encoder.toByteArray(),
+                now,
+                sequence
             );
             
             handler.onMessage(id, message);
+            emittedCount.increment();
             
         } catch (Exception e) {
             log.error("Error emitting message in SyntheticExchangeAdapter [{}]", id, e);
@@ -260,46 +430,6 @@ public class SyntheticExchangeAdapter implements FeedAdapter {
         }
     }
     
-    /**
-     * Generates a synthetic trade message.
-     */
-    private SyntheticTrade generateTrade(String symbol, SymbolPriceState priceState) {
-        double price = priceState.nextPrice();
-        return new SyntheticTrade(
-            symbol,
-            price,
-            randomQuantity(),
-            Instant.now(),
-            "T" + UUID.randomUUID().toString().substring(0, 8),
-            random.nextBoolean() ? TradeSide.BUY : TradeSide.SELL
-        );
-    }
-    
-    /**
-     * Generates a synthetic quote message.
-     */
-    private SyntheticQuote generateQuote(String symbol, SymbolPriceState priceState) {
-        double midPrice = priceState.nextPrice();
-        double halfSpread = priceState.getHalfSpread();
-        
-        return new SyntheticQuote(
-            symbol,
-            midPrice - halfSpread,  // bid
-            randomQuantity(),
-            midPrice + halfSpread,  // ask
-            randomQuantity(),
-            Instant.now()
-        );
-    }
-    
-    /**
-     * Generates a random quantity between 100 and 10000 (in round lots).
-     */
-    private long randomQuantity() {
-        // Generate in round lots of 100
-        return (random.nextInt(100) + 1) * 100L;
-    }
-    
     @Override
     public void disconnect() {
         if (!connected.compareAndSet(true, false)) {
@@ -316,6 +446,20 @@ public class SyntheticExchangeAdapter implements FeedAdapter {
         if (burstTask != null) {
             burstTask.cancel(false);
         }
+        if (reportTask != null) {
+            reportTask.cancel(false);
+        }
+        
+        // Generator threads see the connected flag drop and finish their batch
+        for (Thread generator : generators) {
+            try {
+                generator.join(TimeUnit.SECONDS.toMillis(1));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        generators.clear();
         
         // Shutdown executor
         if (executor != null) {
@@ -343,6 +487,36 @@ public class SyntheticExchangeAdapter implements FeedAdapter {
         return connected.get();
     }
     
+    /**
+     * @return messages emitted since the last connect
+     */
+    public long getEmittedCount() {
+        return emittedCount.sum();
+    }
+    
+    /**
+     * @return true once a replay has emitted the whole tape; the adapter stays connected until
+     *         {@link #disconnect()}
+     */
+    public boolean isReplayComplete() {
+        return replayComplete;
+    }
+    
+    /**
+     * @return configured base rate in messages per second, before any burst multiplier
+     */
+    public int getTargetRatePerSecond() {
+        return config.messageRatePerSecond();
+    }
+    
+    /**
+     * @return average messages per second actually emitted since the last connect
+     */
+    public double getAchievedRatePerSecond() {
+        long elapsed = System.nanoTime() - connectedAtNanos;
+        return elapsed <= 0 ? 0 : emittedCount.sum() * (double) RatePacer.NANOS_PER_SECOND / elapsed;
+    }
+    
     @Override
     public void sendHeartbeat() {
         // Synthetic adapter doesn't require heartbeats (internal feed)
@@ -351,52 +525,25 @@ public class SyntheticExchangeAdapter implements FeedAdapter {
     }
     
     /**
-     * Maintains price state for a single symbol using a random walk model.
-     * 
-     * <p>Thread-safe for concurrent access during message generation.
+     * Logs the achieved rate of the load generator over each reporting interval against the target.
      */
-    private static class SymbolPriceState {
-        private final String symbol;
-        private volatile double lastPrice;
-        private final Random random;
-        
-        // Price drift parameters
-        private static final double MAX_DRIFT_PERCENT = 0.001; // 0.1% max drift per tick
-        private static final double SPREAD_PERCENT = 0.0002;   // 0.02% half-spread
+    private class RateReporter implements Runnable {
+        private long lastCount;
+        private long lastNanos = connectedAtNanos;
         
-        SymbolPriceState(String symbol, double initialPrice, Random random) {
-            this.symbol = symbol;
-            this.lastPrice = initialPrice;
-            this.random = random;
-        }
-        
-        /**
-         * Gets the next price using random walk.
-         * 
-         * @return the new price
-         */
-        synchronized double nextPrice() {
-            // Random drift: -MAX_DRIFT to +MAX_DRIFT
-            double driftPercent = (random.nextDouble() * 2 - 1) * MAX_DRIFT_PERCENT;
-            lastPrice = lastPrice * (1 + driftPercent);
-            
-            // Round to 2 decimal places (cents)
-            lastPrice = Math.round(lastPrice * 100.0) / 100.0;
-            
-            // Ensure price stays positive
-            if (lastPrice < 0.01) {
-                lastPrice = 0.01;
+        @Override
+        public void run() {
+            long count = emittedCount.sum();
+            long now = System.nanoTime();
+            double achieved = (count - lastCount) * (double) RatePacer.NANOS_PER_SECOND / (now - lastNanos);
+            long target = market.rate(config.messageRatePerSecond(), now - connectedAtNanos);
+            if (inBurst.get()) {
+                target *= config.burstMultiplier();
             }
-            
-            return lastPrice;
-        }
-        
-        /**
-         * Gets the half-spread for bid/ask calculation.
-         */
-        double getHalfSpread() {
-            // Half-spread is a percentage of price, minimum 0.01
-            return Math.max(0.01, lastPrice * SPREAD_PERCENT);
+            log.info("SyntheticExchangeAdapter [{}] achieved {} msgs/s of target {} msgs/s ({} threads)",
+                    id, Math.round(achieved), target, config.generatorThreads());
+            lastCount = count;
+            lastNanos = now;
         }
     }
 }
@@ -0,0 +1,97 @@
+package com.pulsewire.dataplane.adapter.synthetic;
+
+import com.pulsewire.core.id.EventIdGenerator;
+import com.pulsewire.core.instrument.InstrumentAttributes;
+import com.pulsewire.core.instrument.InstrumentRegistry;
+import com.pulsewire.dataplane.adapter.FeedEventBridge;
+import com.pulsewire.dataplane.adapter.capture.CaptureTapConfig;
+import com.pulsewire.dataplane.metrics.LatencyMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs the {@link SyntheticExchangeAdapter} through a {@link FeedEventBridge} when
+ * {@code pulsewire.adapters.synthetic-exchange.enabled} is true, so its trades and quotes reach the
+ * backbone next to those of the legacy adapters.
+ *
+ * <p>A {@code scenario} brings its own symbols, rate and trade-to-quote ratio, replacing those
+ * properties; a {@code replay-file} brings its own symbols and replaces live generation. With
+ * capture enabled the feed's messages are recorded by a {@link com.pulsewire.dataplane.adapter.capture.CaptureTap},
+ * which captures one callback thread, so not together with {@code generator-threads}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "pulsewire.adapters.synthetic-exchange.enabled", havingValue = "true")
+public class SyntheticExchangeConfig {
+
+    static final String FEED = "synthetic-exchange";
+
+    @Value("${pulsewire.adapters.synthetic-exchange.symbols:AAPL,GOOGL,MSFT}")
+    private List<String> symbols;
+
+    @Value("${pulsewire.adapters.synthetic-exchange.message-rate:10}")
+    private int messageRate;
+
+    @Value("${pulsewire.adapters.synthetic-exchange.trade-to-quote-ratio:5}")
+    private int tradeToQuoteRatio;
+
+    @Value("${pulsewire.adapters.synthetic-exchange.generator-threads:0}")
+    private int generatorThreads;
+
+    @Value("${pulsewire.adapters.synthetic-exchange.seed:#{null}}")
+    private Long seed;
+
+    @Value("${pulsewire.adapters.synthetic-exchange.scenario:}")
+    private String scenario;
+
+    @Value("${pulsewire.adapters.synthetic-exchange.replay-file:}")
+    private String replayFile;
+
+    @Value("${pulsewire.adapters.synthetic-exchange.replay-speed:1.0}")
+    private double replaySpeed;
+
+    @Bean
+    public FeedEventBridge syntheticExchangeFeed(EventIdGenerator idGenerator, InstrumentRegistry instrumentRegistry,
+                                                 InstrumentAttributes instrumentAttributes,
+                                                 LatencyMetrics latencyMetrics,
+                                                 ObjectProvider<CaptureTapConfig> capture) throws IOException {
+        SyntheticFeedConfig.Builder builder = SyntheticFeedConfig.builder()
+                .symbols(symbols)
+                .messageRatePerSecond(messageRate)
+                .tradeToQuoteRatio(tradeToQuoteRatio)
+                .generatorThreads(generatorThreads)
+                .seed(seed)
+                .replaySpeed(replaySpeed);
+        if (!scenario.isBlank()) {
+            builder.scenario(SyntheticScenario.fromName(scenario));
+        }
+        List<String> instruments = builder.build().symbols();
+        if (!replayFile.isBlank()) {
+            Path tape = Path.of(replayFile);
+            builder.replayFile(tape);
+            try (SyntheticTape.Reader reader = new SyntheticTape.Reader(tape)) {
+                instruments = reader.symbols();
+            }
+        }
+        SyntheticFeedConfig config = builder.build();
+        for (String symbol : instruments) {
+            instrumentAttributes.put(symbol, Map.of(
+                    InstrumentAttributes.VENUE, "SYNTHETIC",
+                    InstrumentAttributes.ASSET_CLASS, "EQUITY"));
+        }
+        CaptureTapConfig captureConfig = capture.getIfAvailable();
+        if (captureConfig != null && config.generatorThreads() > 0) {
+            throw new IllegalArgumentException("Capture records one callback thread; generator-threads="
+                    + config.generatorThreads());
+        }
+        return new FeedEventBridge(FEED, new SyntheticExchangeAdapter(config, idGenerator), idGenerator,
+                instrumentRegistry, latencyMetrics, captureConfig);
+    }
+}
@@ -1,5 +1,6 @@
 package com.pulsewire.dataplane.adapter.synthetic;
 
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Objects;
 
@@ -13,6 +14,12 @@ import java.util.Objects;
  *   <li><b>messageRatePerSecond</b>: Base rate of message generation</li>
  *   <li><b>burst*</b>: Configuration for simulating market burst events</li>
  *   <li><b>tradeToQuoteRatio</b>: Ratio of quotes per trade (markets have more quotes)</li>
+ *   <li><b>generatorThreads</b>: 0 for the scheduled generator, or the number of dedicated
+ *       threads of the load generator for rates into the millions per second</li>
+ *   <li><b>seed</b>: Makes the generated message sequence repeatable across runs</li>
+ *   <li><b>scenario</b>: A named {@link SyntheticScenario} shaping the session over time</li>
+ *   <li><b>replayFile</b>/<b>replaySpeed</b>: Replay a tape pre-generated by
+ *       {@link SyntheticTapeGenerator} instead of generating live</li>
  * </ul>
  * 
  * <h2>Design Decision (ADR-004)</h2>
@@ -39,6 +46,12 @@ import java.util.Objects;
  * @param burstDurationMs Duration of each burst in milliseconds
  * @param burstIntervalMs Time between burst starts in milliseconds
  * @param tradeToQuoteRatio Number of quotes generated per trade (default: 5)
+ * @param generatorThreads Load generator threads, each owning a share of the symbols; 0 (default)
+ *                         emits from a scheduled task instead
+ * @param seed Seed for all random draws, or null for a different sequence every run
+ * @param scenario Scenario shaping rate, symbol mix and volatility over time, or null for a flat session
+ * @param replayFile Tape to replay instead of generating, or null
+ * @param replaySpeed Replay speed as a multiple of the tape's timing; 0 replays as fast as possible
  */
 public record SyntheticFeedConfig(
         boolean enabled,
@@ -48,7 +61,12 @@ public record SyntheticFeedConfig(
         int burstMultiplier,
         long burstDurationMs,
         long burstIntervalMs,
-        int tradeToQuoteRatio
+        int tradeToQuoteRatio,
+        int generatorThreads,
+        Long seed,
+        SyntheticScenario scenario,
+        Path replayFile,
+        double replaySpeed
 ) {
     
     // Default values for configuration
@@ -58,6 +76,8 @@ public record SyntheticFeedConfig(
     private static final long DEFAULT_BURST_DURATION_MS = 1000;
     private static final long DEFAULT_BURST_INTERVAL_MS = 10000;
     private static final int DEFAULT_TRADE_TO_QUOTE_RATIO = 5;
+    private static final int DEFAULT_GENERATOR_THREADS = 0;
+    private static final double DEFAULT_REPLAY_SPEED = 1.0;
     
     /**
      * Compact constructor for validation.
@@ -95,6 +115,29 @@ public record SyntheticFeedConfig(
         if (tradeToQuoteRatio < 1) {
             throw new IllegalArgumentException("Trade to quote ratio must be >= 1: " + tradeToQuoteRatio);
         }
+        
+        // Validate load generator threads; each needs at least one symbol of its own
+        if (generatorThreads < 0) {
+            throw new IllegalArgumentException("Generator threads must be >= 0: " + generatorThreads);
+        }
+        if (enabled && generatorThreads > symbols.size()) {
+            throw new IllegalArgumentException(
+                "Generator threads must not exceed symbols: threads=" + generatorThreads + ", symbols=" + symbols.size()
+            );
+        }
+        if (generatorThreads > messageRatePerSecond) {
+            throw new IllegalArgumentException(
+                "Generator threads must not exceed the message rate: threads=" + generatorThreads + ", rate=" + messageRatePerSecond
+            );
+        }
+        
+        // Validate replay; a tape replays in order on one thread
+        if (!(replaySpeed >= 0) || Double.isInfinite(replaySpeed)) {
+            throw new IllegalArgumentException("Replay speed must be >= 0 (0 = as fast as possible): " + replaySpeed);
+        }
+        if (replayFile != null && generatorThreads > 0) {
+            throw new IllegalArgumentException("Replay does not use generator threads: threads=" + generatorThreads);
+        }
     }
     
     /**
@@ -121,6 +164,11 @@ public record SyntheticFeedConfig(
         private long burstDurationMs = DEFAULT_BURST_DURATION_MS;
         private long burstIntervalMs = DEFAULT_BURST_INTERVAL_MS;
         private int tradeToQuoteRatio = DEFAULT_TRADE_TO_QUOTE_RATIO;
+        private int generatorThreads = DEFAULT_GENERATOR_THREADS;
+        private Long seed;
+        private SyntheticScenario scenario;
+        private Path replayFile;
+        private double replaySpeed = DEFAULT_REPLAY_SPEED;
         
         /**
          * Sets whether the adapter is enabled.
@@ -213,6 +261,80 @@ public record SyntheticFeedConfig(
             return this;
         }
         
+        /**
+         * Sets the number of load generator threads.
+         * 
+         * <p>0 keeps the scheduled generator, suited to demo rates. A positive value starts that
+         * many dedicated threads, each emitting for its own share of the symbols and pacing itself
+         * on {@link System#nanoTime()}, for load tests at millions of messages per second.
+         * 
+         * @param threads generator threads (0 to disable, at most the number of symbols)
+         * @return this builder
+         */
+        public Builder generatorThreads(int threads) {
+            this.generatorThreads = threads;
+            return this;
+        }
+        
+        /**
+         * Seeds every random draw so the generated message sequence is the same on every run.
+         * 
+         * <p>The sequence of messages is fixed by the seed; with the scheduled generator their
+         * timing still follows the wall clock, and with several load generator threads so does
+         * the interleaving of their streams.
+         * 
+         * @param seed random seed, or null for a different sequence every run
+         * @return this builder
+         */
+        public Builder seed(Long seed) {
+            this.seed = seed;
+            return this;
+        }
+        
+        /**
+         * Selects a named scenario and applies its symbols, base rate and trade-to-quote ratio.
+         * 
+         * <p>Call the corresponding setters afterwards to override those defaults; the scenario
+         * keeps shaping rate, symbol mix and volatility over time.
+         * 
+         * @param scenario the scenario, or null for a flat session
+         * @return this builder
+         */
+        public Builder scenario(SyntheticScenario scenario) {
+            this.scenario = scenario;
+            if (scenario != null) {
+                this.symbols = scenario.symbols();
+                this.messageRatePerSecond = scenario.messageRatePerSecond();
+                this.tradeToQuoteRatio = scenario.tradeToQuoteRatio();
+            }
+            return this;
+        }
+        
+        /**
+         * Replays a tape written by {@link SyntheticTapeGenerator} instead of generating live.
+         * 
+         * <p>The tape's own symbols, seed and scenario apply; rate and burst settings are ignored.
+         * 
+         * @param file the tape, or null to generate live
+         * @return this builder
+         */
+        public Builder replayFile(Path file) {
+            this.replayFile = file;
+            return this;
+        }
+        
+        /**
+         * Sets the replay speed.
+         * 
+         * @param speed multiple of the tape's timing (1 = as recorded, 10 = ten times faster),
+         *              or 0 to replay as fast as possible
+         * @return this builder
+         */
+        public Builder replaySpeed(double speed) {
+            this.replaySpeed = speed;
+            return this;
+        }
+        
         /**
          * Builds the immutable configuration.
          * 
@@ -228,7 +350,12 @@ public record SyntheticFeedConfig(
                 burstMultiplier,
                 burstDurationMs,
                 burstIntervalMs,
-                tradeToQuoteRatio
+                tradeToQuoteRatio,
+                generatorThreads,
+                seed,
+                scenario,
+                replayFile,
+                replaySpeed
             );
         }
     }
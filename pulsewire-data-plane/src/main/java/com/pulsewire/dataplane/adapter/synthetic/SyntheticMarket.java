@@ -0,0 +1,198 @@
+package com.pulsewire.dataplane.adapter.synthetic;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * The synthetic market model shared by live generation and tape pre-generation: per-symbol random
+ * walk prices, symbol and message-type selection, and the optional {@link SyntheticScenario}
+ * shaping them over time. Every draw comes from the caller's {@link RandomGenerator}, in a fixed
+ * order, so a seeded generator reproduces the same messages.
+ *
+ * <p>Price states are safe to share, but live generation only ever draws a symbol from the thread
+ * that owns it, which keeps each symbol's price series in order.
+ */
+final class SyntheticMarket {
+
+    // Base prices for common symbols (simplified - production would use reference data)
+    private static final Map<String, Double> BASE_PRICES = Map.of(
+        "AAPL", 185.0,
+        "GOOGL", 140.0,
+        "MSFT", 375.0,
+        "AMZN", 170.0,
+        "META", 480.0,
+        "NVDA", 850.0,
+        "TSLA", 240.0,
+        "JPM", 190.0
+    );
+    private static final double DEFAULT_BASE_PRICE = 100.0;
+
+    private final List<String> symbols;
+    private final SyntheticScenario scenario;
+    private final int tradeToQuoteRatio;
+    private final SymbolPriceState[] priceStates;
+
+    /**
+     * @param scenario shapes rate, symbol mix and volatility over time; null for a flat session
+     */
+    SyntheticMarket(List<String> symbols, SyntheticScenario scenario, int tradeToQuoteRatio) {
+        this.symbols = symbols;
+        this.scenario = scenario;
+        this.tradeToQuoteRatio = tradeToQuoteRatio;
+        this.priceStates = new SymbolPriceState[symbols.size()];
+        for (int i = 0; i < priceStates.length; i++) {
+            priceStates[i] = new SymbolPriceState(BASE_PRICES.getOrDefault(symbols.get(i), DEFAULT_BASE_PRICE));
+        }
+    }
+
+    int size() {
+        return symbols.size();
+    }
+
+    String symbol(int symbolIndex) {
+        return symbols.get(symbolIndex);
+    }
+
+    /**
+     * @return the rate in force {@code elapsedNanos} into the session, at least 1
+     */
+    long rate(long baseRatePerSecond, long elapsedNanos) {
+        if (scenario == null) {
+            return baseRatePerSecond;
+        }
+        return Math.max(1, Math.round(baseRatePerSecond * scenario.rateMultiplier(elapsedNanos)));
+    }
+
+    /**
+     * Draws the next message into {@code tick}.
+     *
+     * @param partition     symbols to draw from, or null for all of them
+     * @param messageNumber 1-based count of messages drawn by this caller, which decides trade or quote:
+     *                      if the ratio is 5, then 1 in 6 messages is a trade (1 trade per 5 quotes)
+     * @throws IllegalArgumentException if the walk produced a non-positive bid
+     */
+    void next(RandomGenerator random, int[] partition, long messageNumber, long elapsedNanos, Tick tick) {
+        int symbolIndex = pickSymbol(random, partition, elapsedNanos);
+        double volatility = scenario == null ? 1 : scenario.volatilityMultiplier(symbolIndex, elapsedNanos);
+        SymbolPriceState priceState = priceStates[symbolIndex];
+        double price = priceState.nextPrice(random, volatility);
+
+        tick.symbolIndex = symbolIndex;
+        tick.trade = messageNumber % (tradeToQuoteRatio + 1) == 0;
+        if (tick.trade) {
+            tick.price = price;
+            tick.quantity = randomQuantity(random);
+            tick.side = random.nextBoolean() ? TradeSide.BUY : TradeSide.SELL;
+        } else {
+            double halfSpread = priceState.getHalfSpread();
+            // Same invariant SyntheticQuote enforces; the spread is positive so only the bid can fail it
+            double bidPrice = price - halfSpread;
+            if (bidPrice <= 0) {
+                throw new IllegalArgumentException("Bid price must be positive: " + bidPrice);
+            }
+            tick.bidPrice = bidPrice;
+            tick.bidSize = randomQuantity(random);
+            tick.askPrice = price + halfSpread;
+            tick.askSize = randomQuantity(random);
+        }
+    }
+
+    private int pickSymbol(RandomGenerator random, int[] partition, long elapsedNanos) {
+        int count = partition == null ? priceStates.length : partition.length;
+        int position;
+        // Only draw for the hot symbol while the scenario has one, so flat sessions keep their sequence
+        double hotShare = scenario == null ? 0 : scenario.hotSymbolShare(elapsedNanos);
+        if (hotShare > 0 && random.nextDouble() < hotShare) {
+            position = 0;
+        } else {
+            position = count == 1 ? 0 : random.nextInt(count);
+        }
+        return partition == null ? position : partition[position];
+    }
+
+    /**
+     * Generates a random quantity between 100 and 10000 (in round lots).
+     */
+    private static long randomQuantity(RandomGenerator random) {
+        // Generate in round lots of 100
+        return (random.nextInt(100) + 1) * 100L;
+    }
+
+    /**
+     * One drawn message; the trade or the quote fields are set depending on {@link #trade}.
+     * Reused by its owner for every draw.
+     */
+    static final class Tick {
+        int symbolIndex;
+        boolean trade;
+        double price;
+        long quantity;
+        TradeSide side;
+        double bidPrice;
+        long bidSize;
+        double askPrice;
+        long askSize;
+
+        /**
+         * Encodes this tick as a {@link SyntheticTrade} or {@link SyntheticQuote} payload.
+         *
+         * @param tradeIdNumber trade ID after the {@code T} prefix; unused for quotes
+         * @return length of the encoded message
+         */
+        int encode(SyntheticMessageEncoder encoder, String symbol, Instant timestamp, long tradeIdNumber) {
+            return trade
+                ? encoder.encodeTrade(symbol, price, quantity, timestamp, tradeIdNumber, side)
+                : encoder.encodeQuote(symbol, bidPrice, bidSize, askPrice, askSize, timestamp);
+        }
+    }
+
+    /**
+     * Maintains price state for a single symbol using a random walk model.
+     *
+     * <p>Thread-safe for concurrent access during message generation.
+     */
+    private static class SymbolPriceState {
+        private volatile double lastPrice;
+
+        // Price drift parameters
+        private static final double MAX_DRIFT_PERCENT = 0.001; // 0.1% max drift per tick
+        private static final double SPREAD_PERCENT = 0.0002;   // 0.02% half-spread
+
+        SymbolPriceState(double initialPrice) {
+            this.lastPrice = initialPrice;
+        }
+
+        /**
+         * Gets the next price using random walk.
+         *
+         * @param random     source of the drift, owned by the calling generator thread
+         * @param volatility factor on the maximum drift
+         * @return the new price
+         */
+        synchronized double nextPrice(RandomGenerator random, double volatility) {
+            // Random drift: -MAX_DRIFT to +MAX_DRIFT
+            double driftPercent = (random.nextDouble() * 2 - 1) * MAX_DRIFT_PERCENT * volatility;
+            lastPrice = lastPrice * (1 + driftPercent);
+
+            // Round to 2 decimal places (cents)
+            lastPrice = Math.round(lastPrice * 100.0) / 100.0;
+
+            // Ensure price stays positive
+            if (lastPrice < 0.01) {
+                lastPrice = 0.01;
+            }
+
+            return lastPrice;
+        }
+
+        /**
+         * Gets the half-spread for bid/ask calculation.
+         */
+        double getHalfSpread() {
+            // Half-spread is a percentage of price, minimum 0.01
+            return Math.max(0.01, lastPrice * SPREAD_PERCENT);
+        }
+    }
+}
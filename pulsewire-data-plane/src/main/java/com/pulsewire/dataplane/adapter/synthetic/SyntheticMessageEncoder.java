@@ -0,0 +1,295 @@
+package com.pulsewire.dataplane.adapter.synthetic;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Writes {@link SyntheticTrade} and {@link SyntheticQuote} JSON straight into a reusable byte buffer.
+ *
+ * <p>The output is byte-for-byte what {@code String.format} with {@code %.4f} prices and
+ * {@link Instant#toString()} timestamps produces in the root locale, which is what the records'
+ * {@code toJson()} has always emitted, but built without a formatter, intermediate strings or
+ * UTF-8 encoding. Prices are rounded half-up to four decimals from the double's decimal digits as
+ * the formatter does; the rare value within a few ulps of a rounding tie, and anything outside
+ * the ranges the fast paths cover, is handed to the JDK so the bytes still match.
+ *
+ * <p>Each {@code encode} call overwrites the buffer; read it through {@link #buffer()} and
+ * {@link #length()} or copy it out with {@link #toByteArray()}. Not thread-safe; generator threads
+ * each own an encoder.
+ */
+public final class SyntheticMessageEncoder {
+
+    private static final ThreadLocal<SyntheticMessageEncoder> LOCAL = ThreadLocal.withInitial(SyntheticMessageEncoder::new);
+
+    private static final byte[] TRADE_SYMBOL = ascii("{\"type\":\"TRADE\",\"symbol\":\"");
+    private static final byte[] TRADE_PRICE = ascii("\",\"price\":");
+    private static final byte[] TRADE_QUANTITY = ascii(",\"quantity\":");
+    private static final byte[] TRADE_TIMESTAMP = ascii(",\"timestamp\":\"");
+    private static final byte[] TRADE_ID = ascii("\",\"tradeId\":\"");
+    private static final byte[] TRADE_SIDE = ascii("\",\"side\":\"");
+    private static final byte[] QUOTE_SYMBOL = ascii("{\"type\":\"QUOTE\",\"symbol\":\"");
+    private static final byte[] QUOTE_BID_PRICE = ascii("\",\"bidPrice\":");
+    private static final byte[] QUOTE_BID_SIZE = ascii(",\"bidSize\":");
+    private static final byte[] QUOTE_ASK_PRICE = ascii(",\"askPrice\":");
+    private static final byte[] QUOTE_ASK_SIZE = ascii(",\"askSize\":");
+    private static final byte[] QUOTE_TIMESTAMP = ascii(",\"timestamp\":\"");
+    private static final byte[] END = ascii("\"}");
+
+    private static final int PRICE_DECIMALS = 4;
+    private static final long PRICE_FACTOR = 10_000;
+    // Below this the scaled price is an exact long and the fast path applies
+    private static final double MAX_FAST_PRICE = 1e11;
+    // 0000-01-01T00:00:00Z and 9999-12-31T23:59:59Z, the years Instant.toString() prints as four digits
+    private static final long MIN_FAST_EPOCH_SECOND = -62_167_219_200L;
+    private static final long MAX_FAST_EPOCH_SECOND = 253_402_300_799L;
+
+    private byte[] buffer = new byte[256];
+    private int length;
+
+    /**
+     * @return the calling thread's encoder, for callers that encode one message at a time
+     */
+    static SyntheticMessageEncoder forCurrentThread() {
+        return LOCAL.get();
+    }
+
+    /**
+     * Encodes a trade record.
+     *
+     * @return length of the encoded message
+     */
+    public int encode(SyntheticTrade trade) {
+        length = 0;
+        writeTradeHead(trade.symbol(), trade.price(), trade.quantity(), trade.timestamp());
+        writeString(trade.tradeId());
+        return writeTradeTail(trade.side());
+    }
+
+    /**
+     * Encodes a trade whose ID is {@code "T"} followed by {@code tradeIdNumber}, without building the
+     * record or the ID string.
+     *
+     * @return length of the encoded message
+     */
+    public int encodeTrade(String symbol, double price, long quantity, Instant timestamp, long tradeIdNumber,
+                           TradeSide side) {
+        length = 0;
+        writeTradeHead(symbol, price, quantity, timestamp);
+        writeByte('T');
+        writeLong(tradeIdNumber);
+        return writeTradeTail(side);
+    }
+
+    /**
+     * Encodes a quote record.
+     *
+     * @return length of the encoded message
+     */
+    public int encode(SyntheticQuote quote) {
+        return encodeQuote(quote.symbol(), quote.bidPrice(), quote.bidSize(), quote.askPrice(), quote.askSize(),
+                quote.timestamp());
+    }
+
+    /**
+     * Encodes a quote without building the record.
+     *
+     * @return length of the encoded message
+     */
+    public int encodeQuote(String symbol, double bidPrice, long bidSize, double askPrice, long askSize,
+                           Instant timestamp) {
+        length = 0;
+        writeBytes(QUOTE_SYMBOL);
+        writeString(symbol);
+        writeBytes(QUOTE_BID_PRICE);
+        writePrice(bidPrice);
+        writeBytes(QUOTE_BID_SIZE);
+        writeLong(bidSize);
+        writeBytes(QUOTE_ASK_PRICE);
+        writePrice(askPrice);
+        writeBytes(QUOTE_ASK_SIZE);
+        writeLong(askSize);
+        writeBytes(QUOTE_TIMESTAMP);
+        writeTimestamp(timestamp);
+        writeBytes(END);
+        return length;
+    }
+
+    /**
+     * @return the buffer holding the last encoded message in its first {@link #length()} bytes;
+     *         overwritten by the next {@code encode} call
+     */
+    public byte[] buffer() {
+        return buffer;
+    }
+
+    /**
+     * @return length of the last encoded message
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * @return a copy of the last encoded message, exactly {@link #length()} bytes long
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, length);
+    }
+
+    private void writeTradeHead(String symbol, double price, long quantity, Instant timestamp) {
+        writeBytes(TRADE_SYMBOL);
+        writeString(symbol);
+        writeBytes(TRADE_PRICE);
+        writePrice(price);
+        writeBytes(TRADE_QUANTITY);
+        writeLong(quantity);
+        writeBytes(TRADE_TIMESTAMP);
+        writeTimestamp(timestamp);
+        writeBytes(TRADE_ID);
+    }
+
+    private int writeTradeTail(TradeSide side) {
+        writeBytes(TRADE_SIDE);
+        writeString(side.name());
+        writeBytes(END);
+        return length;
+    }
+
+    /**
+     * Writes {@code value} as {@code %.4f} would.
+     */
+    private void writePrice(double value) {
+        if (!(value > 0 && value < MAX_FAST_PRICE)) {
+            writeString(String.format(Locale.ROOT, "%.4f", value));
+            return;
+        }
+        double scaled = value * PRICE_FACTOR;
+        double floor = Math.floor(scaled);
+        double fraction = scaled - floor;
+        // The formatter rounds the decimal digits, not the binary value; the two can only disagree
+        // near a tie, where the product's own rounding error also matters
+        if (Math.abs(fraction - 0.5) <= 4 * Math.ulp(scaled)) {
+            writeString(String.format(Locale.ROOT, "%.4f", value));
+            return;
+        }
+        long units = (long) floor + (fraction > 0.5 ? 1 : 0);
+        writeLong(units / PRICE_FACTOR);
+        writeByte('.');
+        writeDigits(units % PRICE_FACTOR, PRICE_DECIMALS);
+    }
+
+    /**
+     * Writes {@code timestamp} as {@link Instant#toString()} would: ISO-8601 in UTC with the
+     * fraction in groups of three digits and omitted when zero.
+     */
+    private void writeTimestamp(Instant timestamp) {
+        long epochSecond = timestamp.getEpochSecond();
+        if (epochSecond < MIN_FAST_EPOCH_SECOND || epochSecond > MAX_FAST_EPOCH_SECOND) {
+            writeString(timestamp.toString());
+            return;
+        }
+        long epochDay = Math.floorDiv(epochSecond, 86_400);
+        int secondOfDay = Math.floorMod(epochSecond, 86_400);
+
+        // Civil date from days since 1970-01-01 (proleptic Gregorian), in 400-year eras from March 1st
+        long days = epochDay + 719_468;
+        long era = Math.floorDiv(days, 146_097);
+        int dayOfEra = (int) (days - era * 146_097);
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int shiftedMonth = (5 * dayOfYear + 2) / 153;
+        int day = dayOfYear - (153 * shiftedMonth + 2) / 5 + 1;
+        int month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+
+        writeDigits(year, 4);
+        writeByte('-');
+        writeDigits(month, 2);
+        writeByte('-');
+        writeDigits(day, 2);
+        writeByte('T');
+        writeDigits(secondOfDay / 3600, 2);
+        writeByte(':');
+        writeDigits(secondOfDay / 60 % 60, 2);
+        writeByte(':');
+        writeDigits(secondOfDay % 60, 2);
+
+        int nanos = timestamp.getNano();
+        if (nanos != 0) {
+            writeByte('.');
+            if (nanos % 1_000_000 == 0) {
+                writeDigits(nanos / 1_000_000, 3);
+            } else if (nanos % 1000 == 0) {
+                writeDigits(nanos / 1000, 6);
+            } else {
+                writeDigits(nanos, 9);
+            }
+        }
+        writeByte('Z');
+    }
+
+    private void writeLong(long value) {
+        if (value < 0) {
+            if (value == Long.MIN_VALUE) {
+                writeString(Long.toString(value));
+                return;
+            }
+            writeByte('-');
+            value = -value;
+        }
+        int digits = 1;
+        for (long rest = value / 10; rest != 0; rest /= 10) {
+            digits++;
+        }
+        writeDigits(value, digits);
+    }
+
+    /**
+     * Writes the low {@code digits} decimal digits of a non-negative {@code value}, zero-padded.
+     */
+    private void writeDigits(long value, int digits) {
+        ensureCapacity(digits);
+        for (int i = length + digits - 1; i >= length; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        length += digits;
+    }
+
+    private void writeString(String value) {
+        int size = value.length();
+        ensureCapacity(size);
+        for (int i = 0; i < size; i++) {
+            char c = value.charAt(i);
+            if (c >= 0x80) {
+                // Rare: let the JDK encode anything beyond ASCII
+                writeBytes(value.substring(i).getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            buffer[length++] = (byte) c;
+        }
+    }
+
+    private void writeBytes(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, length, bytes.length);
+        length += bytes.length;
+    }
+
+    private void writeByte(char c) {
+        ensureCapacity(1);
+        buffer[length++] = (byte) c;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (length + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + extra));
+        }
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+}
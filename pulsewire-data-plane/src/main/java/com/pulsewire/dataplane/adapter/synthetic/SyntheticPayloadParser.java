@@ -0,0 +1,606 @@
+package com.pulsewire.dataplane.adapter.synthetic;
+
+import com.pulsewire.core.instrument.InstrumentRegistry;
+import com.pulsewire.core.model.MarketEvent;
+import com.pulsewire.core.model.MarketEvent.EventType;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.IntConsumer;
+
+/**
+ * Streaming parser for the JSON payloads of {@link SyntheticTrade}, {@link SyntheticQuote} and
+ * {@link com.pulsewire.dataplane.adapter.spi.SyntheticFeedAdapterV2}, reading the raw bytes in a
+ * single pass without building a String or a tree.
+ *
+ * <p>Prices are read straight into fixed-point mantissas at the scale they were written with,
+ * timestamps straight into epoch nanoseconds, and symbols are resolved to their
+ * {@link InstrumentRegistry} index through a table keyed by the symbol bytes, so a payload for a
+ * known symbol allocates nothing. Properties may come in any order; unknown ones are skipped.
+ * Payloads are read from a byte array or in place from a range of a {@link ByteBuffer}, such as a
+ * slice of a memory-mapped capture.
+ *
+ * <p>The parser keeps the fields of the last payload and reuses them, so it is not thread-safe;
+ * use one per thread.
+ */
+public final class SyntheticPayloadParser {
+
+    /** Largest number of significant digits a mantissa can hold without overflow. */
+    private static final int MAX_DIGITS = 18;
+
+    private static final byte[] TYPE = ascii("type");
+    private static final byte[] SYMBOL = ascii("symbol");
+    private static final byte[] PRICE = ascii("price");
+    private static final byte[] QUANTITY = ascii("quantity");
+    private static final byte[] QTY = ascii("qty");
+    private static final byte[] TIMESTAMP = ascii("timestamp");
+    private static final byte[] BID_PRICE = ascii("bidPrice");
+    private static final byte[] BID_SIZE = ascii("bidSize");
+    private static final byte[] ASK_PRICE = ascii("askPrice");
+    private static final byte[] ASK_SIZE = ascii("askSize");
+    private static final byte[] TRADE = ascii("TRADE");
+    private static final byte[] QUOTE = ascii("QUOTE");
+
+    private static final int SEEN_SYMBOL = 1;
+    private static final int SEEN_PRICE = 1 << 1;
+    private static final int SEEN_QUANTITY = 1 << 2;
+    private static final int SEEN_BID_PRICE = 1 << 3;
+    private static final int SEEN_BID_SIZE = 1 << 4;
+    private static final int SEEN_ASK_PRICE = 1 << 5;
+    private static final int SEEN_ASK_SIZE = 1 << 6;
+    private static final int TRADE_FIELDS = SEEN_SYMBOL | SEEN_PRICE | SEEN_QUANTITY;
+    private static final int QUOTE_FIELDS = SEEN_SYMBOL | SEEN_BID_PRICE | SEEN_BID_SIZE | SEEN_ASK_PRICE | SEEN_ASK_SIZE;
+
+    private static final long[] POWERS_OF_TEN = new long[MAX_DIGITS + 1];
+
+    static {
+        long power = 1;
+        for (int i = 0; i <= MAX_DIGITS; i++) {
+            POWERS_OF_TEN[i] = power;
+            power *= 10;
+        }
+    }
+
+    private final SymbolTable symbols;
+
+    // Payload being parsed, in an array or a buffer read with absolute access, and the cursor over it
+    private byte[] array;
+    private ByteBuffer buffer;
+    private int position;
+    private int end;
+    // Scale of the last number read
+    private int scale;
+
+    // Fields of the last payload
+    private EventType eventType;
+    private int seen;
+    private int instrumentIndex;
+    private String instrumentId;
+    private long price;
+    private int priceScale;
+    private long quantity;
+    private long bidPrice;
+    private int bidScale;
+    private long bidSize;
+    private long askPrice;
+    private int askScale;
+    private long askSize;
+    private long timestampNanos;
+
+    /**
+     * @param instrumentRegistry where symbols are interned
+     * @param newInstrument      told the index of each symbol this parser sees for the first time
+     */
+    public SyntheticPayloadParser(InstrumentRegistry instrumentRegistry, IntConsumer newInstrument) {
+        this.symbols = new SymbolTable(instrumentRegistry, newInstrument);
+    }
+
+    /**
+     * Parse one payload, replacing the fields of the previous one.
+     *
+     * @return the payload's event type, {@link EventType#TRADE} or {@link EventType#QUOTE}
+     * @throws IllegalArgumentException if the payload is malformed, of an unknown type, or misses a
+     *                                  required field
+     */
+    public EventType parse(byte[] payload) {
+        this.array = payload;
+        this.position = 0;
+        this.end = payload.length;
+        return parse();
+    }
+
+    /**
+     * Parse one payload in place from {@code length} bytes of {@code buffer} starting at absolute
+     * index {@code offset}, replacing the fields of the previous one. The buffer's position is neither
+     * used nor changed.
+     *
+     * @return the payload's event type, {@link EventType#TRADE} or {@link EventType#QUOTE}
+     * @throws IllegalArgumentException  if the payload is malformed, of an unknown type, or misses a
+     *                                   required field
+     * @throws IndexOutOfBoundsException if the range extends past the buffer's limit
+     */
+    public EventType parse(ByteBuffer buffer, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, buffer.limit());
+        this.buffer = buffer;
+        this.position = offset;
+        this.end = offset + length;
+        return parse();
+    }
+
+    private EventType parse() {
+        eventType = null;
+        seen = 0;
+        timestampNanos = MarketEvent.NO_TIMESTAMP;
+        try {
+            object();
+        } finally {
+            this.array = null;
+            this.buffer = null;
+        }
+        if (eventType == null) {
+            throw new IllegalArgumentException("Payload has no type");
+        }
+        int required = eventType == EventType.TRADE ? TRADE_FIELDS : QUOTE_FIELDS;
+        if ((seen & required) != required) {
+            throw new IllegalArgumentException("Payload misses required " + eventType + " fields");
+        }
+        if (eventType == EventType.QUOTE && bidScale != askScale) {
+            // Both sides of a fixed-point quote share one scale
+            int common = Math.max(bidScale, askScale);
+            bidPrice = rescale(bidPrice, bidScale, common);
+            askPrice = rescale(askPrice, askScale, common);
+            bidScale = common;
+            askScale = common;
+        }
+        return eventType;
+    }
+
+    public EventType eventType() {
+        return eventType;
+    }
+
+    public int instrumentIndex() {
+        return instrumentIndex;
+    }
+
+    public String instrumentId() {
+        return instrumentId;
+    }
+
+    /**
+     * @return the trade price mantissa at {@link #priceScale()}
+     */
+    public long price() {
+        return price;
+    }
+
+    /**
+     * @return the scale of the trade price, or of both quote prices
+     */
+    public int priceScale() {
+        return eventType == EventType.QUOTE ? bidScale : priceScale;
+    }
+
+    public long quantity() {
+        return quantity;
+    }
+
+    public long bidPrice() {
+        return bidPrice;
+    }
+
+    public long bidSize() {
+        return bidSize;
+    }
+
+    public long askPrice() {
+        return askPrice;
+    }
+
+    public long askSize() {
+        return askSize;
+    }
+
+    /**
+     * @return the payload's timestamp in epoch nanoseconds, or {@link MarketEvent#NO_TIMESTAMP} if
+     *         it had none
+     */
+    public long timestampNanos() {
+        return timestampNanos;
+    }
+
+    private void object() {
+        skipWhitespace();
+        expect('{');
+        skipWhitespace();
+        if (at(position) == '}') {
+            position++;
+            return;
+        }
+        do {
+            skipWhitespace();
+            int keyStart = string();
+            int keyLength = position - 1 - keyStart;
+            skipWhitespace();
+            expect(':');
+            skipWhitespace();
+            field(keyStart, keyLength);
+            skipWhitespace();
+        } while (consume(','));
+        expect('}');
+    }
+
+    private void field(int keyStart, int keyLength) {
+        if (is(keyStart, keyLength, PRICE)) {
+            price = decimal();
+            priceScale = scale;
+            seen |= SEEN_PRICE;
+        } else if (is(keyStart, keyLength, BID_PRICE)) {
+            bidPrice = decimal();
+            bidScale = scale;
+            seen |= SEEN_BID_PRICE;
+        } else if (is(keyStart, keyLength, ASK_PRICE)) {
+            askPrice = decimal();
+            askScale = scale;
+            seen |= SEEN_ASK_PRICE;
+        } else if (is(keyStart, keyLength, BID_SIZE)) {
+            bidSize = wholeNumber();
+            seen |= SEEN_BID_SIZE;
+        } else if (is(keyStart, keyLength, ASK_SIZE)) {
+            askSize = wholeNumber();
+            seen |= SEEN_ASK_SIZE;
+        } else if (is(keyStart, keyLength, QUANTITY) || is(keyStart, keyLength, QTY)) {
+            quantity = wholeNumber();
+            seen |= SEEN_QUANTITY;
+        } else if (is(keyStart, keyLength, SYMBOL)) {
+            int start = string();
+            int length = position - 1 - start;
+            if (length == 0) {
+                throw malformed("blank symbol");
+            }
+            instrumentIndex = symbols.resolve(this, start, length);
+            instrumentId = symbols.lastId;
+            seen |= SEEN_SYMBOL;
+        } else if (is(keyStart, keyLength, TYPE)) {
+            int start = string();
+            int length = position - 1 - start;
+            if (is(start, length, TRADE)) {
+                eventType = EventType.TRADE;
+            } else if (is(start, length, QUOTE)) {
+                eventType = EventType.QUOTE;
+            } else {
+                throw new IllegalArgumentException("Unsupported payload type: "
+                        + new String(copy(start, length), StandardCharsets.UTF_8));
+            }
+        } else if (is(keyStart, keyLength, TIMESTAMP)) {
+            int start = string();
+            timestampNanos = instant(start, position - 1);
+        } else {
+            skipValue();
+        }
+    }
+
+    /**
+     * Read a string without escapes.
+     *
+     * @return the offset of its first character; the cursor is left after the closing quote
+     */
+    private int string() {
+        expect('"');
+        int start = position;
+        byte b;
+        while ((b = at(position)) != '"') {
+            if (b == '\\') {
+                throw malformed("escaped characters are not supported here");
+            }
+            position++;
+        }
+        position++;
+        return start;
+    }
+
+    /**
+     * Read a decimal number as a mantissa, leaving its scale in {@link #scale}.
+     */
+    private long decimal() {
+        boolean negative = consume('-');
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = -1;
+        while (true) {
+            byte b = position < end ? at(position) : 0;
+            if (b >= '0' && b <= '9') {
+                if (++digits > MAX_DIGITS) {
+                    throw malformed("number has more than " + MAX_DIGITS + " digits");
+                }
+                mantissa = mantissa * 10 + (b - '0');
+                if (fractionDigits >= 0) {
+                    fractionDigits++;
+                }
+            } else if (b == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+            } else {
+                break;
+            }
+            position++;
+        }
+        if (digits == 0 || fractionDigits == 0) {
+            throw malformed("invalid number");
+        }
+        byte next = position < end ? at(position) : 0;
+        if (next == 'e' || next == 'E') {
+            throw malformed("exponents are not supported");
+        }
+        if (negative || mantissa == 0) {
+            throw malformed("number must be positive");
+        }
+        scale = Math.max(fractionDigits, 0);
+        return mantissa;
+    }
+
+    private long wholeNumber() {
+        long value = decimal();
+        if (scale != 0) {
+            throw malformed("size must be a whole number");
+        }
+        return value;
+    }
+
+    /**
+     * Parse an ISO-8601 instant as written by {@link java.time.Instant#toString()}, such as
+     * {@code 2026-02-06T10:30:00.123456Z}, between {@code start} and {@code end}.
+     */
+    private long instant(int start, int end) {
+        if (end - start < 20 || at(end - 1) != 'Z' || at(start + 4) != '-' || at(start + 7) != '-'
+                || at(start + 10) != 'T' || at(start + 13) != ':' || at(start + 16) != ':') {
+            throw malformed("timestamp is not an ISO-8601 instant");
+        }
+        int year = digits(start, 4);
+        int month = digits(start + 5, 2);
+        int day = digits(start + 8, 2);
+        int hour = digits(start + 11, 2);
+        int minute = digits(start + 14, 2);
+        int second = digits(start + 17, 2);
+        if (month < 1 || month > 12 || day < 1 || day > 31 || hour > 23 || minute > 59 || second > 59) {
+            throw malformed("timestamp is out of range");
+        }
+        long nanos = 0;
+        int fraction = start + 19;
+        if (fraction < end - 1) {
+            int fractionDigits = end - 1 - fraction - 1;
+            if (at(fraction) != '.' || fractionDigits < 1 || fractionDigits > 9) {
+                throw malformed("timestamp has an invalid fraction");
+            }
+            nanos = digits(fraction + 1, fractionDigits) * POWERS_OF_TEN[9 - fractionDigits];
+        }
+        long epochSeconds = epochDay(year, month, day) * 86_400L + hour * 3_600L + minute * 60L + second;
+        return epochSeconds * 1_000_000_000L + nanos;
+    }
+
+    private int digits(int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            int digit = at(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw malformed("timestamp is not an ISO-8601 instant");
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /**
+     * Days since 1970-01-01 of a proleptic Gregorian date.
+     */
+    private static long epochDay(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(y, 400);
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146_097L + dayOfEra - 719_468;
+    }
+
+    /**
+     * Skip a value of a property the parser does not use, whatever its type.
+     */
+    private void skipValue() {
+        int depth = 0;
+        do {
+            byte b = at(position);
+            if (b == '"') {
+                position++;
+                while ((b = at(position)) != '"') {
+                    position += b == '\\' ? 2 : 1;
+                }
+                position++;
+            } else if (b == '{' || b == '[') {
+                depth++;
+                position++;
+            } else if (b == '}' || b == ']') {
+                if (depth == 0) {
+                    throw malformed("unexpected '" + (char) b + "'");
+                }
+                depth--;
+                position++;
+            } else if (depth == 0 && b == ',') {
+                throw malformed("missing value");
+            } else {
+                // Number or literal, or a separator or whitespace inside a container
+                position++;
+                while (depth == 0 && position < end && !isDelimiter(at(position))) {
+                    position++;
+                }
+            }
+        } while (depth > 0);
+    }
+
+    private static boolean isDelimiter(byte b) {
+        return b == ',' || b == '}' || b == ']' || b == ' ' || b == '\t' || b == '\n' || b == '\r';
+    }
+
+    private void skipWhitespace() {
+        while (position < end) {
+            byte b = at(position);
+            if (b != ' ' && b != '\t' && b != '\n' && b != '\r') {
+                return;
+            }
+            position++;
+        }
+    }
+
+    private void expect(char c) {
+        if (at(position) != c) {
+            throw malformed("expected '" + c + "' at offset " + position);
+        }
+        position++;
+    }
+
+    private boolean consume(char c) {
+        if (position < end && at(position) == c) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private boolean is(int start, int length, byte[] expected) {
+        if (length != expected.length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (at(start + i) != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private byte at(int index) {
+        if (index >= end) {
+            throw malformed("unexpected end of payload");
+        }
+        return array != null ? array[index] : buffer.get(index);
+    }
+
+    private byte[] copy(int start, int length) {
+        if (array != null) {
+            return Arrays.copyOfRange(array, start, start + length);
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(start, bytes);
+        return bytes;
+    }
+
+    private static long rescale(long mantissa, int fromScale, int toScale) {
+        return Math.multiplyExact(mantissa, POWERS_OF_TEN[toScale - fromScale]);
+    }
+
+    private static IllegalArgumentException malformed(String reason) {
+        return new IllegalArgumentException("Malformed payload: " + reason);
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Open-addressing table from symbol bytes to instrument index and id, so a known symbol is
+     * resolved by hashing and comparing its bytes in place.
+     */
+    private static final class SymbolTable {
+
+        private final InstrumentRegistry instrumentRegistry;
+        private final IntConsumer newInstrument;
+        private byte[][] keys = new byte[64][];
+        private int[] indexes = new int[64];
+        private String[] ids = new String[64];
+        private int size;
+        private String lastId;
+
+        SymbolTable(InstrumentRegistry instrumentRegistry, IntConsumer newInstrument) {
+            this.instrumentRegistry = instrumentRegistry;
+            this.newInstrument = newInstrument;
+        }
+
+        /**
+         * @return the index of the symbol, leaving its id in {@link #lastId}
+         */
+        int resolve(SyntheticPayloadParser payload, int start, int length) {
+            int hash = 1;
+            for (int i = start; i < start + length; i++) {
+                hash = 31 * hash + payload.at(i);
+            }
+            int mask = keys.length - 1;
+            int slot = spread(hash) & mask;
+            byte[] key;
+            while ((key = keys[slot]) != null) {
+                if (matches(key, payload, start, length)) {
+                    lastId = ids[slot];
+                    return indexes[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            key = payload.copy(start, length);
+            String id = new String(key, StandardCharsets.UTF_8);
+            int index = instrumentRegistry.register(id);
+            keys[slot] = key;
+            indexes[slot] = index;
+            ids[slot] = id;
+            if (++size * 2 > keys.length) {
+                grow();
+            }
+            newInstrument.accept(index);
+            lastId = id;
+            return index;
+        }
+
+        private void grow() {
+            byte[][] oldKeys = keys;
+            int[] oldIndexes = indexes;
+            String[] oldIds = ids;
+            keys = new byte[oldKeys.length * 2][];
+            indexes = new int[keys.length];
+            ids = new String[keys.length];
+            int mask = keys.length - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                byte[] key = oldKeys[i];
+                if (key != null) {
+                    int slot = hash(key) & mask;
+                    while (keys[slot] != null) {
+                        slot = (slot + 1) & mask;
+                    }
+                    keys[slot] = key;
+                    indexes[slot] = oldIndexes[i];
+                    ids[slot] = oldIds[i];
+                }
+            }
+        }
+
+        private static boolean matches(byte[] key, SyntheticPayloadParser payload, int start, int length) {
+            if (key.length != length) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (key[i] != payload.at(start + i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static int hash(byte[] bytes) {
+            int hash = 1;
+            for (byte b : bytes) {
+                hash = 31 * hash + b;
+            }
+            return spread(hash);
+        }
+
+        private static int spread(int hash) {
+            return hash ^ (hash >>> 16);
+        }
+    }
+}
@@ -95,29 +95,24 @@ public record SyntheticQuote(
      * 
      * <p>Example output:
      * <pre>{@code
-     * {"type":"QUOTE","symbol":"AAPL","bidPrice":185.48,"bidSize":100,"askPrice":185.52,"askSize":200,"timestamp":"2026-02-06T10:30:00Z"}
+     * {"type":"QUOTE","symbol":"AAPL","bidPrice":185.4800,"bidSize":100,"askPrice":185.5200,"askSize":200,"timestamp":"2026-02-06T10:30:00Z"}
      * }</pre>
      * 
      * @return JSON string representation
      */
     public String toJson() {
-        return String.format(
-            "{\"type\":\"QUOTE\",\"symbol\":\"%s\",\"bidPrice\":%.4f,\"bidSize\":%d,\"askPrice\":%.4f,\"askSize\":%d,\"timestamp\":\"%s\"}",
-            symbol,
-            bidPrice,
-            bidSize,
-            askPrice,
-            askSize,
-            timestamp.toString()
-        );
+        return new String(toBytes(), StandardCharsets.UTF_8);
     }
     
     /**
      * Converts this quote to bytes for wire transmission.
      * 
      * @return UTF-8 encoded bytes of the JSON representation
+     * @see SyntheticMessageEncoder for encoding into a reusable buffer
      */
     public byte[] toBytes() {
-        return toJson().getBytes(StandardCharsets.UTF_8);
+        SyntheticMessageEncoder encoder = SyntheticMessageEncoder.forCurrentThread();
+        encoder.encode(this);
+        return encoder.toByteArray();
     }
 }
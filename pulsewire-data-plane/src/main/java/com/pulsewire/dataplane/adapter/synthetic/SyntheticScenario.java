@@ -0,0 +1,146 @@
+package com.pulsewire.dataplane.adapter.synthetic;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Named market scenarios for the synthetic feed, so performance runs can be repeated against the
+ * same shape of traffic.
+ *
+ * <p>A scenario supplies a symbol universe, a base rate and a trade-to-quote ratio, which
+ * {@link SyntheticFeedConfig.Builder#scenario} applies as defaults, and shapes the session over
+ * time: a rate multiplier, a share of messages concentrated on the first symbol, and a volatility
+ * multiplier for the price walk. Time is measured from connect, or from the start of a
+ * pre-generated tape. Together with {@link SyntheticFeedConfig#seed()} a scenario fully
+ * determines the message sequence.
+ */
+public enum SyntheticScenario {
+
+    /**
+     * Opening auction: a 20x spike for the first second as the auction prints, decaying back to
+     * the base rate over the following seconds with volatility elevated alongside.
+     */
+    OPEN_AUCTION_SPIKE(2_000, 3, 60),
+
+    /**
+     * News on the first symbol ten seconds in: rate jumps 25x, most messages hit that symbol and
+     * its price moves ten times faster, all fading over five seconds.
+     */
+    NEWS_BURST(1_000, 5, 30),
+
+    /**
+     * Quiet session: low rate, more quotes per trade, subdued price moves.
+     */
+    QUIET_SESSION(50, 10, 60),
+
+    /**
+     * Wide universe of 50,000 symbols at a steady rate, for symbol-table and cache pressure.
+     */
+    WIDE_UNIVERSE(100_000, 5, 30);
+
+    static final int WIDE_UNIVERSE_SIZE = 50_000;
+
+    private static final List<String> DEFAULT_SYMBOLS =
+        List.of("AAPL", "GOOGL", "MSFT", "AMZN", "META", "NVDA", "TSLA", "JPM");
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final long NEWS_AT_NANOS = 10 * SECOND;
+
+    private final int messageRatePerSecond;
+    private final int tradeToQuoteRatio;
+    private final long durationNanos;
+
+    SyntheticScenario(int messageRatePerSecond, int tradeToQuoteRatio, int durationSeconds) {
+        this.messageRatePerSecond = messageRatePerSecond;
+        this.tradeToQuoteRatio = tradeToQuoteRatio;
+        this.durationNanos = TimeUnit.SECONDS.toNanos(durationSeconds);
+    }
+
+    /**
+     * Looks a scenario up by name, as written in configuration or on a command line.
+     *
+     * @param name constant name in any case, with dashes or underscores ({@code news-burst})
+     * @throws IllegalArgumentException if no scenario has that name
+     */
+    public static SyntheticScenario fromName(String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+    }
+
+    /**
+     * @return the scenario's symbol universe
+     */
+    public List<String> symbols() {
+        if (this != WIDE_UNIVERSE) {
+            return DEFAULT_SYMBOLS;
+        }
+        return IntStream.range(0, WIDE_UNIVERSE_SIZE)
+            .mapToObj(i -> String.format("SYM%05d", i))
+            .toList();
+    }
+
+    /**
+     * @return base message rate before the scenario's multiplier
+     */
+    public int messageRatePerSecond() {
+        return messageRatePerSecond;
+    }
+
+    /**
+     * @return quotes per trade
+     */
+    public int tradeToQuoteRatio() {
+        return tradeToQuoteRatio;
+    }
+
+    /**
+     * @return default session length when pre-generating a tape
+     */
+    public long durationNanos() {
+        return durationNanos;
+    }
+
+    /**
+     * @param elapsedNanos time since the session started
+     * @return factor applied to the base message rate
+     */
+    public double rateMultiplier(long elapsedNanos) {
+        return switch (this) {
+            case OPEN_AUCTION_SPIKE -> elapsedNanos < SECOND ? 20 : 1 + 19 * decay(elapsedNanos - SECOND, 5 * SECOND);
+            case NEWS_BURST -> elapsedNanos < NEWS_AT_NANOS ? 1 : 1 + 24 * decay(elapsedNanos - NEWS_AT_NANOS, 2 * SECOND);
+            case QUIET_SESSION, WIDE_UNIVERSE -> 1;
+        };
+    }
+
+    /**
+     * @param elapsedNanos time since the session started
+     * @return probability that a message is for the first symbol rather than a uniform pick
+     */
+    public double hotSymbolShare(long elapsedNanos) {
+        if (this != NEWS_BURST || elapsedNanos < NEWS_AT_NANOS) {
+            return 0;
+        }
+        return 0.8 * decay(elapsedNanos - NEWS_AT_NANOS, 5 * SECOND);
+    }
+
+    /**
+     * @param symbolIndex  position of the symbol in the universe
+     * @param elapsedNanos time since the session started
+     * @return factor applied to the price walk's drift
+     */
+    public double volatilityMultiplier(int symbolIndex, long elapsedNanos) {
+        return switch (this) {
+            case OPEN_AUCTION_SPIKE -> 1 + 4 * decay(elapsedNanos, 6 * SECOND);
+            case NEWS_BURST -> symbolIndex == 0 && elapsedNanos >= NEWS_AT_NANOS
+                ? 1 + 9 * decay(elapsedNanos - NEWS_AT_NANOS, 5 * SECOND)
+                : 1;
+            case QUIET_SESSION -> 0.25;
+            case WIDE_UNIVERSE -> 1;
+        };
+    }
+
+    private static double decay(long elapsedNanos, long timeConstantNanos) {
+        return Math.exp(-(double) elapsedNanos / timeConstantNanos);
+    }
+}
@@ -0,0 +1,241 @@
+package com.pulsewire.dataplane.adapter.synthetic;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact binary file of pre-generated synthetic messages, written by {@link SyntheticTapeGenerator}
+ * and replayed by {@link SyntheticExchangeAdapter}.
+ *
+ * <p>Layout, big-endian:
+ * <pre>
+ * header:  int magic "PWST", int version, long seed, UTF scenario name ("" for none),
+ *          int symbol count, UTF symbol per symbol
+ * record:  varint offset since previous record (ns), varint symbol index, byte kind,
+ *          trade: varint price, varint quantity
+ *          quote: varint bid price, varint bid size, varint ask minus bid price, varint ask size
+ * </pre>
+ * Kind is 0 for a quote, 1 for a buy trade and 2 for a sell trade. Prices are fixed point with
+ * {@link #PRICE_SCALE} decimals, the precision the JSON payload carries, so replayed payloads
+ * are exactly those the tape describes. Records run to the end of the file.
+ */
+public final class SyntheticTape {
+
+    static final int MAGIC = 0x50575354; // "PWST"
+    static final int VERSION = 1;
+    static final int PRICE_SCALE = 4;
+    private static final double PRICE_FACTOR = 10_000;
+
+    private static final byte QUOTE = 0;
+    private static final byte BUY = 1;
+    private static final byte SELL = 2;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private SyntheticTape() {
+    }
+
+    /**
+     * Appends records to a new tape file. Not thread-safe.
+     */
+    public static final class Writer implements Closeable {
+
+        private final DataOutputStream out;
+        private long lastOffsetNanos;
+        private long records;
+
+        /**
+         * Creates or truncates {@code file} and writes the header.
+         *
+         * @param scenario the scenario the tape was generated from, or null
+         */
+        public Writer(Path file, long seed, SyntheticScenario scenario, List<String> symbols) throws IOException {
+            this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), BUFFER_SIZE));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(seed);
+            out.writeUTF(scenario == null ? "" : scenario.name());
+            out.writeInt(symbols.size());
+            for (String symbol : symbols) {
+                out.writeUTF(symbol);
+            }
+        }
+
+        /**
+         * Appends {@code tick} at {@code offsetNanos} into the session; offsets must not decrease.
+         */
+        void write(long offsetNanos, SyntheticMarket.Tick tick) throws IOException {
+            if (offsetNanos < lastOffsetNanos) {
+                throw new IllegalArgumentException("Offsets must not decrease: " + offsetNanos + " < " + lastOffsetNanos);
+            }
+            writeVarLong(offsetNanos - lastOffsetNanos);
+            writeVarLong(tick.symbolIndex);
+            if (tick.trade) {
+                out.writeByte(tick.side == TradeSide.BUY ? BUY : SELL);
+                writeVarLong(toFixed(tick.price));
+                writeVarLong(tick.quantity);
+            } else {
+                long bid = toFixed(tick.bidPrice);
+                out.writeByte(QUOTE);
+                writeVarLong(bid);
+                writeVarLong(tick.bidSize);
+                writeVarLong(toFixed(tick.askPrice) - bid);
+                writeVarLong(tick.askSize);
+            }
+            lastOffsetNanos = offsetNanos;
+            records++;
+        }
+
+        /**
+         * @return records written so far
+         */
+        public long records() {
+            return records;
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+
+        private void writeVarLong(long value) throws IOException {
+            if (value < 0) {
+                throw new IllegalArgumentException("Negative tape value: " + value);
+            }
+            while ((value & ~0x7FL) != 0) {
+                out.writeByte((int) (value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            out.writeByte((int) value);
+        }
+
+        private static long toFixed(double price) {
+            return Math.round(price * PRICE_FACTOR);
+        }
+    }
+
+    /**
+     * Reads a tape file record by record. Not thread-safe.
+     */
+    public static final class Reader implements Closeable {
+
+        private final DataInputStream in;
+        private final long seed;
+        private final SyntheticScenario scenario;
+        private final List<String> symbols;
+        private long offsetNanos;
+
+        /**
+         * Opens {@code file} and reads the header.
+         *
+         * @throws IOException if the file cannot be read or is not a tape of a supported version
+         */
+        public Reader(Path file) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE));
+            try {
+                if (in.readInt() != MAGIC) {
+                    throw new IOException("Not a synthetic tape: " + file);
+                }
+                int version = in.readInt();
+                if (version != VERSION) {
+                    throw new IOException("Unsupported synthetic tape version " + version + ": " + file);
+                }
+                this.seed = in.readLong();
+                String scenarioName = in.readUTF();
+                this.scenario = scenarioName.isEmpty() ? null : SyntheticScenario.valueOf(scenarioName);
+                int symbolCount = in.readInt();
+                List<String> names = new ArrayList<>(symbolCount);
+                for (int i = 0; i < symbolCount; i++) {
+                    names.add(in.readUTF());
+                }
+                this.symbols = List.copyOf(names);
+            } catch (EOFException e) {
+                in.close();
+                throw new IOException("Truncated synthetic tape header: " + file, e);
+            } catch (IOException | RuntimeException e) {
+                in.close();
+                throw e;
+            }
+        }
+
+        public long seed() {
+            return seed;
+        }
+
+        /**
+         * @return the scenario the tape was generated from, or null
+         */
+        public SyntheticScenario scenario() {
+            return scenario;
+        }
+
+        public List<String> symbols() {
+            return symbols;
+        }
+
+        /**
+         * Reads the next record into {@code tick}.
+         *
+         * @return the record's offset into the session in nanoseconds, or -1 at the end of the tape
+         * @throws IOException if the tape is truncated mid-record or unreadable
+         */
+        long next(SyntheticMarket.Tick tick) throws IOException {
+            int first = in.read();
+            if (first < 0) {
+                return -1;
+            }
+            offsetNanos += readVarLong(first);
+            tick.symbolIndex = (int) readVarLong(in.readUnsignedByte());
+            if (tick.symbolIndex >= symbols.size()) {
+                throw new IOException("Symbol index " + tick.symbolIndex + " beyond " + symbols.size() + " symbols");
+            }
+            byte kind = in.readByte();
+            tick.trade = kind != QUOTE;
+            if (tick.trade) {
+                tick.side = kind == BUY ? TradeSide.BUY : TradeSide.SELL;
+                tick.price = toPrice(readVarLong(in.readUnsignedByte()));
+                tick.quantity = readVarLong(in.readUnsignedByte());
+            } else {
+                long bid = readVarLong(in.readUnsignedByte());
+                tick.bidPrice = toPrice(bid);
+                tick.bidSize = readVarLong(in.readUnsignedByte());
+                tick.askPrice = toPrice(bid + readVarLong(in.readUnsignedByte()));
+                tick.askSize = readVarLong(in.readUnsignedByte());
+            }
+            return offsetNanos;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+
+        private long readVarLong(int first) throws IOException {
+            long value = first & 0x7F;
+            int shift = 7;
+            int b = first;
+            while ((b & 0x80) != 0) {
+                if (shift > 63) {
+                    throw new IOException("Malformed varint in synthetic tape");
+                }
+                b = in.readUnsignedByte();
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            }
+            return value;
+        }
+
+        private static double toPrice(long fixed) {
+            return fixed / PRICE_FACTOR;
+        }
+    }
+}
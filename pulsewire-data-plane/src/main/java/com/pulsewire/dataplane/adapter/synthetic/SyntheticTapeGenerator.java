@@ -0,0 +1,108 @@
+package com.pulsewire.dataplane.adapter.synthetic;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pre-generates a seeded synthetic session to a {@link SyntheticTape} file, in virtual time, for
+ * {@link SyntheticExchangeAdapter} to replay at 1x, Nx or maximum speed.
+ *
+ * <p>Messages are drawn as the scheduled generator draws them, so for the same seed and symbols
+ * a flat session's tape holds the sequence a live run emits, with the timing it was paced to
+ * rather than the timing a scheduler achieved. Under a scenario the draws also depend on when
+ * each message falls, which the tape fixes in virtual time. Trade IDs are not stored; replay
+ * numbers trades by sequence.
+ *
+ * <p>Command line: {@code SyntheticTapeGenerator <scenario|NONE> <seed> <file> [seconds]}, where
+ * the duration defaults to the scenario's own.
+ */
+public final class SyntheticTapeGenerator {
+
+    // Virtual time advances in ticks; messages earned within a tick are spread evenly across it
+    private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long DEFAULT_DURATION_NANOS = TimeUnit.SECONDS.toNanos(60);
+
+    private SyntheticTapeGenerator() {
+    }
+
+    /**
+     * Writes {@code durationNanos} of the session {@code config} describes to {@code file}.
+     *
+     * @param config symbols, rates, bursts and scenario to generate; must be seeded
+     * @return number of records written
+     * @throws IllegalArgumentException if the configuration has no seed or the duration is not positive
+     */
+    public static long generate(SyntheticFeedConfig config, long durationNanos, Path file) throws IOException {
+        if (config.seed() == null) {
+            throw new IllegalArgumentException("A tape needs a seeded configuration");
+        }
+        if (durationNanos <= 0) {
+            throw new IllegalArgumentException("Duration must be positive: " + durationNanos);
+        }
+        SyntheticMarket market = new SyntheticMarket(config.symbols(), config.scenario(), config.tradeToQuoteRatio());
+        Random random = new Random(config.seed());
+        RatePacer pacer = new RatePacer(0, Integer.MAX_VALUE);
+        SyntheticMarket.Tick tick = new SyntheticMarket.Tick();
+        long messageNumber = 0;
+
+        try (SyntheticTape.Writer writer = new SyntheticTape.Writer(file, config.seed(), config.scenario(),
+                config.symbols())) {
+            for (long tickStart = 0; tickStart < durationNanos; tickStart += TICK_NANOS) {
+                long rate = market.rate(config.messageRatePerSecond(), tickStart);
+                if (inBurst(config, tickStart)) {
+                    rate *= config.burstMultiplier();
+                }
+                int due = pacer.due(tickStart + TICK_NANOS, rate, Integer.MAX_VALUE);
+                for (int i = 1; i <= due; i++) {
+                    long offsetNanos = tickStart + i * TICK_NANOS / due;
+                    try {
+                        market.next(random, null, ++messageNumber, offsetNanos, tick);
+                    } catch (IllegalArgumentException e) {
+                        // The live generator reports and drops these too
+                        continue;
+                    }
+                    writer.write(offsetNanos, tick);
+                }
+            }
+            return writer.records();
+        }
+    }
+
+    /**
+     * Bursts start every interval, the first one interval after the session starts, as the
+     * adapter schedules them.
+     */
+    private static boolean inBurst(SyntheticFeedConfig config, long elapsedNanos) {
+        if (!config.burstEnabled()) {
+            return false;
+        }
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        return elapsedMs >= config.burstIntervalMs() && elapsedMs % config.burstIntervalMs() < config.burstDurationMs();
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3 || args.length > 4) {
+            System.err.println("Usage: SyntheticTapeGenerator <scenario|NONE> <seed> <file> [seconds]");
+            System.exit(2);
+        }
+        SyntheticFeedConfig.Builder builder = SyntheticFeedConfig.builder().seed(Long.parseLong(args[1]));
+        long durationNanos = DEFAULT_DURATION_NANOS;
+        if (!args[0].equalsIgnoreCase("NONE")) {
+            SyntheticScenario scenario = SyntheticScenario.fromName(args[0]);
+            builder.scenario(scenario);
+            durationNanos = scenario.durationNanos();
+        }
+        if (args.length == 4) {
+            durationNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(args[3]));
+        }
+        Path file = Path.of(args[2]);
+
+        long start = System.nanoTime();
+        long records = generate(builder.build(), durationNanos, file);
+        System.out.printf("Wrote %,d records (%,d bytes) to %s in %d ms%n", records, Files.size(file), file,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+}
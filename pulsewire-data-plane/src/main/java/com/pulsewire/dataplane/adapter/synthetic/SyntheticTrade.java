@@ -18,8 +18,9 @@ import java.time.Instant;
  * 
  * <h2>JSON Serialization</h2>
  * <p>Provides {@link #toJson()} for human-readable serialization and
- * {@link #toBytes()} for wire format. Uses simple string formatting
- * to avoid external JSON library dependencies in the SPI layer.
+ * {@link #toBytes()} for wire format. Both are written by
+ * {@link SyntheticMessageEncoder} to avoid external JSON library
+ * dependencies in the SPI layer; prices always have four decimals.
  * 
  * @param symbol The instrument identifier
  * @param price The execution price (must be positive)
@@ -66,31 +67,24 @@ public record SyntheticTrade(
      * 
      * <p>Example output:
      * <pre>{@code
-     * {"type":"TRADE","symbol":"AAPL","price":185.50,"quantity":100,"timestamp":"2026-02-06T10:30:00Z","tradeId":"T123","side":"BUY"}
+     * {"type":"TRADE","symbol":"AAPL","price":185.5000,"quantity":100,"timestamp":"2026-02-06T10:30:00Z","tradeId":"T123","side":"BUY"}
      * }</pre>
      * 
      * @return JSON string representation
      */
     public String toJson() {
-        // Using String.format for simple, dependency-free JSON
-        // Performance note: In production, consider a pooled StringBuilder or JSON library
-        return String.format(
-            "{\"type\":\"TRADE\",\"symbol\":\"%s\",\"price\":%.4f,\"quantity\":%d,\"timestamp\":\"%s\",\"tradeId\":\"%s\",\"side\":\"%s\"}",
-            symbol,
-            price,
-            quantity,
-            timestamp.toString(),
-            tradeId,
-            side.name()
-        );
+        return new String(toBytes(), StandardCharsets.UTF_8);
     }
     
     /**
      * Converts this trade to bytes for wire transmission.
      * 
      * @return UTF-8 encoded bytes of the JSON representation
+     * @see SyntheticMessageEncoder for encoding into a reusable buffer
      */
     public byte[] toBytes() {
-        return toJson().getBytes(StandardCharsets.UTF_8);
+        SyntheticMessageEncoder encoder = SyntheticMessageEncoder.forCurrentThread();
+        encoder.encode(this);
+        return encoder.toByteArray();
     }
 }
@@ -0,0 +1,42 @@
+package com.pulsewire.dataplane.gateway;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micro-batching of one session's outbound events: the writer coalesces up to {@code maxEvents}
+ * queued events into a single frame, waiting at most {@code maxDelayNanos} after the first one
+ * for the rest. A JSON batch is an array of the usual event objects; a binary batch is the
+ * events' binary frames, sequence number and encoding, back to back.
+ */
+record BatchSettings(int maxEvents, long maxDelayNanos) {
+
+    /** Largest accepted batch; anything above is lowered to this. */
+    static final int MAX_EVENTS = 1024;
+    /** Longest accepted wait for a batch to fill; anything above is lowered to this. */
+    static final long MAX_DELAY_MICROS = 100_000;
+    /** Batch size used when a client only sets the delay. */
+    static final int DEFAULT_EVENTS = 256;
+    /** Wait used when a client only sets the batch size. */
+    static final long DEFAULT_DELAY_MICROS = 1_000;
+
+    /** One event per frame, written as soon as it is queued. */
+    static final BatchSettings NONE = new BatchSettings(1, 0);
+
+    /**
+     * Settings from a subscribe request; a missing field takes its default, and a batch size of
+     * one or less turns batching off.
+     */
+    static BatchSettings of(Integer maxEvents, Integer maxDelayMicros) {
+        int events = maxEvents == null ? DEFAULT_EVENTS : Math.min(maxEvents, MAX_EVENTS);
+        if (events <= 1) {
+            return NONE;
+        }
+        long micros = maxDelayMicros == null ? DEFAULT_DELAY_MICROS
+                : Math.max(0, Math.min(maxDelayMicros, MAX_DELAY_MICROS));
+        return new BatchSettings(events, TimeUnit.MICROSECONDS.toNanos(micros));
+    }
+
+    boolean enabled() {
+        return maxEvents > 1;
+    }
+}
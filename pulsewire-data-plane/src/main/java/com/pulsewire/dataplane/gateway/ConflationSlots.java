@@ -0,0 +1,198 @@
+package com.pulsewire.dataplane.gateway;
+
+import com.pulsewire.core.model.MarketEvent.EventType;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Last-value slots of one session's conflated subscriptions, keyed by instrument index.
+ *
+ * <p>An update overwrites the pending frame of its event type in the instrument's slot, so a trade
+ * never displaces a pending quote. Updated slots are queued as dirty; a single timer task per
+ * session, ticking every {@link #MIN_INTERVAL_MS}, hands each dirty slot's frames to the session's
+ * queue once its interval has passed since the previous flush. Slots not due yet wait in a
+ * due-time heap, so each is visited once per interval however many instruments are conflated.
+ * Events are therefore encoded and written at most once per interval and type however fast the
+ * market moves. Lookups binary search a copy-on-write {@link InstrumentTable} of the session's
+ * conflated instruments and do not allocate.
+ *
+ * <p>The timer must run tasks on a single thread; the dirty heap is confined to it.
+ */
+final class ConflationSlots {
+
+    /** Shortest accepted interval, and the tick of the flush task; anything below is raised to this. */
+    static final long MIN_INTERVAL_MS = 10;
+    /** Longest accepted interval; anything above is lowered to this. */
+    static final long MAX_INTERVAL_MS = 60_000;
+
+    // One pending frame per event type, plus one for events without a type
+    private static final int TYPE_SLOTS = EventType.values().length + 1;
+    private static final Comparator<Slot> BY_DUE_TIME = (a, b) -> Long.signum(a.dueAt - b.dueAt);
+
+    private final ScheduledExecutorService timer;
+    private final Consumer<OutboundFrame> flushTarget;
+    private final Queue<Slot> dirty = new ConcurrentLinkedQueue<>();
+    private volatile InstrumentTable<Slot> table = InstrumentTable.empty();
+    // Guarded by this
+    private ScheduledFuture<?> tick;
+
+    // Confined to the timer thread
+    private final PriorityQueue<Slot> waiting = new PriorityQueue<>(BY_DUE_TIME);
+    private final OutboundFrame[] flushing = new OutboundFrame[TYPE_SLOTS];
+
+    /**
+     * @param flushTarget receives each slot's latest frames on the timer thread
+     */
+    ConflationSlots(ScheduledExecutorService timer, Consumer<OutboundFrame> flushTarget) {
+        this.timer = timer;
+        this.flushTarget = flushTarget;
+    }
+
+    /**
+     * @return the slot conflating {@code instrumentIndex}, or null if it is delivered tick by tick
+     */
+    Slot slot(int instrumentIndex) {
+        return table.get(instrumentIndex);
+    }
+
+    /**
+     * Conflate {@code instrumentIndex} every {@code intervalMs}, or stop conflating it when
+     * {@code intervalMs <= 0}. Replacing an interval keeps any pending update.
+     */
+    synchronized void configure(int instrumentIndex, long intervalMs) {
+        Slot existing = table.get(instrumentIndex);
+        if (intervalMs <= 0) {
+            if (existing != null) {
+                existing.removed = true;
+                table = table.without(instrumentIndex);
+                if (table.isEmpty()) {
+                    stopTick();
+                }
+            }
+            return;
+        }
+        long intervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(MIN_INTERVAL_MS, Math.min(intervalMs, MAX_INTERVAL_MS)));
+        if (existing != null) {
+            existing.intervalNanos = intervalNanos;
+            return;
+        }
+        table = table.with(instrumentIndex, new Slot(intervalNanos, System.nanoTime() + intervalNanos));
+        if (tick == null) {
+            tick = timer.scheduleAtFixedRate(this::flushDue, MIN_INTERVAL_MS, MIN_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Stop the flush task and drop pending updates.
+     */
+    synchronized void clear() {
+        table.forEach(slot -> slot.removed = true);
+        table = InstrumentTable.empty();
+        dirty.clear();
+        stopTick();
+    }
+
+    boolean isEmpty() {
+        return table.isEmpty();
+    }
+
+    private void stopTick() {
+        if (tick != null) {
+            tick.cancel(false);
+            tick = null;
+        }
+    }
+
+    /**
+     * Flush the slots whose interval has passed: newly dirty ones straight away, the rest once
+     * they come due in the heap.
+     */
+    private void flushDue() {
+        long now = System.nanoTime();
+        Slot slot;
+        while ((slot = dirty.poll()) != null) {
+            if (slot.removed) {
+                continue;
+            }
+            if (now - slot.dueAt >= 0) {
+                flush(slot, now);
+            } else {
+                waiting.add(slot);
+            }
+        }
+        while ((slot = waiting.peek()) != null && now - slot.dueAt >= 0) {
+            waiting.poll();
+            if (!slot.removed) {
+                flush(slot, now);
+            }
+        }
+    }
+
+    /**
+     * Hand the slot's pending frames to the queue in sequence order, so a client that skips stale
+     * sequence numbers applies all of them.
+     */
+    private void flush(Slot slot, long now) {
+        // Cleared first, so an update racing with the flush queues the slot again
+        slot.dirty.set(false);
+        int count = 0;
+        for (int i = 0; i < TYPE_SLOTS; i++) {
+            OutboundFrame frame = slot.latest.getAndSet(i, null);
+            if (frame == null) {
+                continue;
+            }
+            int at = count++;
+            while (at > 0 && flushing[at - 1].sequence() > frame.sequence()) {
+                flushing[at] = flushing[at - 1];
+                at--;
+            }
+            flushing[at] = frame;
+        }
+        if (count == 0) {
+            return;
+        }
+        slot.dueAt = now + slot.intervalNanos;
+        for (int i = 0; i < count; i++) {
+            flushTarget.accept(flushing[i]);
+            flushing[i] = null;
+        }
+    }
+
+    /**
+     * One conflated (session, instrument) pair.
+     */
+    final class Slot {
+        private final AtomicReferenceArray<OutboundFrame> latest = new AtomicReferenceArray<>(TYPE_SLOTS);
+        // Set while the slot is queued as dirty or waiting in the heap
+        private final AtomicBoolean dirty = new AtomicBoolean();
+        private volatile long intervalNanos;
+        private volatile boolean removed;
+        // Written on the timer thread once the slot is published
+        private long dueAt;
+
+        private Slot(long intervalNanos, long dueAt) {
+            this.intervalNanos = intervalNanos;
+            this.dueAt = dueAt;
+        }
+
+        /**
+         * Overwrite the pending update of the frame's event type with a newer one.
+         */
+        void update(OutboundFrame frame) {
+            EventType eventType = frame.event().eventType();
+            latest.set(eventType == null ? TYPE_SLOTS - 1 : eventType.ordinal(), frame);
+            if (!dirty.get() && dirty.compareAndSet(false, true)) {
+                ConflationSlots.this.dirty.add(this);
+            }
+        }
+    }
+}
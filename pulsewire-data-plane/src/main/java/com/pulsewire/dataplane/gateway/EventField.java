@@ -0,0 +1,67 @@
+package com.pulsewire.dataplane.gateway;
+
+import java.util.Locale;
+
+/**
+ * Event properties a subscription can project onto. {@code instrumentId}, {@code eventType} and
+ * {@code seq} identify the event and are always sent, so they are not listed.
+ */
+enum EventField {
+
+    EVENT_ID("eventId", false),
+    EXCHANGE_TIMESTAMP("exchangeTimestamp", false),
+    RECEIVE_TIMESTAMP("receiveTimestamp", false),
+    PUBLISH_TIMESTAMP("publishTimestamp", false),
+    SCHEMA_VERSION("schemaVersion", false),
+    PRICE("price", true),
+    SIZE("size", true),
+    CONDITIONS("conditions", true),
+    BID_PRICE("bidPrice", true),
+    BID_SIZE("bidSize", true),
+    ASK_PRICE("askPrice", true),
+    ASK_SIZE("askSize", true);
+
+    static final EventField[] VALUES = values();
+
+    /** Mask selecting every field, meaning no projection. */
+    static final long ALL = (1L << VALUES.length) - 1;
+
+    private final String jsonName;
+    private final boolean payload;
+
+    EventField(String jsonName, boolean payload) {
+        this.jsonName = jsonName;
+        this.payload = payload;
+    }
+
+    /**
+     * @return the property name in the event's JSON
+     */
+    String jsonName() {
+        return jsonName;
+    }
+
+    /**
+     * @return true for properties of the nested {@code payload} object
+     */
+    boolean payload() {
+        return payload;
+    }
+
+    long bit() {
+        return 1L << ordinal();
+    }
+
+    /**
+     * Accepts the JSON property name, in any case, or the constant name.
+     */
+    static EventField fromName(String name) {
+        String normalized = name.trim().replace("_", "").toLowerCase(Locale.ROOT);
+        for (EventField field : VALUES) {
+            if (field.jsonName.toLowerCase(Locale.ROOT).equals(normalized)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown event field: " + name);
+    }
+}
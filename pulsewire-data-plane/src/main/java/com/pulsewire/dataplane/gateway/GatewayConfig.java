@@ -0,0 +1,23 @@
+package com.pulsewire.dataplane.gateway;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Gateway settings that are not WebSocket endpoint wiring.
+ */
+@Configuration
+public class GatewayConfig {
+
+    @Value("${pulsewire.gateway.outbound.queue-capacity:1024}")
+    private int queueCapacity;
+
+    @Value("${pulsewire.gateway.outbound.overflow-policy:drop-oldest}")
+    private String overflowPolicy;
+
+    @Bean
+    public OutboundQueueSettings outboundQueueSettings() {
+        return new OutboundQueueSettings(queueCapacity, OverflowPolicy.fromName(overflowPolicy));
+    }
+}
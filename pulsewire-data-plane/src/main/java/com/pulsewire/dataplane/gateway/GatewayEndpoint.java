@@ -0,0 +1,26 @@
+package com.pulsewire.dataplane.gateway;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Actuator endpoint ({@code /actuator/gateway}) listing outbound queue and send statistics per session.
+ */
+@Component
+@Endpoint(id = "gateway")
+public class GatewayEndpoint {
+
+    private final WebSocketGateway webSocketGateway;
+
+    public GatewayEndpoint(WebSocketGateway webSocketGateway) {
+        this.webSocketGateway = webSocketGateway;
+    }
+
+    @ReadOperation
+    public List<SessionStats> sessions() {
+        return webSocketGateway.getSessionStats();
+    }
+}
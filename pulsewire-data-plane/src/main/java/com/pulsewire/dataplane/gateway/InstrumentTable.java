@@ -0,0 +1,140 @@
+package com.pulsewire.dataplane.gateway;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Immutable map from instrument index to a value, for the handful of instruments one session
+ * configures. Keys are a sorted {@code int[]}, so a lookup is a binary search that does not
+ * allocate; updates return a copy and are published through a volatile field by the owner.
+ *
+ * @param <V> value type
+ */
+final class InstrumentTable<V> {
+
+    private static final InstrumentTable<?> EMPTY = new InstrumentTable<>(new int[0], new Object[0]);
+
+    private final int[] instrumentIndexes;
+    private final Object[] values;
+
+    private InstrumentTable(int[] instrumentIndexes, Object[] values) {
+        this.instrumentIndexes = instrumentIndexes;
+        this.values = values;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <V> InstrumentTable<V> empty() {
+        return (InstrumentTable<V>) EMPTY;
+    }
+
+    /**
+     * @return the value of {@code instrumentIndex}, or null if it has none
+     */
+    @SuppressWarnings("unchecked")
+    V get(int instrumentIndex) {
+        int position = Arrays.binarySearch(instrumentIndexes, instrumentIndex);
+        return position < 0 ? null : (V) values[position];
+    }
+
+    /**
+     * @return a table with {@code instrumentIndex} mapped to {@code value}
+     */
+    InstrumentTable<V> with(int instrumentIndex, V value) {
+        int position = Arrays.binarySearch(instrumentIndexes, instrumentIndex);
+        if (position >= 0) {
+            Object[] copy = values.clone();
+            copy[position] = value;
+            return new InstrumentTable<>(instrumentIndexes, copy);
+        }
+        position = -position - 1;
+        int length = instrumentIndexes.length;
+        int[] indexes = new int[length + 1];
+        Object[] copy = new Object[length + 1];
+        System.arraycopy(instrumentIndexes, 0, indexes, 0, position);
+        System.arraycopy(values, 0, copy, 0, position);
+        indexes[position] = instrumentIndex;
+        copy[position] = value;
+        System.arraycopy(instrumentIndexes, position, indexes, position + 1, length - position);
+        System.arraycopy(values, position, copy, position + 1, length - position);
+        return new InstrumentTable<>(indexes, copy);
+    }
+
+    /**
+     * @return a table without {@code instrumentIndex}, or this table if it had no value
+     */
+    InstrumentTable<V> without(int instrumentIndex) {
+        int position = Arrays.binarySearch(instrumentIndexes, instrumentIndex);
+        if (position < 0) {
+            return this;
+        }
+        int length = instrumentIndexes.length;
+        if (length == 1) {
+            return empty();
+        }
+        int[] indexes = new int[length - 1];
+        Object[] copy = new Object[length - 1];
+        System.arraycopy(instrumentIndexes, 0, indexes, 0, position);
+        System.arraycopy(values, 0, copy, 0, position);
+        System.arraycopy(instrumentIndexes, position + 1, indexes, position, length - position - 1);
+        System.arraycopy(values, position + 1, copy, position, length - position - 1);
+        return new InstrumentTable<>(indexes, copy);
+    }
+
+    /**
+     * @return a table with every index in {@code instrumentIndexes} mapped to {@code value}, built
+     *         in one merge rather than one copy per index
+     */
+    InstrumentTable<V> with(int[] instrumentIndexes, V value) {
+        int[] added = Arrays.stream(instrumentIndexes).sorted().distinct().toArray();
+        int[] indexes = new int[this.instrumentIndexes.length + added.length];
+        Object[] merged = new Object[indexes.length];
+        int size = 0;
+        int i = 0;
+        int j = 0;
+        while (i < this.instrumentIndexes.length || j < added.length) {
+            if (j == added.length || (i < this.instrumentIndexes.length && this.instrumentIndexes[i] < added[j])) {
+                indexes[size] = this.instrumentIndexes[i];
+                merged[size++] = values[i++];
+            } else {
+                if (i < this.instrumentIndexes.length && this.instrumentIndexes[i] == added[j]) {
+                    i++;
+                }
+                indexes[size] = added[j++];
+                merged[size++] = value;
+            }
+        }
+        return new InstrumentTable<>(Arrays.copyOf(indexes, size), Arrays.copyOf(merged, size));
+    }
+
+    /**
+     * @return a table without any of {@code instrumentIndexes}
+     */
+    InstrumentTable<V> without(int[] instrumentIndexes) {
+        int[] removed = Arrays.stream(instrumentIndexes).sorted().toArray();
+        int[] indexes = new int[this.instrumentIndexes.length];
+        Object[] kept = new Object[indexes.length];
+        int size = 0;
+        for (int i = 0; i < this.instrumentIndexes.length; i++) {
+            if (Arrays.binarySearch(removed, this.instrumentIndexes[i]) < 0) {
+                indexes[size] = this.instrumentIndexes[i];
+                kept[size++] = values[i];
+            }
+        }
+        return size == 0 ? empty() : new InstrumentTable<>(Arrays.copyOf(indexes, size), Arrays.copyOf(kept, size));
+    }
+
+    @SuppressWarnings("unchecked")
+    void forEach(Consumer<? super V> action) {
+        for (Object value : values) {
+            action.accept((V) value);
+        }
+    }
+
+    int size() {
+        return instrumentIndexes.length;
+    }
+
+    boolean isEmpty() {
+        return instrumentIndexes.length == 0;
+    }
+}
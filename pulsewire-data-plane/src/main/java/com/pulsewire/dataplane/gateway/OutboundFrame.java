@@ -0,0 +1,205 @@
+package com.pulsewire.dataplane.gateway;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.filter.FilteringGeneratorDelegate;
+import com.fasterxml.jackson.core.filter.TokenFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pulsewire.core.codec.BinaryEventCodec;
+import com.pulsewire.core.model.MarketEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * One event on its way out of the gateway, with each wire encoding built at most once and then
+ * shared by every recipient of that encoding. Encodings are created lazily, so an event nobody
+ * subscribes to is never serialized.
+ *
+ * <p>Every frame carries its event's per-instrument sequence number from the
+ * {@link com.pulsewire.dataplane.cache.LastValueCache}: as a trailing {@code seq} property of the
+ * JSON object, or as an 8-byte little-endian prefix before the binary encoding.
+ *
+ * <p>Sessions whose subscription {@link SubscriptionFilter#projects() projects} fields get a JSON
+ * variant per distinct projection, likewise encoded once; binary frames have a fixed layout and
+ * are never projected.
+ *
+ * <p>A frame is normally used only by the thread broadcasting its event, but a conflated
+ * subscription may encode it later on the conflation timer, so {@link #message} is synchronized.
+ */
+final class OutboundFrame {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboundFrame.class);
+
+    /**
+     * Wire encodings a session can receive.
+     */
+    enum Encoding {
+        /** Jackson JSON text frames, the default for browsers such as the dashboard. */
+        JSON_TEXT,
+        /** Sequence number and {@link BinaryEventCodec} layout in binary frames, for the {@value WebSocketGateway#BINARY_PROTOCOL} sub-protocol. */
+        BINARY
+    }
+
+    /** Size of the sequence number in front of each binary event. */
+    static final int SEQUENCE_SIZE = Long.BYTES;
+
+    private static final Encoding[] ENCODINGS = Encoding.values();
+
+    private final MarketEvent event;
+    private final long sequence;
+    private final ObjectMapper objectMapper;
+    private final BinaryEventCodec binaryCodec;
+    private final LongAdder encodeCount;
+    private final WebSocketMessage<?>[] messages = new WebSocketMessage<?>[ENCODINGS.length];
+    private final boolean[] failed = new boolean[ENCODINGS.length];
+    // Projected JSON variants; a null message records a failed encoding
+    private long[] projections;
+    private WebSocketMessage<?>[] projected;
+    private int projectionCount;
+
+    OutboundFrame(MarketEvent event, long sequence, ObjectMapper objectMapper, BinaryEventCodec binaryCodec,
+                  LongAdder encodeCount) {
+        this.event = event;
+        this.sequence = sequence;
+        this.objectMapper = objectMapper;
+        this.binaryCodec = binaryCodec;
+        this.encodeCount = encodeCount;
+    }
+
+    MarketEvent event() {
+        return event;
+    }
+
+    long sequence() {
+        return sequence;
+    }
+
+    /**
+     * @return the shared message for {@code encoding}, encoding it on first use, or null if the
+     *         event cannot be encoded (logged once per frame, not per recipient)
+     */
+    WebSocketMessage<?> message(Encoding encoding) {
+        return message(encoding, EventField.ALL);
+    }
+
+    /**
+     * @param fields {@link EventField} mask to keep, {@link EventField#ALL} for the full event;
+     *               ignored for binary
+     * @return the shared message for {@code encoding} and {@code fields}, encoding it on first use,
+     *         or null if the event cannot be encoded
+     */
+    synchronized WebSocketMessage<?> message(Encoding encoding, long fields) {
+        if (fields != EventField.ALL && encoding == Encoding.JSON_TEXT) {
+            return projected(fields);
+        }
+        int slot = encoding.ordinal();
+        WebSocketMessage<?> message = messages[slot];
+        if (message != null || failed[slot]) {
+            return message;
+        }
+        try {
+            message = encode(encoding);
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            failed[slot] = true;
+            log.error("Failed to encode event {} as {}", event.eventId(), encoding, e);
+            return null;
+        }
+        encodeCount.increment();
+        messages[slot] = message;
+        return message;
+    }
+
+    private WebSocketMessage<?> projected(long fields) {
+        for (int i = 0; i < projectionCount; i++) {
+            if (projections[i] == fields) {
+                return projected[i];
+            }
+        }
+        WebSocketMessage<?> message = null;
+        try {
+            message = new TextMessage(project(fields));
+            encodeCount.increment();
+        } catch (IOException | IllegalArgumentException e) {
+            log.error("Failed to encode event {} with projection {}", event.eventId(), Long.toBinaryString(fields), e);
+        }
+        if (projections == null) {
+            projections = new long[2];
+            projected = new WebSocketMessage<?>[2];
+        } else if (projectionCount == projections.length) {
+            projections = Arrays.copyOf(projections, projectionCount * 2);
+            projected = Arrays.copyOf(projected, projectionCount * 2);
+        }
+        projections[projectionCount] = fields;
+        projected[projectionCount++] = message;
+        return message;
+    }
+
+    /**
+     * Serialize the event through a filtering generator that skips the properties outside
+     * {@code fields}, so every payload type keeps its own serialization and nothing is parsed back.
+     */
+    private String project(long fields) throws IOException {
+        StringWriter json = new StringWriter(128);
+        try (JsonGenerator generator = new FilteringGeneratorDelegate(objectMapper.getFactory().createGenerator(json),
+                new Projection(fields, false), TokenFilter.Inclusion.INCLUDE_ALL_AND_PATH, true)) {
+            objectMapper.writeValue(generator, new Sequenced(event, sequence));
+        }
+        return json.toString();
+    }
+
+    private WebSocketMessage<?> encode(Encoding encoding) throws JsonProcessingException {
+        return switch (encoding) {
+            case JSON_TEXT -> new TextMessage(objectMapper.writeValueAsString(new Sequenced(event, sequence)));
+            case BINARY -> {
+                byte[] encoded = binaryCodec.encode(event);
+                ByteBuffer payload = ByteBuffer.allocate(SEQUENCE_SIZE + encoded.length).order(ByteOrder.LITTLE_ENDIAN);
+                yield new BinaryMessage(payload.putLong(sequence).put(encoded).flip());
+            }
+        };
+    }
+
+    /**
+     * Keeps the {@link EventField}s in a mask, at the event's top level or inside its payload, and
+     * every property that is not an {@link EventField}.
+     */
+    private static final class Projection extends TokenFilter {
+
+        private final long fields;
+        private final boolean payload;
+
+        Projection(long fields, boolean payload) {
+            this.fields = fields;
+            this.payload = payload;
+        }
+
+        @Override
+        public TokenFilter includeProperty(String name) {
+            if (!payload && name.equals("payload")) {
+                return new Projection(fields, true);
+            }
+            for (EventField field : EventField.VALUES) {
+                if (field.payload() == payload && field.jsonName().equals(name)) {
+                    return (fields & field.bit()) != 0 ? INCLUDE_ALL : null;
+                }
+            }
+            return INCLUDE_ALL;
+        }
+    }
+
+    /**
+     * JSON shape of an event frame: the event's own properties followed by {@code seq}.
+     */
+    record Sequenced(@JsonUnwrapped MarketEvent event, long seq) {
+    }
+}
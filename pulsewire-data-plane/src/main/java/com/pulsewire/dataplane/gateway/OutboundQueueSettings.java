@@ -0,0 +1,22 @@
+package com.pulsewire.dataplane.gateway;
+
+/**
+ * Sizing and overflow behaviour of the per-session outbound queues.
+ */
+public record OutboundQueueSettings(int capacity, OverflowPolicy overflowPolicy) {
+
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    public OutboundQueueSettings {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Outbound queue capacity must be positive: " + capacity);
+        }
+        if (overflowPolicy == null) {
+            throw new IllegalArgumentException("Overflow policy is required");
+        }
+    }
+
+    public static OutboundQueueSettings defaults() {
+        return new OutboundQueueSettings(DEFAULT_CAPACITY, OverflowPolicy.DROP_OLDEST);
+    }
+}
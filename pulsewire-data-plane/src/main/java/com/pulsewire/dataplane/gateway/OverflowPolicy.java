@@ -0,0 +1,30 @@
+package com.pulsewire.dataplane.gateway;
+
+import java.util.Locale;
+
+/**
+ * What a session's outbound queue does when an event arrives and the queue is full.
+ */
+public enum OverflowPolicy {
+
+    /** Discard the oldest queued message to make room. */
+    DROP_OLDEST,
+
+    /**
+     * Replace the queued message for the same instrument with the newer one, keeping its place in
+     * the queue; if nothing is queued for that instrument, discard the oldest message instead.
+     */
+    CONFLATE,
+
+    /** Close the session; a client that cannot keep up is disconnected rather than served stale data. */
+    DISCONNECT;
+
+    public static OverflowPolicy fromName(String name) {
+        return switch (name.trim().toLowerCase(Locale.ROOT)) {
+            case "drop-oldest", "drop_oldest" -> DROP_OLDEST;
+            case "conflate", "conflate-per-instrument" -> CONFLATE;
+            case "disconnect" -> DISCONNECT;
+            default -> throw new IllegalArgumentException("Unknown overflow policy: " + name);
+        };
+    }
+}
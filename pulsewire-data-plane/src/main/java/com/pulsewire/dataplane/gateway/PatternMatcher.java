@@ -0,0 +1,185 @@
+package com.pulsewire.dataplane.gateway;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Subscription patterns compiled for matching against one instrument at a time.
+ *
+ * <ul>
+ *   <li>Prefix globs such as {@code "BTC-*"} live in a character trie, so matching walks the
+ *       instrument id once whatever the number of prefixes.</li>
+ *   <li>Attribute patterns such as {@code "venue=XNAS"} live in an index from attribute name and
+ *       value to subscribers, so matching is one lookup per attribute of the instrument.</li>
+ *   <li>Other globs, with {@code *} or {@code ?} anywhere, are compiled to regular expressions and
+ *       tried one by one; they are expected to be rare.</li>
+ * </ul>
+ *
+ * <p>Not thread-safe; {@link SubscriptionIndex} guards it with a lock.
+ *
+ * @param <T> subscriber type
+ */
+final class PatternMatcher<T> {
+
+    private final Node<T> trie = new Node<>();
+    private final Map<String, Map<String, Set<T>>> byAttribute = new HashMap<>();
+    private final Map<String, Glob<T>> globs = new HashMap<>();
+    private int size;
+
+    /**
+     * @return true if {@code subscription} is a pattern rather than a literal instrument id; the
+     *         wildcard {@value SubscriptionIndex#WILDCARD} is handled separately and is not one
+     */
+    static boolean isPattern(String subscription) {
+        return !SubscriptionIndex.WILDCARD.equals(subscription)
+                && (subscription.indexOf('=') >= 0 || subscription.indexOf('*') >= 0 || subscription.indexOf('?') >= 0);
+    }
+
+    /**
+     * @throws IllegalArgumentException if an attribute pattern has no name or value
+     */
+    static void validate(String pattern) {
+        int equals = pattern.indexOf('=');
+        if (equals >= 0 && (equals == 0 || equals == pattern.length() - 1)) {
+            throw new IllegalArgumentException("Attribute pattern must be name=value: " + pattern);
+        }
+    }
+
+    void add(String pattern, T subscriber) {
+        validate(pattern);
+        int equals = pattern.indexOf('=');
+        if (equals > 0) {
+            byAttribute.computeIfAbsent(pattern.substring(0, equals), name -> new HashMap<>())
+                    .computeIfAbsent(pattern.substring(equals + 1), value -> new LinkedHashSet<>())
+                    .add(subscriber);
+        } else if (isPrefix(pattern)) {
+            Node<T> node = trie;
+            for (int i = 0; i < pattern.length() - 1; i++) {
+                node = node.children.computeIfAbsent(pattern.charAt(i), c -> new Node<>());
+            }
+            node.subscribers.add(subscriber);
+        } else {
+            globs.computeIfAbsent(pattern, Glob::new).subscribers.add(subscriber);
+        }
+        size++;
+    }
+
+    void remove(String pattern, T subscriber) {
+        int equals = pattern.indexOf('=');
+        boolean removed;
+        if (equals > 0) {
+            Map<String, Set<T>> values = byAttribute.get(pattern.substring(0, equals));
+            Set<T> subscribers = values == null ? null : values.get(pattern.substring(equals + 1));
+            removed = subscribers != null && subscribers.remove(subscriber);
+            if (removed && subscribers.isEmpty()) {
+                values.remove(pattern.substring(equals + 1));
+                if (values.isEmpty()) {
+                    byAttribute.remove(pattern.substring(0, equals));
+                }
+            }
+        } else if (isPrefix(pattern)) {
+            removed = removePrefix(trie, pattern, 0, subscriber);
+        } else {
+            Glob<T> glob = globs.get(pattern);
+            removed = glob != null && glob.subscribers.remove(subscriber);
+            if (removed && glob.subscribers.isEmpty()) {
+                globs.remove(pattern);
+            }
+        }
+        if (removed) {
+            size--;
+        }
+    }
+
+    /**
+     * Pass every subscriber with a pattern matching the instrument to {@code action}; a subscriber
+     * matched by several patterns is passed once per pattern.
+     */
+    void match(String instrumentId, Map<String, String> attributes, Consumer<? super T> action) {
+        Node<T> node = trie;
+        for (int i = 0; node != null; i++) {
+            node.subscribers.forEach(action);
+            node = i < instrumentId.length() ? node.children.get(instrumentId.charAt(i)) : null;
+        }
+        if (!byAttribute.isEmpty()) {
+            for (Map.Entry<String, String> attribute : attributes.entrySet()) {
+                Map<String, Set<T>> values = byAttribute.get(attribute.getKey());
+                Set<T> subscribers = values == null ? null : values.get(attribute.getValue());
+                if (subscribers != null) {
+                    subscribers.forEach(action);
+                }
+            }
+        }
+        for (Glob<T> glob : globs.values()) {
+            if (glob.regex.matcher(instrumentId).matches()) {
+                glob.subscribers.forEach(action);
+            }
+        }
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * A prefix glob has a single {@code *}, at the end, and no {@code ?}.
+     */
+    private static boolean isPrefix(String pattern) {
+        int star = pattern.indexOf('*');
+        return star == pattern.length() - 1 && pattern.indexOf('?') < 0;
+    }
+
+    /**
+     * @return true if the subscriber was removed; empty nodes on the way back are pruned
+     */
+    private static <T> boolean removePrefix(Node<T> node, String pattern, int depth, T subscriber) {
+        if (depth == pattern.length() - 1) {
+            return node.subscribers.remove(subscriber);
+        }
+        char c = pattern.charAt(depth);
+        Node<T> child = node.children.get(c);
+        if (child == null || !removePrefix(child, pattern, depth + 1, subscriber)) {
+            return false;
+        }
+        if (child.subscribers.isEmpty() && child.children.isEmpty()) {
+            node.children.remove(c);
+        }
+        return true;
+    }
+
+    private static final class Node<T> {
+        private final Map<Character, Node<T>> children = new HashMap<>(4);
+        private final Set<T> subscribers = new LinkedHashSet<>(2);
+    }
+
+    private static final class Glob<T> {
+        private final Pattern regex;
+        private final Set<T> subscribers = new LinkedHashSet<>(2);
+
+        Glob(String glob) {
+            List<String> parts = new ArrayList<>();
+            StringBuilder literal = new StringBuilder();
+            for (char c : glob.toCharArray()) {
+                if (c == '*' || c == '?') {
+                    if (!literal.isEmpty()) {
+                        parts.add(Pattern.quote(literal.toString()));
+                        literal.setLength(0);
+                    }
+                    parts.add(c == '*' ? ".*" : ".");
+                } else {
+                    literal.append(c);
+                }
+            }
+            if (!literal.isEmpty()) {
+                parts.add(Pattern.quote(literal.toString()));
+            }
+            this.regex = Pattern.compile(String.join("", parts));
+        }
+    }
+}
@@ -0,0 +1,497 @@
+package com.pulsewire.dataplane.gateway;
+
+import com.pulsewire.core.model.MarketEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Bounded outbound queue of one WebSocket session, drained by its own virtual-thread writer.
+ *
+ * <p>The broadcasting thread only {@link #offer enqueues}, so a slow client fills its own queue
+ * and is then handled by its {@link OverflowPolicy} instead of blocking the backbone and every
+ * other session. Messages are written in queue order; conflation replaces a message in place.
+ *
+ * <p>Each subscription's {@link SubscriptionFilter} is applied before an event is encoded for the
+ * session: filtered-out event types are never encoded, and projected fields select a shared
+ * projected encoding. An instrument subscription's filter takes precedence over the one shared by
+ * the wildcard and pattern subscriptions.
+ *
+ * <p>Instruments the client subscribed to with a conflation interval bypass the queue until the
+ * session's {@link ConflationSlots} timer flushes the latest update of each event type into it.
+ *
+ * <p>With {@link BatchSettings batching} on, the writer coalesces queued events into one frame per
+ * write, waiting at most the batch delay after the first for more to arrive. Under load the queue
+ * already holds the next batch by the time a write returns, so frames fill without waiting.
+ */
+final class SessionOutbound {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionOutbound.class);
+
+    private final WebSocketSession session;
+    private final int capacity;
+    private final OverflowPolicy overflowPolicy;
+    private final Totals totals;
+    private final Consumer<MarketEvent> onWritten;
+    private final ReentrantLock lock = new ReentrantLock();
+    // Sessions are not safe for concurrent sends; a lock rather than a monitor, so a writer blocked
+    // in a send releases its carrier thread to the other sessions' writers
+    private final ReentrantLock sendLock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final ArrayDeque<Pending> queue;
+    private final Map<Integer, Pending> latestByInstrument = new HashMap<>();
+    private final ConflationSlots conflation;
+    private final OutboundFrame.Encoding encoding;
+    private volatile BatchSettings batching = BatchSettings.NONE;
+    private volatile InstrumentTable<SubscriptionFilter> filters = InstrumentTable.empty();
+    private volatile SubscriptionFilter wildcardFilter = SubscriptionFilter.ALL;
+    // Settings of subscriptions to instruments not registered yet, by id; guarded by this
+    private final Map<String, WaitingSubscription> waiting = new HashMap<>();
+
+    // Guarded by lock
+    private boolean closed;
+    private boolean overflowed;
+    private long dropped;
+    private long conflated;
+
+    // Written by the writer thread only
+    private volatile long sent;
+    private volatile long frames;
+    private volatile long sendNanos;
+    private volatile long maxSendNanos;
+
+    SessionOutbound(WebSocketSession session, OutboundQueueSettings settings, Totals totals,
+                    Consumer<MarketEvent> onWritten, ScheduledExecutorService conflationTimer) {
+        this.session = session;
+        this.capacity = settings.capacity();
+        this.overflowPolicy = settings.overflowPolicy();
+        this.totals = totals;
+        this.onWritten = onWritten;
+        this.queue = new ArrayDeque<>(Math.min(capacity, 1024));
+        this.conflation = new ConflationSlots(conflationTimer, this::offer);
+        this.encoding = WebSocketGateway.BINARY_PROTOCOL.equals(session.getAcceptedProtocol())
+                ? OutboundFrame.Encoding.BINARY : OutboundFrame.Encoding.JSON_TEXT;
+    }
+
+    WebSocketSession session() {
+        return session;
+    }
+
+    /**
+     * @return the encoding negotiated for this session through its sub-protocol
+     */
+    OutboundFrame.Encoding encoding() {
+        return encoding;
+    }
+
+    /**
+     * Write {@code message} to the session, serialised with the writer's sends. Subscription
+     * replies are written inline through this.
+     */
+    void send(WebSocketMessage<?> message) throws IOException {
+        sendLock.lock();
+        try {
+            session.sendMessage(message);
+        } finally {
+            sendLock.unlock();
+        }
+    }
+
+    void start() {
+        Thread.ofVirtual().name("ws-writer-" + session.getId()).start(this::drain);
+    }
+
+    /**
+     * Stop the writer after the message it may be writing; queued messages are discarded.
+     */
+    void close() {
+        conflation.clear();
+        lock.lock();
+        try {
+            closed = true;
+            queue.clear();
+            latestByInstrument.clear();
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Deliver {@code frame}, either into the instrument's conflation slot or straight into the queue.
+     */
+    void deliver(OutboundFrame frame) {
+        int instrumentIndex = frame.event().instrumentIndex();
+        SubscriptionFilter filter = filter(instrumentIndex);
+        if (!filter.accepts(frame.event().eventType())) {
+            return;
+        }
+        ConflationSlots.Slot slot = conflation.slot(instrumentIndex);
+        if (slot != null) {
+            slot.update(frame);
+        } else {
+            offer(frame, filter);
+        }
+    }
+
+    /**
+     * Set the filter of the session's subscriptions to each of {@code instrumentIndexes}, or drop
+     * them when {@code filter} is null.
+     */
+    synchronized void filter(int[] instrumentIndexes, SubscriptionFilter filter) {
+        filters = filter == null ? filters.without(instrumentIndexes) : filters.with(instrumentIndexes, filter);
+    }
+
+    /**
+     * Hold the filter and conflation interval of a subscription to {@code instrumentId}, which the
+     * registry does not know yet, until {@link #attach} gives it an index.
+     */
+    synchronized void await(String instrumentId, SubscriptionFilter filter, long conflationMs) {
+        waiting.put(instrumentId, new WaitingSubscription(filter, conflationMs));
+    }
+
+    /**
+     * Apply the settings held for {@code instrumentId} to its new index; no-op if none are held.
+     */
+    synchronized void attach(String instrumentId, int instrumentIndex) {
+        WaitingSubscription subscription = waiting.remove(instrumentId);
+        if (subscription != null) {
+            filter(new int[]{instrumentIndex}, subscription.filter());
+            conflate(instrumentIndex, subscription.conflationMs());
+        }
+    }
+
+    /**
+     * Forget the settings held for {@code instrumentId}, which was unsubscribed before it was registered.
+     */
+    synchronized void stopWaiting(String instrumentId) {
+        waiting.remove(instrumentId);
+    }
+
+    /**
+     * Set the filter shared by the session's wildcard and pattern subscriptions.
+     */
+    void wildcardFilter(SubscriptionFilter filter) {
+        wildcardFilter = filter;
+    }
+
+    /**
+     * @return the filter for events of {@code instrumentIndex}
+     */
+    SubscriptionFilter filter(int instrumentIndex) {
+        SubscriptionFilter filter = filters.get(instrumentIndex);
+        return filter != null ? filter : wildcardFilter;
+    }
+
+    /**
+     * Coalesce this session's events into batch frames from the next write on.
+     */
+    void batch(BatchSettings settings) {
+        batching = settings;
+    }
+
+    BatchSettings batching() {
+        return batching;
+    }
+
+    /**
+     * Conflate updates for {@code instrumentIndex} to one per {@code intervalMs}; zero or less
+     * delivers every update again.
+     */
+    void conflate(int instrumentIndex, long intervalMs) {
+        conflation.configure(instrumentIndex, intervalMs);
+    }
+
+    /**
+     * Queue {@code frame} straight away if the subscription filter accepts it, bypassing any
+     * conflation of its instrument.
+     */
+    void offer(OutboundFrame frame) {
+        SubscriptionFilter filter = filter(frame.event().instrumentIndex());
+        if (filter.accepts(frame.event().eventType())) {
+            offer(frame, filter);
+        }
+    }
+
+    private void offer(OutboundFrame frame, SubscriptionFilter filter) {
+        WebSocketMessage<?> message = frame.message(encoding, filter.fields());
+        if (message != null) {
+            offer(message, frame.event());
+        }
+    }
+
+    /**
+     * Run {@code action} with the queue locked: messages it queues through this outbound go in,
+     * and messages offered from other threads wait until it returns. Keep the action short, as
+     * broadcasting to this session blocks meanwhile.
+     */
+    void exclusively(Runnable action) {
+        lock.lock();
+        try {
+            action.run();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Queue {@code message} for {@code event}, applying the overflow policy when the queue is full.
+     *
+     * @return false if the message was not queued because the session is closed or being disconnected
+     */
+    boolean offer(WebSocketMessage<?> message, MarketEvent event) {
+        lock.lock();
+        try {
+            if (closed || overflowed) {
+                return false;
+            }
+            if (queue.size() >= capacity && !makeRoom(message, event)) {
+                return overflowPolicy == OverflowPolicy.CONFLATE;
+            }
+            Pending pending = new Pending(message, event);
+            queue.addLast(pending);
+            if (overflowPolicy == OverflowPolicy.CONFLATE) {
+                latestByInstrument.put(event.instrumentIndex(), pending);
+            }
+            notEmpty.signal();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return true if a slot was freed for the new message, false if it was absorbed or rejected
+     */
+    private boolean makeRoom(WebSocketMessage<?> message, MarketEvent event) {
+        switch (overflowPolicy) {
+            case DISCONNECT -> {
+                overflowed = true;
+                queue.clear();
+                notEmpty.signal();
+                return false;
+            }
+            case CONFLATE -> {
+                Pending latest = latestByInstrument.get(event.instrumentIndex());
+                if (latest != null) {
+                    latest.message = message;
+                    latest.event = event;
+                    conflated++;
+                    totals.conflated.increment();
+                    return false;
+                }
+            }
+            case DROP_OLDEST -> {
+            }
+        }
+        Pending oldest = queue.pollFirst();
+        if (oldest != null) {
+            forget(oldest);
+        }
+        dropped++;
+        totals.dropped.increment();
+        return true;
+    }
+
+    private void drain() {
+        List<Pending> batch = new ArrayList<>();
+        while (true) {
+            BatchSettings settings;
+            lock.lock();
+            try {
+                while (queue.isEmpty() && !closed && !overflowed) {
+                    notEmpty.awaitUninterruptibly();
+                }
+                if (closed) {
+                    return;
+                }
+                if (overflowed) {
+                    break;
+                }
+                // Read after waking, so a change made while the writer was idle applies to the next event
+                settings = batching;
+                take(batch, settings);
+                if (closed) {
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+            write(batch, settings);
+            batch.clear();
+        }
+        disconnect();
+    }
+
+    /**
+     * Move the next message, and with batching on up to a batch of followers, from the queue into
+     * {@code batch}. Waits for followers no longer than the batch delay. Called with the lock held
+     * and the queue not empty.
+     */
+    private void take(List<Pending> batch, BatchSettings settings) {
+        Pending first = queue.pollFirst();
+        forget(first);
+        batch.add(first);
+        if (!settings.enabled()) {
+            return;
+        }
+        long deadline = System.nanoTime() + settings.maxDelayNanos();
+        while (batch.size() < settings.maxEvents()) {
+            Pending next = queue.pollFirst();
+            if (next != null) {
+                forget(next);
+                batch.add(next);
+                continue;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0 || closed || overflowed) {
+                return;
+            }
+            try {
+                notEmpty.awaitNanos(remaining);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void write(List<Pending> batch, BatchSettings settings) {
+        WebSocketMessage<?> message = settings.enabled() ? batchMessage(batch) : batch.get(0).message;
+        long start = System.nanoTime();
+        try {
+            send(message);
+        } catch (IOException | IllegalStateException e) {
+            log.error("Error sending {} event(s) to session {}", batch.size(), session.getId(), e);
+            return;
+        }
+        long elapsed = System.nanoTime() - start;
+        sent += batch.size();
+        frames++;
+        sendNanos += elapsed;
+        if (elapsed > maxSendNanos) {
+            maxSendNanos = elapsed;
+        }
+        totals.sent.add(batch.size());
+        totals.frames.increment();
+        totals.sendNanos.add(elapsed);
+        for (Pending pending : batch) {
+            onWritten.accept(pending.event);
+        }
+    }
+
+    /**
+     * Join the batch's shared per-event messages into one frame: a JSON array of the event
+     * objects, or the binary frames back to back (each is self-delimiting through its event header).
+     */
+    private WebSocketMessage<?> batchMessage(List<Pending> batch) {
+        if (encoding == OutboundFrame.Encoding.BINARY) {
+            int length = 0;
+            for (Pending pending : batch) {
+                length += pending.message.getPayloadLength();
+            }
+            ByteBuffer payload = ByteBuffer.allocate(length);
+            for (Pending pending : batch) {
+                // Duplicate so the position of the buffer shared with other sessions is untouched
+                payload.put(((BinaryMessage) pending.message).getPayload().duplicate());
+            }
+            return new BinaryMessage(payload.flip());
+        }
+        int length = batch.size() + 1;
+        for (Pending pending : batch) {
+            length += pending.message.getPayloadLength();
+        }
+        StringBuilder json = new StringBuilder(length).append('[');
+        for (int i = 0; i < batch.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append(((TextMessage) batch.get(i).message).getPayload());
+        }
+        return new TextMessage(json.append(']'));
+    }
+
+    private void disconnect() {
+        totals.disconnected.increment();
+        log.warn("Disconnecting session {}: outbound queue of {} overflowed", session.getId(), capacity);
+        try {
+            session.close(CloseStatus.SESSION_NOT_RELIABLE);
+        } catch (IOException e) {
+            log.error("Error closing session {}", session.getId(), e);
+        }
+    }
+
+    private void forget(Pending pending) {
+        if (overflowPolicy == OverflowPolicy.CONFLATE) {
+            latestByInstrument.remove(pending.event.instrumentIndex(), pending);
+        }
+    }
+
+    int depth() {
+        lock.lock();
+        try {
+            return queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    SessionStats stats() {
+        long dropped;
+        long conflated;
+        int depth;
+        lock.lock();
+        try {
+            dropped = this.dropped;
+            conflated = this.conflated;
+            depth = queue.size();
+        } finally {
+            lock.unlock();
+        }
+        long frames = this.frames;
+        return new SessionStats(session.getId(), depth, sent, frames, dropped, conflated,
+                frames == 0 ? 0 : sendNanos / frames, maxSendNanos);
+    }
+
+    /**
+     * Counters summed over all sessions of a gateway.
+     */
+    static final class Totals {
+        final LongAdder sent = new LongAdder();
+        final LongAdder frames = new LongAdder();
+        final LongAdder sendNanos = new LongAdder();
+        final LongAdder dropped = new LongAdder();
+        final LongAdder conflated = new LongAdder();
+        final LongAdder disconnected = new LongAdder();
+    }
+
+    private static final class Pending {
+        private WebSocketMessage<?> message;
+        private MarketEvent event;
+
+        Pending(WebSocketMessage<?> message, MarketEvent event) {
+            this.message = message;
+            this.event = event;
+        }
+    }
+
+    private record WaitingSubscription(SubscriptionFilter filter, long conflationMs) {
+    }
+}
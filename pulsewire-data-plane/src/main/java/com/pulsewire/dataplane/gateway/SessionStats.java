@@ -0,0 +1,16 @@
+package com.pulsewire.dataplane.gateway;
+
+/**
+ * Outbound queue and write statistics for one WebSocket session. {@code sent} counts events,
+ * {@code framesSent} the frames carrying them, which differ when the session batches; send times are per frame.
+ */
+public record SessionStats(
+        String sessionId,
+        int queueDepth,
+        long sent,
+        long framesSent,
+        long dropped,
+        long conflated,
+        long meanSendNanos,
+        long maxSendNanos) {
+}
@@ -0,0 +1,72 @@
+package com.pulsewire.dataplane.gateway;
+
+import com.pulsewire.core.model.MarketEvent.EventType;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Event-type mask and field projection of one subscription, compiled to bitmasks so the gateway
+ * can test each event before anything is encoded for the session.
+ *
+ * @param eventTypes bit {@code 1 << type.ordinal()} set for every {@link EventType} delivered
+ * @param fields     bit {@link EventField#bit()} set for every {@link EventField} sent, or
+ *                   {@link EventField#ALL} for the full event
+ */
+record SubscriptionFilter(int eventTypes, long fields) {
+
+    private static final EventType[] EVENT_TYPES = EventType.values();
+    static final int ALL_EVENT_TYPES = (1 << EVENT_TYPES.length) - 1;
+
+    /** Every event type, every field. */
+    static final SubscriptionFilter ALL = new SubscriptionFilter(ALL_EVENT_TYPES, EventField.ALL);
+
+    /**
+     * Compile a subscribe request's options; a missing or empty option means no restriction.
+     *
+     * @param eventTypes comma-separated {@link EventType} names, as in the control plane's subscriptions
+     * @param fields     JSON property names to keep
+     * @throws IllegalArgumentException for unknown event types or fields
+     */
+    static SubscriptionFilter of(String eventTypes, List<String> fields) {
+        int typeMask = ALL_EVENT_TYPES;
+        if (eventTypes != null && !eventTypes.isBlank()) {
+            typeMask = 0;
+            for (String name : eventTypes.split(",")) {
+                if (!name.isBlank()) {
+                    typeMask |= 1 << eventType(name).ordinal();
+                }
+            }
+        }
+        long fieldMask = EventField.ALL;
+        if (fields != null && !fields.isEmpty()) {
+            fieldMask = 0;
+            for (String name : fields) {
+                fieldMask |= EventField.fromName(name).bit();
+            }
+        }
+        if (typeMask == ALL_EVENT_TYPES && fieldMask == EventField.ALL) {
+            return ALL;
+        }
+        return new SubscriptionFilter(typeMask, fieldMask);
+    }
+
+    /**
+     * Events without a type pass only when every type is accepted.
+     */
+    boolean accepts(EventType eventType) {
+        return eventType == null ? eventTypes == ALL_EVENT_TYPES : (eventTypes & (1 << eventType.ordinal())) != 0;
+    }
+
+    boolean projects() {
+        return fields != EventField.ALL;
+    }
+
+    private static EventType eventType(String name) {
+        try {
+            return EventType.valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown event type: " + name.trim());
+        }
+    }
+}
@@ -0,0 +1,525 @@
+package com.pulsewire.dataplane.gateway;
+
+import com.pulsewire.core.instrument.InstrumentAttributes;
+import com.pulsewire.core.instrument.InstrumentRegistry;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+/**
+ * Inverted subscription index: instrument index to subscribed sessions, plus a separate set of
+ * wildcard ({@value #WILDCARD}) sessions.
+ *
+ * <p>Subscriber lists are copy-on-write arrays indexed by
+ * {@link com.pulsewire.core.model.MarketEvent#instrumentIndex()}, so fan-out reads one volatile
+ * slot and touches only interested sessions, whatever the number of connections. Writers copy the
+ * affected list under one of {@value #STRIPES} striped locks; subscription changes are rare
+ * compared with events, which never block on them.
+ *
+ * <p>Sessions can also subscribe to patterns: prefix and other globs over the instrument id, or
+ * {@code name=value} over its {@link InstrumentAttributes}, compiled into a {@link PatternMatcher}.
+ * The sessions matching an instrument are resolved on its first event and cached per instrument
+ * index, so steady-state fan-out costs the same as for plain subscriptions. The cache is checked
+ * against three versions: one bumped by pattern changes and one by attribute changes, which may
+ * affect any instrument, and one per instrument bumped by its id subscriptions, which pattern
+ * matches exclude. Subscribing by id therefore only invalidates that instrument's cache.
+ *
+ * <p>Subscribing never registers instruments: ids are looked up in the {@link InstrumentRegistry},
+ * and those it does not know yet wait in a per-session pending set, bounded at
+ * {@code maxPendingPerSession}, until the registry first assigns them an index. They are then
+ * attached like any other subscription, and the {@link AttachListener} told.
+ *
+ * <p>A session subscribed to an instrument through several of the wildcard, its id and patterns
+ * receives each event once.
+ *
+ * @param <S> session type
+ */
+public final class SubscriptionIndex<S> {
+
+    public static final String WILDCARD = "*";
+
+    static final int STRIPES = 64;
+
+    /** Instruments a session may wait on before the registry knows them. */
+    public static final int DEFAULT_MAX_PENDING_PER_SESSION = 1024;
+
+    private static final Subscriber<?>[] NONE = new Subscriber<?>[0];
+
+    private final InstrumentRegistry instrumentRegistry;
+    private final InstrumentAttributes instrumentAttributes;
+    private final int maxPendingPerSession;
+    private final AttachListener<S> attachListener;
+    private final AtomicReferenceArray<Subscriber<S>[]> byInstrument;
+    private final AtomicReferenceArray<Matched<S>> byPattern;
+    private final PatternMatcher<Subscriber<S>> patterns = new PatternMatcher<>();
+    private final AtomicLong patternVersion = new AtomicLong();
+    private final AtomicLongArray instrumentVersions;
+    private final LongAdder resolutions = new LongAdder();
+    private volatile boolean hasPatterns;
+    private final Object[] stripes = new Object[STRIPES];
+    private final Object wildcardLock = new Object();
+    private final Map<S, Subscriber<S>> sessions = new ConcurrentHashMap<>();
+    private final Map<String, Subscriber<S>[]> pendingById = new ConcurrentHashMap<>();
+    private volatile Subscriber<S>[] wildcard = none();
+
+    public SubscriptionIndex(InstrumentRegistry instrumentRegistry) {
+        this(instrumentRegistry, new InstrumentAttributes(instrumentRegistry));
+    }
+
+    public SubscriptionIndex(InstrumentRegistry instrumentRegistry, InstrumentAttributes instrumentAttributes) {
+        this(instrumentRegistry, instrumentAttributes, DEFAULT_MAX_PENDING_PER_SESSION, (session, instrumentId, instrumentIndex) -> {
+        });
+    }
+
+    /**
+     * @param maxPendingPerSession most instruments unknown to the registry one session may subscribe to
+     * @param attachListener       told when a pending subscription is attached to its instrument
+     */
+    public SubscriptionIndex(InstrumentRegistry instrumentRegistry, InstrumentAttributes instrumentAttributes,
+                             int maxPendingPerSession, AttachListener<S> attachListener) {
+        this.instrumentRegistry = instrumentRegistry;
+        this.instrumentAttributes = instrumentAttributes;
+        this.maxPendingPerSession = maxPendingPerSession;
+        this.attachListener = attachListener;
+        this.byInstrument = new AtomicReferenceArray<>(instrumentRegistry.capacity());
+        this.byPattern = new AtomicReferenceArray<>(instrumentRegistry.capacity());
+        this.instrumentVersions = new AtomicLongArray(instrumentRegistry.capacity());
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Object();
+        }
+        instrumentRegistry.addListener(this::attachPending);
+    }
+
+    /**
+     * Start tracking a session; subscriptions for unknown sessions are ignored.
+     */
+    public void addSession(S session) {
+        sessions.putIfAbsent(session, new Subscriber<>(session));
+    }
+
+    /**
+     * Drop a session and all of its subscriptions.
+     */
+    public void removeSession(S session) {
+        Subscriber<S> subscriber = sessions.remove(session);
+        if (subscriber == null) {
+            return;
+        }
+        synchronized (subscriber) {
+            subscriber.closed = true;
+            if (subscriber.wildcard) {
+                removeWildcard(subscriber);
+            }
+            for (String instrumentId : subscriber.instrumentIds) {
+                removeFromInstrument(instrumentRegistry.indexOf(instrumentId), subscriber);
+            }
+            subscriber.instrumentIds.clear();
+            for (String instrumentId : subscriber.pending) {
+                removePending(instrumentId, subscriber);
+            }
+            subscriber.pending.clear();
+            if (subscriber.patterns.isEmpty()) {
+                return;
+            }
+            for (String pattern : subscriber.patterns) {
+                removePattern(pattern, subscriber);
+            }
+            subscriber.patterns.clear();
+        }
+        patternVersion.incrementAndGet();
+    }
+
+    /**
+     * Subscribe a session to an instrument id, a pattern or {@value #WILDCARD}. An id the
+     * {@link InstrumentRegistry} does not know yet is kept pending until it is registered.
+     *
+     * @return true if the subscription was added, false if it existed or the session is unknown
+     * @throws IllegalStateException if the id is unknown and the session already waits on
+     *                               {@code maxPendingPerSession} instruments
+     * @throws IllegalArgumentException if the pattern is malformed
+     */
+    public boolean subscribe(S session, String instrumentId) {
+        Subscriber<S> subscriber = sessions.get(session);
+        if (subscriber == null) {
+            return false;
+        }
+        synchronized (subscriber) {
+            if (subscriber.closed) {
+                return false;
+            }
+            if (WILDCARD.equals(instrumentId)) {
+                if (subscriber.wildcard) {
+                    return false;
+                }
+                subscriber.wildcard = true;
+                synchronized (wildcardLock) {
+                    wildcard = append(wildcard, subscriber);
+                }
+                return true;
+            }
+            if (PatternMatcher.isPattern(instrumentId)) {
+                PatternMatcher.validate(instrumentId);
+                if (!subscriber.patterns.add(instrumentId)) {
+                    return false;
+                }
+                synchronized (patterns) {
+                    patterns.add(instrumentId, subscriber);
+                    hasPatterns = true;
+                }
+                patternVersion.incrementAndGet();
+                return true;
+            }
+            if (subscriber.instrumentIds.contains(instrumentId) || subscriber.pending.contains(instrumentId)) {
+                return false;
+            }
+            int instrumentIndex = instrumentRegistry.indexOf(instrumentId);
+            if (instrumentIndex < 0) {
+                return subscribePending(subscriber, instrumentId);
+            }
+            subscriber.instrumentIds.add(instrumentId);
+            addToInstrument(instrumentIndex, subscriber);
+            return true;
+        }
+    }
+
+    /**
+     * @return true if subscribing {@code session} to those of {@code instrumentIds} the registry does
+     *         not know would keep it within {@code maxPendingPerSession}
+     */
+    public boolean canWaitFor(S session, Collection<String> instrumentIds) {
+        Subscriber<S> subscriber = sessions.get(session);
+        if (subscriber == null) {
+            return true;
+        }
+        synchronized (subscriber) {
+            int pending = subscriber.pending.size();
+            for (String instrumentId : instrumentIds) {
+                if (instrumentRegistry.indexOf(instrumentId) < 0 && !subscriber.pending.contains(instrumentId)
+                        && ++pending > maxPendingPerSession) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * @return number of the session's subscriptions waiting for their instrument to be registered
+     */
+    public int pendingCount(S session) {
+        Subscriber<S> subscriber = sessions.get(session);
+        if (subscriber == null) {
+            return 0;
+        }
+        synchronized (subscriber) {
+            return subscriber.pending.size();
+        }
+    }
+
+    // Called holding the subscriber's monitor
+    private boolean subscribePending(Subscriber<S> subscriber, String instrumentId) {
+        if (subscriber.pending.size() >= maxPendingPerSession) {
+            throw new IllegalStateException("Session already waits on " + maxPendingPerSession
+                    + " unknown instruments; not subscribing to " + instrumentId);
+        }
+        subscriber.pending.add(instrumentId);
+        pendingById.compute(instrumentId, (id, waiting) -> append(waiting == null ? none() : waiting, subscriber));
+        // Registered since the lookup, before attachPending could see this subscriber
+        int instrumentIndex = instrumentRegistry.indexOf(instrumentId);
+        if (instrumentIndex >= 0) {
+            removePending(instrumentId, subscriber);
+            attach(subscriber, instrumentId, instrumentIndex);
+        }
+        return true;
+    }
+
+    /**
+     * Registry listener: attach the sessions waiting for {@code instrumentId}.
+     */
+    private void attachPending(String instrumentId, int instrumentIndex) {
+        Subscriber<S>[] waiting = pendingById.remove(instrumentId);
+        if (waiting == null) {
+            return;
+        }
+        for (Subscriber<S> subscriber : waiting) {
+            attach(subscriber, instrumentId, instrumentIndex);
+        }
+    }
+
+    private void attach(Subscriber<S> subscriber, String instrumentId, int instrumentIndex) {
+        synchronized (subscriber) {
+            if (subscriber.closed || !subscriber.pending.remove(instrumentId)) {
+                return;
+            }
+            // Told first, so the session is set up for the instrument before its first event is routed to it
+            attachListener.attached(subscriber.session, instrumentId, instrumentIndex);
+            subscriber.instrumentIds.add(instrumentId);
+            addToInstrument(instrumentIndex, subscriber);
+        }
+    }
+
+    /**
+     * @return true if the subscription was removed, false if it did not exist
+     */
+    public boolean unsubscribe(S session, String instrumentId) {
+        Subscriber<S> subscriber = sessions.get(session);
+        if (subscriber == null) {
+            return false;
+        }
+        synchronized (subscriber) {
+            if (WILDCARD.equals(instrumentId)) {
+                if (!subscriber.wildcard) {
+                    return false;
+                }
+                subscriber.wildcard = false;
+                removeWildcard(subscriber);
+                return true;
+            }
+            if (PatternMatcher.isPattern(instrumentId)) {
+                if (!subscriber.patterns.remove(instrumentId)) {
+                    return false;
+                }
+                removePattern(instrumentId, subscriber);
+                patternVersion.incrementAndGet();
+                return true;
+            }
+            if (subscriber.pending.remove(instrumentId)) {
+                removePending(instrumentId, subscriber);
+                return true;
+            }
+            if (!subscriber.instrumentIds.remove(instrumentId)) {
+                return false;
+            }
+            removeFromInstrument(instrumentRegistry.indexOf(instrumentId), subscriber);
+            return true;
+        }
+    }
+
+    /**
+     * Invoke {@code action} once for every session interested in the instrument at {@code instrumentIndex}.
+     *
+     * @return number of sessions visited
+     */
+    public <T> int forEachSubscriber(int instrumentIndex, BiConsumer<? super S, T> action, T argument) {
+        Subscriber<S>[] wildcards = wildcard;
+        for (Subscriber<S> subscriber : wildcards) {
+            action.accept(subscriber.session, argument);
+        }
+        int visited = wildcards.length;
+        if (instrumentIndex < 0 || instrumentIndex >= byInstrument.length()) {
+            return visited;
+        }
+        for (Subscriber<S> subscriber : subscribers(instrumentIndex)) {
+            // Wildcard sessions were already served above
+            if (!subscriber.wildcard) {
+                action.accept(subscriber.session, argument);
+                visited++;
+            }
+        }
+        if (hasPatterns) {
+            for (Subscriber<S> subscriber : matched(instrumentIndex)) {
+                if (!subscriber.wildcard) {
+                    action.accept(subscriber.session, argument);
+                    visited++;
+                }
+            }
+        }
+        return visited;
+    }
+
+    /**
+     * @return the session's current subscriptions, pending and wildcard included
+     */
+    public Set<String> subscriptions(S session) {
+        Subscriber<S> subscriber = sessions.get(session);
+        if (subscriber == null) {
+            return Set.of();
+        }
+        synchronized (subscriber) {
+            Set<String> subscriptions = new HashSet<>(subscriber.instrumentIds);
+            subscriptions.addAll(subscriber.pending);
+            subscriptions.addAll(subscriber.patterns);
+            if (subscriber.wildcard) {
+                subscriptions.add(WILDCARD);
+            }
+            return subscriptions;
+        }
+    }
+
+    /**
+     * @return number of sessions subscribed to the instrument, wildcard sessions excluded
+     */
+    public int subscriberCount(int instrumentIndex) {
+        return instrumentIndex < 0 || instrumentIndex >= byInstrument.length() ? 0 : subscribers(instrumentIndex).length;
+    }
+
+    public int wildcardCount() {
+        return wildcard.length;
+    }
+
+    /**
+     * @return number of times an instrument's pattern subscribers were resolved instead of cached
+     */
+    long resolutionCount() {
+        return resolutions.sum();
+    }
+
+    /**
+     * Sessions whose patterns match the instrument and that are not subscribed to it by id, from
+     * the cache while no pattern, no attributes and none of the instrument's id subscriptions
+     * changed since it was resolved.
+     */
+    private Subscriber<S>[] matched(int instrumentIndex) {
+        long currentPatternVersion = patternVersion.get();
+        long instrumentVersion = instrumentVersions.get(instrumentIndex);
+        long attributesVersion = instrumentAttributes.version();
+        Matched<S> matched = byPattern.get(instrumentIndex);
+        if (matched != null && matched.patternVersion == currentPatternVersion
+                && matched.instrumentVersion == instrumentVersion && matched.attributesVersion == attributesVersion) {
+            return matched.subscribers;
+        }
+        // Versions were read first: a change racing with this resolution leaves the result stale, never wrong
+        Subscriber<S>[] resolved = resolve(instrumentIndex);
+        resolutions.increment();
+        byPattern.set(instrumentIndex, new Matched<>(currentPatternVersion, instrumentVersion, attributesVersion, resolved));
+        return resolved;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Subscriber<S>[] resolve(int instrumentIndex) {
+        String instrumentId = instrumentRegistry.instrumentId(instrumentIndex);
+        if (instrumentId == null) {
+            return none();
+        }
+        Set<Subscriber<S>> byId = Collections.newSetFromMap(new IdentityHashMap<>());
+        Collections.addAll(byId, subscribers(instrumentIndex));
+        Set<Subscriber<S>> resolved = new LinkedHashSet<>();
+        synchronized (patterns) {
+            patterns.match(instrumentId, instrumentAttributes.get(instrumentIndex), subscriber -> {
+                if (!byId.contains(subscriber)) {
+                    resolved.add(subscriber);
+                }
+            });
+        }
+        return resolved.isEmpty() ? none() : resolved.toArray((Subscriber<S>[]) new Subscriber<?>[0]);
+    }
+
+    private void removePattern(String pattern, Subscriber<S> subscriber) {
+        synchronized (patterns) {
+            patterns.remove(pattern, subscriber);
+            hasPatterns = !patterns.isEmpty();
+        }
+    }
+
+    private void removeWildcard(Subscriber<S> subscriber) {
+        synchronized (wildcardLock) {
+            wildcard = remove(wildcard, subscriber);
+        }
+    }
+
+    private void removePending(String instrumentId, Subscriber<S> subscriber) {
+        pendingById.computeIfPresent(instrumentId, (id, waiting) -> {
+            Subscriber<S>[] remaining = remove(waiting, subscriber);
+            return remaining.length == 0 ? null : remaining;
+        });
+    }
+
+    private void addToInstrument(int instrumentIndex, Subscriber<S> subscriber) {
+        synchronized (stripe(instrumentIndex)) {
+            byInstrument.set(instrumentIndex, append(subscribers(instrumentIndex), subscriber));
+        }
+        // Pattern matches exclude sessions subscribed by id, so this instrument's have to be resolved again
+        instrumentVersions.incrementAndGet(instrumentIndex);
+    }
+
+    private void removeFromInstrument(int instrumentIndex, Subscriber<S> subscriber) {
+        if (instrumentIndex < 0) {
+            return;
+        }
+        synchronized (stripe(instrumentIndex)) {
+            byInstrument.set(instrumentIndex, remove(subscribers(instrumentIndex), subscriber));
+        }
+        instrumentVersions.incrementAndGet(instrumentIndex);
+    }
+
+    private Subscriber<S>[] subscribers(int instrumentIndex) {
+        Subscriber<S>[] subscribers = byInstrument.get(instrumentIndex);
+        return subscribers == null ? none() : subscribers;
+    }
+
+    private Object stripe(int instrumentIndex) {
+        return stripes[instrumentIndex & (STRIPES - 1)];
+    }
+
+    private static <S> Subscriber<S>[] append(Subscriber<S>[] subscribers, Subscriber<S> subscriber) {
+        Subscriber<S>[] copy = Arrays.copyOf(subscribers, subscribers.length + 1);
+        copy[subscribers.length] = subscriber;
+        return copy;
+    }
+
+    private static <S> Subscriber<S>[] remove(Subscriber<S>[] subscribers, Subscriber<S> subscriber) {
+        for (int i = 0; i < subscribers.length; i++) {
+            if (subscribers[i] == subscriber) {
+                if (subscribers.length == 1) {
+                    return none();
+                }
+                Subscriber<S>[] copy = Arrays.copyOf(subscribers, subscribers.length - 1);
+                System.arraycopy(subscribers, i + 1, copy, i, subscribers.length - i - 1);
+                return copy;
+            }
+        }
+        return subscribers;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <S> Subscriber<S>[] none() {
+        return (Subscriber<S>[]) NONE;
+    }
+
+    /**
+     * Told when a session's pending subscription is attached to the instrument's new index, holding
+     * the session's subscription lock and before any event for it is routed to the session.
+     *
+     * @param <S> session type
+     */
+    @FunctionalInterface
+    public interface AttachListener<S> {
+        void attached(S session, String instrumentId, int instrumentIndex);
+    }
+
+    /**
+     * Pattern subscribers of one instrument, resolved at the given versions.
+     */
+    private record Matched<S>(long patternVersion, long instrumentVersion, long attributesVersion,
+                              Subscriber<S>[] subscribers) {
+    }
+
+    /**
+     * Per-session state; mutated only while holding its own monitor.
+     */
+    private static final class Subscriber<S> {
+        private final S session;
+        private final Set<String> instrumentIds = new HashSet<>();
+        // Ids the registry did not know when subscribed to
+        private final Set<String> pending = new HashSet<>();
+        private final Set<String> patterns = new HashSet<>();
+        private volatile boolean wildcard;
+        private boolean closed;
+
+        Subscriber(S session) {
+            this.session = session;
+        }
+    }
+}
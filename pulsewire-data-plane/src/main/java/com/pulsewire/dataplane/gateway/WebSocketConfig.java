@@ -1,19 +1,41 @@
 package com.pulsewire.dataplane.gateway;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.websocket.server.ServerEndpointConfig;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.socket.config.annotation.EnableWebSocket;
 import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
 import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+import org.springframework.web.socket.server.standard.StandardWebSocketUpgradeStrategy;
+import org.springframework.web.socket.server.support.DefaultHandshakeHandler;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * WebSocket configuration for the data plane gateway.
+ * The gateway negotiates its sub-protocols itself; permessage-deflate is only negotiated when enabled.
  */
 @Configuration
 @EnableWebSocket
 public class WebSocketConfig implements WebSocketConfigurer {
 
+    static final String EXTENSIONS_HEADER = "Sec-WebSocket-Extensions";
+    static final String PERMESSAGE_DEFLATE = "permessage-deflate";
+
     private final WebSocketGateway webSocketGateway;
 
+    @Value("${pulsewire.gateway.permessage-deflate:false}")
+    private boolean permessageDeflate;
+
     public WebSocketConfig(WebSocketGateway webSocketGateway) {
         this.webSocketGateway = webSocketGateway;
     }
@@ -21,6 +43,69 @@ public class WebSocketConfig implements WebSocketConfigurer {
     @Override
     public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
         registry.addHandler(webSocketGateway, "/ws/market-data")
+                .setHandshakeHandler(new DefaultHandshakeHandler(new GatewayUpgradeStrategy(permessageDeflate)))
                 .setAllowedOrigins("*");
     }
+
+    /**
+     * Hides a client's permessage-deflate offer unless compression is enabled. Tomcat negotiates
+     * its installed extensions on its own, so the offer has to be removed from the request itself.
+     */
+    static class GatewayUpgradeStrategy extends StandardWebSocketUpgradeStrategy {
+
+        private final boolean permessageDeflate;
+
+        GatewayUpgradeStrategy(boolean permessageDeflate) {
+            this.permessageDeflate = permessageDeflate;
+        }
+
+        @Override
+        protected void upgradeHttpToWebSocket(HttpServletRequest request, HttpServletResponse response,
+                                              ServerEndpointConfig endpointConfig, Map<String, String> pathParams)
+                throws Exception {
+            super.upgradeHttpToWebSocket(permessageDeflate ? request : new WithoutDeflate(request), response,
+                    endpointConfig, pathParams);
+        }
+    }
+
+    /**
+     * Request view with permessage-deflate removed from the extension offers.
+     */
+    static class WithoutDeflate extends HttpServletRequestWrapper {
+
+        WithoutDeflate(HttpServletRequest request) {
+            super(request);
+        }
+
+        @Override
+        public String getHeader(String name) {
+            String value = super.getHeader(name);
+            if (value == null || !EXTENSIONS_HEADER.equalsIgnoreCase(name)) {
+                return value;
+            }
+            String filtered = withoutDeflate(value);
+            return filtered.isEmpty() ? null : filtered;
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            Enumeration<String> values = super.getHeaders(name);
+            if (values == null || !EXTENSIONS_HEADER.equalsIgnoreCase(name)) {
+                return values;
+            }
+            List<String> filtered = Collections.list(values).stream()
+                    .map(WithoutDeflate::withoutDeflate)
+                    .filter(value -> !value.isEmpty())
+                    .toList();
+            return Collections.enumeration(filtered);
+        }
+
+        static String withoutDeflate(String offers) {
+            return Arrays.stream(offers.split(","))
+                    .map(String::trim)
+                    .filter(offer -> !offer.isEmpty())
+                    .filter(offer -> !offer.split(";", 2)[0].trim().toLowerCase(Locale.ROOT).equals(PERMESSAGE_DEFLATE))
+                    .collect(Collectors.joining(", "));
+        }
+    }
 }
@@ -1,41 +1,112 @@
 package com.pulsewire.dataplane.gateway;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.pulsewire.core.backbone.BackboneConsumer;
+import com.pulsewire.core.codec.BinaryEventCodec;
+import com.pulsewire.core.instrument.InstrumentAttributes;
+import com.pulsewire.core.instrument.InstrumentRegistry;
 import com.pulsewire.core.model.MarketEvent;
+import com.pulsewire.core.time.PulseClock;
+import com.pulsewire.dataplane.cache.LastValueCache;
+import com.pulsewire.dataplane.metrics.LatencyMetrics;
+import com.pulsewire.dataplane.metrics.LatencyStage;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.SubProtocolCapable;
 import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
 import org.springframework.web.socket.handler.TextWebSocketHandler;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 /**
  * WebSocket gateway that streams market events to connected clients.
+ * Fan-out goes through a {@link SubscriptionIndex}, so each event only visits interested sessions,
+ * and each event is encoded once into an {@link OutboundFrame} shared by all of them. Delivery is
+ * asynchronous: every session has a bounded {@link SessionOutbound} queue drained by its own
+ * virtual thread, so a slow client never stalls the backbone or other clients.
+ *
+ * <p>Clients choose the event encoding with the Sec-WebSocket-Protocol header: {@value #BINARY_PROTOCOL}
+ * for compact binary frames, or {@value #JSON_PROTOCOL} / no header for JSON text. Subscription
+ * commands and replies are JSON text either way. A subscribe command can also switch the session to
+ * micro-batched frames, and one command can subscribe to many instruments and patterns at once,
+ * see {@link SubscriptionRequest}.
+ *
+ * <p>Subscribing to an instrument immediately sends its latest trade and quote from the
+ * {@link LastValueCache}, after the subscription reply, then streams live events. Every event frame
+ * carries the instrument's sequence number. The session is subscribed to the instrument and the
+ * snapshot queued while no other frame can enter the session's queue, so every live event is
+ * either in the snapshot or queued behind it, and a client that drops events whose {@code seq} is
+ * not above the last one it applied for the instrument sees no gaps and no duplicates. Wildcard
+ * and pattern subscriptions get no snapshot.
  */
 @Component
-public class WebSocketGateway extends TextWebSocketHandler {
+public class WebSocketGateway extends TextWebSocketHandler implements SubProtocolCapable, MeterBinder {
 
     private static final Logger log = LoggerFactory.getLogger(WebSocketGateway.class);
     private static final String CANONICAL_TOPIC = "canonical.events";
 
+    /** Sec-WebSocket-Protocol value selecting binary event frames: an 8-byte little-endian sequence number, then the {@link BinaryEventCodec} layout. */
+    public static final String BINARY_PROTOCOL = "pulsewire.binary.v1";
+    /** Sec-WebSocket-Protocol value selecting JSON text frames, also used when no sub-protocol is requested. */
+    public static final String JSON_PROTOCOL = "pulsewire.json.v1";
+
     private final BackboneConsumer consumer;
     private final ObjectMapper objectMapper;
-    private final Set<WebSocketSession> sessions = new CopyOnWriteArraySet<>();
-    private final Map<WebSocketSession, Set<String>> subscriptions = new ConcurrentHashMap<>();
+    private final BinaryEventCodec binaryCodec = new BinaryEventCodec();
+    private final PulseClock clock;
+    private final LatencyMetrics latencyMetrics;
+    private final InstrumentRegistry instrumentRegistry;
+    private final LastValueCache lastValueCache;
+    private final OutboundQueueSettings outboundSettings;
+    private final SubscriptionIndex<SessionOutbound> subscriptions;
+    private final Map<WebSocketSession, SessionOutbound> sessions = new ConcurrentHashMap<>();
+    private final BiConsumer<SessionOutbound, OutboundFrame> eventSender = this::sendEvent;
+    private final Consumer<MarketEvent> onEventWritten = this::eventWritten;
+    private final LongAdder encodeCount = new LongAdder();
+    private final SessionOutbound.Totals outboundTotals = new SessionOutbound.Totals();
+    private final ScheduledExecutorService conflationTimer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "ws-conflation");
+        t.setDaemon(true);
+        return t;
+    });
 
-    public WebSocketGateway(BackboneConsumer consumer, ObjectMapper objectMapper) {
+    public WebSocketGateway(BackboneConsumer consumer, ObjectMapper objectMapper, PulseClock clock,
+                            LatencyMetrics latencyMetrics, InstrumentRegistry instrumentRegistry,
+                            InstrumentAttributes instrumentAttributes, LastValueCache lastValueCache,
+                            OutboundQueueSettings outboundSettings) {
         this.consumer = consumer;
         this.objectMapper = objectMapper;
+        this.clock = clock;
+        this.latencyMetrics = latencyMetrics;
+        this.instrumentRegistry = instrumentRegistry;
+        this.lastValueCache = lastValueCache;
+        this.outboundSettings = outboundSettings;
+        this.subscriptions = new SubscriptionIndex<>(instrumentRegistry, instrumentAttributes,
+                SubscriptionIndex.DEFAULT_MAX_PENDING_PER_SESSION, SessionOutbound::attach);
     }
 
     @PostConstruct
@@ -47,20 +118,33 @@ public class WebSocketGateway extends TextWebSocketHandler {
     @PreDestroy
     public void stop() {
         consumer.unsubscribe(CANONICAL_TOPIC);
+        sessions.values().forEach(SessionOutbound::close);
+        conflationTimer.shutdownNow();
         log.info("WebSocketGateway stopped");
     }
 
+    @Override
+    public List<String> getSubProtocols() {
+        return List.of(BINARY_PROTOCOL, JSON_PROTOCOL);
+    }
+
     @Override
     public void afterConnectionEstablished(WebSocketSession session) {
-        sessions.add(session);
-        subscriptions.put(session, ConcurrentHashMap.newKeySet());
-        log.info("WebSocket connection established: {}", session.getId());
+        SessionOutbound outbound = new SessionOutbound(session, outboundSettings, outboundTotals, onEventWritten,
+                conflationTimer);
+        sessions.put(session, outbound);
+        subscriptions.addSession(outbound);
+        outbound.start();
+        log.info("WebSocket connection established: {} ({})", session.getId(), outbound.encoding());
     }
 
     @Override
     public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
-        sessions.remove(session);
-        subscriptions.remove(session);
+        SessionOutbound outbound = sessions.remove(session);
+        if (outbound != null) {
+            subscriptions.removeSession(outbound);
+            outbound.close();
+        }
         log.info("WebSocket connection closed: {} with status {}", session.getId(), status);
     }
 
@@ -70,50 +154,161 @@ public class WebSocketGateway extends TextWebSocketHandler {
             String payload = message.getPayload();
             SubscriptionRequest request = objectMapper.readValue(payload, SubscriptionRequest.class);
 
-            Set<String> sessionSubs = subscriptions.get(session);
-            if (sessionSubs == null) return;
+            SessionOutbound outbound = sessions.get(session);
+            if (outbound == null) return;
 
             if ("subscribe".equalsIgnoreCase(request.action())) {
-                sessionSubs.add(request.instrumentId());
-                log.info("Session {} subscribed to {}", session.getId(), request.instrumentId());
-                sendMessage(session, new SubscriptionResponse("subscribed", request.instrumentId()));
+                subscribe(outbound, request);
             } else if ("unsubscribe".equalsIgnoreCase(request.action())) {
-                sessionSubs.remove(request.instrumentId());
-                log.info("Session {} unsubscribed from {}", session.getId(), request.instrumentId());
-                sendMessage(session, new SubscriptionResponse("unsubscribed", request.instrumentId()));
+                unsubscribe(outbound, request);
             }
         } catch (Exception e) {
             log.error("Error handling message from session {}", session.getId(), e);
         }
     }
 
-    private void broadcastEvent(MarketEvent event) {
-        String instrumentId = event.instrumentId();
+    private void subscribe(SessionOutbound outbound, SubscriptionRequest request) {
+        // Everything that can reject the request is checked before any subscription changes
+        SubscriptionFilter filter = request.filter();
+        List<String> targets = request.targets();
+        boolean patterns = false;
+        for (String target : targets) {
+            if (PatternMatcher.isPattern(target)) {
+                PatternMatcher.validate(target);
+                patterns = true;
+            }
+        }
+        // Client ids never grow the registry; ids it does not know yet wait until an instrument registers them
+        Map<String, Integer> knownIds = new LinkedHashMap<>();
+        Set<String> unknownIds = new LinkedHashSet<>();
+        for (String target : targets) {
+            if (!SubscriptionIndex.WILDCARD.equals(target) && !PatternMatcher.isPattern(target)) {
+                int instrumentIndex = instrumentRegistry.indexOf(target);
+                if (instrumentIndex >= 0) {
+                    knownIds.put(target, instrumentIndex);
+                } else {
+                    unknownIds.add(target);
+                }
+            }
+        }
+        if (!subscriptions.canWaitFor(outbound, unknownIds)) {
+            throw new IllegalArgumentException("Session " + outbound.session().getId() + " would wait on more than "
+                    + SubscriptionIndex.DEFAULT_MAX_PENDING_PER_SESSION + " unknown instruments");
+        }
+        int[] instrumentIndexes = knownIds.values().stream().mapToInt(Integer::intValue).toArray();
 
-        for (WebSocketSession session : sessions) {
-            Set<String> subs = subscriptions.get(session);
-            // Send if subscribed to this instrument or has wildcard subscription "*"
-            if (subs != null && (subs.contains(instrumentId) || subs.contains("*"))) {
-                sendEvent(session, event);
+        // Set before subscribing so the first event is already filtered and conflated; a plain re-subscribe clears both
+        if (patterns || targets.contains(SubscriptionIndex.WILDCARD)) {
+            outbound.wildcardFilter(filter);
+        }
+        outbound.filter(instrumentIndexes, filter);
+        for (int instrumentIndex : instrumentIndexes) {
+            outbound.conflate(instrumentIndex, request.conflateMsOrZero());
+        }
+        for (String instrumentId : unknownIds) {
+            outbound.await(instrumentId, filter, request.conflateMsOrZero());
+        }
+        if (request.batchMaxEvents() != null || request.batchMaxMicros() != null) {
+            outbound.batch(request.batchSettings());
+        }
+
+        // Replied before subscribing, so the reply goes out ahead of the snapshots and events it announces
+        sendMessage(outbound, SubscriptionResponse.of("subscribed", request));
+        // Instruments first, so no pattern of this request streams one of them before its snapshot
+        knownIds.forEach((instrumentId, instrumentIndex) -> outbound.exclusively(() -> {
+            subscriptions.subscribe(outbound, instrumentId);
+            sendSnapshot(outbound, instrumentIndex);
+        }));
+        for (String target : targets) {
+            if (!knownIds.containsKey(target)) {
+                subscriptions.subscribe(outbound, target);
+            }
+        }
+        for (String instrumentId : unknownIds) {
+            // Registered between the lookup above and subscribing, so subscribe did not attach it
+            int instrumentIndex = instrumentRegistry.indexOf(instrumentId);
+            if (instrumentIndex >= 0) {
+                outbound.attach(instrumentId, instrumentIndex);
             }
         }
+
+        String sessionId = outbound.session().getId();
+        if (request.isBulk()) {
+            log.info("Session {} subscribed to {} instruments and patterns", sessionId, targets.size());
+        } else {
+            log.info("Session {} subscribed to {}", sessionId, request.instrumentId());
+        }
     }
 
-    private void sendEvent(WebSocketSession session, MarketEvent event) {
-        try {
-            String json = objectMapper.writeValueAsString(event);
-            session.sendMessage(new TextMessage(json));
-        } catch (IOException e) {
-            log.error("Error sending event to session {}", session.getId(), e);
+    private void unsubscribe(SessionOutbound outbound, SubscriptionRequest request) {
+        List<String> targets = request.targets();
+        for (String target : targets) {
+            subscriptions.unsubscribe(outbound, target);
+            outbound.stopWaiting(target);
+        }
+        Set<String> remaining = subscriptions.subscriptions(outbound);
+        if (remaining.stream().noneMatch(target -> SubscriptionIndex.WILDCARD.equals(target) || PatternMatcher.isPattern(target))) {
+            outbound.wildcardFilter(SubscriptionFilter.ALL);
+        }
+        int[] instrumentIndexes = targets.stream()
+                .filter(target -> !SubscriptionIndex.WILDCARD.equals(target) && !PatternMatcher.isPattern(target))
+                .mapToInt(instrumentRegistry::indexOf)
+                .filter(instrumentIndex -> instrumentIndex >= 0)
+                .toArray();
+        outbound.filter(instrumentIndexes, null);
+        for (int instrumentIndex : instrumentIndexes) {
+            outbound.conflate(instrumentIndex, 0);
         }
+
+        String sessionId = outbound.session().getId();
+        if (request.isBulk()) {
+            log.info("Session {} unsubscribed from {} instruments and patterns", sessionId, targets.size());
+        } else {
+            log.info("Session {} unsubscribed from {}", sessionId, request.instrumentId());
+        }
+        sendMessage(outbound, SubscriptionResponse.of("unsubscribed", request));
     }
 
-    private void sendMessage(WebSocketSession session, Object message) {
+    private void broadcastEvent(MarketEvent event) {
+        // Canonical events from another node carry that node's index, which may be another instrument here
+        int instrumentIndex = instrumentRegistry.reconcile(event.instrumentId(), event.instrumentIndex());
+        if (instrumentIndex != event.instrumentIndex()) {
+            event = event.withInstrumentIndex(instrumentIndex);
+        }
+        // Sequenced and cached before fan-out, so a session subscribing concurrently gets it in either the snapshot or the stream
+        long sequence = lastValueCache.update(event);
+        // Sessions subscribed to this instrument or to the wildcard "*"; the event is encoded once for all of them
+        subscriptions.forEachSubscriber(event.instrumentIndex(), eventSender,
+                new OutboundFrame(event, sequence, objectMapper, binaryCodec, encodeCount));
+    }
+
+    /**
+     * Queue the cached latest values of {@code instrumentIndex} ahead of the live updates still to
+     * come. Called with the session's queue locked, right after subscribing it to the instrument.
+     */
+    private void sendSnapshot(SessionOutbound outbound, int instrumentIndex) {
+        lastValueCache.snapshot(instrumentIndex, entry -> outbound.offer(
+                new OutboundFrame(entry.event(), entry.sequence(), objectMapper, binaryCodec, encodeCount)));
+    }
+
+    private void sendEvent(SessionOutbound outbound, OutboundFrame frame) {
+        outbound.deliver(frame);
+    }
+
+    /**
+     * Called on a session's writer thread once an event has been written to the socket.
+     */
+    private void eventWritten(MarketEvent event) {
+        latencyMetrics.record(LatencyStage.PUBLISH_TO_WRITE, event, event.publishTimestampNanos(), clock.epochNanos());
+    }
+
+    private void sendMessage(SessionOutbound outbound, Object message) {
         try {
             String json = objectMapper.writeValueAsString(message);
-            session.sendMessage(new TextMessage(json));
+            // Through the outbound, as its writer may be sending an event
+            outbound.send(new TextMessage(json));
         } catch (IOException e) {
-            log.error("Error sending message to session {}", session.getId(), e);
+            log.error("Error sending message to session {}", outbound.session().getId(), e);
         }
     }
 
@@ -121,7 +316,164 @@ public class WebSocketGateway extends TextWebSocketHandler {
         return sessions.size();
     }
 
+    /**
+     * @return events encoded for delivery; at most one per event and encoding
+     */
+    public long getEncodeCount() {
+        return encodeCount.sum();
+    }
+
+    /**
+     * @return event messages written to sessions
+     */
+    public long getSendCount() {
+        return outboundTotals.sent.sum();
+    }
+
+    /**
+     * @return frames written to sessions; fewer than {@link #getSendCount} when sessions batch events
+     */
+    public long getFrameCount() {
+        return outboundTotals.frames.sum();
+    }
+
+    /**
+     * @return event messages discarded by the drop-oldest and conflate overflow policies
+     */
+    public long getDropCount() {
+        return outboundTotals.dropped.sum();
+    }
+
+    /**
+     * @return event messages replaced in place by a newer one for the same instrument
+     */
+    public long getConflationCount() {
+        return outboundTotals.conflated.sum();
+    }
+
+    /**
+     * @return sessions closed by the disconnect overflow policy
+     */
+    public long getOverflowDisconnectCount() {
+        return outboundTotals.disconnected.sum();
+    }
+
+    /**
+     * @return messages waiting in all outbound queues
+     */
+    public long getQueuedCount() {
+        long queued = 0;
+        for (SessionOutbound outbound : sessions.values()) {
+            queued += outbound.depth();
+        }
+        return queued;
+    }
+
+    public List<SessionStats> getSessionStats() {
+        return sessions.values().stream().map(SessionOutbound::stats).toList();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("pulsewire.gateway.encodes", this, WebSocketGateway::getEncodeCount)
+                .description("Events encoded for WebSocket delivery")
+                .register(registry);
+        FunctionCounter.builder("pulsewire.gateway.sends", this, WebSocketGateway::getSendCount)
+                .description("Event messages written to WebSocket sessions")
+                .register(registry);
+        FunctionCounter.builder("pulsewire.gateway.frames", this, WebSocketGateway::getFrameCount)
+                .description("WebSocket frames written to sessions, each carrying one event or a batch")
+                .register(registry);
+        Gauge.builder("pulsewire.gateway.sessions", this, WebSocketGateway::getActiveConnections)
+                .register(registry);
+        Gauge.builder("pulsewire.gateway.queue.depth", this, WebSocketGateway::getQueuedCount)
+                .description("Messages waiting in all session outbound queues")
+                .register(registry);
+        FunctionCounter.builder("pulsewire.gateway.drops", this, WebSocketGateway::getDropCount)
+                .register(registry);
+        FunctionCounter.builder("pulsewire.gateway.conflations", this, WebSocketGateway::getConflationCount)
+                .register(registry);
+        FunctionCounter.builder("pulsewire.gateway.overflow.disconnects", this, WebSocketGateway::getOverflowDisconnectCount)
+                .register(registry);
+        FunctionTimer.builder("pulsewire.gateway.send", outboundTotals, t -> t.frames.sum(), t -> t.sendNanos.sum(),
+                        TimeUnit.NANOSECONDS)
+                .description("Time spent writing frames to sessions")
+                .register(registry);
+    }
+
     // DTO records
-    public record SubscriptionRequest(String action, String instrumentId) {}
-    public record SubscriptionResponse(String status, String instrumentId) {}
+
+    /**
+     * Client subscription command for {@code instrumentId}, for every entry of {@code instrumentIds},
+     * or both; a bulk command is answered with a single reply. Each entry is an instrument id, the
+     * wildcard {@code "*"}, a glob such as {@code "BTC-*"} or {@code "*.L"}, or an attribute pattern
+     * such as {@code "venue=XNAS"} or {@code "assetClass=EQUITY"}. Patterns also match instruments
+     * that appear later, and like the wildcard they get no snapshot. Ids no feed has registered yet
+     * are held, up to {@value SubscriptionIndex#DEFAULT_MAX_PENDING_PER_SESSION} per session, and
+     * stream from the instrument's first event.
+     *
+     * <p>{@code conflateMs}, if positive, asks for at most one update per
+     * interval for the instrument, always the latest; wildcard subscriptions are never conflated.
+     *
+     * <p>{@code batchMaxEvents} and {@code batchMaxMicros} apply to the whole session: events are then
+     * sent as arrays of up to {@code batchMaxEvents}, each held back at most {@code batchMaxMicros}
+     * for the batch to fill. Setting either turns batching on, the other taking its default;
+     * {@code batchMaxEvents} of 1 turns it off again.
+     *
+     * <p>{@code eventTypes} restricts the subscription to comma-separated event types, for example
+     * {@code "TRADE,QUOTE"}, and {@code fields} to the listed event properties, for example
+     * {@code ["bidPrice", "askPrice"]}; {@code instrumentId}, {@code eventType} and {@code seq} are
+     * always sent. Events and properties filtered out are never encoded for the session. Fields
+     * apply to JSON frames only. Wildcard and pattern subscriptions share one filter, the one most
+     * recently given for any of them.
+     */
+    public record SubscriptionRequest(String action, String instrumentId, List<String> instrumentIds, Integer conflateMs,
+                                      Integer batchMaxEvents, Integer batchMaxMicros,
+                                      String eventTypes, List<String> fields) {
+
+        List<String> targets() {
+            List<String> targets = new ArrayList<>(instrumentIds == null ? 1 : instrumentIds.size() + 1);
+            if (instrumentId != null) {
+                targets.add(instrumentId);
+            }
+            if (instrumentIds != null) {
+                targets.addAll(instrumentIds);
+            }
+            return targets;
+        }
+
+        boolean isBulk() {
+            return instrumentIds != null;
+        }
+
+        int conflateMsOrZero() {
+            return conflateMs == null ? 0 : conflateMs;
+        }
+
+        BatchSettings batchSettings() {
+            return BatchSettings.of(batchMaxEvents, batchMaxMicros);
+        }
+
+        SubscriptionFilter filter() {
+            return SubscriptionFilter.of(eventTypes, fields);
+        }
+    }
+
+    /**
+     * Reply to a subscription command; {@code count} is set only for bulk commands and is the
+     * number of ids and patterns in the command.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record SubscriptionResponse(String status, String instrumentId, Integer count) {
+
+        public SubscriptionResponse(String status, String instrumentId) {
+            this(status, instrumentId, null);
+        }
+
+        static SubscriptionResponse of(String status, SubscriptionRequest request) {
+            return request.isBulk()
+                    ? new SubscriptionResponse(status, request.instrumentId(), request.targets().size())
+                    : new SubscriptionResponse(status, request.instrumentId());
+        }
+    }
 }
@@ -0,0 +1,40 @@
+package com.pulsewire.dataplane.metrics;
+
+import com.pulsewire.core.backbone.InMemoryBackbone;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Queue depth of every partition of the in-memory backbone, as the
+ * {@code pulsewire.backbone.partition.depth} gauge tagged with topic and partition. Topics are
+ * picked up as they are first subscribed to. Binds nothing on other backbones or in synchronous mode.
+ */
+@Component
+public class BackboneMetrics implements MeterBinder {
+
+    private final ObjectProvider<InMemoryBackbone> backbone;
+
+    public BackboneMetrics(ObjectProvider<InMemoryBackbone> backbone) {
+        this.backbone = backbone;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        InMemoryBackbone inMemory = backbone.getIfAvailable();
+        if (inMemory == null) {
+            return;
+        }
+        inMemory.addPartitionedTopicListener((topic, partitions) -> {
+            for (int partition = 0; partition < partitions; partition++) {
+                int p = partition;
+                Gauge.builder("pulsewire.backbone.partition.depth", inMemory, b -> b.getPartitionQueueDepth(topic, p))
+                        .tags("topic", topic, "partition", Integer.toString(partition))
+                        .description("Events queued for a backbone partition's worker")
+                        .register(registry);
+            }
+        });
+    }
+}
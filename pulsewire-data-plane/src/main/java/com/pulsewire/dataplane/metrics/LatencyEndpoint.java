@@ -0,0 +1,26 @@
+package com.pulsewire.dataplane.metrics;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Actuator endpoint ({@code /actuator/latency}) listing per-stage latency percentiles since startup.
+ */
+@Component
+@Endpoint(id = "latency")
+public class LatencyEndpoint {
+
+    private final LatencyMetrics latencyMetrics;
+
+    public LatencyEndpoint(LatencyMetrics latencyMetrics) {
+        this.latencyMetrics = latencyMetrics;
+    }
+
+    @ReadOperation
+    public List<LatencySnapshot> latency() {
+        return latencyMetrics.snapshot();
+    }
+}
@@ -0,0 +1,338 @@
+package com.pulsewire.dataplane.metrics;
+
+import com.pulsewire.core.instrument.InstrumentRegistry;
+import com.pulsewire.core.model.MarketEvent;
+import com.pulsewire.core.model.MarketEvent.EventType;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.HdrHistogram.SingleWriterRecorder;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongSupplier;
+
+/**
+ * HdrHistogram latency recording per {@link LatencyStage}, event type and feed.
+ *
+ * <p>Every recording thread owns a {@link SingleWriterRecorder} per cell, found through a
+ * thread-local array, so {@link #record} takes no locks and allocates nothing once a thread has
+ * seen a cell. Readers drain the per-thread recorders into a cumulative histogram per cell when
+ * percentiles are requested, from {@link #snapshot()} or from the Micrometer meters. Recorders of
+ * threads that have died are drained one last time and dropped.
+ *
+ * <p>{@link #snapshot()} and the timers are cumulative since startup. The percentile and max gauges
+ * cover a sliding window instead, the last one to two {@link #WINDOW_NANOS windows}, so they
+ * follow a regression however long the process has been up.
+ *
+ * <p>Stages recorded from a thread per WebSocket session ({@link LatencyStage#sharedWriter()}) would
+ * leave a recorder behind for every session that ever connected, so their recordings go to one
+ * multi-writer {@link Recorder} per cell instead.
+ *
+ * <p>Events carry no feed, so adapters {@link #bindFeed bind} their instruments to a feed name up
+ * front and the feed is looked up by instrument index; anything unbound counts as {@link #UNKNOWN_FEED}.
+ */
+@Component
+public class LatencyMetrics implements MeterBinder {
+
+    public static final String UNKNOWN_FEED = "unknown";
+    public static final int MAX_FEEDS = 32;
+
+    /** Latencies above this are clamped rather than dropped. */
+    static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+    /** Two digits keeps values within 1% while each histogram stays around 30 KB. */
+    static final int SIGNIFICANT_DIGITS = 2;
+    /** Rotation period of the histograms behind the percentile and max gauges. */
+    static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    private static final LatencyStage[] STAGES = LatencyStage.values();
+    private static final EventType[] EVENT_TYPES = EventType.values();
+    private static final int CELL_COUNT = STAGES.length * EVENT_TYPES.length * MAX_FEEDS;
+
+    private final Map<String, Integer> feedOrdinals = new ConcurrentHashMap<>();
+    private final String[] feedNames = new String[MAX_FEEDS];
+    private final int[] feedByInstrument;
+    private final AtomicReferenceArray<Cell> cells = new AtomicReferenceArray<>(CELL_COUNT);
+    private final ThreadLocal<SingleWriterRecorder[]> threadRecorders =
+            ThreadLocal.withInitial(() -> new SingleWriterRecorder[CELL_COUNT]);
+    private final long windowNanos;
+    private final LongSupplier nanoTime;
+    private volatile MeterRegistry meterRegistry;
+
+    public LatencyMetrics(InstrumentRegistry instrumentRegistry) {
+        this(instrumentRegistry, WINDOW_NANOS, System::nanoTime);
+    }
+
+    LatencyMetrics(InstrumentRegistry instrumentRegistry, long windowNanos, LongSupplier nanoTime) {
+        this.feedByInstrument = new int[instrumentRegistry.capacity()];
+        this.windowNanos = windowNanos;
+        this.nanoTime = nanoTime;
+        registerFeed(UNKNOWN_FEED);
+    }
+
+    /**
+     * @return the ordinal of {@code feed}, assigning the next free one on first sight
+     * @throws IllegalStateException if more than {@link #MAX_FEEDS} feeds are registered
+     */
+    public synchronized int registerFeed(String feed) {
+        Integer existing = feedOrdinals.get(feed);
+        if (existing != null) {
+            return existing;
+        }
+        int ordinal = feedOrdinals.size();
+        if (ordinal >= MAX_FEEDS) {
+            throw new IllegalStateException("Too many feeds for latency metrics, max is " + MAX_FEEDS);
+        }
+        feedNames[ordinal] = feed;
+        feedOrdinals.put(feed, ordinal);
+        return ordinal;
+    }
+
+    /**
+     * Attribute events for the given instruments to {@code feed}. Call before the adapter publishes;
+     * the backbone hand-off makes the binding visible to downstream stages.
+     */
+    public void bindFeed(String feed, int[] instrumentIndexes) {
+        int ordinal = registerFeed(feed);
+        for (int instrumentIndex : instrumentIndexes) {
+            if (instrumentIndex >= 0 && instrumentIndex < feedByInstrument.length) {
+                feedByInstrument[instrumentIndex] = ordinal;
+            }
+        }
+    }
+
+    /**
+     * Record {@code toNanos - fromNanos} for the event's type and feed. Events without a type or
+     * with either timestamp unset are skipped; negative latencies from clock skew count as zero.
+     */
+    public void record(LatencyStage stage, MarketEvent event, long fromNanos, long toNanos) {
+        if (event.eventType() == null || fromNanos == MarketEvent.NO_TIMESTAMP || toNanos == MarketEvent.NO_TIMESTAMP) {
+            return;
+        }
+        record(stage, event.eventType(), feedOf(event.instrumentIndex()), toNanos - fromNanos);
+    }
+
+    void record(LatencyStage stage, EventType eventType, int feed, long latencyNanos) {
+        int cellIndex = (stage.ordinal() * EVENT_TYPES.length + eventType.ordinal()) * MAX_FEEDS + feed;
+        long clamped = Math.max(0, Math.min(latencyNanos, HIGHEST_TRACKABLE_NANOS));
+        if (stage.sharedWriter()) {
+            cell(cellIndex).shared.recordValue(clamped);
+            return;
+        }
+        SingleWriterRecorder[] recorders = threadRecorders.get();
+        SingleWriterRecorder recorder = recorders[cellIndex];
+        if (recorder == null) {
+            recorder = cell(cellIndex).newWriter();
+            recorders[cellIndex] = recorder;
+        }
+        recorder.recordValue(clamped);
+    }
+
+    /**
+     * @return per-thread recorders held across all cells, one per cell for each thread that has
+     *         recorded a stage without a {@link LatencyStage#sharedWriter() shared writer} and was
+     *         still alive when the cell was last read
+     */
+    public int writerCount() {
+        int count = 0;
+        for (int i = 0; i < CELL_COUNT; i++) {
+            Cell cell = cells.get(i);
+            if (cell != null) {
+                count += cell.writers.size();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return percentiles for every cell that has recorded at least once
+     */
+    public List<LatencySnapshot> snapshot() {
+        List<LatencySnapshot> snapshots = new ArrayList<>();
+        for (int i = 0; i < CELL_COUNT; i++) {
+            Cell cell = cells.get(i);
+            if (cell != null) {
+                snapshots.add(cell.snapshot());
+            }
+        }
+        return snapshots;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.meterRegistry = registry;
+        for (int i = 0; i < CELL_COUNT; i++) {
+            Cell cell = cells.get(i);
+            if (cell != null) {
+                cell.register(registry);
+            }
+        }
+    }
+
+    private int feedOf(int instrumentIndex) {
+        return instrumentIndex >= 0 && instrumentIndex < feedByInstrument.length ? feedByInstrument[instrumentIndex] : 0;
+    }
+
+    private Cell cell(int cellIndex) {
+        Cell cell = cells.get(cellIndex);
+        if (cell != null) {
+            return cell;
+        }
+        int feed = cellIndex % MAX_FEEDS;
+        int typeAndStage = cellIndex / MAX_FEEDS;
+        Cell created = new Cell(STAGES[typeAndStage / EVENT_TYPES.length],
+                EVENT_TYPES[typeAndStage % EVENT_TYPES.length], feedNames[feed], windowNanos, nanoTime);
+        if (!cells.compareAndSet(cellIndex, null, created)) {
+            return cells.get(cellIndex);
+        }
+        MeterRegistry registry = meterRegistry;
+        if (registry != null) {
+            created.register(registry);
+        }
+        return created;
+    }
+
+    /**
+     * One stage, event type and feed: the per-thread writers, or the shared one for stages with a
+     * shared writer, plus the cumulative and windowed histograms they drain into.
+     */
+    private static final class Cell {
+        private static final double[] PERCENTILES = {50.0, 99.0, 99.9};
+
+        private final LatencyStage stage;
+        private final EventType eventType;
+        private final String feed;
+        private final List<Writer> writers = new CopyOnWriteArrayList<>();
+        private final Recorder shared;
+        private final Histogram cumulative = new Histogram(HIGHEST_TRACKABLE_NANOS, SIGNIFICANT_DIGITS);
+        private final Histogram interval = new Histogram(HIGHEST_TRACKABLE_NANOS, SIGNIFICANT_DIGITS);
+        private final Histogram windowed = new Histogram(HIGHEST_TRACKABLE_NANOS, SIGNIFICANT_DIGITS);
+        private final long windowNanos;
+        private final LongSupplier nanoTime;
+
+        // Guarded by this; current collects the open window, previous holds the one before it
+        private Histogram current = new Histogram(HIGHEST_TRACKABLE_NANOS, SIGNIFICANT_DIGITS);
+        private Histogram previous = new Histogram(HIGHEST_TRACKABLE_NANOS, SIGNIFICANT_DIGITS);
+        private long windowStart;
+
+        Cell(LatencyStage stage, EventType eventType, String feed, long windowNanos, LongSupplier nanoTime) {
+            this.stage = stage;
+            this.eventType = eventType;
+            this.feed = feed;
+            this.shared = stage.sharedWriter() ? new Recorder(1, HIGHEST_TRACKABLE_NANOS, SIGNIFICANT_DIGITS) : null;
+            this.windowNanos = windowNanos;
+            this.nanoTime = nanoTime;
+            this.windowStart = nanoTime.getAsLong();
+        }
+
+        SingleWriterRecorder newWriter() {
+            SingleWriterRecorder recorder = new SingleWriterRecorder(1, HIGHEST_TRACKABLE_NANOS, SIGNIFICANT_DIGITS);
+            writers.add(new Writer(Thread.currentThread(), recorder));
+            return recorder;
+        }
+
+        synchronized LatencySnapshot snapshot() {
+            drain();
+            return new LatencySnapshot(stage.tag(), eventType.name(), feed, cumulative.getTotalCount(),
+                    cumulative.getValueAtPercentile(50.0), cumulative.getValueAtPercentile(99.0),
+                    cumulative.getValueAtPercentile(99.9), cumulative.getMaxValue());
+        }
+
+        synchronized long count() {
+            drain();
+            return cumulative.getTotalCount();
+        }
+
+        synchronized double totalNanos() {
+            drain();
+            return cumulative.getMean() * cumulative.getTotalCount();
+        }
+
+        /**
+         * @return the percentile over the current and previous window
+         */
+        synchronized double valueAt(double percentile) {
+            drain();
+            windowed.reset();
+            windowed.add(previous);
+            windowed.add(current);
+            return percentile >= 100.0 ? windowed.getMaxValue() : windowed.getValueAtPercentile(percentile);
+        }
+
+        private void drain() {
+            rotate();
+            for (Writer writer : writers) {
+                // Checked before draining: a thread seen dead records nothing after this drain
+                boolean dead = !writer.owner().isAlive();
+                add(writer.recorder());
+                if (dead) {
+                    writers.remove(writer);
+                }
+            }
+            if (shared != null) {
+                add(shared);
+            }
+        }
+
+        private void add(SingleWriterRecorder recorder) {
+            recorder.getIntervalHistogramInto(interval);
+            cumulative.add(interval);
+            current.add(interval);
+        }
+
+        private void add(Recorder recorder) {
+            recorder.getIntervalHistogramInto(interval);
+            cumulative.add(interval);
+            current.add(interval);
+        }
+
+        /**
+         * Close the open window once it is a period old, and drop both when the cell has not been
+         * read for two periods. Values are counted in the window open when they are drained.
+         */
+        private void rotate() {
+            long now = nanoTime.getAsLong();
+            long elapsed = now - windowStart;
+            if (elapsed < windowNanos) {
+                return;
+            }
+            Histogram closed = current;
+            current = previous;
+            previous = closed;
+            current.reset();
+            if (elapsed >= 2 * windowNanos) {
+                previous.reset();
+            }
+            windowStart = now;
+        }
+
+        void register(MeterRegistry registry) {
+            Tags tags = Tags.of("stage", stage.tag(), "eventType", eventType.name(), "feed", feed);
+            FunctionTimer.builder("pulsewire.latency", this, Cell::count, Cell::totalNanos, TimeUnit.NANOSECONDS)
+                    .tags(tags)
+                    .description("Pipeline stage latency")
+                    .register(registry);
+            for (double percentile : PERCENTILES) {
+                TimeGauge.builder("pulsewire.latency.percentile", this, TimeUnit.NANOSECONDS, c -> c.valueAt(percentile))
+                        .tags(tags.and("phi", Double.toString(percentile / 100.0)))
+                        .register(registry);
+            }
+            TimeGauge.builder("pulsewire.latency.max", this, TimeUnit.NANOSECONDS, c -> c.valueAt(100.0))
+                    .tags(tags)
+                    .register(registry);
+        }
+    }
+
+    private record Writer(Thread owner, SingleWriterRecorder recorder) {
+    }
+}
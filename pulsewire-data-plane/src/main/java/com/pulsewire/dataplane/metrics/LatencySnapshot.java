@@ -0,0 +1,15 @@
+package com.pulsewire.dataplane.metrics;
+
+/**
+ * Cumulative latency percentiles for one stage, event type and feed, in nanoseconds.
+ */
+public record LatencySnapshot(
+        String stage,
+        String eventType,
+        String feed,
+        long count,
+        long p50Nanos,
+        long p99Nanos,
+        long p999Nanos,
+        long maxNanos) {
+}
@@ -0,0 +1,39 @@
+package com.pulsewire.dataplane.metrics;
+
+/**
+ * Pipeline segments whose latency is recorded by {@link LatencyMetrics}.
+ */
+public enum LatencyStage {
+
+    /** Exchange timestamp to adapter receive timestamp. */
+    EXCHANGE_TO_RECEIVE("exchange_to_receive", false),
+
+    /** Adapter receive timestamp to normalizer publish timestamp. */
+    RECEIVE_TO_PUBLISH("receive_to_publish", false),
+
+    /** Normalizer publish timestamp to the gateway's WebSocket write completing. */
+    PUBLISH_TO_WRITE("publish_to_write", true);
+
+    private final String tag;
+    private final boolean sharedWriter;
+
+    LatencyStage(String tag, boolean sharedWriter) {
+        this.tag = tag;
+        this.sharedWriter = sharedWriter;
+    }
+
+    /**
+     * @return the name used in metric tags and endpoint output
+     */
+    public String tag() {
+        return tag;
+    }
+
+    /**
+     * @return whether the stage is recorded from a thread per session rather than a fixed set of
+     *         threads, so its recordings share one multi-writer recorder per cell
+     */
+    public boolean sharedWriter() {
+        return sharedWriter;
+    }
+}
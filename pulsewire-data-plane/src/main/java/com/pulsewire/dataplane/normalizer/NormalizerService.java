@@ -2,8 +2,13 @@ package com.pulsewire.dataplane.normalizer;
 
 import com.pulsewire.core.backbone.BackboneConsumer;
 import com.pulsewire.core.backbone.BackbonePublisher;
+import com.pulsewire.core.backbone.KeyedEvent;
+import com.pulsewire.core.instrument.InstrumentRegistry;
 import com.pulsewire.core.model.MarketEvent;
 import com.pulsewire.core.model.MarketEvent.EventType;
+import com.pulsewire.core.time.PulseClock;
+import com.pulsewire.dataplane.metrics.LatencyMetrics;
+import com.pulsewire.dataplane.metrics.LatencyStage;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
@@ -11,12 +16,13 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Normalizer service that consumes raw events, validates them,
- * and publishes canonical events.
+ * and publishes canonical events. Canonical events always carry an instrument index.
  */
 @Service
 public class NormalizerService {
@@ -29,21 +35,28 @@ public class NormalizerService {
 
     private final BackboneConsumer consumer;
     private final BackbonePublisher publisher;
+    private final InstrumentRegistry instrumentRegistry;
+    private final PulseClock clock;
+    private final LatencyMetrics latencyMetrics;
     private final AtomicLong normalizedCount = new AtomicLong(0);
     private final AtomicLong errorCount = new AtomicLong(0);
 
     @Value("${pulsewire.normalizer.schema-version:1}")
     private int schemaVersion;
 
-    public NormalizerService(BackboneConsumer consumer, BackbonePublisher publisher) {
+    public NormalizerService(BackboneConsumer consumer, BackbonePublisher publisher,
+                             InstrumentRegistry instrumentRegistry, PulseClock clock, LatencyMetrics latencyMetrics) {
         this.consumer = consumer;
         this.publisher = publisher;
+        this.instrumentRegistry = instrumentRegistry;
+        this.clock = clock;
+        this.latencyMetrics = latencyMetrics;
     }
 
     @PostConstruct
     public void start() {
-        consumer.subscribe(RAW_TRADES_TOPIC, this::normalizeEvent);
-        consumer.subscribe(RAW_QUOTES_TOPIC, this::normalizeEvent);
+        consumer.subscribeBatch(RAW_TRADES_TOPIC, this::normalizeBatch);
+        consumer.subscribeBatch(RAW_QUOTES_TOPIC, this::normalizeBatch);
         log.info("NormalizerService started, subscribing to raw topics");
     }
 
@@ -54,44 +67,73 @@ public class NormalizerService {
         log.info("NormalizerService stopped");
     }
 
-    private void normalizeEvent(MarketEvent rawEvent) {
+    /**
+     * Normalizes a whole consumer batch and republishes the valid events with one batch publish.
+     */
+    private void normalizeBatch(List<MarketEvent> rawEvents) {
+        List<KeyedEvent> canonicals = new ArrayList<>(rawEvents.size());
+        long publishTimestamp = clock.epochNanos();
+        for (MarketEvent rawEvent : rawEvents) {
+            MarketEvent canonical = normalize(rawEvent, publishTimestamp);
+            if (canonical != null) {
+                canonicals.add(KeyedEvent.byInstrument(canonical));
+            }
+        }
+        if (canonicals.isEmpty()) {
+            return;
+        }
+
+        try {
+            publisher.publishBatch(CANONICAL_TOPIC, canonicals);
+        } catch (Exception e) {
+            errorCount.addAndGet(canonicals.size());
+            log.error("Error publishing batch of {} canonical events", canonicals.size(), e);
+            return;
+        }
+
+        long before = normalizedCount.getAndAdd(canonicals.size());
+        long count = before + canonicals.size();
+        if (count / 1000 != before / 1000) {
+            log.info("Normalized {} events, {} errors", count, errorCount.get());
+        }
+    }
+
+    /**
+     * Validates a raw event and stamps it as canonical.
+     *
+     * @return the canonical event, or null if the raw event was rejected
+     */
+    private MarketEvent normalize(MarketEvent rawEvent, long publishTimestamp) {
         try {
             // Validate event
             if (!validate(rawEvent)) {
                 errorCount.incrementAndGet();
-                log.warn("Validation failed for event: {}", rawEvent.eventId());
-                return;
+                log.warn("Validation failed for event: {}", rawEvent != null ? rawEvent.eventId() : null);
+                return null;
             }
 
             // Create canonical event with publish timestamp
-            MarketEvent canonical = new MarketEvent(
-                    rawEvent.eventId(),
-                    rawEvent.instrumentId(),
-                    rawEvent.eventType(),
-                    rawEvent.exchangeTimestamp(),
-                    rawEvent.receiveTimestamp(),
-                    Instant.now(),  // publish timestamp
-                    schemaVersion,
-                    rawEvent.payload()
-            );
-
-            // Publish to canonical topic
-            publisher.publish(CANONICAL_TOPIC, canonical.instrumentId(), canonical);
-
-            long count = normalizedCount.incrementAndGet();
-            if (count % 1000 == 0) {
-                log.info("Normalized {} events, {} errors", count, errorCount.get());
+            MarketEvent canonical = rawEvent.withPublishTimestamp(publishTimestamp, schemaVersion);
+            // Adapters normally stamp the index, but one stamped in another process may be another instrument here
+            int instrumentIndex = instrumentRegistry.reconcile(canonical.instrumentId(), canonical.instrumentIndex());
+            if (instrumentIndex != canonical.instrumentIndex()) {
+                canonical = canonical.withInstrumentIndex(instrumentIndex);
             }
-
+            latencyMetrics.record(LatencyStage.EXCHANGE_TO_RECEIVE, canonical,
+                    canonical.exchangeTimestampNanos(), canonical.receiveTimestampNanos());
+            latencyMetrics.record(LatencyStage.RECEIVE_TO_PUBLISH, canonical,
+                    canonical.receiveTimestampNanos(), publishTimestamp);
+            return canonical;
         } catch (Exception e) {
             errorCount.incrementAndGet();
             log.error("Error normalizing event: {}", rawEvent.eventId(), e);
+            return null;
         }
     }
 
     private boolean validate(MarketEvent event) {
         if (event == null) return false;
-        if (event.eventId() == null || event.eventId().isBlank()) return false;
+        if (!event.hasEventId()) return false;
         if (event.instrumentId() == null || event.instrumentId().isBlank()) return false;
         if (event.eventType() == null) return false;
         if (event.payload() == null) return false;
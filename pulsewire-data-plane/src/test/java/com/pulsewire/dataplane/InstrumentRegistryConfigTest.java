@@ -0,0 +1,62 @@
+package com.pulsewire.dataplane;
+
+import com.pulsewire.core.instrument.InstrumentRegistry;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InstrumentRegistryConfigTest {
+
+    private HttpServer controlPlane;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        controlPlane = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        controlPlane.createContext(InstrumentRegistryConfig.REGISTRY_PATH, exchange -> {
+            byte[] body = "[\"MSFT\",\"AAPL\",\"GOOGL\"]".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        controlPlane.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        controlPlane.stop(0);
+    }
+
+    @Test
+    @DisplayName("Should register the control plane's instruments in its index order")
+    void shouldSeedInControlPlaneOrder() {
+        InstrumentRegistry registry = new InstrumentRegistry(16);
+
+        InstrumentRegistryConfig.seed(registry, "http://localhost:" + controlPlane.getAddress().getPort());
+
+        assertEquals(List.of("MSFT", "AAPL", "GOOGL"), registry.instrumentIds());
+    }
+
+    @Test
+    @DisplayName("Should start empty when the control plane cannot be reached")
+    void shouldStartEmptyWithoutControlPlane() {
+        int port = controlPlane.getAddress().getPort();
+        controlPlane.stop(0);
+        InstrumentRegistry registry = new InstrumentRegistry(16);
+
+        InstrumentRegistryConfig.seed(registry, "http://localhost:" + port);
+
+        assertEquals(0, registry.size());
+    }
+}
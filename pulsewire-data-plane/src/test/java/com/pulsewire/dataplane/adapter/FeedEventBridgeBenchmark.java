@@ -0,0 +1,129 @@
+package com.pulsewire.dataplane.adapter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pulsewire.core.backbone.BackbonePublisher;
+import com.pulsewire.core.id.SnowflakeEventIdGenerator;
+import com.pulsewire.core.instrument.InstrumentRegistry;
+import com.pulsewire.core.model.FixedPoint;
+import com.pulsewire.dataplane.adapter.spi.FeedAdapter;
+import com.pulsewire.dataplane.adapter.spi.FeedEventHandler;
+import com.pulsewire.dataplane.adapter.spi.RawFeedMessage;
+import com.pulsewire.dataplane.adapter.spi.TransportType;
+import com.pulsewire.dataplane.adapter.synthetic.SyntheticPayloadParser;
+import com.pulsewire.dataplane.adapter.synthetic.SyntheticQuote;
+import com.pulsewire.dataplane.adapter.synthetic.SyntheticTrade;
+import com.pulsewire.dataplane.adapter.synthetic.TradeSide;
+import com.pulsewire.dataplane.metrics.LatencyMetrics;
+
+import java.time.Instant;
+import java.util.Random;
+
+/**
+ * Single-thread throughput of {@link FeedEventBridge} turning {@code SyntheticTrade} and
+ * {@code SyntheticQuote} payloads into published raw events, against a Jackson tree parse of the
+ * same payloads and against the parser alone. Not a unit test; run with
+ * {@code java -cp <test-classpath> com.pulsewire.dataplane.adapter.FeedEventBridgeBenchmark}.
+ */
+public final class FeedEventBridgeBenchmark {
+
+    private static final String[] SYMBOLS = {"AAPL", "GOOGL", "MSFT", "AMZN", "META", "NVDA", "TSLA", "JPM"};
+    private static final int MESSAGES = 1 << 16;
+    private static final int ROUNDS = 20;
+
+    private static long sink;
+
+    private FeedEventBridgeBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Random random = new Random(42);
+        Instant now = Instant.now();
+        RawFeedMessage[] messages = new RawFeedMessage[MESSAGES];
+        for (int i = 0; i < MESSAGES; i++) {
+            String symbol = SYMBOLS[random.nextInt(SYMBOLS.length)];
+            double mid = 100 + random.nextInt(10_000) / 100.0;
+            Instant timestamp = now.plusNanos(i * 1000L);
+            byte[] payload = i % 6 == 0
+                    ? new SyntheticTrade(symbol, mid, 100L * (1 + random.nextInt(100)), timestamp, "T" + i,
+                            TradeSide.BUY).toBytes()
+                    : new SyntheticQuote(symbol, mid - 0.01, 100, mid + 0.01, 200, timestamp).toBytes();
+            messages[i] = new RawFeedMessage(payload, timestamp, i);
+        }
+
+        InstrumentRegistry registry = new InstrumentRegistry(64);
+        BackbonePublisher publisher = (topic, key, event) -> sink += event.instrumentIndex();
+        FeedEventBridge bridge = new FeedEventBridge("benchmark", new IdleAdapter(), new SnowflakeEventIdGenerator(0),
+                registry, new LatencyMetrics(registry));
+        bridge.start(publisher);
+        ObjectMapper objectMapper = new ObjectMapper();
+        SyntheticPayloadParser parser = new SyntheticPayloadParser(registry, instrumentIndex -> { });
+
+        System.out.printf("%d messages per round, 1 trade per 5 quotes%n", MESSAGES);
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (RawFeedMessage message : messages) {
+                JsonNode node = objectMapper.readTree(message.payload());
+                JsonNode price = node.has("price") ? node.get("price") : node.get("bidPrice");
+                sink += FixedPoint.toMantissa(price.decimalValue(), 4) + node.get("symbol").asText().length();
+            }
+            long treeNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (RawFeedMessage message : messages) {
+                parser.parse(message.payload());
+                sink += parser.priceScale() + parser.instrumentIndex();
+            }
+            long parserNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (RawFeedMessage message : messages) {
+                bridge.onMessage("benchmark", message);
+            }
+            long bridgeNanos = System.nanoTime() - start;
+
+            if (round == ROUNDS - 1) {
+                System.out.printf("jackson tree only: %,12.0f msgs/s per core  (%.0f ns/msg)%n",
+                        MESSAGES * 1e9 / treeNanos, (double) treeNanos / MESSAGES);
+                System.out.printf("parser only:       %,12.0f msgs/s per core  (%.0f ns/msg)%n",
+                        MESSAGES * 1e9 / parserNanos, (double) parserNanos / MESSAGES);
+                System.out.printf("bridge:            %,12.0f msgs/s per core  (%.0f ns/msg)%n",
+                        MESSAGES * 1e9 / bridgeNanos, (double) bridgeNanos / MESSAGES);
+            }
+        }
+        System.out.println("rejected=" + bridge.getRejectedCount() + " sink=" + sink);
+    }
+
+    /**
+     * Adapter that never emits; the benchmark feeds the bridge directly.
+     */
+    private static final class IdleAdapter implements FeedAdapter {
+
+        @Override
+        public String getId() {
+            return "idle";
+        }
+
+        @Override
+        public TransportType getTransportType() {
+            return TransportType.VENDOR_SDK;
+        }
+
+        @Override
+        public void connect(FeedEventHandler handler) {
+        }
+
+        @Override
+        public void disconnect() {
+        }
+
+        @Override
+        public boolean isConnected() {
+            return true;
+        }
+
+        @Override
+        public void sendHeartbeat() {
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.pulsewire.dataplane.adapter;
+
+import com.pulsewire.core.backbone.BackbonePublisher;
+import com.pulsewire.core.id.SnowflakeEventIdGenerator;
+import com.pulsewire.core.instrument.InstrumentRegistry;
+import com.pulsewire.core.model.FixedQuote;
+import com.pulsewire.core.model.FixedTrade;
+import com.pulsewire.core.model.MarketEvent;
+import com.pulsewire.core.model.MarketEvent.EventType;
+import com.pulsewire.core.time.PulseClock;
+import com.pulsewire.dataplane.adapter.capture.CaptureIndex;
+import com.pulsewire.dataplane.adapter.capture.CaptureReplayAdapter;
+import com.pulsewire.dataplane.adapter.capture.CaptureReplayFeedConfig;
+import com.pulsewire.dataplane.adapter.capture.CaptureTap;
+import com.pulsewire.dataplane.adapter.capture.CaptureTapConfig;
+import com.pulsewire.dataplane.adapter.spi.FeedAdapter;
+import com.pulsewire.dataplane.adapter.spi.FeedEventHandler;
+import com.pulsewire.dataplane.adapter.spi.RawFeedMessage;
+import com.pulsewire.dataplane.adapter.synthetic.SyntheticQuote;
+import com.pulsewire.dataplane.adapter.synthetic.SyntheticTrade;
+import com.pulsewire.dataplane.adapter.synthetic.TradeSide;
+import com.pulsewire.dataplane.metrics.LatencyMetrics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class FeedEventBridgeTest {
+
+    private static final Instant EXCHANGE_TIME = Instant.parse("2026-02-06T10:30:00.000001Z");
+    private static final Instant RECEIVE_TIME = Instant.parse("2026-02-06T10:30:00.000250Z");
+
+    private FeedAdapter adapter;
+    private BackbonePublisher publisher;
+    private InstrumentRegistry instrumentRegistry;
+    private FeedEventBridge bridge;
+
+    @BeforeEach
+    void setUp() {
+        adapter = mock(FeedAdapter.class);
+        when(adapter.getId()).thenReturn("feed-1");
+        publisher = mock(BackbonePublisher.class);
+        instrumentRegistry = new InstrumentRegistry(16);
+        bridge = new FeedEventBridge("test-feed", adapter, new SnowflakeEventIdGenerator(1), instrumentRegistry,
+                new LatencyMetrics(instrumentRegistry));
+        bridge.start(publisher);
+    }
+
+    private MarketEvent published(String topic) {
+        ArgumentCaptor<MarketEvent> captor = ArgumentCaptor.forClass(MarketEvent.class);
+        verify(publisher).publish(eq(topic), anyString(), captor.capture());
+        return captor.getValue();
+    }
+
+    @Test
+    @DisplayName("Should connect the adapter on start and disconnect it on stop")
+    void shouldDriveAdapterLifecycle() {
+        verify(adapter).connect(bridge);
+        assertTrue(bridge.isRunning());
+
+        bridge.stop();
+        bridge.stop();
+
+        verify(adapter, times(1)).disconnect();
+        assertFalse(bridge.isRunning());
+    }
+
+    @Test
+    @DisplayName("Should connect the adapter through a capture tap when capture is configured")
+    void shouldCaptureThroughTap(@TempDir Path captures) throws IOException {
+        FeedAdapter captured = mock(FeedAdapter.class);
+        when(captured.getId()).thenReturn("feed-2");
+        FeedEventBridge capturing = new FeedEventBridge("captured-feed", captured, new SnowflakeEventIdGenerator(1),
+                instrumentRegistry, new LatencyMetrics(instrumentRegistry),
+                CaptureTapConfig.builder().directory(captures).build());
+        capturing.start(publisher);
+
+        ArgumentCaptor<FeedEventHandler> handler = ArgumentCaptor.forClass(FeedEventHandler.class);
+        verify(captured).connect(handler.capture());
+        CaptureTap tap = assertInstanceOf(CaptureTap.class, handler.getValue());
+        SyntheticTrade trade = new SyntheticTrade("AAPL", 185.25, 500, EXCHANGE_TIME, "T1", TradeSide.SELL);
+        tap.onMessage("feed-2", new RawFeedMessage(trade.toBytes(), RECEIVE_TIME, 7));
+        capturing.stop();
+
+        published("raw.trades");
+        assertEquals(1, tap.getCapturedCount());
+        CaptureIndex.Entry first = CaptureIndex.read(captures.resolve("captured-feed")).get(0);
+        assertEquals(7, first.sequenceNumber());
+        assertEquals(PulseClock.toEpochNanos(RECEIVE_TIME), first.timestampNanos());
+    }
+
+    @Test
+    @DisplayName("Should publish replayed messages from the mapped capture without copying them")
+    void shouldReplayCaptureWithoutCopying(@TempDir Path captures) throws Exception {
+        try (CaptureTap tap = new CaptureTap(mock(FeedEventHandler.class),
+                CaptureTapConfig.builder().directory(captures).build())) {
+            for (int i = 0; i < 3; i++) {
+                SyntheticTrade trade = new SyntheticTrade("AAPL", 185.25 + i, 500, EXCHANGE_TIME, "T" + i, TradeSide.BUY);
+                tap.onMessage("recorder", new RawFeedMessage(trade.toBytes(), RECEIVE_TIME, i));
+            }
+        }
+        CaptureReplayAdapter replay = new CaptureReplayAdapter(
+                CaptureReplayFeedConfig.builder().file(captures).speed(0).build());
+        FeedEventBridge replaying = spy(new FeedEventBridge("replay-feed", replay, new SnowflakeEventIdGenerator(1),
+                instrumentRegistry, new LatencyMetrics(instrumentRegistry)));
+
+        replaying.start(publisher);
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (!replay.isReplayComplete() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        replaying.stop();
+
+        assertTrue(replay.isReplayComplete());
+        verify(publisher, times(3)).publish(eq("raw.trades"), eq("AAPL"), any(MarketEvent.class));
+        assertEquals(3, replaying.getPublishedCount());
+        // The default onMessageView copies each view with toRawFeedMessage and hands it to onMessage
+        verify(replaying, times(3)).onMessageView(anyString(), any());
+        verify(replaying, never()).onMessage(anyString(), any());
+    }
+
+    @Test
+    @DisplayName("Should publish trades to raw.trades as fixed-point events")
+    void shouldPublishTrade() {
+        SyntheticTrade trade = new SyntheticTrade("AAPL", 185.25, 500, EXCHANGE_TIME, "T1", TradeSide.SELL);
+        bridge.onMessage("feed-1", new RawFeedMessage(trade.toBytes(), RECEIVE_TIME, 1));
+
+        MarketEvent event = published("raw.trades");
+        assertEquals("AAPL", event.instrumentId());
+        assertEquals(instrumentRegistry.indexOf("AAPL"), event.instrumentIndex());
+        assertEquals(EventType.TRADE, event.eventType());
+        assertEquals(new FixedTrade(1_852_500, 500, 4, 0, null), event.payload());
+        assertEquals(PulseClock.toEpochNanos(EXCHANGE_TIME), event.exchangeTimestampNanos());
+        assertEquals(PulseClock.toEpochNanos(RECEIVE_TIME), event.receiveTimestampNanos());
+        assertTrue(event.hasEventId());
+        assertEquals(1, bridge.getPublishedCount());
+    }
+
+    @Test
+    @DisplayName("Should publish quotes to raw.quotes as fixed-point events")
+    void shouldPublishQuote() {
+        SyntheticQuote quote = new SyntheticQuote("MSFT", 374.5, 100, 375.5, 300, EXCHANGE_TIME);
+        bridge.onMessage("feed-1", new RawFeedMessage(quote.toBytes(), RECEIVE_TIME, 2));
+
+        MarketEvent event = published("raw.quotes");
+        assertEquals(EventType.QUOTE, event.eventType());
+        assertEquals(new FixedQuote(3_745_000, 100, 3_755_000, 300, 4, 0), event.payload());
+    }
+
+    @Test
+    @DisplayName("Should count and drop payloads it cannot parse")
+    void shouldRejectMalformedPayload() {
+        bridge.onMessage("feed-1", new RawFeedMessage("{\"type\":\"TRADE\"".getBytes(StandardCharsets.UTF_8),
+                RECEIVE_TIME, 3));
+
+        verify(publisher, never()).publish(anyString(), anyString(), any());
+        assertEquals(1, bridge.getRejectedCount());
+        assertEquals(0, bridge.getPublishedCount());
+    }
+}
@@ -0,0 +1,368 @@
+package com.pulsewire.dataplane.adapter.capture;
+
+import com.pulsewire.core.time.PulseClock;
+import com.pulsewire.core.time.VirtualPulseClock;
+import com.pulsewire.dataplane.adapter.spi.FeedEventHandler;
+import com.pulsewire.dataplane.adapter.spi.RawFeedMessage;
+import com.pulsewire.dataplane.adapter.spi.RawFeedMessageView;
+import com.pulsewire.dataplane.adapter.spi.TransportType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CaptureReplayAdapterTest {
+
+    private static final long T0 = 1_700_000_000_000_000_000L;
+    private static final long MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @TempDir
+    Path dir;
+
+    private CaptureReplayAdapter adapter;
+
+    @AfterEach
+    void tearDown() {
+        if (adapter != null) {
+            adapter.disconnect();
+        }
+    }
+
+    /**
+     * Writes records {@code 0..count-1} with payload "message-i", {@code i * spacingNanos} after
+     * {@link #T0}, and sequence number {@code 100 + i}.
+     */
+    private Path capture(String name, int count, long spacingNanos) throws IOException {
+        List<byte[]> payloads = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            payloads.add(("message-" + i).getBytes(StandardCharsets.US_ASCII));
+        }
+        return capture(name, payloads, spacingNanos, 0);
+    }
+
+    private Path capture(String name, List<byte[]> payloads, long spacingNanos, int trailingBytes) throws IOException {
+        int size = CaptureFormat.FILE_HEADER_LENGTH + trailingBytes;
+        for (byte[] payload : payloads) {
+            size += CaptureFormat.recordLength(payload.length);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        CaptureFormat.writeFileHeader(buffer);
+        int offset = CaptureFormat.FILE_HEADER_LENGTH;
+        for (int i = 0; i < payloads.size(); i++) {
+            byte[] payload = payloads.get(i);
+            offset = CaptureFormat.writeRecord(buffer, offset, payload, 0, payload.length, T0 + i * spacingNanos, 100 + i);
+        }
+        Path file = dir.resolve(name);
+        Files.write(file, buffer.array());
+        return file;
+    }
+
+    private CaptureReplayAdapter replay(CaptureReplayFeedConfig config, FeedEventHandler handler) {
+        adapter = new CaptureReplayAdapter(config);
+        adapter.connect(handler);
+        return adapter;
+    }
+
+    private static CaptureReplayFeedConfig maxSpeed(Path file) {
+        return CaptureReplayFeedConfig.builder().file(file).speed(0).build();
+    }
+
+    @Nested
+    @DisplayName("Replay")
+    class Replay {
+
+        @Test
+        @DisplayName("Should emit every record in order with its payload, timestamp and sequence number")
+        void shouldEmitRecordsInOrder() throws Exception {
+            Path file = capture("ordered.pwcf", 1_000, MILLI);
+            RecordingHandler handler = new RecordingHandler();
+
+            CaptureReplayAdapter adapter = replay(maxSpeed(file), handler);
+
+            assertTrue(handler.awaitCompletion(adapter));
+            assertEquals(TransportType.FILE, adapter.getTransportType());
+            assertEquals(1_000, adapter.getEmittedCount());
+            for (int i = 0; i < 1_000; i++) {
+                RawFeedMessage message = handler.messages.get(i);
+                assertEquals("message-" + i, new String(message.payload(), StandardCharsets.US_ASCII));
+                assertEquals(T0 + i * MILLI, PulseClock.toEpochNanos(message.receiveTimestamp()));
+                assertEquals(100 + i, message.sequenceNumber());
+            }
+            assertTrue(handler.errors.isEmpty());
+        }
+
+        @Test
+        @DisplayName("Should lend payloads in place as read-only slices of the mapping")
+        void shouldLendPayloadsInPlace() throws Exception {
+            Path file = capture("views.pwcf", 3, MILLI);
+            RecordingHandler handler = new RecordingHandler();
+
+            assertTrue(handler.awaitCompletion(replay(maxSpeed(file), handler)));
+
+            assertEquals(3, handler.viewBuffers.size());
+            for (ByteBuffer payload : handler.viewBuffers) {
+                assertTrue(payload.isDirect());
+                assertTrue(payload.isReadOnly());
+            }
+        }
+
+        @Test
+        @DisplayName("Should hand a copy to handlers that only implement onMessage")
+        void shouldCopyForLegacyHandlers() throws Exception {
+            Path file = capture("legacy.pwcf", 5, MILLI);
+            List<RawFeedMessage> received = new CopyOnWriteArrayList<>();
+            CountDownLatch done = new CountDownLatch(5);
+            FeedEventHandler legacy = new FeedEventHandler() {
+                @Override
+                public void onConnected(String adapterId) {
+                }
+
+                @Override
+                public void onDisconnected(String adapterId, String reason) {
+                }
+
+                @Override
+                public void onMessage(String adapterId, RawFeedMessage message) {
+                    received.add(message);
+                    done.countDown();
+                }
+
+                @Override
+                public void onError(String adapterId, Throwable error) {
+                }
+
+                @Override
+                public void onHeartbeatTimeout(String adapterId) {
+                }
+            };
+
+            replay(maxSpeed(file), legacy);
+
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            assertEquals("message-4", new String(received.get(4).payload(), StandardCharsets.US_ASCII));
+            assertEquals(104, received.get(4).sequenceNumber());
+        }
+
+        @Test
+        @DisplayName("Should stop at a zero record length, as in a preallocated file")
+        void shouldStopAtTerminator() throws Exception {
+            List<byte[]> payloads = List.of("a".getBytes(StandardCharsets.US_ASCII), "b".getBytes(StandardCharsets.US_ASCII));
+            Path file = capture("preallocated.pwcf", payloads, MILLI, 4096);
+            RecordingHandler handler = new RecordingHandler();
+
+            assertTrue(handler.awaitCompletion(replay(maxSpeed(file), handler)));
+
+            assertEquals(2, handler.messages.size());
+            assertTrue(handler.errors.isEmpty());
+        }
+
+        @Test
+        @DisplayName("Should stamp messages with replay time when configured to")
+        void shouldRestamp() throws Exception {
+            Path file = capture("restamp.pwcf", 2, MILLI);
+            RecordingHandler handler = new RecordingHandler();
+            VirtualPulseClock clock = new VirtualPulseClock(42L);
+            adapter = new CaptureReplayAdapter(CaptureReplayFeedConfig.builder()
+                    .file(file).speed(0).restampReceiveTime(true).build(), clock);
+
+            adapter.connect(handler);
+
+            assertTrue(handler.awaitCompletion(adapter));
+            assertEquals(42L, PulseClock.toEpochNanos(handler.messages.get(1).receiveTimestamp()));
+            assertEquals(101, handler.messages.get(1).sequenceNumber());
+        }
+    }
+
+    @Nested
+    @DisplayName("Pacing")
+    class Pacing {
+
+        @Test
+        @DisplayName("Should follow recorded timing scaled by the replay speed")
+        void shouldScaleRecordedTiming() throws Exception {
+            // 21 records over 400 ms of recorded time, replayed in about 200 ms at speed 2
+            Path file = capture("paced.pwcf", 21, 20 * MILLI);
+            RecordingHandler handler = new RecordingHandler();
+
+            long start = System.nanoTime();
+            CaptureReplayAdapter adapter = replay(CaptureReplayFeedConfig.builder().file(file).speed(2).build(), handler);
+            assertTrue(handler.awaitCompletion(adapter));
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            assertTrue(elapsedMs >= 190 && elapsedMs < 390, "elapsed " + elapsedMs + " ms");
+            assertEquals(21, handler.messages.size());
+        }
+
+        @Test
+        @DisplayName("Should stop pacing promptly on disconnect")
+        void shouldStopOnDisconnect() throws Exception {
+            Path file = capture("slow.pwcf", 10, TimeUnit.SECONDS.toNanos(10));
+            RecordingHandler handler = new RecordingHandler();
+            CaptureReplayAdapter adapter = replay(CaptureReplayFeedConfig.builder().file(file).build(), handler);
+
+            Thread.sleep(50);
+            long start = System.nanoTime();
+            adapter.disconnect();
+
+            assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(500));
+            assertEquals(1, adapter.getEmittedCount());
+            assertFalse(adapter.isReplayComplete());
+            assertFalse(adapter.isConnected());
+        }
+    }
+
+    @Nested
+    @DisplayName("Mapping windows")
+    class MappingWindows {
+
+        @Test
+        @DisplayName("Should move the window across a file many times its size, including records larger than it")
+        void shouldRemapAcrossWindows() throws Exception {
+            List<byte[]> payloads = new ArrayList<>();
+            for (int i = 0; i < 500; i++) {
+                byte[] payload = new byte[i % 50 == 0 ? 3_000 : 1 + i % 97];
+                Arrays.fill(payload, (byte) i);
+                payloads.add(payload);
+            }
+            Path file = capture("windows.pwcf", payloads, MILLI, 0);
+            RecordingHandler handler = new RecordingHandler();
+
+            assertTrue(handler.awaitCompletion(replay(CaptureReplayFeedConfig.builder()
+                    .file(file).speed(0).mapWindowBytes(1_024).build(), handler)));
+
+            assertEquals(500, handler.messages.size());
+            for (int i = 0; i < 500; i++) {
+                assertArrayEquals(payloads.get(i), handler.messages.get(i).payload(), "record " + i);
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Damaged files")
+    class DamagedFiles {
+
+        @Test
+        @DisplayName("Should report a truncated record after emitting those before it")
+        void shouldReportTruncatedRecord() throws Exception {
+            Path file = capture("truncated.pwcf", 10, MILLI);
+            byte[] bytes = Files.readAllBytes(file);
+            // Past the last record's padding into its payload
+            Files.write(file, Arrays.copyOf(bytes, bytes.length - 10));
+            RecordingHandler handler = new RecordingHandler();
+
+            CaptureReplayAdapter adapter = replay(maxSpeed(file), handler);
+
+            assertTrue(handler.errorSeen.await(5, TimeUnit.SECONDS));
+            assertInstanceOf(IOException.class, handler.errors.get(0));
+            assertTrue(handler.errors.get(0).getMessage().contains("Truncated"));
+            assertEquals(9, adapter.getEmittedCount());
+            assertFalse(adapter.isReplayComplete());
+        }
+
+        @Test
+        @DisplayName("Should report a file that is not a capture")
+        void shouldRejectForeignFile() throws Exception {
+            Path file = dir.resolve("foreign.pwcf");
+            Files.writeString(file, "definitely not a capture file");
+            RecordingHandler handler = new RecordingHandler();
+
+            replay(maxSpeed(file), handler);
+
+            assertTrue(handler.errorSeen.await(5, TimeUnit.SECONDS));
+            assertTrue(handler.errors.get(0).getMessage().startsWith("Not a capture file"));
+        }
+
+        @Test
+        @DisplayName("Should report a missing file")
+        void shouldReportMissingFile() throws Exception {
+            RecordingHandler handler = new RecordingHandler();
+
+            replay(maxSpeed(dir.resolve("missing.pwcf")), handler);
+
+            assertTrue(handler.errorSeen.await(5, TimeUnit.SECONDS));
+            assertInstanceOf(IOException.class, handler.errors.get(0));
+        }
+    }
+
+    @Nested
+    @DisplayName("Configuration")
+    class Configuration {
+
+        @Test
+        @DisplayName("Should reject a missing file, a negative speed and a window smaller than the header")
+        void shouldValidate() {
+            assertThrows(NullPointerException.class, () -> CaptureReplayFeedConfig.builder().build());
+            Path file = dir.resolve("x");
+            assertThrows(IllegalArgumentException.class, () -> CaptureReplayFeedConfig.builder().file(file).speed(-1).build());
+            assertThrows(IllegalArgumentException.class, () -> CaptureReplayFeedConfig.builder().file(file).speed(Double.NaN).build());
+            assertThrows(IllegalArgumentException.class, () -> CaptureReplayFeedConfig.builder().file(file).mapWindowBytes(8).build());
+        }
+    }
+
+    /**
+     * Copies every view it is lent into a {@link RawFeedMessage}, and keeps a slice of each so the
+     * test can check what kind of buffer it was.
+     */
+    private static final class RecordingHandler implements FeedEventHandler {
+
+        final List<RawFeedMessage> messages = new CopyOnWriteArrayList<>();
+        final List<ByteBuffer> viewBuffers = new CopyOnWriteArrayList<>();
+        final List<Throwable> errors = new CopyOnWriteArrayList<>();
+        final CountDownLatch errorSeen = new CountDownLatch(1);
+
+        boolean awaitCompletion(CaptureReplayAdapter adapter) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (!adapter.isReplayComplete()) {
+                if (System.nanoTime() > deadline || !errors.isEmpty()) {
+                    return false;
+                }
+                Thread.sleep(5);
+            }
+            return true;
+        }
+
+        @Override
+        public void onConnected(String adapterId) {
+        }
+
+        @Override
+        public void onDisconnected(String adapterId, String reason) {
+        }
+
+        @Override
+        public void onMessageView(String adapterId, RawFeedMessageView message) {
+            viewBuffers.add(message.payload());
+            messages.add(message.toRawFeedMessage());
+        }
+
+        @Override
+        public void onMessage(String adapterId, RawFeedMessage message) {
+            fail("Views should be delivered through onMessageView");
+        }
+
+        @Override
+        public void onError(String adapterId, Throwable error) {
+            errors.add(error);
+            errorSeen.countDown();
+        }
+
+        @Override
+        public void onHeartbeatTimeout(String adapterId) {
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.pulsewire.dataplane.adapter.capture;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CaptureRingTest {
+
+    private static byte[] payload(int length, int fill) {
+        byte[] payload = new byte[length];
+        Arrays.fill(payload, (byte) fill);
+        return payload;
+    }
+
+    /**
+     * Polls one record and checks it against what was offered, padding included.
+     */
+    private static void assertNextRecord(CaptureRing ring, byte[] expected, long timestamp, long sequence) {
+        int at = ring.poll();
+        assertTrue(at >= 0, "expected a record");
+        assertEquals(CaptureFormat.RECORD_HEADER_LENGTH + expected.length, ring.recordLength(at));
+        assertEquals(timestamp, ring.timestampNanos(at));
+        assertEquals(sequence, ring.sequenceNumber(at));
+        int start = at + CaptureFormat.RECORD_HEADER_LENGTH;
+        assertArrayEquals(expected, Arrays.copyOfRange(ring.bytes(), start, start + expected.length));
+        int end = at + CaptureFormat.recordLength(expected.length);
+        for (int i = start + expected.length; i < end; i++) {
+            assertEquals(0, ring.bytes()[i], "padding at " + i);
+        }
+        ring.advance(at);
+    }
+
+    @Test
+    @DisplayName("Should hand records to the consumer in order, from arrays and buffers")
+    void shouldPassRecordsInOrder() {
+        CaptureRing ring = new CaptureRing(4096);
+
+        assertEquals(-1, ring.poll());
+        assertTrue(ring.offer(payload(5, 1), 0, 5, 10, 1));
+        assertTrue(ring.offer(ByteBuffer.wrap(payload(40, 2)).asReadOnlyBuffer(), 8, 16, 20, 2));
+        assertTrue(ring.offer(new byte[0], 0, 0, 30, -1));
+
+        assertNextRecord(ring, payload(5, 1), 10, 1);
+        assertNextRecord(ring, payload(16, 2), 20, 2);
+        assertNextRecord(ring, new byte[0], 30, -1);
+        assertEquals(-1, ring.poll());
+    }
+
+    @Test
+    @DisplayName("Should refuse records once the consumer is a ring behind, and accept them once it catches up")
+    void shouldRefuseWhenFull() {
+        CaptureRing ring = new CaptureRing(4096);
+        byte[] payload = payload(100, 3);
+        int accepted = 0;
+        while (ring.offer(payload, 0, payload.length, accepted, accepted)) {
+            accepted++;
+        }
+        // 128-byte records fill 4096 bytes exactly
+        assertEquals(32, accepted);
+
+        assertNextRecord(ring, payload, 0, 0);
+        assertTrue(ring.offer(payload, 0, payload.length, 32, 32));
+        assertFalse(ring.offer(payload, 0, payload.length, 33, 33));
+    }
+
+    @Test
+    @DisplayName("Should wrap a record that would run past the end of the ring to its start")
+    void shouldWrapRecords() {
+        CaptureRing ring = new CaptureRing(4096);
+        // 1000-byte records take 1024 bytes; a 1500-byte one does not fit in the 1024 left at the end
+        byte[] small = payload(1000, 4);
+        byte[] large = payload(1500, 5);
+        for (int round = 0; round < 50; round++) {
+            assertTrue(ring.offer(small, 0, small.length, round, 3L * round), "round " + round);
+            assertTrue(ring.offer(large, 0, large.length, round, 3L * round + 1), "round " + round);
+            assertTrue(ring.offer(small, 0, small.length, round, 3L * round + 2), "round " + round);
+            assertNextRecord(ring, small, round, 3L * round);
+            assertNextRecord(ring, large, round, 3L * round + 1);
+            assertNextRecord(ring, small, round, 3L * round + 2);
+            assertEquals(-1, ring.poll());
+        }
+    }
+
+    @Test
+    @DisplayName("Should refuse a payload larger than half the ring")
+    void shouldRefuseOversizePayload() {
+        CaptureRing ring = new CaptureRing(4096);
+        byte[] payload = new byte[ring.maxPayloadLength() + 1];
+
+        assertFalse(ring.offer(payload, 0, payload.length, 0, 0));
+        assertTrue(ring.offer(payload, 0, payload.length - 1, 0, 0));
+    }
+
+    @Test
+    @DisplayName("Should deliver every record intact between two threads")
+    void shouldPassRecordsBetweenThreads() throws InterruptedException {
+        CaptureRing ring = new CaptureRing(1 << 14);
+        int records = 100_000;
+        Thread producer = new Thread(() -> {
+            byte[] payload = new byte[300];
+            for (int i = 0; i < records; i++) {
+                int length = i % 300;
+                Arrays.fill(payload, 0, length, (byte) i);
+                while (!ring.offer(payload, 0, length, i, i)) {
+                    Thread.yield();
+                }
+            }
+        });
+        producer.start();
+
+        for (int i = 0; i < records; i++) {
+            int at;
+            while ((at = ring.poll()) < 0) {
+                Thread.yield();
+            }
+            int length = i % 300;
+            assertEquals(CaptureFormat.RECORD_HEADER_LENGTH + length, ring.recordLength(at));
+            assertEquals(i, ring.sequenceNumber(at));
+            if (length > 0) {
+                assertEquals((byte) i, ring.bytes()[at + CaptureFormat.RECORD_HEADER_LENGTH + length - 1]);
+            }
+            ring.advance(at);
+        }
+        producer.join();
+        assertEquals(-1, ring.poll());
+    }
+}
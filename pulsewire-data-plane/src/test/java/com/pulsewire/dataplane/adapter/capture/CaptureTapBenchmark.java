@@ -0,0 +1,149 @@
+package com.pulsewire.dataplane.adapter.capture;
+
+import com.pulsewire.core.time.PulseClock;
+import com.pulsewire.dataplane.adapter.spi.FeedEventHandler;
+import com.pulsewire.dataplane.adapter.spi.RawFeedMessage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Cost a {@link CaptureTap} adds to each callback, for a few payload sizes, against:
+ * <ul>
+ *   <li>the same callback without a tap;</li>
+ *   <li>copying each payload to the next position of a buffer as large as the ring, the memcpy the
+ *       tap cannot avoid;</li>
+ *   <li>offering to the {@link CaptureRing} alone, drained between batches, which is the tap's hot
+ *       path with no writer running beside it.</li>
+ * </ul>
+ * Messages go in batches filling half the ring and only the offering is timed; the writer drains
+ * between batches, as it would between bursts. On a host with a core to spare for the writer the
+ * tap costs what the ring does; on one core the writer's copying to the segments lands in the
+ * tap's time. Not a unit test; run with
+ * {@code java -cp <test-classpath> com.pulsewire.dataplane.adapter.capture.CaptureTapBenchmark [directory]}.
+ */
+public final class CaptureTapBenchmark {
+
+    private static final int[] PAYLOAD_SIZES = {64, 256, 1024};
+    private static final int RING_BYTES = 64 << 20;
+    private static final int ROUNDS = 20;
+
+    private static long sink;
+
+    private CaptureTapBenchmark() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Path directory = args.length > 0 ? Path.of(args[0]) : Files.createTempDirectory("capture-benchmark");
+        FeedEventHandler noop = new NoopHandler();
+        try {
+            for (int size : PAYLOAD_SIZES) {
+                int batch = RING_BYTES / 2 / CaptureFormat.recordLength(size);
+                RawFeedMessage[] messages = new RawFeedMessage[batch];
+                for (int i = 0; i < batch; i++) {
+                    byte[] payload = new byte[size];
+                    payload[i % size] = (byte) i;
+                    messages[i] = new RawFeedMessage(payload, PulseClock.toInstant(1_700_000_000_000_000_000L + i), i);
+                }
+                byte[] copy = new byte[RING_BYTES];
+                CaptureRing ring = new CaptureRing(RING_BYTES);
+
+                Path capture = directory.resolve("payload-" + size);
+                long directNanos = 0;
+                long copyNanos = 0;
+                long ringNanos = 0;
+                long tapNanos = 0;
+                try (CaptureTap tap = new CaptureTap(noop, CaptureTapConfig.builder()
+                        .directory(capture).ringBytes(RING_BYTES).build())) {
+                    for (int round = 0; round < ROUNDS; round++) {
+                        long start = System.nanoTime();
+                        for (RawFeedMessage message : messages) {
+                            noop.onMessage("benchmark", message);
+                        }
+                        long direct = System.nanoTime() - start;
+
+                        int at = 0;
+                        start = System.nanoTime();
+                        for (RawFeedMessage message : messages) {
+                            byte[] payload = message.payload();
+                            System.arraycopy(payload, 0, copy, at, payload.length);
+                            at += CaptureFormat.recordLength(payload.length);
+                        }
+                        long copied = System.nanoTime() - start;
+                        sink += copy[at - 1];
+
+                        start = System.nanoTime();
+                        for (RawFeedMessage message : messages) {
+                            byte[] payload = message.payload();
+                            if (!ring.offer(payload, 0, payload.length,
+                                    PulseClock.toEpochNanos(message.receiveTimestamp()), message.sequenceNumber())) {
+                                throw new IllegalStateException("Ring full");
+                            }
+                        }
+                        long offered = System.nanoTime() - start;
+                        int polled;
+                        while ((polled = ring.poll()) >= 0) {
+                            ring.advance(polled);
+                        }
+
+                        long expected = tap.getCapturedCount() + batch;
+                        start = System.nanoTime();
+                        for (RawFeedMessage message : messages) {
+                            tap.onMessage("benchmark", message);
+                        }
+                        long tapped = System.nanoTime() - start;
+                        while (tap.getCapturedCount() + tap.getDroppedCount() < expected) {
+                            Thread.sleep(1);
+                        }
+                        // Later rounds only, once the JIT has settled
+                        if (round >= ROUNDS / 2) {
+                            directNanos += direct;
+                            copyNanos += copied;
+                            ringNanos += offered;
+                            tapNanos += tapped;
+                        }
+                    }
+                    double timed = (double) batch * (ROUNDS - ROUNDS / 2);
+                    System.out.printf("%5d B payload: no tap %5.1f ns/msg, copy %5.1f ns/msg, ring offer %5.1f ns/msg, "
+                                    + "tap with writer %5.1f ns/msg, %d dropped%n", size,
+                            directNanos / timed, copyNanos / timed, ringNanos / timed, tapNanos / timed,
+                            tap.getDroppedCount());
+                }
+            }
+            System.out.println("sink=" + sink);
+        } finally {
+            if (args.length == 0) {
+                try (Stream<Path> files = Files.walk(directory)) {
+                    files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+                }
+            }
+        }
+    }
+
+    private static final class NoopHandler implements FeedEventHandler {
+
+        @Override
+        public void onConnected(String adapterId) {
+        }
+
+        @Override
+        public void onDisconnected(String adapterId, String reason) {
+        }
+
+        @Override
+        public void onMessage(String adapterId, RawFeedMessage message) {
+            sink += message.sequenceNumber();
+        }
+
+        @Override
+        public void onError(String adapterId, Throwable error) {
+        }
+
+        @Override
+        public void onHeartbeatTimeout(String adapterId) {
+        }
+    }
+}
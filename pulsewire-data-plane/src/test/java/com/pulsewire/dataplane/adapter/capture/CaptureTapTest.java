@@ -0,0 +1,291 @@
+package com.pulsewire.dataplane.adapter.capture;
+
+import com.pulsewire.core.time.PulseClock;
+import com.pulsewire.dataplane.adapter.spi.FeedEventHandler;
+import com.pulsewire.dataplane.adapter.spi.RawFeedMessage;
+import com.pulsewire.dataplane.adapter.spi.RawFeedMessageView;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class CaptureTapTest {
+
+    private static final long T0 = 1_700_000_000_000_000_000L;
+
+    @TempDir
+    Path dir;
+
+    private static RawFeedMessage message(int i) {
+        return new RawFeedMessage(("message-" + i).getBytes(StandardCharsets.US_ASCII),
+                PulseClock.toInstant(T0 + i * 1_000L), i);
+    }
+
+    private CaptureTapConfig.Builder config() {
+        return CaptureTapConfig.builder().directory(dir);
+    }
+
+    /**
+     * Replays a capture directory at full speed and returns its messages.
+     */
+    private static List<RawFeedMessage> replay(Path capture) throws InterruptedException {
+        List<RawFeedMessage> messages = new CopyOnWriteArrayList<>();
+        FeedEventHandler handler = mock(FeedEventHandler.class);
+        doAnswer(invocation -> messages.add(invocation.getArgument(1)))
+                .when(handler).onMessage(any(), any(RawFeedMessage.class));
+        doCallRealMethod().when(handler).onMessageView(any(), any());
+        CaptureReplayAdapter adapter = new CaptureReplayAdapter(
+                CaptureReplayFeedConfig.builder().file(capture).speed(0).build());
+        adapter.connect(handler);
+        try {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (!adapter.isReplayComplete() && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            assertTrue(adapter.isReplayComplete(), "replay did not complete");
+            verify(handler, never()).onError(any(), any());
+        } finally {
+            adapter.disconnect();
+        }
+        return messages;
+    }
+
+    @Nested
+    @DisplayName("Capture")
+    class Capture {
+
+        @Test
+        @DisplayName("Should pass every callback on and capture messages for replay, from arrays and views")
+        void shouldCaptureForReplay() throws Exception {
+            FeedEventHandler delegate = mock(FeedEventHandler.class);
+            RawFeedMessageView view = new RawFeedMessageView();
+            ByteBuffer mapped = ByteBuffer.allocateDirect(64);
+            mapped.put(10, "from-a-view".getBytes(StandardCharsets.US_ASCII));
+
+            try (CaptureTap tap = new CaptureTap(delegate, config().build())) {
+                tap.onConnected("feed");
+                for (int i = 0; i < 100; i++) {
+                    tap.onMessage("feed", message(i));
+                }
+                tap.onMessageView("feed", view.wrap(mapped.asReadOnlyBuffer(), 10, 11, T0 + 500_000, 100));
+                tap.onHeartbeatTimeout("feed");
+                tap.onDisconnected("feed", "done");
+                tap.close();
+
+                assertEquals(101, tap.getCapturedCount());
+                assertEquals(0, tap.getDroppedCount());
+            }
+
+            verify(delegate).onConnected("feed");
+            verify(delegate, times(100)).onMessage(eq("feed"), any(RawFeedMessage.class));
+            verify(delegate).onMessageView("feed", view);
+            verify(delegate).onHeartbeatTimeout("feed");
+            verify(delegate).onDisconnected("feed", "done");
+
+            List<RawFeedMessage> replayed = replay(dir);
+            assertEquals(101, replayed.size());
+            for (int i = 0; i < 100; i++) {
+                assertArrayEquals(message(i).payload(), replayed.get(i).payload());
+                assertEquals(message(i).receiveTimestamp(), replayed.get(i).receiveTimestamp());
+                assertEquals(i, replayed.get(i).sequenceNumber());
+            }
+            assertEquals("from-a-view", new String(replayed.get(100).payload(), StandardCharsets.US_ASCII));
+            assertEquals(100, replayed.get(100).sequenceNumber());
+        }
+
+        @Test
+        @DisplayName("Should capture even when the delegate throws")
+        void shouldCaptureWhenDelegateThrows() throws Exception {
+            FeedEventHandler delegate = mock(FeedEventHandler.class);
+            doThrow(new IllegalStateException("boom")).when(delegate).onMessage(any(), any());
+
+            try (CaptureTap tap = new CaptureTap(delegate, config().build())) {
+                assertThrows(IllegalStateException.class, () -> tap.onMessage("feed", message(1)));
+                tap.close();
+                assertEquals(1, tap.getCapturedCount());
+            }
+        }
+
+        @Test
+        @DisplayName("Should count and skip messages larger than half the ring")
+        void shouldDropOversizeMessages() throws Exception {
+            FeedEventHandler delegate = mock(FeedEventHandler.class);
+            RawFeedMessage huge = new RawFeedMessage(new byte[3000], PulseClock.toInstant(T0), 1);
+
+            try (CaptureTap tap = new CaptureTap(delegate, config().ringBytes(4096).build())) {
+                tap.onMessage("feed", huge);
+                tap.onMessage("feed", message(2));
+                tap.close();
+
+                assertEquals(1, tap.getDroppedCount());
+                assertEquals(1, tap.getCapturedCount());
+            }
+            verify(delegate).onMessage("feed", huge);
+        }
+    }
+
+    @Nested
+    @DisplayName("Producer thread")
+    class ProducerThread {
+
+        @Test
+        @DisplayName("Should capture one thread and pass on, uncaptured, messages from another")
+        void shouldCaptureOneThread() throws Exception {
+            FeedEventHandler delegate = mock(FeedEventHandler.class);
+
+            try (CaptureTap tap = new CaptureTap(delegate, config().build())) {
+                tap.onMessage("feed", message(1));
+                Thread other = new Thread(() -> tap.onMessage("feed", message(2)));
+                other.start();
+                other.join();
+                tap.close();
+
+                assertEquals(1, tap.getCapturedCount());
+                assertEquals(1, tap.getForeignThreadCount());
+            }
+            verify(delegate, times(2)).onMessage(eq("feed"), any(RawFeedMessage.class));
+        }
+
+        @Test
+        @DisplayName("Should let another thread take over after a disconnect")
+        void shouldHandOverOnDisconnect() throws Exception {
+            try (CaptureTap tap = new CaptureTap(mock(FeedEventHandler.class), config().build())) {
+                tap.onMessage("feed", message(1));
+                tap.onDisconnected("feed", "reconnecting");
+                CountDownLatch done = new CountDownLatch(1);
+                new Thread(() -> {
+                    tap.onMessage("feed", message(2));
+                    done.countDown();
+                }).start();
+                assertTrue(done.await(5, TimeUnit.SECONDS));
+                tap.close();
+
+                assertEquals(2, tap.getCapturedCount());
+                assertEquals(0, tap.getForeignThreadCount());
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Segments and index")
+    class SegmentsAndIndex {
+
+        @Test
+        @DisplayName("Should roll segments and index the first record of each and every interval")
+        void shouldRollAndIndex() throws Exception {
+            // message-i records take 40 bytes: 102 fit in a 4096-byte segment after its header
+            try (CaptureTap tap = new CaptureTap(mock(FeedEventHandler.class),
+                    config().segmentBytes(4096).indexInterval(50).build())) {
+                for (int i = 0; i < 1000; i++) {
+                    tap.onMessage("feed", message(i));
+                }
+                tap.close();
+            }
+
+            List<Path> segments = CaptureFormat.listSegments(dir);
+            assertEquals(10, segments.size());
+            CaptureIndex index = CaptureIndex.read(dir);
+            // Per segment of 102 records: its first, then records 50 and 100
+            assertEquals(29, index.size(), "entries " + index.size());
+            for (int i = 0; i < index.size(); i++) {
+                CaptureIndex.Entry entry = index.get(i);
+                assertRecordAt(segments.get(entry.segment()), entry);
+            }
+
+            // Segment 1 holds records 102 to 203, indexed at 102, 152 and 202
+            CaptureIndex.Entry bySequence = index.floorBySequence(160);
+            assertEquals(152, bySequence.sequenceNumber());
+            assertEquals(1, bySequence.segment());
+            assertEquals(bySequence, index.floorByTime(T0 + 160 * 1_000L));
+            assertNull(index.floorByTime(T0 - 1));
+            assertEquals(968, index.floorBySequence(Long.MAX_VALUE).sequenceNumber());
+        }
+
+        @Test
+        @DisplayName("Should give a message larger than a segment a segment of its own")
+        void shouldFitLargeMessages() throws Exception {
+            RawFeedMessage large = new RawFeedMessage(new byte[10_000], PulseClock.toInstant(T0 + 1), 1);
+            try (CaptureTap tap = new CaptureTap(mock(FeedEventHandler.class), config().segmentBytes(4096).build())) {
+                tap.onMessage("feed", message(0));
+                tap.onMessage("feed", large);
+                tap.onMessage("feed", message(2));
+                tap.close();
+            }
+
+            assertEquals(3, CaptureFormat.listSegments(dir).size());
+            List<RawFeedMessage> replayed = replay(dir);
+            assertEquals(3, replayed.size());
+            assertEquals(10_000, replayed.get(1).payload().length);
+        }
+
+        @Test
+        @DisplayName("Should append to an existing capture after a restart")
+        void shouldAppendAfterRestart() throws Exception {
+            for (int run = 0; run < 2; run++) {
+                try (CaptureTap tap = new CaptureTap(mock(FeedEventHandler.class), config().build())) {
+                    for (int i = 0; i < 10; i++) {
+                        tap.onMessage("feed", message(run * 10 + i));
+                    }
+                    tap.close();
+                }
+            }
+
+            assertEquals(2, CaptureFormat.listSegments(dir).size());
+            assertEquals(2, CaptureIndex.read(dir).size());
+            List<RawFeedMessage> replayed = replay(dir);
+            assertEquals(20, replayed.size());
+            assertEquals(19, replayed.get(19).sequenceNumber());
+        }
+
+        @Test
+        @DisplayName("Should reject an index file that is not one")
+        void shouldRejectForeignIndex() throws IOException {
+            Files.writeString(dir.resolve(CaptureIndex.FILE_NAME), "not an index, honestly");
+
+            assertThrows(IOException.class, () -> CaptureIndex.read(dir));
+            assertThrows(IOException.class, () -> new CaptureTap(mock(FeedEventHandler.class), config().build()));
+        }
+
+        private static void assertRecordAt(Path segment, CaptureIndex.Entry entry) throws IOException {
+            ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(segment)).order(ByteOrder.LITTLE_ENDIAN);
+            assertEquals(entry.timestampNanos(), bytes.getLong(entry.offset() + CaptureFormat.TIMESTAMP_OFFSET));
+            assertEquals(entry.sequenceNumber(), bytes.getLong(entry.offset() + CaptureFormat.SEQUENCE_OFFSET));
+        }
+    }
+
+    @Nested
+    @DisplayName("Configuration")
+    class Configuration {
+
+        @Test
+        @DisplayName("Should reject a missing directory, small segments, and rings that are small or not a power of two")
+        void shouldValidate() {
+            List<Runnable> invalid = new ArrayList<>();
+            invalid.add(() -> CaptureTapConfig.builder().build());
+            invalid.add(() -> config().segmentBytes(1024).build());
+            invalid.add(() -> config().ringBytes(1024).build());
+            invalid.add(() -> config().ringBytes(5000).build());
+            invalid.add(() -> config().indexInterval(0).build());
+            for (Runnable build : invalid) {
+                assertThrows(RuntimeException.class, build::run);
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.pulsewire.dataplane.adapter.synthetic;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RatePacerTest {
+
+    private static final long MS = 1_000_000L;
+
+    @Test
+    @DisplayName("Should keep fractional credit so rates that do not divide the tick add up")
+    void shouldKeepFractionalCredit() {
+        RatePacer pacer = new RatePacer(0, 1000);
+        int emitted = 0;
+        for (long now = MS; now <= 1000 * MS; now += MS) {
+            emitted += pacer.due(now, 600, Integer.MAX_VALUE);
+        }
+        assertEquals(600, emitted);
+    }
+
+    @Test
+    @DisplayName("Should release at most the limit per call and keep the rest")
+    void shouldRespectLimit() {
+        RatePacer pacer = new RatePacer(0, 1000);
+
+        assertEquals(64, pacer.due(100 * MS, 1000, 64));
+        assertEquals(36, pacer.due(100 * MS, 1000, 64));
+        assertEquals(0, pacer.due(100 * MS, 1000, 64));
+    }
+
+    @Test
+    @DisplayName("Should forget credit beyond the backlog limit")
+    void shouldCapBacklog() {
+        RatePacer pacer = new RatePacer(0, 10);
+
+        assertEquals(10, pacer.due(1000 * MS, 1000, Integer.MAX_VALUE));
+        assertEquals(1, pacer.due(1001 * MS, 1000, Integer.MAX_VALUE));
+    }
+
+    @Test
+    @DisplayName("Should tell how long until the next message is earned")
+    void shouldTellWaitUntilNext() {
+        RatePacer pacer = new RatePacer(0, 10);
+
+        assertEquals(0, pacer.due(MS / 4, 1000, Integer.MAX_VALUE));
+        assertEquals(750_000, pacer.nanosUntilNext(1000));
+        assertEquals(1, pacer.due(MS, 1000, Integer.MAX_VALUE));
+    }
+}
@@ -0,0 +1,97 @@
+package com.pulsewire.dataplane.adapter.synthetic;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Random;
+
+/**
+ * Single-thread cost of encoding synthetic trades and quotes: the former {@code String.format}
+ * path, {@link SyntheticMessageEncoder} copying each message out, and the encoder's buffer alone,
+ * with bytes allocated per message. Not a unit test; run with
+ * {@code java -cp <test-classpath> com.pulsewire.dataplane.adapter.synthetic.SyntheticEncodingBenchmark}.
+ */
+public final class SyntheticEncodingBenchmark {
+
+    private static final String[] SYMBOLS = {"AAPL", "GOOGL", "MSFT", "AMZN", "META", "NVDA", "TSLA", "JPM"};
+    private static final int MESSAGES = 1 << 16;
+    private static final int ROUNDS = 20;
+
+    private static long sink;
+
+    private SyntheticEncodingBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        Random random = new Random(42);
+        Instant now = Instant.now();
+        String[] symbols = new String[MESSAGES];
+        double[] prices = new double[MESSAGES];
+        long[] sizes = new long[MESSAGES];
+        Instant[] timestamps = new Instant[MESSAGES];
+        for (int i = 0; i < MESSAGES; i++) {
+            symbols[i] = SYMBOLS[random.nextInt(SYMBOLS.length)];
+            prices[i] = Math.round((100 + random.nextDouble() * 900) * 100) / 100.0;
+            sizes[i] = 100L * (1 + random.nextInt(100));
+            timestamps[i] = now.plusNanos(i * 1000L + random.nextInt(1000));
+        }
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        SyntheticMessageEncoder encoder = new SyntheticMessageEncoder();
+
+        System.out.printf("%d messages per round, 1 trade per 5 quotes%n", MESSAGES);
+        for (int round = 0; round < ROUNDS; round++) {
+            long bytes = threads.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            for (int i = 0; i < MESSAGES; i++) {
+                String json = i % 6 == 0
+                        ? String.format("{\"type\":\"TRADE\",\"symbol\":\"%s\",\"price\":%.4f,\"quantity\":%d,\"timestamp\":\"%s\",\"tradeId\":\"%s\",\"side\":\"%s\"}",
+                                symbols[i], prices[i], sizes[i], timestamps[i].toString(), "T" + i, TradeSide.BUY.name())
+                        : String.format("{\"type\":\"QUOTE\",\"symbol\":\"%s\",\"bidPrice\":%.4f,\"bidSize\":%d,\"askPrice\":%.4f,\"askSize\":%d,\"timestamp\":\"%s\"}",
+                                symbols[i], prices[i] - 0.0375, sizes[i], prices[i] + 0.0375, sizes[i], timestamps[i].toString());
+                sink += json.getBytes(StandardCharsets.UTF_8).length;
+            }
+            long formatNanos = System.nanoTime() - start;
+            long formatBytes = threads.getCurrentThreadAllocatedBytes() - bytes;
+
+            bytes = threads.getCurrentThreadAllocatedBytes();
+            start = System.nanoTime();
+            for (int i = 0; i < MESSAGES; i++) {
+                encode(encoder, i, symbols[i], prices[i], sizes[i], timestamps[i]);
+                sink += encoder.toByteArray().length;
+            }
+            long copyNanos = System.nanoTime() - start;
+            long copyBytes = threads.getCurrentThreadAllocatedBytes() - bytes;
+
+            bytes = threads.getCurrentThreadAllocatedBytes();
+            start = System.nanoTime();
+            for (int i = 0; i < MESSAGES; i++) {
+                encode(encoder, i, symbols[i], prices[i], sizes[i], timestamps[i]);
+                sink += encoder.buffer()[encoder.length() - 1];
+            }
+            long bufferNanos = System.nanoTime() - start;
+            long bufferBytes = threads.getCurrentThreadAllocatedBytes() - bytes;
+
+            if (round == ROUNDS - 1) {
+                report("String.format:  ", formatNanos, formatBytes);
+                report("encoder + copy: ", copyNanos, copyBytes);
+                report("encoder buffer: ", bufferNanos, bufferBytes);
+            }
+        }
+        System.out.println("sink=" + sink);
+    }
+
+    private static void encode(SyntheticMessageEncoder encoder, int i, String symbol, double price, long size,
+                               Instant timestamp) {
+        if (i % 6 == 0) {
+            encoder.encodeTrade(symbol, price, size, timestamp, i, TradeSide.BUY);
+        } else {
+            encoder.encodeQuote(symbol, price - 0.0375, size, price + 0.0375, size, timestamp);
+        }
+    }
+
+    private static void report(String label, long nanos, long bytes) {
+        System.out.printf("%s %,12.0f msgs/s per core  (%.0f ns/msg, %.0f B/msg)%n", label,
+                MESSAGES * 1e9 / nanos, (double) nanos / MESSAGES, (double) bytes / MESSAGES);
+    }
+}
@@ -10,16 +10,23 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -581,6 +588,269 @@ class SyntheticExchangeAdapterTest {
         }
     }
     
+    // =========================================================================
+    // Pacing and the load generator
+    // =========================================================================
+    
+    @Nested
+    @DisplayName("Pacing and Load Generator")
+    class PacingAndLoadGenerator {
+        
+        @Test
+        @DisplayName("Message rate is honoured when it does not divide 1000")
+        @Timeout(10)
+        void rateNotDividingThousandIsHonoured() throws InterruptedException {
+            // Given: A rate whose interval is not a whole number of milliseconds
+            SyntheticFeedConfig config = SyntheticFeedConfig.builder()
+                    .enabled(true)
+                    .symbols(List.of("AAPL"))
+                    .messageRatePerSecond(600)
+                    .build();
+            
+            adapter = new SyntheticExchangeAdapter(config);
+            CountingHandler counting = new CountingHandler();
+            adapter.connect(counting);
+            
+            // When: Measuring over 1 second
+            Thread.sleep(1000);
+            adapter.disconnect();
+            
+            // Then: Close to 600, not the 1000 a 1 ms interval would give
+            long count = counting.count.sum();
+            assertTrue(count >= 450 && count <= 750, "Expected about 600 messages, got " + count);
+        }
+        
+        @Test
+        @DisplayName("Load generator threads each own a partition of the symbols")
+        @Timeout(10)
+        void generatorThreadsPartitionSymbols() throws InterruptedException {
+            // Given: Two generator threads over four symbols
+            SyntheticFeedConfig config = SyntheticFeedConfig.builder()
+                    .enabled(true)
+                    .symbols(List.of("AAPL", "MSFT", "GOOGL", "NVDA"))
+                    .messageRatePerSecond(20_000)
+                    .generatorThreads(2)
+                    .build();
+            
+            adapter = new SyntheticExchangeAdapter(config);
+            CountingHandler counting = new CountingHandler();
+            adapter.connect(counting);
+            
+            // When: Running for half a second
+            Thread.sleep(500);
+            adapter.disconnect();
+            
+            // Then: Every symbol is emitted, each by a single generator thread
+            assertEquals(4, counting.threadsBySymbol.size(), "All symbols should be emitted");
+            counting.threadsBySymbol.forEach((symbol, threads) ->
+                    assertEquals(1, threads.size(), symbol + " emitted by " + threads));
+            assertEquals(2, counting.threadsBySymbol.values().stream().flatMap(Set::stream).distinct().count());
+            assertTrue(counting.errors.isEmpty(), "Should not report errors: " + counting.errors);
+        }
+        
+        @Test
+        @DisplayName("Load generator reports an achieved rate close to the target")
+        @Timeout(10)
+        void loadGeneratorReportsAchievedRate() throws InterruptedException {
+            // Given: A load generator at a rate well within a single core
+            SyntheticFeedConfig config = SyntheticFeedConfig.builder()
+                    .enabled(true)
+                    .symbols(List.of("AAPL", "MSFT"))
+                    .messageRatePerSecond(50_000)
+                    .generatorThreads(2)
+                    .build();
+            
+            adapter = new SyntheticExchangeAdapter(config);
+            CountingHandler counting = new CountingHandler();
+            adapter.connect(counting);
+            
+            // When: Running for a second
+            Thread.sleep(1000);
+            double achieved = adapter.getAchievedRatePerSecond();
+            adapter.disconnect();
+            
+            // Then: The count and the reported rate agree with the target, never overshooting
+            assertEquals(50_000, adapter.getTargetRatePerSecond());
+            assertEquals(counting.count.sum(), adapter.getEmittedCount());
+            assertTrue(achieved > 25_000 && achieved <= 55_000, "Achieved rate " + achieved);
+        }
+        
+        @Test
+        @DisplayName("Load generator sequence numbers are unique")
+        @Timeout(10)
+        void loadGeneratorSequenceNumbersAreUnique() throws InterruptedException {
+            SyntheticFeedConfig config = SyntheticFeedConfig.builder()
+                    .enabled(true)
+                    .symbols(List.of("AAPL", "MSFT", "GOOGL"))
+                    .messageRatePerSecond(5_000)
+                    .generatorThreads(3)
+                    .build();
+            
+            adapter = new SyntheticExchangeAdapter(config);
+            CountDownLatch latch = new CountDownLatch(500);
+            handler.onMessageCallback = latch::countDown;
+            adapter.connect(handler);
+            assertTrue(latch.await(5, TimeUnit.SECONDS), "Should receive 500 messages");
+            adapter.disconnect();
+            
+            long distinct = handler.messages.stream().mapToLong(RawFeedMessage::sequenceNumber).distinct().count();
+            assertEquals(handler.messages.size(), distinct);
+        }
+        
+        @Test
+        @DisplayName("Configuration rejects more generator threads than symbols")
+        void configurationRejectsTooManyGeneratorThreads() {
+            assertThrows(IllegalArgumentException.class, () ->
+                    SyntheticFeedConfig.builder()
+                            .symbols(List.of("AAPL"))
+                            .generatorThreads(2)
+                            .build());
+            assertThrows(IllegalArgumentException.class, () ->
+                    SyntheticFeedConfig.builder()
+                            .generatorThreads(-1)
+                            .build());
+        }
+    }
+    
+    // =========================================================================
+    // Seeded runs and replay
+    // =========================================================================
+    
+    @Nested
+    @DisplayName("Seeded Runs and Replay")
+    class SeededRunsAndReplay {
+        
+        @TempDir
+        Path dir;
+        
+        @Test
+        @DisplayName("Seeded adapters emit the same message sequence on every run")
+        @Timeout(10)
+        void seededRunsRepeat() throws InterruptedException {
+            SyntheticFeedConfig config = SyntheticFeedConfig.builder()
+                    .enabled(true)
+                    .symbols(List.of("AAPL", "MSFT", "NVDA"))
+                    .messageRatePerSecond(1000)
+                    .seed(42L)
+                    .build();
+            
+            List<String> first = content(run(config, 200));
+            List<String> second = content(run(config, 200));
+            
+            assertEquals(first.subList(0, 200), second.subList(0, 200));
+        }
+        
+        @Test
+        @DisplayName("Replay at maximum speed emits the whole tape as generated")
+        @Timeout(10)
+        void replayAtMaxSpeed() throws Exception {
+            Path tape = dir.resolve("quiet.tape");
+            SyntheticFeedConfig generated = SyntheticFeedConfig.builder()
+                    .seed(5L)
+                    .scenario(SyntheticScenario.QUIET_SESSION)
+                    .messageRatePerSecond(2000)
+                    .build();
+            long records = SyntheticTapeGenerator.generate(generated, TimeUnit.SECONDS.toNanos(5), tape);
+            
+            adapter = new SyntheticExchangeAdapter(SyntheticFeedConfig.builder()
+                    .replayFile(tape)
+                    .replaySpeed(0)
+                    .build());
+            adapter.connect(handler);
+            waitFor(adapter::isReplayComplete);
+            
+            // Then: Every record, in order, and the same content a live run with the seed produces
+            assertEquals(records, handler.messages.size());
+            for (int i = 0; i < handler.messages.size(); i++) {
+                assertEquals(i + 1, handler.messages.get(i).sequenceNumber());
+            }
+            adapter.disconnect();
+            List<String> live = content(run(SyntheticFeedConfig.builder()
+                    .enabled(true)
+                    .seed(5L)
+                    .scenario(SyntheticScenario.QUIET_SESSION)
+                    .messageRatePerSecond(2000)
+                    .build(), 100));
+            assertEquals(live.subList(0, 100), content(handler.messages).subList(0, 100));
+        }
+        
+        @Test
+        @DisplayName("Replay follows the tape's timing scaled by the replay speed")
+        @Timeout(10)
+        void replayAtScaledSpeed() throws Exception {
+            Path tape = dir.resolve("flat.tape");
+            SyntheticTapeGenerator.generate(SyntheticFeedConfig.builder().seed(3L).messageRatePerSecond(200).build(),
+                    TimeUnit.SECONDS.toNanos(2), tape);
+            
+            // When: Replaying two seconds of tape at 4x
+            adapter = new SyntheticExchangeAdapter(SyntheticFeedConfig.builder()
+                    .replayFile(tape)
+                    .replaySpeed(4)
+                    .build());
+            long start = System.nanoTime();
+            adapter.connect(handler);
+            waitFor(adapter::isReplayComplete);
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            
+            // Then: About half a second
+            assertEquals(400, handler.messages.size());
+            assertTrue(elapsedMs >= 490 && elapsedMs < 2000, "Replay took " + elapsedMs + " ms");
+        }
+        
+        @Test
+        @DisplayName("Configuration rejects a negative replay speed and replay with generator threads")
+        void configurationRejectsInvalidReplay() {
+            assertThrows(IllegalArgumentException.class, () ->
+                    SyntheticFeedConfig.builder().replaySpeed(-1).build());
+            assertThrows(IllegalArgumentException.class, () ->
+                    SyntheticFeedConfig.builder()
+                            .symbols(List.of("AAPL", "MSFT"))
+                            .generatorThreads(2)
+                            .replayFile(dir.resolve("any.tape"))
+                            .build());
+        }
+        
+        @Test
+        @DisplayName("Scenario applies its symbols, rate and ratio as defaults")
+        void scenarioAppliesDefaults() {
+            SyntheticFeedConfig config = SyntheticFeedConfig.builder()
+                    .scenario(SyntheticScenario.WIDE_UNIVERSE)
+                    .messageRatePerSecond(500)
+                    .build();
+            
+            assertEquals(SyntheticScenario.WIDE_UNIVERSE_SIZE, config.symbols().size());
+            assertEquals(500, config.messageRatePerSecond());
+            assertEquals(SyntheticScenario.WIDE_UNIVERSE.tradeToQuoteRatio(), config.tradeToQuoteRatio());
+        }
+        
+        private List<RawFeedMessage> run(SyntheticFeedConfig config, int messages) throws InterruptedException {
+            SyntheticExchangeAdapter run = new SyntheticExchangeAdapter(config);
+            TestFeedEventHandler runHandler = new TestFeedEventHandler();
+            CountDownLatch latch = new CountDownLatch(messages);
+            runHandler.onMessageCallback = latch::countDown;
+            run.connect(runHandler);
+            assertTrue(latch.await(5, TimeUnit.SECONDS), "Should receive " + messages + " messages");
+            run.disconnect();
+            return runHandler.messages;
+        }
+        
+        /**
+         * Payloads without the fields that depend on when or where they were generated.
+         */
+        private List<String> content(List<RawFeedMessage> messages) {
+            return messages.stream()
+                    .map(message -> new String(message.payload(), StandardCharsets.UTF_8)
+                            .replaceAll("\"(timestamp|tradeId)\":\"[^\"]*\"", ""))
+                    .toList();
+        }
+        
+        private void waitFor(BooleanSupplier condition) throws InterruptedException {
+            while (!condition.getAsBoolean()) {
+                Thread.sleep(5);
+            }
+        }
+    }
+    
     // =========================================================================
     // Helper methods
     // =========================================================================
@@ -629,6 +899,41 @@ class SyntheticExchangeAdapterTest {
     // Test helper class
     // =========================================================================
     
+    /**
+     * Counts messages and records which threads emitted each symbol, without keeping the messages.
+     */
+    private static class CountingHandler implements FeedEventHandler {
+        final LongAdder count = new LongAdder();
+        final Map<String, Set<String>> threadsBySymbol = new ConcurrentHashMap<>();
+        final List<Throwable> errors = new CopyOnWriteArrayList<>();
+        
+        @Override
+        public void onConnected(String adapterId) {
+        }
+        
+        @Override
+        public void onDisconnected(String adapterId, String reason) {
+        }
+        
+        @Override
+        public void onMessage(String adapterId, RawFeedMessage message) {
+            count.increment();
+            String json = new String(message.payload(), StandardCharsets.UTF_8);
+            int start = json.indexOf("\"symbol\":\"") + 10;
+            String symbol = json.substring(start, json.indexOf('"', start));
+            threadsBySymbol.computeIfAbsent(symbol, s -> ConcurrentHashMap.newKeySet()).add(Thread.currentThread().getName());
+        }
+        
+        @Override
+        public void onError(String adapterId, Throwable error) {
+            errors.add(error);
+        }
+        
+        @Override
+        public void onHeartbeatTimeout(String adapterId) {
+        }
+    }
+    
     private static class TestFeedEventHandler implements FeedEventHandler {
         final AtomicBoolean connected = new AtomicBoolean(false);
         final List<RawFeedMessage> messages = new CopyOnWriteArrayList<>();
@@ -0,0 +1,181 @@
+package com.pulsewire.dataplane.adapter.synthetic;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SyntheticMessageEncoderTest {
+
+    // The formats SyntheticTrade.toJson and SyntheticQuote.toJson used before the encoder
+    private static final String TRADE_FORMAT =
+            "{\"type\":\"TRADE\",\"symbol\":\"%s\",\"price\":%.4f,\"quantity\":%d,\"timestamp\":\"%s\",\"tradeId\":\"%s\",\"side\":\"%s\"}";
+    private static final String QUOTE_FORMAT =
+            "{\"type\":\"QUOTE\",\"symbol\":\"%s\",\"bidPrice\":%.4f,\"bidSize\":%d,\"askPrice\":%.4f,\"askSize\":%d,\"timestamp\":\"%s\"}";
+
+    private static final Instant TIMESTAMP = Instant.parse("2026-02-06T10:30:00.123456Z");
+
+    private SyntheticMessageEncoder encoder;
+
+    @BeforeEach
+    void setUp() {
+        encoder = new SyntheticMessageEncoder();
+    }
+
+    private static String formatted(SyntheticTrade trade) {
+        return String.format(Locale.ROOT, TRADE_FORMAT, trade.symbol(), trade.price(), trade.quantity(),
+                trade.timestamp(), trade.tradeId(), trade.side().name());
+    }
+
+    private static String formatted(SyntheticQuote quote) {
+        return String.format(Locale.ROOT, QUOTE_FORMAT, quote.symbol(), quote.bidPrice(), quote.bidSize(),
+                quote.askPrice(), quote.askSize(), quote.timestamp());
+    }
+
+    private String encoded() {
+        return new String(encoder.buffer(), 0, encoder.length(), StandardCharsets.UTF_8);
+    }
+
+    @Nested
+    @DisplayName("Byte identity with String.format")
+    class ByteIdentity {
+
+        @Test
+        @DisplayName("Should encode trades exactly as the format did")
+        void shouldMatchFormattedTrade() {
+            SyntheticTrade trade = new SyntheticTrade("AAPL", 185.5, 100, TIMESTAMP, "T123", TradeSide.BUY);
+
+            assertEquals(formatted(trade), new String(trade.toBytes(), StandardCharsets.UTF_8));
+            assertEquals(formatted(trade), trade.toJson());
+            encoder.encode(trade);
+            assertEquals(formatted(trade), encoded());
+        }
+
+        @Test
+        @DisplayName("Should encode quotes exactly as the format did")
+        void shouldMatchFormattedQuote() {
+            SyntheticQuote quote = new SyntheticQuote("MSFT", 374.9925, 300, 375.0075, 200, TIMESTAMP);
+
+            assertEquals(formatted(quote), quote.toJson());
+            encoder.encode(quote);
+            assertEquals(formatted(quote), encoded());
+        }
+
+        @Test
+        @DisplayName("Should write a numeric trade ID as T followed by the number")
+        void shouldEncodeNumericTradeId() {
+            encoder.encodeTrade("NVDA", 850.25, 700, TIMESTAMP, 7_299_437_154_213_888L, TradeSide.SELL);
+
+            SyntheticTrade trade = new SyntheticTrade("NVDA", 850.25, 700, TIMESTAMP, "T7299437154213888",
+                    TradeSide.SELL);
+            assertEquals(formatted(trade), encoded());
+        }
+
+        @Test
+        @DisplayName("Should round prices half-up to four decimals as %.4f does, including ties")
+        void shouldRoundPricesLikeFormat() {
+            List<Double> prices = List.of(
+                    0.00004, 0.00005, 0.00015, 0.5, 1.00005, 1.00015, 2.67865, 185.12345, 185.12355, 9.99995,
+                    99.99995, 0.1 + 0.2, 1.0 / 3, 2.0 / 3, 1e-9, 12345678.00005, 99_999_999_999.99995, 1e11,
+                    123_456_789_012_345.6, Double.MIN_VALUE, Double.MAX_VALUE);
+            for (double price : prices) {
+                SyntheticTrade trade = new SyntheticTrade("X", price, 1, TIMESTAMP, "T1", TradeSide.BUY);
+                encoder.encode(trade);
+                assertEquals(formatted(trade), encoded(), "price " + price);
+            }
+        }
+
+        @Test
+        @DisplayName("Should match the format for random prices across magnitudes")
+        void shouldMatchFormatForRandomPrices() {
+            SplittableRandom random = new SplittableRandom(20260206);
+            for (int i = 0; i < 20_000; i++) {
+                // Log-uniform over 1e-6 .. 1e12, and a share snapped near four-decimal ties
+                double price = Math.pow(10, random.nextDouble(-6, 12));
+                if (i % 4 == 0) {
+                    price = (Math.floor(price * 10_000) + 0.5) / 10_000;
+                }
+                double ask = price + random.nextDouble(0.0001, 1);
+                SyntheticQuote quote = new SyntheticQuote("Q", price, 1 + random.nextLong(1_000_000), ask,
+                        1 + random.nextLong(1_000_000), TIMESTAMP);
+                encoder.encode(quote);
+                assertEquals(formatted(quote), encoded(), "bid " + price + " ask " + ask);
+            }
+        }
+
+        @Test
+        @DisplayName("Should match Instant.toString for timestamps of every fraction length and era")
+        void shouldMatchInstantToString() {
+            List<Instant> timestamps = List.of(
+                    Instant.EPOCH, Instant.parse("2026-02-06T10:30:00Z"), Instant.parse("2026-02-06T10:30:00.100Z"),
+                    Instant.parse("2026-02-06T10:30:00.000100Z"), Instant.parse("2026-02-06T10:30:00.000000001Z"),
+                    Instant.parse("2024-02-29T23:59:59.999999999Z"), Instant.parse("1969-12-31T23:59:59.5Z"),
+                    Instant.parse("0000-01-01T00:00:00Z"), Instant.parse("9999-12-31T23:59:59Z"),
+                    Instant.parse("+10000-01-01T00:00:00Z"), Instant.parse("-0001-12-31T23:59:59Z"),
+                    Instant.MIN, Instant.MAX);
+            for (Instant timestamp : timestamps) {
+                SyntheticTrade trade = new SyntheticTrade("X", 1, 1, timestamp, "T1", TradeSide.BUY);
+                encoder.encode(trade);
+                assertEquals(formatted(trade), encoded(), timestamp.toString());
+            }
+
+            SplittableRandom random = new SplittableRandom(7);
+            for (int i = 0; i < 20_000; i++) {
+                long nanos = switch (i % 4) {
+                    case 0 -> 0;
+                    case 1 -> random.nextInt(1000) * 1_000_000L;
+                    case 2 -> random.nextInt(1_000_000) * 1000L;
+                    default -> random.nextInt(1_000_000_000);
+                };
+                Instant timestamp = Instant.ofEpochSecond(random.nextLong(-62_167_219_200L, 253_402_300_800L), nanos);
+                SyntheticTrade trade = new SyntheticTrade("X", 1, 1, timestamp, "T1", TradeSide.BUY);
+                encoder.encode(trade);
+                assertEquals(formatted(trade), encoded(), timestamp.toString());
+            }
+        }
+
+        @Test
+        @DisplayName("Should encode non-ASCII symbols and IDs as UTF-8")
+        void shouldEncodeNonAsciiAsUtf8() {
+            SyntheticTrade trade = new SyntheticTrade("7203.T-トヨタ", 2500, 100, TIMESTAMP, "T-é1", TradeSide.BUY);
+
+            assertArrayEquals(formatted(trade).getBytes(StandardCharsets.UTF_8), trade.toBytes());
+        }
+    }
+
+    @Nested
+    @DisplayName("Buffer")
+    class Buffer {
+
+        @Test
+        @DisplayName("Should overwrite the buffer on each encode and copy out exactly the message")
+        void shouldReuseBuffer() {
+            int length = encoder.encodeQuote("AAPL", 185.48, 100, 185.52, 200, TIMESTAMP);
+            byte[] buffer = encoder.buffer();
+            encoder.encodeTrade("AAPL", 185.5, 100, TIMESTAMP, 1, TradeSide.BUY);
+
+            assertSame(buffer, encoder.buffer());
+            assertNotEquals(length, encoder.length());
+            assertEquals(encoder.length(), encoder.toByteArray().length);
+        }
+
+        @Test
+        @DisplayName("Should grow for messages longer than the buffer")
+        void shouldGrowForLongMessages() {
+            String symbol = "S".repeat(1000);
+            SyntheticTrade trade = new SyntheticTrade(symbol, 1, 1, TIMESTAMP, "T1", TradeSide.BUY);
+
+            encoder.encode(trade);
+
+            assertEquals(formatted(trade), encoded());
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.pulsewire.dataplane.adapter.synthetic;
+
+import com.pulsewire.core.instrument.InstrumentRegistry;
+import com.pulsewire.core.model.MarketEvent;
+import com.pulsewire.core.model.MarketEvent.EventType;
+import com.pulsewire.core.time.PulseClock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SyntheticPayloadParserTest {
+
+    private InstrumentRegistry instrumentRegistry;
+    private List<Integer> newInstruments;
+    private SyntheticPayloadParser parser;
+
+    @BeforeEach
+    void setUp() {
+        instrumentRegistry = new InstrumentRegistry(256);
+        newInstruments = new ArrayList<>();
+        parser = new SyntheticPayloadParser(instrumentRegistry, newInstruments::add);
+    }
+
+    private EventType parse(String json) {
+        return parser.parse(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return a direct buffer holding {@code payload} at {@code offset}, between runs of other bytes
+     */
+    private static ByteBuffer embedded(byte[] payload, int offset) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(offset + payload.length + 16);
+        while (buffer.hasRemaining()) {
+            buffer.put((byte) '}');
+        }
+        buffer.put(offset, payload);
+        return buffer;
+    }
+
+    @Nested
+    @DisplayName("Payloads")
+    class Payloads {
+
+        @Test
+        @DisplayName("Should read a SyntheticTrade payload into fixed point")
+        void shouldParseTrade() {
+            Instant timestamp = Instant.parse("2026-02-06T10:30:00.123456789Z");
+            SyntheticTrade trade = new SyntheticTrade("AAPL", 185.5, 300, timestamp, "T42", TradeSide.BUY);
+
+            assertEquals(EventType.TRADE, parser.parse(trade.toBytes()));
+            assertEquals("AAPL", parser.instrumentId());
+            assertEquals(instrumentRegistry.indexOf("AAPL"), parser.instrumentIndex());
+            assertEquals(1_855_000, parser.price());
+            assertEquals(4, parser.priceScale());
+            assertEquals(300, parser.quantity());
+            assertEquals(PulseClock.toEpochNanos(timestamp), parser.timestampNanos());
+        }
+
+        @Test
+        @DisplayName("Should read a SyntheticQuote payload into fixed point")
+        void shouldParseQuote() {
+            Instant timestamp = Instant.parse("2026-02-06T10:30:01Z");
+            SyntheticQuote quote = new SyntheticQuote("MSFT", 374.99, 100, 375.01, 200, timestamp);
+
+            assertEquals(EventType.QUOTE, parser.parse(quote.toBytes()));
+            assertEquals("MSFT", parser.instrumentId());
+            assertEquals(3_749_900, parser.bidPrice());
+            assertEquals(100, parser.bidSize());
+            assertEquals(3_750_100, parser.askPrice());
+            assertEquals(200, parser.askSize());
+            assertEquals(4, parser.priceScale());
+            assertEquals(PulseClock.toEpochNanos(timestamp), parser.timestampNanos());
+        }
+
+        @Test
+        @DisplayName("Should read SyntheticFeedAdapterV2 trades, which have qty and no timestamp")
+        void shouldParseV2Trade() {
+            assertEquals(EventType.TRADE, parse("{\"type\":\"TRADE\",\"symbol\":\"NVDA\",\"price\":850.25,\"qty\":7,\"side\":\"SELL\"}"));
+            assertEquals(85_025, parser.price());
+            assertEquals(2, parser.priceScale());
+            assertEquals(7, parser.quantity());
+            assertEquals(MarketEvent.NO_TIMESTAMP, parser.timestampNanos());
+        }
+
+        @Test
+        @DisplayName("Should accept any property order, whitespace and unknown properties")
+        void shouldSkipUnknownProperties() {
+            assertEquals(EventType.QUOTE, parse(" { \"venue\" : {\"mic\":\"XNAS\",\"flags\":[1,true,null,\"a\\\"b\"]},"
+                    + " \"askSize\":5, \"askPrice\":10.5, \"bidSize\":4, \"bidPrice\":10.25, \"symbol\":\"X\","
+                    + " \"type\":\"QUOTE\" } "));
+            assertEquals(1025, parser.bidPrice());
+            assertEquals(1050, parser.askPrice());
+            assertEquals(2, parser.priceScale());
+        }
+
+        @Test
+        @DisplayName("Should read a payload in place from a range of a buffer")
+        void shouldParseBufferRange() {
+            Instant timestamp = Instant.parse("2026-02-06T10:30:00.123456789Z");
+            byte[] payload = new SyntheticTrade("AAPL", 185.5, 300, timestamp, "T42", TradeSide.BUY).toBytes();
+            ByteBuffer buffer = embedded(payload, 24);
+            buffer.position(3);
+
+            assertEquals(EventType.TRADE, parser.parse(buffer, 24, payload.length));
+            assertEquals("AAPL", parser.instrumentId());
+            assertEquals(1_855_000, parser.price());
+            assertEquals(300, parser.quantity());
+            assertEquals(PulseClock.toEpochNanos(timestamp), parser.timestampNanos());
+            assertEquals(3, buffer.position());
+
+            // Symbols seen in a buffer and in an array resolve to the same entry
+            String id = parser.instrumentId();
+            parse("{\"type\":\"TRADE\",\"symbol\":\"AAPL\",\"price\":1,\"qty\":1}");
+            assertSame(id, parser.instrumentId());
+            assertEquals(1, newInstruments.size());
+        }
+
+        @Test
+        @DisplayName("Should intern each symbol once")
+        void shouldInternSymbols() {
+            parse("{\"type\":\"TRADE\",\"symbol\":\"AAPL\",\"price\":1,\"qty\":1}");
+            parse("{\"type\":\"TRADE\",\"symbol\":\"MSFT\",\"price\":1,\"qty\":1}");
+            String id = parser.instrumentId();
+            for (int i = 0; i < 200; i++) {
+                parse("{\"type\":\"TRADE\",\"symbol\":\"S" + i + "\",\"price\":1,\"qty\":1}");
+            }
+            parse("{\"type\":\"TRADE\",\"symbol\":\"MSFT\",\"price\":1,\"qty\":1}");
+
+            assertSame(id, parser.instrumentId());
+            assertEquals(202, newInstruments.size());
+            assertEquals(202, instrumentRegistry.size());
+        }
+    }
+
+    @Nested
+    @DisplayName("Rejection")
+    class Rejection {
+
+        @Test
+        @DisplayName("Should reject malformed and incomplete payloads")
+        void shouldRejectMalformedPayloads() {
+            List<String> payloads = List.of(
+                    "",
+                    "[]",
+                    "{\"type\":\"TRADE\",\"symbol\":\"AAPL\",\"price\":1.5}",
+                    "{\"type\":\"BOOK\",\"symbol\":\"AAPL\",\"price\":1.5,\"qty\":1}",
+                    "{\"symbol\":\"AAPL\",\"price\":1.5,\"qty\":1}",
+                    "{\"type\":\"TRADE\",\"symbol\":\"AAPL\",\"price\":-1.5,\"qty\":1}",
+                    "{\"type\":\"TRADE\",\"symbol\":\"AAPL\",\"price\":1e3,\"qty\":1}",
+                    "{\"type\":\"TRADE\",\"symbol\":\"AAPL\",\"price\":1.5,\"qty\":1.5}",
+                    "{\"type\":\"TRADE\",\"symbol\":\"AAPL\",\"price\":1.5,\"qty\":1",
+                    "{\"type\":\"TRADE\",\"symbol\":\"\",\"price\":1.5,\"qty\":1}",
+                    "{\"type\":\"TRADE\",\"symbol\":\"AAPL\",\"price\":1.5,\"qty\":1,\"timestamp\":\"yesterday\"}",
+                    "{\"type\":\"TRADE\",\"symbol\":\"AAPL\",\"price\":12345678901234567890,\"qty\":1}");
+            for (String json : payloads) {
+                assertThrows(IllegalArgumentException.class, () -> parse(json), json);
+            }
+        }
+
+        @Test
+        @DisplayName("Should not read a buffer past the end of the payload's range")
+        void shouldStopAtEndOfRange() {
+            byte[] payload = "{\"type\":\"TRADE\",\"symbol\":\"AAPL\",\"price\":1.5,\"qty\":1}"
+                    .getBytes(StandardCharsets.UTF_8);
+            ByteBuffer buffer = embedded(payload, 8);
+
+            assertThrows(IllegalArgumentException.class, () -> parser.parse(buffer, 8, payload.length - 1));
+            assertThrows(IndexOutOfBoundsException.class, () -> parser.parse(buffer, 8, buffer.capacity()));
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.pulsewire.dataplane.adapter.synthetic;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SyntheticTapeGeneratorTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @TempDir
+    Path dir;
+
+    private static SyntheticFeedConfig seeded(long seed, SyntheticScenario scenario) {
+        return SyntheticFeedConfig.builder().seed(seed).scenario(scenario).build();
+    }
+
+    @Nested
+    @DisplayName("Generation")
+    class Generation {
+
+        @Test
+        @DisplayName("Should write the same tape for the same seed and a different one for another seed")
+        void shouldBeDeterministic() throws IOException {
+            Path first = dir.resolve("first.tape");
+            Path second = dir.resolve("second.tape");
+            Path other = dir.resolve("other.tape");
+
+            SyntheticTapeGenerator.generate(seeded(42, SyntheticScenario.OPEN_AUCTION_SPIKE), 2 * SECOND, first);
+            SyntheticTapeGenerator.generate(seeded(42, SyntheticScenario.OPEN_AUCTION_SPIKE), 2 * SECOND, second);
+            SyntheticTapeGenerator.generate(seeded(43, SyntheticScenario.OPEN_AUCTION_SPIKE), 2 * SECOND, other);
+
+            assertArrayEquals(Files.readAllBytes(first), Files.readAllBytes(second));
+            assertFalse(Arrays.equals(Files.readAllBytes(first), Files.readAllBytes(other)));
+        }
+
+        @Test
+        @DisplayName("Should pace records at the configured rate in virtual time")
+        void shouldPaceRecords() throws IOException {
+            Path file = dir.resolve("quiet.tape");
+            SyntheticFeedConfig config = SyntheticFeedConfig.builder()
+                    .seed(1L)
+                    .scenario(SyntheticScenario.QUIET_SESSION)
+                    .messageRatePerSecond(600)
+                    .build();
+
+            long records = SyntheticTapeGenerator.generate(config, 3 * SECOND, file);
+
+            assertEquals(1800, records);
+            try (SyntheticTape.Reader reader = new SyntheticTape.Reader(file)) {
+                assertEquals(1L, reader.seed());
+                assertEquals(SyntheticScenario.QUIET_SESSION, reader.scenario());
+                assertEquals(SyntheticScenario.QUIET_SESSION.symbols(), reader.symbols());
+
+                SyntheticMarket.Tick tick = new SyntheticMarket.Tick();
+                long last = 0;
+                long offset;
+                int trades = 0;
+                while ((offset = reader.next(tick)) >= 0) {
+                    assertTrue(offset >= last && offset <= 3 * SECOND, "offset " + offset);
+                    last = offset;
+                    trades += tick.trade ? 1 : 0;
+                }
+                // One trade per ten quotes
+                assertEquals(1800 / 11, trades);
+            }
+        }
+
+        @Test
+        @DisplayName("Should shape the news burst: a rate spike concentrated on the first symbol")
+        void shouldShapeNewsBurst() throws IOException {
+            Path file = dir.resolve("news.tape");
+            SyntheticTapeGenerator.generate(seeded(7, SyntheticScenario.NEWS_BURST), 12 * SECOND, file);
+
+            int before = 0;
+            int after = 0;
+            int hotAfter = 0;
+            try (SyntheticTape.Reader reader = new SyntheticTape.Reader(file)) {
+                SyntheticMarket.Tick tick = new SyntheticMarket.Tick();
+                long offset;
+                while ((offset = reader.next(tick)) >= 0) {
+                    if (offset >= 9 * SECOND && offset < 10 * SECOND) {
+                        before++;
+                    } else if (offset >= 10 * SECOND && offset < 11 * SECOND) {
+                        after++;
+                        hotAfter += tick.symbolIndex == 0 ? 1 : 0;
+                    }
+                }
+            }
+
+            assertEquals(1000, before, 1);
+            assertTrue(after > 10 * before, "after=" + after + " before=" + before);
+            assertTrue(hotAfter > after / 2, "hot=" + hotAfter + " of " + after);
+        }
+
+        @Test
+        @DisplayName("Should reject an unseeded configuration")
+        void shouldRequireSeed() {
+            assertThrows(IllegalArgumentException.class, () ->
+                    SyntheticTapeGenerator.generate(SyntheticFeedConfig.builder().build(), SECOND, dir.resolve("x")));
+        }
+    }
+
+    @Nested
+    @DisplayName("Tape format")
+    class TapeFormat {
+
+        @Test
+        @DisplayName("Should read back what was written, with prices at four decimals")
+        void shouldRoundTrip() throws IOException {
+            Path file = dir.resolve("round-trip.tape");
+            SyntheticMarket.Tick trade = new SyntheticMarket.Tick();
+            trade.symbolIndex = 1;
+            trade.trade = true;
+            trade.price = 185.25;
+            trade.quantity = 300;
+            trade.side = TradeSide.SELL;
+            SyntheticMarket.Tick quote = new SyntheticMarket.Tick();
+            quote.bidPrice = 374.96251;
+            quote.bidSize = 100;
+            quote.askPrice = 375.03749;
+            quote.askSize = 200;
+
+            try (SyntheticTape.Writer writer = new SyntheticTape.Writer(file, 9, null, List.of("AAPL", "MSFT"))) {
+                writer.write(1_000, trade);
+                writer.write(1_000, quote);
+                assertThrows(IllegalArgumentException.class, () -> writer.write(999, quote));
+            }
+
+            try (SyntheticTape.Reader reader = new SyntheticTape.Reader(file)) {
+                assertNull(reader.scenario());
+                SyntheticMarket.Tick tick = new SyntheticMarket.Tick();
+
+                assertEquals(1_000, reader.next(tick));
+                assertTrue(tick.trade);
+                assertEquals("MSFT", reader.symbols().get(tick.symbolIndex));
+                assertEquals(185.25, tick.price);
+                assertEquals(300, tick.quantity);
+                assertEquals(TradeSide.SELL, tick.side);
+
+                assertEquals(1_000, reader.next(tick));
+                assertFalse(tick.trade);
+                assertEquals(0, tick.symbolIndex);
+                assertEquals(374.9625, tick.bidPrice);
+                assertEquals(375.0375, tick.askPrice);
+                assertEquals(200, tick.askSize);
+
+                assertEquals(-1, reader.next(tick));
+            }
+        }
+
+        @Test
+        @DisplayName("Should reject files that are not tapes")
+        void shouldRejectForeignFiles() throws IOException {
+            Path file = dir.resolve("foreign.tape");
+            Files.writeString(file, "not a tape at all");
+
+            assertThrows(IOException.class, () -> new SyntheticTape.Reader(file));
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.pulsewire.dataplane.cache;
+
+import com.pulsewire.core.instrument.InstrumentRegistry;
+import com.pulsewire.core.model.MarketEvent;
+import com.pulsewire.core.model.MarketEvent.EventType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LastValueCacheTest {
+
+    private InstrumentRegistry instrumentRegistry;
+    private LastValueCache cache;
+
+    @BeforeEach
+    void setUp() {
+        instrumentRegistry = new InstrumentRegistry(16);
+        cache = new LastValueCache(instrumentRegistry);
+    }
+
+    private MarketEvent event(String instrumentId, EventType eventType, String eventId) {
+        return new MarketEvent(eventId, instrumentId, eventType, MarketEvent.NO_TIMESTAMP, MarketEvent.NO_TIMESTAMP,
+                MarketEvent.NO_TIMESTAMP, 1, null, 0L, instrumentRegistry.register(instrumentId));
+    }
+
+    private List<LastValueCache.Entry> snapshot(String instrumentId) {
+        List<LastValueCache.Entry> entries = new ArrayList<>();
+        cache.snapshot(instrumentRegistry.indexOf(instrumentId), entries::add);
+        return entries;
+    }
+
+    @Nested
+    @DisplayName("Sequencing")
+    class Sequencing {
+
+        @Test
+        @DisplayName("Should number every event of an instrument consecutively")
+        void shouldNumberPerInstrument() {
+            assertEquals(1, cache.update(event("AAPL", EventType.TRADE, "a1")));
+            assertEquals(2, cache.update(event("AAPL", EventType.BOOK_SNAPSHOT, "a2")));
+            assertEquals(1, cache.update(event("MSFT", EventType.QUOTE, "m1")));
+            assertEquals(3, cache.update(event("AAPL", EventType.QUOTE, "a3")));
+
+            assertEquals(3, cache.sequence(instrumentRegistry.indexOf("AAPL")));
+            assertEquals(1, cache.sequence(instrumentRegistry.indexOf("MSFT")));
+        }
+
+        @Test
+        @DisplayName("Should leave events without an instrument index unsequenced")
+        void shouldSkipUnindexedEvents() {
+            MarketEvent unindexed = new MarketEvent("x", "AAPL", EventType.TRADE, MarketEvent.NO_TIMESTAMP,
+                    MarketEvent.NO_TIMESTAMP, MarketEvent.NO_TIMESTAMP, 1, null, 0L, InstrumentRegistry.UNASSIGNED);
+
+            assertEquals(LastValueCache.UNSEQUENCED, cache.update(unindexed));
+        }
+    }
+
+    @Nested
+    @DisplayName("Snapshots")
+    class Snapshots {
+
+        @Test
+        @DisplayName("Should hold the latest trade and quote, oldest first")
+        void shouldHoldLatestTradeAndQuote() {
+            cache.update(event("AAPL", EventType.TRADE, "t1"));
+            cache.update(event("AAPL", EventType.QUOTE, "q1"));
+            cache.update(event("AAPL", EventType.TRADE, "t2"));
+            cache.update(event("AAPL", EventType.BOOK_SNAPSHOT, "b1"));
+
+            List<LastValueCache.Entry> entries = snapshot("AAPL");
+
+            assertEquals(List.of("q1", "t2"), entries.stream().map(entry -> entry.event().eventId()).toList());
+            assertEquals(List.of(2L, 3L), entries.stream().map(LastValueCache.Entry::sequence).toList());
+        }
+
+        @Test
+        @DisplayName("Should be empty for instruments without trades or quotes")
+        void shouldBeEmptyWithoutValues() {
+            cache.update(event("AAPL", EventType.BOOK_SNAPSHOT, "b1"));
+
+            assertTrue(snapshot("AAPL").isEmpty());
+            assertTrue(snapshot("UNKNOWN").isEmpty());
+        }
+
+        @Test
+        @DisplayName("Should keep the newest entry when concurrent updates race")
+        void shouldKeepNewestUnderContention() throws Exception {
+            int threads = 4;
+            int perThread = 10_000;
+            List<Thread> writers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                writers.add(Thread.ofPlatform().start(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        cache.update(event("AAPL", EventType.TRADE, "t"));
+                    }
+                }));
+            }
+            for (Thread writer : writers) {
+                writer.join();
+            }
+
+            assertEquals(List.of((long) threads * perThread),
+                    snapshot("AAPL").stream().map(LastValueCache.Entry::sequence).toList());
+        }
+    }
+}
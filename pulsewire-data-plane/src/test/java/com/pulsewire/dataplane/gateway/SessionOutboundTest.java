@@ -0,0 +1,310 @@
+package com.pulsewire.dataplane.gateway;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.pulsewire.core.codec.BinaryEventCodec;
+import com.pulsewire.core.model.MarketEvent;
+import com.pulsewire.core.model.MarketEvent.EventType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SessionOutboundTest {
+
+    private final CountDownLatch firstWriteStarted = new CountDownLatch(1);
+    private final CountDownLatch releaseWrites = new CountDownLatch(1);
+    private final List<String> written = new CopyOnWriteArrayList<>();
+    private final SessionOutbound.Totals totals = new SessionOutbound.Totals();
+    private final ScheduledThreadPoolExecutor timer = spy(new ScheduledThreadPoolExecutor(1));
+    private SessionOutbound outbound;
+
+    /**
+     * A session whose first write blocks until released, like a client with a full TCP window.
+     */
+    private WebSocketSession slowSession() throws Exception {
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn("slow");
+        doAnswer(invocation -> {
+            firstWriteStarted.countDown();
+            assertTrue(releaseWrites.await(5, TimeUnit.SECONDS));
+            WebSocketMessage<?> message = invocation.getArgument(0);
+            written.add((String) message.getPayload());
+            return null;
+        }).when(session).sendMessage(any());
+        return session;
+    }
+
+    private SessionOutbound start(OverflowPolicy policy, int capacity) throws Exception {
+        outbound = new SessionOutbound(slowSession(), new OutboundQueueSettings(capacity, policy), totals, event -> { },
+                timer);
+        outbound.start();
+        return outbound;
+    }
+
+    private static MarketEvent event(int instrumentIndex) {
+        return new MarketEvent(null, "SYM" + instrumentIndex, EventType.TRADE, MarketEvent.NO_TIMESTAMP,
+                MarketEvent.NO_TIMESTAMP, MarketEvent.NO_TIMESTAMP, 1, null, 1L, instrumentIndex);
+    }
+
+    private void offer(String payload, int instrumentIndex) {
+        outbound.offer(new TextMessage(payload), event(instrumentIndex));
+    }
+
+    /**
+     * Offer the first message and wait until the writer is stuck writing it.
+     */
+    private void blockWriter() throws InterruptedException {
+        offer("first", 0);
+        assertTrue(firstWriteStarted.await(1, TimeUnit.SECONDS));
+    }
+
+    private void awaitWritten(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (written.size() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(expected, written.size(), written::toString);
+    }
+
+    @AfterEach
+    void tearDown() {
+        releaseWrites.countDown();
+        if (outbound != null) {
+            outbound.close();
+        }
+        timer.shutdownNow();
+    }
+
+    @Nested
+    @DisplayName("Overflow policies")
+    class OverflowPolicies {
+
+        @Test
+        @DisplayName("Drop-oldest should keep the newest messages")
+        void dropOldest() throws Exception {
+            start(OverflowPolicy.DROP_OLDEST, 2);
+            blockWriter();
+            offer("a", 1);
+            offer("b", 2);
+            offer("c", 3);
+            offer("d", 4);
+
+            assertEquals(2, outbound.depth());
+            releaseWrites.countDown();
+            awaitWritten(3);
+
+            assertEquals(List.of("first", "c", "d"), written);
+            assertEquals(2, outbound.stats().dropped());
+            assertEquals(2, totals.dropped.sum());
+        }
+
+        @Test
+        @DisplayName("Conflate should replace the queued message of the same instrument in place")
+        void conflate() throws Exception {
+            start(OverflowPolicy.CONFLATE, 2);
+            blockWriter();
+            offer("aapl-1", 1);
+            offer("msft-1", 2);
+            offer("aapl-2", 1);
+            offer("msft-2", 2);
+            offer("tsla-1", 3);
+
+            releaseWrites.countDown();
+            awaitWritten(3);
+
+            assertEquals(List.of("first", "msft-2", "tsla-1"), written);
+            SessionStats stats = outbound.stats();
+            assertEquals(2, stats.conflated());
+            assertEquals(1, stats.dropped());
+        }
+
+        @Test
+        @DisplayName("Disconnect should close the session instead of queueing more")
+        void disconnect() throws Exception {
+            SessionOutbound outbound = start(OverflowPolicy.DISCONNECT, 1);
+            blockWriter();
+            offer("a", 1);
+            offer("b", 2);
+
+            assertFalse(outbound.offer(new TextMessage("c"), event(3)));
+            releaseWrites.countDown();
+
+            verify(outbound.session(), timeout(1000)).close(CloseStatus.SESSION_NOT_RELIABLE);
+            assertEquals(List.of("first"), written);
+            assertEquals(1, totals.disconnected.sum());
+        }
+    }
+
+    @Nested
+    @DisplayName("Conflated subscriptions")
+    class ConflatedSubscriptions {
+
+        private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+        private OutboundFrame frame(String eventId, int instrumentIndex) {
+            return frame(eventId, instrumentIndex, EventType.QUOTE, 0);
+        }
+
+        private OutboundFrame frame(String eventId, int instrumentIndex, EventType eventType, long sequence) {
+            MarketEvent event = new MarketEvent(eventId, "SYM" + instrumentIndex, eventType,
+                    MarketEvent.NO_TIMESTAMP, MarketEvent.NO_TIMESTAMP, MarketEvent.NO_TIMESTAMP, 1, null, 0L,
+                    instrumentIndex);
+            return new OutboundFrame(event, sequence, objectMapper, new BinaryEventCodec(), new LongAdder());
+        }
+
+        private List<String> writtenIds() {
+            return written.stream().map(json -> json.replaceAll(".*\"eventId\":\"([^\"]+)\".*", "$1")).toList();
+        }
+
+        @Test
+        @DisplayName("Should write only the latest update per interval")
+        void shouldWriteLatestPerInterval() throws Exception {
+            start(OverflowPolicy.DROP_OLDEST, 16);
+            releaseWrites.countDown();
+            outbound.conflate(1, 50);
+            for (int i = 0; i < 100; i++) {
+                outbound.deliver(frame("aapl-" + i, 1));
+            }
+            outbound.deliver(frame("msft-0", 2));
+
+            awaitWritten(2);
+            Thread.sleep(120);
+
+            List<String> ids = writtenIds();
+            assertEquals("msft-0", ids.get(0));
+            assertEquals("aapl-99", ids.get(ids.size() - 1));
+            assertTrue(ids.size() <= 3, ids::toString);
+        }
+
+        @Test
+        @DisplayName("Should keep the latest update of each event type and flush them in sequence order")
+        void shouldConflatePerEventType() throws Exception {
+            start(OverflowPolicy.DROP_OLDEST, 16);
+            releaseWrites.countDown();
+            outbound.conflate(1, 50);
+            outbound.deliver(frame("trade-1", 1, EventType.TRADE, 1));
+            outbound.deliver(frame("quote-2", 1, EventType.QUOTE, 2));
+            outbound.deliver(frame("trade-3", 1, EventType.TRADE, 3));
+
+            awaitWritten(2);
+            Thread.sleep(80);
+            assertEquals(List.of("quote-2", "trade-3"), writtenIds());
+        }
+
+        @Test
+        @DisplayName("Should flush every conflated instrument of a session from one timer task")
+        void shouldShareOneTimerTask() throws Exception {
+            start(OverflowPolicy.DROP_OLDEST, 4096);
+            releaseWrites.countDown();
+            timer.setRemoveOnCancelPolicy(true);
+            for (int i = 0; i < 1_000; i++) {
+                outbound.conflate(i, 20 + i % 7);
+                outbound.deliver(frame("sym-" + i, i));
+            }
+
+            awaitWritten(1_000);
+            verify(timer, times(1)).scheduleAtFixedRate(any(), anyLong(), anyLong(), any());
+            for (int i = 0; i < 1_000; i++) {
+                outbound.conflate(i, 0);
+            }
+            assertEquals(0, timer.getQueue().size());
+        }
+
+        @Test
+        @DisplayName("Should deliver every update again once conflation is cleared")
+        void shouldStopConflating() throws Exception {
+            start(OverflowPolicy.DROP_OLDEST, 16);
+            releaseWrites.countDown();
+            outbound.conflate(1, 60_000);
+            outbound.deliver(frame("held", 1));
+            outbound.conflate(1, 0);
+            outbound.deliver(frame("a", 1));
+            outbound.deliver(frame("b", 1));
+
+            awaitWritten(2);
+            assertEquals(List.of("a", "b"), writtenIds());
+        }
+    }
+
+    @Nested
+    @DisplayName("Batching")
+    class Batching {
+
+        @Test
+        @DisplayName("Should coalesce queued events into array frames of at most the batch size")
+        void shouldCoalesceUpToBatchSize() throws Exception {
+            start(OverflowPolicy.DROP_OLDEST, 16);
+            releaseWrites.countDown();
+            outbound.batch(BatchSettings.of(3, 50_000));
+            offer("a", 1);
+            offer("b", 2);
+            offer("c", 3);
+            offer("d", 4);
+
+            awaitWritten(2);
+            assertEquals(List.of("[a,b,c]", "[d]"), written);
+            SessionStats stats = outbound.stats();
+            assertEquals(4, stats.sent());
+            assertEquals(2, stats.framesSent());
+        }
+
+        @Test
+        @DisplayName("Should not hold a lone event longer than the batch delay")
+        void shouldBoundDelay() throws Exception {
+            start(OverflowPolicy.DROP_OLDEST, 16);
+            releaseWrites.countDown();
+            outbound.batch(BatchSettings.of(100, 20_000));
+            long start = System.nanoTime();
+            offer("a", 1);
+
+            awaitWritten(1);
+            assertEquals(List.of("[a]"), written);
+            assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(500));
+        }
+
+        @Test
+        @DisplayName("Should clamp requested settings and turn batching off for a batch size of one")
+        void shouldClampSettings() {
+            assertEquals(new BatchSettings(BatchSettings.MAX_EVENTS,
+                    TimeUnit.MICROSECONDS.toNanos(BatchSettings.MAX_DELAY_MICROS)), BatchSettings.of(1_000_000, 1_000_000_000));
+            assertEquals(BatchSettings.DEFAULT_EVENTS, BatchSettings.of(null, 10).maxEvents());
+            assertSame(BatchSettings.NONE, BatchSettings.of(1, 10));
+            assertFalse(BatchSettings.NONE.enabled());
+        }
+    }
+
+    @Test
+    @DisplayName("Should record send statistics")
+    void shouldRecordSendStatistics() throws Exception {
+        start(OverflowPolicy.DROP_OLDEST, 8);
+        releaseWrites.countDown();
+        offer("a", 1);
+        offer("b", 1);
+        awaitWritten(2);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (outbound.stats().sent() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        SessionStats stats = outbound.stats();
+        assertEquals("slow", stats.sessionId());
+        assertEquals(2, stats.sent());
+        assertEquals(0, stats.queueDepth());
+        assertTrue(stats.maxSendNanos() >= stats.meanSendNanos());
+    }
+}
@@ -0,0 +1,43 @@
+package com.pulsewire.dataplane.gateway;
+
+import com.pulsewire.core.model.MarketEvent.EventType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SubscriptionFilterTest {
+
+    @Test
+    @DisplayName("Should compile event types and fields into masks")
+    void shouldCompileMasks() {
+        SubscriptionFilter filter = SubscriptionFilter.of("trade, QUOTE", List.of("bidPrice", "ASK_PRICE"));
+
+        assertTrue(filter.accepts(EventType.TRADE));
+        assertTrue(filter.accepts(EventType.QUOTE));
+        assertFalse(filter.accepts(EventType.BOOK_DELTA));
+        assertFalse(filter.accepts(null));
+        assertTrue(filter.projects());
+        assertEquals(EventField.BID_PRICE.bit() | EventField.ASK_PRICE.bit(), filter.fields());
+    }
+
+    @Test
+    @DisplayName("Should treat missing options as no restriction")
+    void shouldDefaultToAll() {
+        assertSame(SubscriptionFilter.ALL, SubscriptionFilter.of(null, null));
+        assertSame(SubscriptionFilter.ALL, SubscriptionFilter.of(" ", List.of()));
+        assertTrue(SubscriptionFilter.ALL.accepts(null));
+        assertFalse(SubscriptionFilter.ALL.projects());
+    }
+
+    @Test
+    @DisplayName("Should reject unknown event types and fields")
+    void shouldRejectUnknownNames() {
+        IllegalArgumentException type = assertThrows(IllegalArgumentException.class,
+                () -> SubscriptionFilter.of("TRADE,TICK", null));
+        assertEquals("Unknown event type: TICK", type.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> SubscriptionFilter.of(null, List.of("venue")));
+    }
+}
@@ -0,0 +1,96 @@
+package com.pulsewire.dataplane.gateway;
+
+import com.pulsewire.core.instrument.InstrumentRegistry;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Micro-benchmark of gateway fan-out at 10k sessions x 5k instruments: the previous scan of every
+ * session's subscription set against {@link SubscriptionIndex}. Not a unit test; run from the IDE or
+ * with {@code java -cp <test-classpath> com.pulsewire.dataplane.gateway.SubscriptionIndexBenchmark}.
+ */
+public final class SubscriptionIndexBenchmark {
+
+    private static final int SESSIONS = 10_000;
+    private static final int INSTRUMENTS = 5_000;
+    private static final int SUBSCRIPTIONS_PER_SESSION = 20;
+    private static final int WILDCARD_SESSIONS = 10;
+    private static final int WARMUP_EVENTS = 20_000;
+    private static final int MEASURED_EVENTS = 100_000;
+
+    private static long sink;
+
+    private SubscriptionIndexBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        Random random = new Random(42);
+        InstrumentRegistry registry = new InstrumentRegistry(INSTRUMENTS);
+        String[] instrumentIds = new String[INSTRUMENTS];
+        for (int i = 0; i < INSTRUMENTS; i++) {
+            instrumentIds[i] = "SYM" + i;
+            registry.register(instrumentIds[i]);
+        }
+
+        Map<Integer, Set<String>> scanned = new HashMap<>();
+        SubscriptionIndex<Integer> index = new SubscriptionIndex<>(registry);
+        for (int session = 0; session < SESSIONS; session++) {
+            Set<String> subscriptions = new HashSet<>();
+            index.addSession(session);
+            if (session < WILDCARD_SESSIONS) {
+                subscriptions.add(SubscriptionIndex.WILDCARD);
+                index.subscribe(session, SubscriptionIndex.WILDCARD);
+            }
+            for (int i = 0; i < SUBSCRIPTIONS_PER_SESSION; i++) {
+                String instrumentId = instrumentIds[random.nextInt(INSTRUMENTS)];
+                subscriptions.add(instrumentId);
+                index.subscribe(session, instrumentId);
+            }
+            scanned.put(session, subscriptions);
+        }
+
+        int[] events = random.ints(MEASURED_EVENTS, 0, INSTRUMENTS).toArray();
+        BiConsumer<Integer, long[]> deliver = (session, count) -> count[0]++;
+
+        System.out.printf("%d sessions x %d instruments, %d subscriptions each, %d wildcard%n",
+                SESSIONS, INSTRUMENTS, SUBSCRIPTIONS_PER_SESSION, WILDCARD_SESSIONS);
+        for (int round = 0; round < 2; round++) {
+            boolean measured = round == 1;
+            int count = measured ? MEASURED_EVENTS : WARMUP_EVENTS;
+
+            long[] delivered = new long[1];
+            long start = System.nanoTime();
+            for (int e = 0; e < count; e++) {
+                String instrumentId = instrumentIds[events[e]];
+                for (Map.Entry<Integer, Set<String>> entry : scanned.entrySet()) {
+                    Set<String> subs = entry.getValue();
+                    if (subs.contains(instrumentId) || subs.contains(SubscriptionIndex.WILDCARD)) {
+                        delivered[0]++;
+                    }
+                }
+            }
+            long scanNanos = System.nanoTime() - start;
+            sink += delivered[0];
+
+            delivered[0] = 0;
+            start = System.nanoTime();
+            for (int e = 0; e < count; e++) {
+                index.forEachSubscriber(events[e], deliver, delivered);
+            }
+            long indexNanos = System.nanoTime() - start;
+            sink += delivered[0];
+
+            if (measured) {
+                System.out.printf("scan:  %,10.1f ns/event%n", (double) scanNanos / count);
+                System.out.printf("index: %,10.1f ns/event  (%.1f deliveries/event)%n",
+                        (double) indexNanos / count, (double) delivered[0] / count);
+            }
+        }
+        System.out.println("sink=" + sink);
+    }
+}
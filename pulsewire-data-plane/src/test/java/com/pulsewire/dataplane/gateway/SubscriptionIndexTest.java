@@ -0,0 +1,277 @@
+package com.pulsewire.dataplane.gateway;
+
+import com.pulsewire.core.instrument.InstrumentAttributes;
+import com.pulsewire.core.instrument.InstrumentRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SubscriptionIndexTest {
+
+    private InstrumentRegistry instrumentRegistry;
+    private InstrumentAttributes instrumentAttributes;
+    private SubscriptionIndex<String> index;
+
+    @BeforeEach
+    void setUp() {
+        instrumentRegistry = new InstrumentRegistry(16);
+        instrumentAttributes = new InstrumentAttributes(instrumentRegistry);
+        index = new SubscriptionIndex<>(instrumentRegistry, instrumentAttributes);
+        instrumentRegistry.registerAll(List.of("AAPL", "MSFT"));
+        index.addSession("s1");
+        index.addSession("s2");
+        index.addSession("s3");
+    }
+
+    private List<String> fanOut(String instrumentId) {
+        List<String> delivered = new ArrayList<>();
+        index.forEachSubscriber(instrumentRegistry.indexOf(instrumentId), (session, list) -> list.add(session), delivered);
+        return delivered;
+    }
+
+    @Nested
+    @DisplayName("Fan-out")
+    class FanOut {
+
+        @Test
+        @DisplayName("Should visit only sessions subscribed to the instrument")
+        void shouldVisitOnlyInterestedSessions() {
+            index.subscribe("s1", "AAPL");
+            index.subscribe("s2", "MSFT");
+
+            assertEquals(List.of("s1"), fanOut("AAPL"));
+            assertEquals(List.of("s2"), fanOut("MSFT"));
+            assertEquals(List.of(), fanOut("TSLA"));
+        }
+
+        @Test
+        @DisplayName("Should deliver once to sessions with both a wildcard and an instrument subscription")
+        void shouldDeliverWildcardOnce() {
+            index.subscribe("s1", "AAPL");
+            index.subscribe("s1", SubscriptionIndex.WILDCARD);
+            index.subscribe("s2", SubscriptionIndex.WILDCARD);
+
+            assertEquals(List.of("s1", "s2"), fanOut("AAPL"));
+            assertEquals(List.of("s1", "s2"), fanOut("unregistered"));
+            assertEquals(2, index.wildcardCount());
+        }
+    }
+
+    @Nested
+    @DisplayName("Maintenance")
+    class Maintenance {
+
+        @Test
+        @DisplayName("Should ignore duplicate subscriptions and unknown sessions")
+        void shouldIgnoreDuplicatesAndUnknownSessions() {
+            assertTrue(index.subscribe("s1", "AAPL"));
+            assertFalse(index.subscribe("s1", "AAPL"));
+            assertFalse(index.subscribe("nobody", "AAPL"));
+
+            assertEquals(1, index.subscriberCount(instrumentRegistry.indexOf("AAPL")));
+        }
+
+        @Test
+        @DisplayName("Should remove single subscriptions on unsubscribe")
+        void shouldUnsubscribe() {
+            index.subscribe("s1", "AAPL");
+            index.subscribe("s2", "AAPL");
+            index.subscribe("s3", SubscriptionIndex.WILDCARD);
+
+            assertTrue(index.unsubscribe("s1", "AAPL"));
+            assertFalse(index.unsubscribe("s1", "AAPL"));
+            assertTrue(index.unsubscribe("s3", SubscriptionIndex.WILDCARD));
+
+            assertEquals(List.of("s2"), fanOut("AAPL"));
+        }
+
+        @Test
+        @DisplayName("Should drop every subscription of a removed session")
+        void shouldRemoveSession() {
+            index.subscribe("s1", "AAPL");
+            index.subscribe("s1", "MSFT");
+            index.subscribe("s1", SubscriptionIndex.WILDCARD);
+
+            assertEquals(Set.of("AAPL", "MSFT", "*"), index.subscriptions("s1"));
+            index.removeSession("s1");
+
+            assertEquals(Set.of(), index.subscriptions("s1"));
+            assertEquals(List.of(), fanOut("AAPL"));
+            assertEquals(0, index.wildcardCount());
+            assertFalse(index.subscribe("s1", "AAPL"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Pending")
+    class Pending {
+
+        private final List<String> attached = new ArrayList<>();
+
+        @BeforeEach
+        void setUp() {
+            index = new SubscriptionIndex<>(instrumentRegistry, instrumentAttributes, 2,
+                    (session, instrumentId, instrumentIndex) -> attached.add(session + ":" + instrumentId + "=" + instrumentIndex));
+            index.addSession("s1");
+            index.addSession("s2");
+        }
+
+        @Test
+        @DisplayName("Should not register instruments clients subscribe to")
+        void shouldNotGrowRegistry() {
+            int size = instrumentRegistry.size();
+
+            assertTrue(index.subscribe("s1", "TSLA"));
+            assertTrue(index.subscribe("s1", "NVDA"));
+            assertFalse(index.subscribe("s1", "TSLA"));
+
+            assertEquals(size, instrumentRegistry.size());
+            assertEquals(InstrumentRegistry.UNASSIGNED, instrumentRegistry.indexOf("TSLA"));
+            assertEquals(2, index.pendingCount("s1"));
+            assertEquals(Set.of("TSLA", "NVDA"), index.subscriptions("s1"));
+        }
+
+        @Test
+        @DisplayName("Should attach pending subscriptions when the registry first sees the instrument")
+        void shouldAttachOnRegistration() {
+            index.subscribe("s1", "TSLA");
+            index.subscribe("s2", "TSLA");
+
+            int tsla = instrumentRegistry.register("TSLA");
+
+            assertEquals(List.of("s1", "s2"), fanOut("TSLA"));
+            assertEquals(List.of("s1:TSLA=" + tsla, "s2:TSLA=" + tsla), attached);
+            assertEquals(0, index.pendingCount("s1"));
+            assertEquals(Set.of("TSLA"), index.subscriptions("s1"));
+            assertTrue(index.unsubscribe("s1", "TSLA"));
+            assertEquals(List.of("s2"), fanOut("TSLA"));
+        }
+
+        @Test
+        @DisplayName("Should bound the instruments one session waits on")
+        void shouldBoundPendingPerSession() {
+            index.subscribe("s1", "TSLA");
+            index.subscribe("s1", "NVDA");
+
+            assertTrue(index.canWaitFor("s1", List.of("TSLA", "AAPL")));
+            assertFalse(index.canWaitFor("s1", List.of("AMD")));
+            assertThrows(IllegalStateException.class, () -> index.subscribe("s1", "AMD"));
+            assertTrue(index.subscribe("s1", "AAPL"));
+            assertTrue(index.subscribe("s2", "AMD"));
+
+            instrumentRegistry.register("TSLA");
+            assertTrue(index.subscribe("s1", "AMD"));
+        }
+
+        @Test
+        @DisplayName("Should forget pending subscriptions on unsubscribe and session removal")
+        void shouldForgetPending() {
+            index.subscribe("s1", "TSLA");
+            index.subscribe("s2", "TSLA");
+
+            assertTrue(index.unsubscribe("s1", "TSLA"));
+            assertFalse(index.unsubscribe("s1", "TSLA"));
+            index.removeSession("s2");
+            instrumentRegistry.register("TSLA");
+
+            assertEquals(List.of(), fanOut("TSLA"));
+            assertEquals(List.of(), attached);
+        }
+    }
+
+    @Nested
+    @DisplayName("Patterns")
+    class Patterns {
+
+        @Test
+        @DisplayName("Should match prefix and infix globs, including instruments registered later")
+        void shouldMatchGlobs() {
+            index.subscribe("s1", "BTC-*");
+            index.subscribe("s2", "*-USD");
+            index.subscribe("s3", "ETH-US?");
+            instrumentRegistry.register("BTC-USD");
+            instrumentRegistry.register("BTC-EUR");
+            instrumentRegistry.register("ETH-USD");
+
+            assertEquals(List.of("s1", "s2"), fanOut("BTC-USD"));
+            assertEquals(List.of("s1"), fanOut("BTC-EUR"));
+            assertEquals(List.of("s2", "s3"), fanOut("ETH-USD"));
+        }
+
+        @Test
+        @DisplayName("Should match attribute patterns and follow attribute changes")
+        void shouldMatchAttributes() {
+            index.subscribe("s1", "venue=XNAS");
+            index.subscribe("s2", "assetClass=EQUITY");
+            instrumentAttributes.put("AAPL", Map.of(InstrumentAttributes.VENUE, "XNAS",
+                    InstrumentAttributes.ASSET_CLASS, "EQUITY"));
+
+            assertEquals(Set.of("s1", "s2"), Set.copyOf(fanOut("AAPL")));
+
+            instrumentAttributes.put("AAPL", Map.of(InstrumentAttributes.VENUE, "XNYS"));
+            assertEquals(List.of(), fanOut("AAPL"));
+        }
+
+        @Test
+        @DisplayName("Should deliver once to sessions matched several ways")
+        void shouldDeliverOnce() {
+            index.subscribe("s1", "AAPL");
+            index.subscribe("s1", "AA*");
+            index.subscribe("s2", "A*");
+            index.subscribe("s2", "*L");
+            index.subscribe("s3", "AA*");
+            index.subscribe("s3", SubscriptionIndex.WILDCARD);
+
+            assertEquals(List.of("s3", "s1", "s2"), fanOut("AAPL"));
+        }
+
+        @Test
+        @DisplayName("Should re-resolve pattern matches only for the instrument subscribed to by id")
+        void shouldScopeInvalidationToInstrument() {
+            instrumentRegistry.registerAll(List.of("BTC-USD", "BTC-EUR"));
+            index.subscribe("s1", "BTC-*");
+            fanOut("BTC-USD");
+            fanOut("BTC-EUR");
+            long resolved = index.resolutionCount();
+
+            index.subscribe("s2", "MSFT");
+            index.unsubscribe("s2", "MSFT");
+            index.removeSession("s2");
+            fanOut("BTC-USD");
+            fanOut("BTC-EUR");
+            assertEquals(resolved, index.resolutionCount());
+
+            index.subscribe("s1", "BTC-USD");
+            assertEquals(List.of("s1"), fanOut("BTC-USD"));
+            assertEquals(List.of("s1"), fanOut("BTC-EUR"));
+            assertEquals(resolved + 1, index.resolutionCount());
+
+            index.subscribe("s3", "*-EUR");
+            fanOut("BTC-USD");
+            assertEquals(resolved + 2, index.resolutionCount());
+        }
+
+        @Test
+        @DisplayName("Should stop matching after unsubscribe and session removal")
+        void shouldUnsubscribePatterns() {
+            instrumentRegistry.register("BTC-USD");
+            index.subscribe("s1", "BTC-*");
+            index.subscribe("s2", "BTC-*");
+            assertEquals(List.of("s1", "s2"), fanOut("BTC-USD"));
+
+            assertTrue(index.unsubscribe("s1", "BTC-*"));
+            index.removeSession("s2");
+
+            assertEquals(List.of(), fanOut("BTC-USD"));
+            assertEquals(Set.of(), index.subscriptions("s1"));
+        }
+    }
+}
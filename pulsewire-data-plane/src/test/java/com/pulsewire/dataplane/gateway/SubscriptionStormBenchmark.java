@@ -0,0 +1,100 @@
+package com.pulsewire.dataplane.gateway;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pulsewire.core.backbone.BackboneConsumer;
+import com.pulsewire.core.instrument.InstrumentAttributes;
+import com.pulsewire.core.instrument.InstrumentRegistry;
+import com.pulsewire.core.time.VirtualPulseClock;
+import com.pulsewire.dataplane.cache.LastValueCache;
+import com.pulsewire.dataplane.metrics.LatencyMetrics;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Subscription storm through {@link WebSocketGateway}: sessions subscribing to and leaving
+ * {@value #SYMBOLS} symbols, one command per symbol against one bulk command, plus a prefix
+ * pattern. Not a unit test; run with
+ * {@code java -cp <test-classpath> com.pulsewire.dataplane.gateway.SubscriptionStormBenchmark}.
+ */
+public final class SubscriptionStormBenchmark {
+
+    private static final int SYMBOLS = 3_000;
+    private static final int SESSIONS = 20;
+    private static final int ROUNDS = 5;
+
+    private SubscriptionStormBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        InstrumentRegistry registry = new InstrumentRegistry(SYMBOLS * 2);
+        WebSocketGateway gateway = new WebSocketGateway(mock(BackboneConsumer.class), new ObjectMapper(),
+                new VirtualPulseClock(Instant.now()), new LatencyMetrics(registry), registry,
+                new InstrumentAttributes(registry), new LastValueCache(registry), OutboundQueueSettings.defaults());
+        List<WebSocketSession> sessions = new ArrayList<>();
+        for (int i = 0; i < SESSIONS; i++) {
+            WebSocketSession session = mock(WebSocketSession.class);
+            when(session.getId()).thenReturn("s" + i);
+            when(session.isOpen()).thenReturn(true);
+            gateway.afterConnectionEstablished(session);
+            sessions.add(session);
+        }
+
+        List<String> symbols = new ArrayList<>();
+        StringBuilder bulk = new StringBuilder("[");
+        for (int i = 0; i < SYMBOLS; i++) {
+            symbols.add("SYM" + i);
+            bulk.append(i == 0 ? "\"" : ",\"").append("SYM").append(i).append('"');
+        }
+        bulk.append(']');
+        TextMessage bulkSubscribe = new TextMessage("{\"action\":\"subscribe\",\"instrumentIds\":" + bulk + "}");
+        TextMessage bulkUnsubscribe = new TextMessage("{\"action\":\"unsubscribe\",\"instrumentIds\":" + bulk + "}");
+        TextMessage patternSubscribe = new TextMessage("{\"action\":\"subscribe\",\"instrumentId\":\"SYM*\"}");
+        TextMessage patternUnsubscribe = new TextMessage("{\"action\":\"unsubscribe\",\"instrumentId\":\"SYM*\"}");
+
+        System.out.printf("%d sessions x %d symbols%n", SESSIONS, SYMBOLS);
+        for (int round = 0; round < ROUNDS; round++) {
+            boolean measured = round == ROUNDS - 1;
+
+            long start = System.nanoTime();
+            for (WebSocketSession session : sessions) {
+                for (String symbol : symbols) {
+                    gateway.handleTextMessage(session,
+                            new TextMessage("{\"action\":\"subscribe\",\"instrumentId\":\"" + symbol + "\"}"));
+                }
+                for (String symbol : symbols) {
+                    gateway.handleTextMessage(session,
+                            new TextMessage("{\"action\":\"unsubscribe\",\"instrumentId\":\"" + symbol + "\"}"));
+                }
+            }
+            long singleNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (WebSocketSession session : sessions) {
+                gateway.handleTextMessage(session, bulkSubscribe);
+                gateway.handleTextMessage(session, bulkUnsubscribe);
+            }
+            long bulkNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (WebSocketSession session : sessions) {
+                gateway.handleTextMessage(session, patternSubscribe);
+                gateway.handleTextMessage(session, patternUnsubscribe);
+            }
+            long patternNanos = System.nanoTime() - start;
+
+            if (measured) {
+                System.out.printf("one command per symbol: %,8.2f ms/session%n", singleNanos / 1e6 / SESSIONS);
+                System.out.printf("bulk command:           %,8.2f ms/session%n", bulkNanos / 1e6 / SESSIONS);
+                System.out.printf("prefix pattern:         %,8.2f ms/session%n", patternNanos / 1e6 / SESSIONS);
+            }
+        }
+        gateway.stop();
+    }
+}
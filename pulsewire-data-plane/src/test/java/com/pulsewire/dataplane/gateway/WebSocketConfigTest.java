@@ -0,0 +1,40 @@
+package com.pulsewire.dataplane.gateway;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WebSocketConfigTest {
+
+    @Test
+    @DisplayName("Should hide permessage-deflate offers and keep other extensions")
+    void shouldHidePermessageDeflate() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Sec-WebSocket-Extensions", "permessage-deflate; client_max_window_bits, x-webkit-foo");
+        request.addHeader("Sec-WebSocket-Extensions", "PerMessage-Deflate");
+        request.addHeader("Sec-WebSocket-Protocol", "pulsewire.binary.v1");
+
+        WebSocketConfig.WithoutDeflate filtered = new WebSocketConfig.WithoutDeflate(request);
+
+        assertEquals("x-webkit-foo", filtered.getHeader("sec-websocket-extensions"));
+        assertEquals(List.of("x-webkit-foo"), Collections.list(filtered.getHeaders("Sec-WebSocket-Extensions")));
+        assertEquals("pulsewire.binary.v1", filtered.getHeader("Sec-WebSocket-Protocol"));
+    }
+
+    @Test
+    @DisplayName("Should drop the extensions header when deflate was the only offer")
+    void shouldDropEmptyHeader() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Sec-WebSocket-Extensions", "permessage-deflate");
+
+        WebSocketConfig.WithoutDeflate filtered = new WebSocketConfig.WithoutDeflate(request);
+
+        assertNull(filtered.getHeader("Sec-WebSocket-Extensions"));
+        assertFalse(filtered.getHeaders("Sec-WebSocket-Extensions").hasMoreElements());
+    }
+}
@@ -0,0 +1,604 @@
+package com.pulsewire.dataplane.gateway;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.pulsewire.core.backbone.BackboneConsumer;
+import com.pulsewire.core.codec.BinaryEventCodec;
+import com.pulsewire.core.instrument.InstrumentAttributes;
+import com.pulsewire.core.instrument.InstrumentRegistry;
+import com.pulsewire.core.model.MarketEvent;
+import com.pulsewire.core.model.MarketEvent.EventType;
+import com.pulsewire.core.model.MarketEventView;
+import com.pulsewire.core.model.Trade;
+import com.pulsewire.core.model.Quote;
+import com.pulsewire.core.time.VirtualPulseClock;
+import com.pulsewire.dataplane.cache.LastValueCache;
+import com.pulsewire.dataplane.metrics.LatencyMetrics;
+import com.pulsewire.dataplane.metrics.LatencySnapshot;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class WebSocketGatewayTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private BackboneConsumer consumer;
+    private InstrumentRegistry instrumentRegistry;
+    private InstrumentAttributes instrumentAttributes;
+    private LatencyMetrics latencyMetrics;
+    private LastValueCache lastValueCache;
+    private WebSocketGateway gateway;
+    private Consumer<MarketEvent> canonicalHandler;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        consumer = mock(BackboneConsumer.class);
+        instrumentRegistry = new InstrumentRegistry(16);
+        instrumentAttributes = new InstrumentAttributes(instrumentRegistry);
+        latencyMetrics = new LatencyMetrics(instrumentRegistry);
+        lastValueCache = spy(new LastValueCache(instrumentRegistry));
+        gateway = new WebSocketGateway(consumer, objectMapper, new VirtualPulseClock(Instant.now()),
+                latencyMetrics, instrumentRegistry, instrumentAttributes,
+                lastValueCache,
+                OutboundQueueSettings.defaults());
+        gateway.start();
+        ArgumentCaptor<Consumer<MarketEvent>> captor = ArgumentCaptor.forClass(Consumer.class);
+        verify(consumer).subscribe(eq("canonical.events"), captor.capture());
+        canonicalHandler = captor.getValue();
+    }
+
+    private WebSocketSession connect(String id, String... instrumentIds) throws Exception {
+        return connectWithProtocol(null, id, instrumentIds);
+    }
+
+    private WebSocketSession connectWithProtocol(String protocol, String id, String... instrumentIds) throws Exception {
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn(id);
+        when(session.getAcceptedProtocol()).thenReturn(protocol);
+        gateway.afterConnectionEstablished(session);
+        for (String instrumentId : instrumentIds) {
+            gateway.handleTextMessage(session,
+                    new TextMessage("{\"action\":\"subscribe\",\"instrumentId\":\"" + instrumentId + "\"}"));
+        }
+        clearInvocations(session);
+        return session;
+    }
+
+    private void send(WebSocketSession session, String json) throws Exception {
+        gateway.handleTextMessage(session, new TextMessage(json));
+    }
+
+    private MarketEvent trade(String instrumentId) {
+        return new MarketEvent("evt-1", instrumentId, EventType.TRADE, Instant.parse("2026-02-06T10:30:00Z"),
+                null, null, 1, new Trade(new BigDecimal("185.50"), BigDecimal.TEN, null))
+                .withInstrumentIndex(instrumentRegistry.register(instrumentId));
+    }
+
+    private MarketEvent quote(String instrumentId) {
+        return new MarketEvent("evt-2", instrumentId, EventType.QUOTE, Instant.parse("2026-02-06T10:30:01Z"),
+                null, null, 1, new Quote(new BigDecimal("185.40"), BigDecimal.ONE, new BigDecimal("185.60"), BigDecimal.ONE))
+                .withInstrumentIndex(instrumentRegistry.register(instrumentId));
+    }
+
+    /**
+     * JSON event frame: the event's JSON object with its sequence number appended.
+     */
+    private String json(MarketEvent event, long seq) throws Exception {
+        String json = objectMapper.writeValueAsString(event);
+        return json.substring(0, json.length() - 1) + ",\"seq\":" + seq + "}";
+    }
+
+    @AfterEach
+    void tearDown() {
+        gateway.stop();
+    }
+
+    /**
+     * Event messages are written by each session's writer thread, so wait for them.
+     */
+    private static List<WebSocketMessage<?>> sent(WebSocketSession session, int expected) throws Exception {
+        ArgumentCaptor<WebSocketMessage<?>> captor = ArgumentCaptor.forClass(WebSocketMessage.class);
+        verify(session, timeout(1000).times(expected)).sendMessage(captor.capture());
+        return new ArrayList<>(captor.getAllValues());
+    }
+
+    private void awaitSendCount(long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (gateway.getSendCount() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(expected, gateway.getSendCount());
+    }
+
+    @Nested
+    @DisplayName("Fan-out")
+    class FanOut {
+
+        @Test
+        @DisplayName("Should encode each event once and share the frame across recipients")
+        void shouldEncodeOnce() throws Exception {
+            WebSocketSession s1 = connect("s1", "AAPL");
+            WebSocketSession s2 = connect("s2", "*");
+            WebSocketSession s3 = connect("s3", "AAPL", "*");
+            WebSocketSession other = connect("s4", "MSFT");
+
+            canonicalHandler.accept(trade("AAPL"));
+
+            List<WebSocketMessage<?>> first = sent(s1, 1);
+            assertSame(first.get(0), sent(s2, 1).get(0));
+            assertSame(first.get(0), sent(s3, 1).get(0));
+            verify(other, after(100).never()).sendMessage(any());
+            assertEquals(1, gateway.getEncodeCount());
+            awaitSendCount(3);
+            assertEquals(json(trade("AAPL"), 1), first.get(0).getPayload());
+        }
+
+        @Test
+        @DisplayName("Should not encode events without subscribers")
+        void shouldNotEncodeUnwatchedEvents() throws Exception {
+            WebSocketSession session = connect("s1", "MSFT");
+
+            canonicalHandler.accept(trade("AAPL"));
+
+            verify(session, after(100).never()).sendMessage(any());
+            assertEquals(0, gateway.getEncodeCount());
+            assertEquals(0, gateway.getSendCount());
+        }
+    }
+
+    @Nested
+    @DisplayName("Sub-protocols")
+    class SubProtocols {
+
+        @Test
+        @DisplayName("Should send binary frames to sessions that negotiated the binary sub-protocol")
+        void shouldSendBinaryFrames() throws Exception {
+            WebSocketSession binary = connectWithProtocol(WebSocketGateway.BINARY_PROTOCOL, "s1", "AAPL");
+            WebSocketSession binary2 = connectWithProtocol(WebSocketGateway.BINARY_PROTOCOL, "s2", "AAPL");
+            WebSocketSession json = connectWithProtocol(WebSocketGateway.JSON_PROTOCOL, "s3", "AAPL");
+            MarketEvent event = trade("AAPL");
+
+            canonicalHandler.accept(event);
+
+            WebSocketMessage<?> frame = sent(binary, 1).get(0);
+            BinaryMessage binaryFrame = assertInstanceOf(BinaryMessage.class, frame);
+            assertSame(frame, sent(binary2, 1).get(0));
+            ByteBuffer payload = binaryFrame.getPayload().order(ByteOrder.LITTLE_ENDIAN);
+            assertEquals(1, payload.getLong(0));
+            byte[] bytes = payload.array();
+            assertEquals(event, new BinaryEventCodec().decode(Arrays.copyOfRange(bytes, OutboundFrame.SEQUENCE_SIZE, bytes.length)));
+            assertInstanceOf(TextMessage.class, sent(json, 1).get(0));
+            assertEquals(2, gateway.getEncodeCount());
+        }
+
+        @Test
+        @DisplayName("Should offer the binary and JSON sub-protocols")
+        void shouldOfferSubProtocols() {
+            assertEquals(List.of(WebSocketGateway.BINARY_PROTOCOL, WebSocketGateway.JSON_PROTOCOL),
+                    gateway.getSubProtocols());
+        }
+    }
+
+    @Nested
+    @DisplayName("Micro-batching")
+    class MicroBatching {
+
+        private static final String BATCHED_SUBSCRIBE =
+                "{\"action\":\"subscribe\",\"instrumentId\":\"AAPL\",\"batchMaxEvents\":3,\"batchMaxMicros\":50000}";
+
+        @Test
+        @DisplayName("Should send a batching session's events as one JSON array frame")
+        void shouldSendJsonArrays() throws Exception {
+            WebSocketSession session = connect("s1");
+            send(session, BATCHED_SUBSCRIBE);
+            clearInvocations(session);
+
+            for (int i = 0; i < 3; i++) {
+                canonicalHandler.accept(trade("AAPL"));
+            }
+
+            String payload = (String) sent(session, 1).get(0).getPayload();
+            MarketEvent event = trade("AAPL");
+            assertEquals("[" + json(event, 1) + "," + json(event, 2) + "," + json(event, 3) + "]", payload);
+            awaitSendCount(3);
+            assertEquals(1, gateway.getFrameCount());
+        }
+
+        @Test
+        @DisplayName("Should concatenate binary events in one binary frame")
+        void shouldConcatenateBinaryEvents() throws Exception {
+            WebSocketSession session = connectWithProtocol(WebSocketGateway.BINARY_PROTOCOL, "s1");
+            send(session, BATCHED_SUBSCRIBE);
+            clearInvocations(session);
+            MarketEvent event = trade("AAPL");
+
+            for (int i = 0; i < 3; i++) {
+                canonicalHandler.accept(event);
+            }
+
+            ByteBuffer payload = assertInstanceOf(BinaryMessage.class, sent(session, 1).get(0)).getPayload();
+            BinaryEventCodec codec = new BinaryEventCodec();
+            MarketEventView view = new MarketEventView();
+            int offset = 0;
+            for (int i = 0; i < 3; i++) {
+                assertEquals(i + 1, payload.order(ByteOrder.LITTLE_ENDIAN).getLong(offset));
+                offset += OutboundFrame.SEQUENCE_SIZE;
+                int length = view.wrap(payload, offset).length();
+                assertEquals(event, codec.decode(Arrays.copyOfRange(payload.array(), offset, offset + length)));
+                offset += length;
+            }
+            assertEquals(payload.limit(), offset);
+        }
+    }
+
+    @Nested
+    @DisplayName("Filtering and projection")
+    class Filtering {
+
+        private void subscribe(WebSocketSession session, String instrumentId, String options) throws Exception {
+            send(session, "{\"action\":\"subscribe\",\"instrumentId\":\"" + instrumentId + "\"," + options + "}");
+            verify(session, timeout(1000).atLeastOnce()).sendMessage(any());
+            clearInvocations(session);
+        }
+
+        @Test
+        @DisplayName("Should not encode event types no subscriber asked for")
+        void shouldFilterEventTypes() throws Exception {
+            WebSocketSession session = connect("s1");
+            subscribe(session, "AAPL", "\"eventTypes\":\"QUOTE\"");
+
+            canonicalHandler.accept(trade("AAPL"));
+            canonicalHandler.accept(quote("AAPL"));
+
+            assertEquals(json(quote("AAPL"), 2), sent(session, 1).get(0).getPayload());
+            verify(session, after(100).times(1)).sendMessage(any());
+            assertEquals(1, gateway.getEncodeCount());
+        }
+
+        @Test
+        @DisplayName("Should send projected fields, encoded once per projection")
+        void shouldProjectFields() throws Exception {
+            WebSocketSession s1 = connect("s1");
+            WebSocketSession s2 = connect("s2");
+            WebSocketSession full = connect("s3", "AAPL");
+            subscribe(s1, "AAPL", "\"fields\":[\"bidPrice\",\"askPrice\"]");
+            subscribe(s2, "AAPL", "\"fields\":[\"askPrice\",\"bidPrice\"]");
+
+            canonicalHandler.accept(quote("AAPL"));
+
+            WebSocketMessage<?> projected = sent(s1, 1).get(0);
+            assertEquals("{\"instrumentId\":\"AAPL\",\"eventType\":\"QUOTE\",\"payload\":{\"bidPrice\":185.40,"
+                    + "\"askPrice\":185.60},\"seq\":1}", projected.getPayload());
+            assertSame(projected, sent(s2, 1).get(0));
+            assertEquals(json(quote("AAPL"), 1), sent(full, 1).get(0).getPayload());
+            assertEquals(2, gateway.getEncodeCount());
+        }
+
+        @Test
+        @DisplayName("Should apply an instrument subscription's filter over the wildcard one")
+        void shouldPreferInstrumentFilter() throws Exception {
+            WebSocketSession session = connect("s1");
+            subscribe(session, "*", "\"eventTypes\":\"TRADE\"");
+            subscribe(session, "AAPL", "\"eventTypes\":\"QUOTE\"");
+
+            canonicalHandler.accept(trade("AAPL"));
+            canonicalHandler.accept(quote("AAPL"));
+            canonicalHandler.accept(quote("MSFT"));
+            canonicalHandler.accept(trade("MSFT"));
+
+            List<WebSocketMessage<?>> messages = sent(session, 2);
+            assertEquals(json(quote("AAPL"), 2), messages.get(0).getPayload());
+            assertEquals(json(trade("MSFT"), 2), messages.get(1).getPayload());
+        }
+
+        @Test
+        @DisplayName("Should reject subscriptions with unknown event types")
+        void shouldRejectUnknownEventTypes() throws Exception {
+            WebSocketSession session = connect("s1");
+            send(session, "{\"action\":\"subscribe\",\"instrumentId\":\"AAPL\",\"eventTypes\":\"TICK\"}");
+
+            canonicalHandler.accept(trade("AAPL"));
+
+            verify(session, after(100).never()).sendMessage(any());
+        }
+    }
+
+    @Nested
+    @DisplayName("Bulk and pattern subscriptions")
+    class Bulk {
+
+        @Test
+        @DisplayName("Should answer a bulk subscribe with one reply and deliver every instrument")
+        void shouldSubscribeInBulk() throws Exception {
+            WebSocketSession session = connect("s1");
+            send(session, "{\"action\":\"subscribe\",\"instrumentIds\":[\"AAPL\",\"MSFT\",\"TSLA\"]}");
+
+            assertEquals("{\"status\":\"subscribed\",\"count\":3}", sent(session, 1).get(0).getPayload());
+            clearInvocations(session);
+
+            canonicalHandler.accept(trade("MSFT"));
+            canonicalHandler.accept(trade("TSLA"));
+            canonicalHandler.accept(trade("GOOG"));
+
+            List<WebSocketMessage<?>> messages = sent(session, 2);
+            assertEquals(json(trade("MSFT"), 1), messages.get(0).getPayload());
+            assertEquals(json(trade("TSLA"), 1), messages.get(1).getPayload());
+        }
+
+        @Test
+        @DisplayName("Should stop delivery after a bulk unsubscribe")
+        void shouldUnsubscribeInBulk() throws Exception {
+            WebSocketSession session = connect("s1", "AAPL", "MSFT", "TSLA");
+            send(session, "{\"action\":\"unsubscribe\",\"instrumentIds\":[\"AAPL\",\"MSFT\"]}");
+
+            assertEquals("{\"status\":\"unsubscribed\",\"count\":2}", sent(session, 1).get(0).getPayload());
+            clearInvocations(session);
+
+            canonicalHandler.accept(trade("AAPL"));
+            canonicalHandler.accept(trade("TSLA"));
+
+            assertEquals(json(trade("TSLA"), 1), sent(session, 1).get(0).getPayload());
+            verify(session, after(100).times(1)).sendMessage(any());
+        }
+
+        @Test
+        @DisplayName("Should deliver to pattern subscriptions with the pattern's filter and no snapshot")
+        void shouldSubscribeToPatterns() throws Exception {
+            canonicalHandler.accept(trade("BTC-USD"));
+            WebSocketSession session = connect("s1");
+            send(session, "{\"action\":\"subscribe\",\"instrumentIds\":[\"BTC-*\",\"venue=XNAS\"],"
+                    + "\"eventTypes\":\"TRADE\"}");
+            sent(session, 1);
+            clearInvocations(session);
+            instrumentAttributes.put("AAPL", Map.of(InstrumentAttributes.VENUE, "XNAS"));
+
+            canonicalHandler.accept(quote("BTC-USD"));
+            canonicalHandler.accept(trade("ETH-USD"));
+            canonicalHandler.accept(trade("AAPL"));
+
+            assertEquals(json(trade("AAPL"), 1), sent(session, 1).get(0).getPayload());
+            verify(session, after(100).times(1)).sendMessage(any());
+        }
+
+        @Test
+        @DisplayName("Should not register subscribed ids, and attach them with their filter once they appear")
+        void shouldWaitForUnknownInstruments() throws Exception {
+            WebSocketSession session = connect("s1");
+            send(session, "{\"action\":\"subscribe\",\"instrumentIds\":[\"NEW\",\"NONE\"],\"eventTypes\":\"TRADE\"}");
+            sent(session, 1);
+            clearInvocations(session);
+
+            assertEquals(0, instrumentRegistry.size());
+
+            canonicalHandler.accept(quote("NEW"));
+            canonicalHandler.accept(trade("NEW"));
+
+            assertEquals(json(trade("NEW"), 2), sent(session, 1).get(0).getPayload());
+            verify(session, after(100).times(1)).sendMessage(any());
+        }
+
+        @Test
+        @DisplayName("Should reject a bulk subscribe that would wait on too many unknown instruments")
+        void shouldBoundUnknownInstruments() throws Exception {
+            WebSocketSession session = connect("s1");
+            StringBuilder ids = new StringBuilder();
+            for (int i = 0; i <= SubscriptionIndex.DEFAULT_MAX_PENDING_PER_SESSION; i++) {
+                ids.append(i == 0 ? "" : ",").append("\"SYM").append(i).append('"');
+            }
+            send(session, "{\"action\":\"subscribe\",\"instrumentIds\":[" + ids + "]}");
+
+            verify(session, after(100).never()).sendMessage(any());
+            assertEquals(0, instrumentRegistry.size());
+            canonicalHandler.accept(trade("SYM1"));
+            verify(session, after(100).never()).sendMessage(any());
+        }
+
+        @Test
+        @DisplayName("Should reject a bulk subscribe with a malformed pattern without subscribing to any of it")
+        void shouldRejectMalformedPattern() throws Exception {
+            WebSocketSession session = connect("s1");
+            send(session, "{\"action\":\"subscribe\",\"instrumentIds\":[\"AAPL\",\"venue=\"]}");
+
+            canonicalHandler.accept(trade("AAPL"));
+
+            verify(session, after(100).never()).sendMessage(any());
+        }
+    }
+
+    @Nested
+    @DisplayName("Snapshots")
+    class Snapshots {
+
+        @Test
+        @DisplayName("Should send the latest trade and quote right after the subscription reply")
+        void shouldSendSnapshotOnSubscribe() throws Exception {
+            canonicalHandler.accept(trade("AAPL"));
+            canonicalHandler.accept(quote("AAPL"));
+            canonicalHandler.accept(trade("AAPL"));
+            WebSocketSession session = connect("s1");
+
+            send(session, "{\"action\":\"subscribe\",\"instrumentId\":\"AAPL\"}");
+
+            List<WebSocketMessage<?>> messages = sent(session, 3);
+            assertEquals("{\"status\":\"subscribed\",\"instrumentId\":\"AAPL\"}", messages.get(0).getPayload());
+            assertEquals(json(quote("AAPL"), 2), messages.get(1).getPayload());
+            assertEquals(json(trade("AAPL"), 3), messages.get(2).getPayload());
+        }
+
+        @Test
+        @DisplayName("Should continue the live stream with the next sequence number")
+        void shouldContinueSequenceAfterSnapshot() throws Exception {
+            canonicalHandler.accept(trade("AAPL"));
+            WebSocketSession session = connect("s1");
+            send(session, "{\"action\":\"subscribe\",\"instrumentId\":\"AAPL\"}");
+
+            canonicalHandler.accept(trade("AAPL"));
+
+            List<WebSocketMessage<?>> messages = sent(session, 3);
+            assertEquals(json(trade("AAPL"), 1), messages.get(1).getPayload());
+            assertEquals(json(trade("AAPL"), 2), messages.get(2).getPayload());
+        }
+
+        @Test
+        @DisplayName("Should queue a live event racing with the subscription behind the snapshot")
+        void shouldQueueRacingEventBehindSnapshot() throws Exception {
+            canonicalHandler.accept(quote("AAPL"));
+            canonicalHandler.accept(trade("AAPL"));
+            WebSocketSession session = connect("s1");
+            Thread[] live = new Thread[1];
+            doAnswer(invocation -> {
+                // The session is subscribed by now: publish while the snapshot is being taken
+                live[0] = new Thread(() -> canonicalHandler.accept(trade("AAPL")));
+                live[0].start();
+                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+                while (live[0].getState() != Thread.State.WAITING && live[0].getState() != Thread.State.TERMINATED
+                        && System.nanoTime() < deadline) {
+                    Thread.onSpinWait();
+                }
+                return invocation.callRealMethod();
+            }).when(lastValueCache).snapshot(anyInt(), any());
+
+            send(session, "{\"action\":\"subscribe\",\"instrumentId\":\"AAPL\"}");
+            live[0].join(1000);
+
+            List<WebSocketMessage<?>> messages = sent(session, 4);
+            assertEquals("{\"status\":\"subscribed\",\"instrumentId\":\"AAPL\"}", messages.get(0).getPayload());
+            // Cached before it was fanned out, so the racing trade is in the snapshot and again behind it
+            assertEquals(json(quote("AAPL"), 1), messages.get(1).getPayload());
+            assertEquals(json(trade("AAPL"), 3), messages.get(2).getPayload());
+            assertEquals(json(trade("AAPL"), 3), messages.get(3).getPayload());
+        }
+
+        @Test
+        @DisplayName("Should not send snapshots for wildcard or unknown instruments")
+        void shouldSkipWildcardAndUnknown() throws Exception {
+            canonicalHandler.accept(trade("AAPL"));
+            WebSocketSession session = connect("s1");
+
+            send(session, "{\"action\":\"subscribe\",\"instrumentId\":\"*\"}");
+            send(session, "{\"action\":\"subscribe\",\"instrumentId\":\"NEW\"}");
+
+            verify(session, after(100).times(2)).sendMessage(any());
+        }
+    }
+
+    @Nested
+    @DisplayName("Slow sessions")
+    class SlowSessions {
+
+        @Test
+        @DisplayName("Should keep delivering to other sessions while more writers are blocked than there are carrier threads")
+        void shouldNotPinCarriers() throws Exception {
+            int blockedCount = Runtime.getRuntime().availableProcessors() + 2;
+            CountDownLatch writesStarted = new CountDownLatch(blockedCount);
+            CountDownLatch release = new CountDownLatch(1);
+            for (int i = 0; i < blockedCount; i++) {
+                WebSocketSession blocked = connect("blocked-" + i, "AAPL");
+                doAnswer(invocation -> {
+                    writesStarted.countDown();
+                    release.await(5, TimeUnit.SECONDS);
+                    return null;
+                }).when(blocked).sendMessage(any());
+            }
+            WebSocketSession healthy = connect("healthy", "AAPL");
+
+            try {
+                canonicalHandler.accept(trade("AAPL"));
+                assertTrue(writesStarted.await(1, TimeUnit.SECONDS));
+                canonicalHandler.accept(trade("AAPL"));
+
+                sent(healthy, 2);
+                send(healthy, "{\"action\":\"subscribe\",\"instrumentId\":\"MSFT\"}");
+                sent(healthy, 3);
+            } finally {
+                release.countDown();
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Latency")
+    class Latency {
+
+        @Test
+        @DisplayName("Should not keep a latency recorder per session that ever connected")
+        void shouldNotLeakWriterRecorders() throws Exception {
+            int sessions = 50;
+            for (int i = 0; i < sessions; i++) {
+                WebSocketSession session = connect("s" + i, SubscriptionIndex.WILDCARD);
+                canonicalHandler.accept(trade("AAPL").withPublishTimestamp(1, 1));
+                sent(session, 1);
+                gateway.afterConnectionClosed(session, CloseStatus.NORMAL);
+            }
+
+            awaitLatencyCount(sessions);
+            assertEquals(0, latencyMetrics.writerCount());
+        }
+
+        private void awaitLatencyCount(long expected) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+            while (latencyCount() < expected && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            assertEquals(expected, latencyCount());
+        }
+
+        private long latencyCount() {
+            return latencyMetrics.snapshot().stream().mapToLong(LatencySnapshot::count).sum();
+        }
+    }
+
+    @Nested
+    @DisplayName("Conflated subscriptions")
+    class Conflated {
+
+        @Test
+        @DisplayName("Should deliver bursts on a conflateMs subscription as one latest update per interval")
+        void shouldConflateBursts() throws Exception {
+            WebSocketSession conflated = connect("s1");
+            send(conflated, "{\"action\":\"subscribe\",\"instrumentId\":\"AAPL\",\"conflateMs\":50}");
+            WebSocketSession tickByTick = connect("s2", "AAPL");
+            clearInvocations(conflated);
+
+            for (int i = 0; i < 20; i++) {
+                canonicalHandler.accept(trade("AAPL"));
+            }
+
+            sent(tickByTick, 20);
+            // One update per elapsed interval, however many ticks arrived in it
+            verify(conflated, after(150).atMost(3)).sendMessage(any());
+            verify(conflated, atLeastOnce()).sendMessage(any());
+            assertEquals(20, gateway.getEncodeCount());
+        }
+    }
+}
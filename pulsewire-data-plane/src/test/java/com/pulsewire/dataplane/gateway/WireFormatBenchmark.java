@@ -0,0 +1,123 @@
+package com.pulsewire.dataplane.gateway;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.pulsewire.core.codec.BinaryEventCodec;
+import com.pulsewire.core.id.SnowflakeEventIdGenerator;
+import com.pulsewire.core.model.FixedTrade;
+import com.pulsewire.core.model.MarketEvent;
+import com.pulsewire.core.model.MarketEvent.EventType;
+import com.pulsewire.core.time.PulseClock;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Random;
+import java.util.zip.Deflater;
+
+/**
+ * Micro-benchmark of the gateway wire formats: JSON text, binary, and binary with
+ * permessage-deflate (one deflate context per connection, sync-flushed per message as RFC 7692
+ * does with context takeover). Reports bytes and CPU time per event, and what that means at
+ * 100k events/sec. Not a unit test; run from the IDE or with
+ * {@code java -cp <test-classpath> com.pulsewire.dataplane.gateway.WireFormatBenchmark}.
+ */
+public final class WireFormatBenchmark {
+
+    private static final int RATE = 100_000;
+    private static final int EVENTS = 20_000;
+    private static final int WARMUP_ROUNDS = 10;
+    private static final int MEASURED_ROUNDS = 10;
+    private static final String[] SYMBOLS = {"AAPL", "GOOG", "MSFT", "AMZN", "TSLA", "NVDA", "META", "NFLX"};
+
+    private static long sink;
+
+    private WireFormatBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        ObjectMapper mapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        BinaryEventCodec codec = new BinaryEventCodec();
+        MarketEvent[] events = events();
+
+        Deflater binaryDeflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        Deflater jsonDeflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        byte[] deflateBuffer = new byte[4096];
+
+        System.out.printf("%d events/round, %d rounds, projected at %,d events/sec%n", EVENTS, MEASURED_ROUNDS, RATE);
+        System.out.printf("%-16s %10s %14s %12s %12s%n", "format", "bytes/evt", "bytes/sec", "cpu ns/evt", "cpu cores");
+        run("json", events, event -> mapper.writeValueAsBytes(event).length);
+        run("json+deflate", events, event -> deflate(jsonDeflater, mapper.writeValueAsBytes(event), deflateBuffer));
+        run("binary", events, event -> codec.encode(event).length);
+        run("binary+deflate", events, event -> deflate(binaryDeflater, codec.encode(event), deflateBuffer));
+        System.out.println("sink=" + sink);
+    }
+
+    private static MarketEvent[] events() {
+        Random random = new Random(42);
+        SnowflakeEventIdGenerator ids = new SnowflakeEventIdGenerator(1);
+        long[] prices = new long[SYMBOLS.length];
+        for (int i = 0; i < prices.length; i++) {
+            prices[i] = 10_000 + random.nextInt(40_000);
+        }
+        MarketEvent[] events = new MarketEvent[EVENTS];
+        long now = PulseClock.system().epochNanos();
+        for (int i = 0; i < EVENTS; i++) {
+            int symbol = random.nextInt(SYMBOLS.length);
+            prices[symbol] += random.nextInt(21) - 10;
+            long exchange = now + i * 10_000L;
+            events[i] = new MarketEvent(null, SYMBOLS[symbol], EventType.TRADE, exchange, exchange + 15_000,
+                    exchange + 40_000, 1, new FixedTrade(prices[symbol], 1 + random.nextInt(500), 2, 0, null),
+                    ids.nextId(), symbol);
+        }
+        return events;
+    }
+
+    private static void run(String name, MarketEvent[] events, Encoder encoder) throws Exception {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            encodeAll(events, encoder);
+        }
+        long bytes = 0;
+        long cpuStart = threads.getCurrentThreadCpuTime();
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            bytes += encodeAll(events, encoder);
+        }
+        long cpuNanos = threads.getCurrentThreadCpuTime() - cpuStart;
+        long count = (long) EVENTS * MEASURED_ROUNDS;
+        double bytesPerEvent = (double) bytes / count;
+        double cpuPerEvent = (double) cpuNanos / count;
+        System.out.printf("%-16s %10.1f %14s %12.0f %12.3f%n", name, bytesPerEvent,
+                String.format("%,.0f", bytesPerEvent * RATE), cpuPerEvent, cpuPerEvent * RATE / 1e9);
+    }
+
+    private static long encodeAll(MarketEvent[] events, Encoder encoder) throws Exception {
+        long bytes = 0;
+        for (MarketEvent event : events) {
+            bytes += encoder.encode(event);
+        }
+        sink += bytes;
+        return bytes;
+    }
+
+    /**
+     * Compress one message the way permessage-deflate does: sync flush, trailing 00 00 FF FF dropped.
+     */
+    private static int deflate(Deflater deflater, byte[] message, byte[] buffer) {
+        deflater.setInput(message);
+        int length = 0;
+        int written;
+        do {
+            written = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+            length += written;
+        } while (written == buffer.length);
+        return length - 4;
+    }
+
+    @FunctionalInterface
+    private interface Encoder {
+        int encode(MarketEvent event) throws Exception;
+    }
+}
@@ -0,0 +1,87 @@
+package com.pulsewire.dataplane.metrics;
+
+import com.pulsewire.core.backbone.InMemoryBackbone;
+import com.pulsewire.core.model.MarketEvent;
+import com.pulsewire.core.model.MarketEvent.EventType;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BackboneMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final CountDownLatch handling = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private InMemoryBackbone backbone;
+
+    @BeforeEach
+    void setUp() {
+        backbone = new InMemoryBackbone(2, 16);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        backbone.close();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void bind(InMemoryBackbone inMemory) {
+        ObjectProvider<InMemoryBackbone> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(inMemory);
+        new BackboneMetrics(provider).bindTo(registry);
+    }
+
+    private static MarketEvent event() {
+        return new MarketEvent(null, "AAPL", EventType.TRADE, 0L, MarketEvent.NO_TIMESTAMP, MarketEvent.NO_TIMESTAMP,
+                1, null, 1L, 0);
+    }
+
+    @Test
+    @DisplayName("Should expose the queue depth of each partition of each topic")
+    void shouldExposePartitionDepths() throws InterruptedException {
+        backbone.subscribe("canonical.events", event -> {
+            handling.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        bind(backbone);
+        backbone.subscribe("raw.events", event -> { });
+
+        backbone.publish("canonical.events", "AAPL", event());
+        assertTrue(handling.await(1, TimeUnit.SECONDS));
+        for (int i = 0; i < 4; i++) {
+            backbone.publish("canonical.events", "AAPL", event());
+        }
+
+        assertEquals(4, registry.get("pulsewire.backbone.partition.depth").tag("topic", "canonical.events")
+                .gauges().stream().mapToDouble(Gauge::value).sum());
+        assertEquals(2, registry.get("pulsewire.backbone.partition.depth").tag("topic", "raw.events").gauges().size());
+        assertEquals(0, registry.get("pulsewire.backbone.partition.depth").tags("topic", "raw.events", "partition", "1")
+                .gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should bind nothing without partitioned dispatch")
+    void shouldSkipSynchronousBackbone() {
+        InMemoryBackbone synchronous = new InMemoryBackbone();
+        synchronous.subscribe("canonical.events", event -> { });
+        bind(synchronous);
+        bind(null);
+
+        assertTrue(registry.find("pulsewire.backbone.partition.depth").gauges().isEmpty());
+    }
+}
@@ -0,0 +1,202 @@
+package com.pulsewire.dataplane.metrics;
+
+import com.pulsewire.core.instrument.InstrumentRegistry;
+import com.pulsewire.core.model.MarketEvent;
+import com.pulsewire.core.model.MarketEvent.EventType;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyMetricsTest {
+
+    private InstrumentRegistry instrumentRegistry;
+    private LatencyMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        instrumentRegistry = new InstrumentRegistry(16);
+        metrics = new LatencyMetrics(instrumentRegistry);
+    }
+
+    private MarketEvent event(String instrumentId, EventType eventType) {
+        return new MarketEvent(null, instrumentId, eventType, 0L, MarketEvent.NO_TIMESTAMP, MarketEvent.NO_TIMESTAMP,
+                1, null, 1L, instrumentRegistry.register(instrumentId));
+    }
+
+    @Nested
+    @DisplayName("Recording")
+    class Recording {
+
+        @Test
+        @DisplayName("Should report percentiles per stage, event type and feed")
+        void shouldReportPercentilesPerCell() {
+            metrics.bindFeed("synthetic", new int[]{instrumentRegistry.register("AAPL")});
+            MarketEvent trade = event("AAPL", EventType.TRADE);
+            for (int i = 1; i <= 1000; i++) {
+                metrics.record(LatencyStage.RECEIVE_TO_PUBLISH, trade, 0, i * 1_000L);
+            }
+            metrics.record(LatencyStage.RECEIVE_TO_PUBLISH, event("MSFT", EventType.QUOTE), 0, 5_000);
+
+            List<LatencySnapshot> snapshots = metrics.snapshot();
+
+            assertEquals(2, snapshots.size());
+            LatencySnapshot synthetic = find(snapshots, "TRADE", "synthetic");
+            assertEquals("receive_to_publish", synthetic.stage());
+            assertEquals(1000, synthetic.count());
+            assertEquals(500_000, synthetic.p50Nanos(), 5_000);
+            assertEquals(990_000, synthetic.p99Nanos(), 10_000);
+            assertEquals(1_000_000, synthetic.maxNanos(), 10_000);
+            assertEquals(1, find(snapshots, "QUOTE", LatencyMetrics.UNKNOWN_FEED).count());
+        }
+
+        @Test
+        @DisplayName("Should skip unset timestamps and clamp negative latencies")
+        void shouldSkipUnsetTimestampsAndClampNegatives() {
+            MarketEvent trade = event("AAPL", EventType.TRADE);
+            metrics.record(LatencyStage.EXCHANGE_TO_RECEIVE, trade, MarketEvent.NO_TIMESTAMP, 10);
+            metrics.record(LatencyStage.EXCHANGE_TO_RECEIVE, trade, 10, 5);
+
+            LatencySnapshot snapshot = metrics.snapshot().get(0);
+            assertEquals(1, snapshot.count());
+            assertEquals(0, snapshot.maxNanos());
+        }
+
+        @Test
+        @DisplayName("Should merge recordings from several threads")
+        void shouldMergeThreads() throws InterruptedException {
+            MarketEvent trade = event("AAPL", EventType.TRADE);
+            Thread[] threads = new Thread[4];
+            for (int t = 0; t < threads.length; t++) {
+                threads[t] = new Thread(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        metrics.record(LatencyStage.PUBLISH_TO_WRITE, trade, 0, 100);
+                    }
+                });
+                threads[t].start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+
+            assertEquals(40_000, metrics.snapshot().get(0).count());
+        }
+
+        @Test
+        @DisplayName("Should keep one recorder per cell for shared-writer stages however many threads record")
+        void shouldShareWriterAcrossThreads() throws InterruptedException {
+            MarketEvent trade = event("AAPL", EventType.TRADE);
+            for (int t = 0; t < 8; t++) {
+                Thread thread = new Thread(() -> {
+                    metrics.record(LatencyStage.PUBLISH_TO_WRITE, trade, 0, 100);
+                    metrics.record(LatencyStage.RECEIVE_TO_PUBLISH, trade, 0, 100);
+                });
+                thread.start();
+                thread.join();
+            }
+
+            assertEquals(8, metrics.writerCount());
+            assertEquals(8, find(metrics.snapshot(), "TRADE", LatencyMetrics.UNKNOWN_FEED).count());
+            assertEquals(2, metrics.snapshot().size());
+        }
+
+        @Test
+        @DisplayName("Should drop the recorders of threads that have died, keeping their recordings")
+        void shouldPruneDeadWriters() throws InterruptedException {
+            MarketEvent trade = event("AAPL", EventType.TRADE);
+            for (int t = 0; t < 8; t++) {
+                Thread thread = new Thread(() -> metrics.record(LatencyStage.RECEIVE_TO_PUBLISH, trade, 0, 100));
+                thread.start();
+                thread.join();
+            }
+            metrics.record(LatencyStage.RECEIVE_TO_PUBLISH, trade, 0, 100);
+            assertEquals(9, metrics.writerCount());
+
+            assertEquals(9, metrics.snapshot().get(0).count());
+            assertEquals(1, metrics.writerCount());
+            metrics.record(LatencyStage.RECEIVE_TO_PUBLISH, trade, 0, 100);
+            assertEquals(10, metrics.snapshot().get(0).count());
+        }
+    }
+
+    @Nested
+    @DisplayName("Micrometer")
+    class Micrometer {
+
+        @Test
+        @DisplayName("Should expose cells as timers with percentile gauges")
+        void shouldExposeTimers() {
+            SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            MarketEvent trade = event("AAPL", EventType.TRADE);
+            metrics.record(LatencyStage.PUBLISH_TO_WRITE, trade, 0, 2_000);
+            metrics.bindTo(registry);
+            metrics.record(LatencyStage.EXCHANGE_TO_RECEIVE, trade, 0, 3_000);
+
+            FunctionTimer timer = registry.get("pulsewire.latency").tag("stage", "publish_to_write").functionTimer();
+            assertEquals(1, timer.count());
+            assertEquals(2_000, timer.totalTime(TimeUnit.NANOSECONDS), 20);
+            assertEquals(1, registry.get("pulsewire.latency").tag("stage", "exchange_to_receive").functionTimer().count());
+            assertEquals(3, registry.get("pulsewire.latency.percentile")
+                    .tags("stage", "exchange_to_receive", "phi", "0.99").timeGauge().value(TimeUnit.MICROSECONDS), 0.05);
+        }
+    }
+
+    @Nested
+    @DisplayName("Windows")
+    class Windows {
+
+        private final AtomicLong now = new AtomicLong();
+        private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        @BeforeEach
+        void setUp() {
+            metrics = new LatencyMetrics(instrumentRegistry, 1_000, now::get);
+            metrics.bindTo(registry);
+        }
+
+        private double max() {
+            return registry.get("pulsewire.latency.max").timeGauge().value(TimeUnit.NANOSECONDS);
+        }
+
+        private double p50() {
+            return registry.get("pulsewire.latency.percentile").tag("phi", "0.5").timeGauge().value(TimeUnit.NANOSECONDS);
+        }
+
+        @Test
+        @DisplayName("Should report gauges over the last windows while timers and snapshots stay cumulative")
+        void shouldSlideGaugeWindows() {
+            MarketEvent trade = event("AAPL", EventType.TRADE);
+            metrics.record(LatencyStage.RECEIVE_TO_PUBLISH, trade, 0, 50_000);
+            assertEquals(50_000, max(), 500);
+
+            now.addAndGet(1_000);
+            metrics.record(LatencyStage.RECEIVE_TO_PUBLISH, trade, 0, 2_000);
+            assertEquals(50_000, max(), 500);
+
+            now.addAndGet(1_000);
+            metrics.record(LatencyStage.RECEIVE_TO_PUBLISH, trade, 0, 2_000);
+            assertEquals(2_000, max(), 20);
+            assertEquals(2_000, p50(), 20);
+
+            now.addAndGet(5_000);
+            assertEquals(0, max());
+            assertEquals(3, registry.get("pulsewire.latency").functionTimer().count());
+            assertEquals(50_000, metrics.snapshot().get(0).maxNanos(), 500);
+        }
+    }
+
+    private static LatencySnapshot find(List<LatencySnapshot> snapshots, String eventType, String feed) {
+        return snapshots.stream()
+                .filter(s -> s.eventType().equals(eventType) && s.feed().equals(feed))
+                .findFirst()
+                .orElseThrow();
+    }
+}